@@ -0,0 +1,139 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.client;
+
+/**
+ * Keeps the last log entries, up to a fixed capacity
+ * <p>
+ * Entries are stored in a ring: adding one is constant time, and
+ * overwrites the oldest entry once the buffer is full.
+ */
+public class LogBuffer {
+
+    /**
+     * Severity of a log entry
+     */
+    public enum Severity {
+        INFO,
+        IMPORTANT,
+        CRITICAL
+    }
+
+    /**
+     * A log message, and its position among all the entries added to the buffer
+     */
+    public static class Entry {
+
+        private final String message;
+
+        private final Severity severity;
+
+        private final long sequence;
+
+        private Entry(String message, Severity severity, long sequence) {
+            this.message = message;
+            this.severity = severity;
+            this.sequence = sequence;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public Severity getSeverity() {
+            return severity;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+    }
+
+    /**
+     * Visits the entries of a buffer
+     */
+    public interface Visitor {
+
+        void visit(Entry entry);
+
+    }
+
+    private final Entry[] entries;
+
+    /** index of the slot of the next entry */
+    private int next = 0;
+
+    private int size = 0;
+
+    private long added = 0;
+
+    /**
+     * @param capacity maximum number of entries kept
+     */
+    public LogBuffer(int capacity) {
+        this.entries = new Entry[Math.max(1, capacity)];
+    }
+
+    public void add(String message, Severity severity) {
+        this.entries[this.next] = new Entry(message, severity, this.added++);
+        this.next = (this.next + 1) % this.entries.length;
+        if (this.size < this.entries.length) {
+            this.size++;
+        }
+    }
+
+    /**
+     * Visits the kept entries, from the oldest to the newest
+     */
+    public void forEach(Visitor visitor) {
+        int first = (this.next - this.size + this.entries.length) % this.entries.length;
+        for (int i = 0; i < this.size; i++) {
+            visitor.visit(this.entries[(first + i) % this.entries.length]);
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < this.entries.length; i++) {
+            this.entries[i] = null;
+        }
+        this.next = 0;
+        this.size = 0;
+    }
+
+    /**
+     * @return number of entries kept
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return maximum number of entries kept
+     */
+    public int getCapacity() {
+        return this.entries.length;
+    }
+}
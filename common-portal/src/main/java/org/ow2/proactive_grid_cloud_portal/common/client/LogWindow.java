@@ -27,7 +27,10 @@ package org.ow2.proactive_grid_cloud_portal.common.client;
 
 import org.ow2.proactive_grid_cloud_portal.common.client.Listeners.LogListener;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
+import org.ow2.proactive_grid_cloud_portal.common.shared.Config;
 
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
 import com.smartgwt.client.types.Overflow;
 import com.smartgwt.client.widgets.HTMLPane;
 import com.smartgwt.client.widgets.IButton;
@@ -52,36 +55,50 @@ import com.smartgwt.client.widgets.layout.VLayout;
  */
 public class LogWindow implements LogListener {
 
+    private static final String LINE_STYLE = "padding: 3px;";
+
+    private static final String IMPORTANT_LINE_STYLE = "padding: 3px;width:100%;";
+
+    private static final String EVEN_LINE_STYLE = "background-color:#FAFAFA; border-bottom: 1px solid #EDEDED; border-top: 1px solid #EDEDED;";
+
+    private static final String CRITICAL_LINE_STYLE = "background-color:#FFAAAA; padding: 3px;width:100%;";
+
     /** root layout */
     private Window window = null;
 
     private Controller controller = null;
 
     /** log content */
-    private String fullContent = "";
+    private LogBuffer fullContent;
 
     /** log content with only important events */
-    private String briefContent = "";
+    private LogBuffer briefContent;
 
     /** contains the log content */
     private HTMLPane text = null;
 
-    /** current line */
-    private int fullLineCount = 0;
-
-    private int briefLineCount = 0;
-
     /** display all messages / only important */
     private boolean displayAllMessages = false;
 
+    /** the displayed content does not reflect the buffers anymore */
+    private boolean dirty = false;
+
+    /** a render is scheduled for the next animation frame */
+    private boolean renderScheduled = false;
+
     public LogWindow(Controller controller) {
         this.controller = controller;
+        int capacity = Config.get().getLogWindowCapacity();
+        this.fullContent = new LogBuffer(capacity);
+        this.briefContent = new LogBuffer(capacity);
         LogModel.getInstance().addLogListener(this);
         this.build();
     }
 
     public void show() {
         this.window.show();
+        // messages logged while hidden were not rendered
+        this.render();
     }
 
     public void hide() {
@@ -93,10 +110,9 @@ public class LogWindow implements LogListener {
     }
 
     private void clear() {
-        this.briefContent = "";
-        this.fullContent = "";
-        fullLineCount = 0;
-        briefLineCount = 0;
+        this.briefContent.clear();
+        this.fullContent.clear();
+        this.dirty = false;
         this.text.setContents(" "); // whitespace otherwise they won't be replaced in text panel
     }
 
@@ -107,33 +123,13 @@ public class LogWindow implements LogListener {
 
     @Override
     public void logMessage(String message) {
-        fullLineCount++;
-        String style = "padding: 3px;";
-        if (fullLineCount % 2 == 0) {
-            style += "background-color:#FAFAFA; border-bottom: 1px solid #EDEDED; border-top: 1px solid #EDEDED;";
-        }
-        this.fullContent += "<div style='" + style + "' >" + message + "</div>";
-        if (fullLineCount > 100)
-            fullContent = fullContent.substring(fullContent.indexOf("</div>") + 6);
-
-        if (this.displayAllMessages) {
-            this.text.setContents(this.fullContent + "<br>");
-            this.text.scrollToBottom();
-        }
+        this.fullContent.add(message, LogBuffer.Severity.INFO);
+        this.contentChanged();
     }
 
     @Override
     public void logImportantMessage(String message) {
-        briefLineCount++;
-        String style = "padding: 3px;width:100%;";
-        if (briefLineCount % 2 == 0) {
-            style += "background-color:#FAFAFA; border-bottom: 1px solid #EDEDED; border-top: 1px solid #EDEDED;";
-        }
-        this.briefContent += "<div style='" + style + "' >" + message + "</div>";
-        if (briefLineCount > 100)
-            briefContent = briefContent.substring(briefContent.indexOf("</div>") + 6);
-
-        this.text.setContents(this.briefContent + "<br>");
+        this.briefContent.add(message, LogBuffer.Severity.IMPORTANT);
 
         // add to verbose log also
         this.logMessage(message);
@@ -141,29 +137,64 @@ public class LogWindow implements LogListener {
 
     @Override
     public void logCriticalMessage(String message) {
-        briefLineCount++;
-        fullLineCount++;
-
-        String style = "background-color:#FFAAAA; padding: 3px;width:100%;";
-        String line = "<div style='" + style + "' >" + message + "</div>";
-
-        fullContent += line;
-        briefContent += line;
+        this.fullContent.add(message, LogBuffer.Severity.CRITICAL);
+        this.briefContent.add(message, LogBuffer.Severity.CRITICAL);
+        this.contentChanged();
+    }
 
-        if (fullLineCount > 100)
-            fullContent = fullContent.substring(fullContent.indexOf("</div>") + 6);
-        if (briefLineCount > 100)
-            briefContent = briefContent.substring(briefContent.indexOf("</div>") + 6);
+    /**
+     * Renders the content once per animation frame at most,
+     * and only while the window is displayed
+     */
+    private void contentChanged() {
+        this.dirty = true;
+        if (this.renderScheduled || !this.isVisible()) {
+            return;
+        }
+        this.renderScheduled = true;
+        AnimationScheduler.get().requestAnimationFrame(new AnimationCallback() {
+            @Override
+            public void execute(double timestamp) {
+                renderScheduled = false;
+                if (isVisible()) {
+                    render();
+                }
+            }
+        });
+    }
 
+    private void render() {
+        if (!this.dirty) {
+            return;
+        }
+        this.dirty = false;
         if (this.displayAllMessages) {
-            this.text.setContents(this.fullContent + "<br>");
+            this.text.setContents(toHtml(this.fullContent, LINE_STYLE) + "<br>");
         } else {
-            this.text.setContents(this.briefContent + "<br>");
+            this.text.setContents(toHtml(this.briefContent, IMPORTANT_LINE_STYLE) + "<br>");
         }
-
         this.text.scrollToBottom();
     }
 
+    private static String toHtml(LogBuffer buffer, final String lineStyle) {
+        final StringBuilder html = new StringBuilder();
+        buffer.forEach(new LogBuffer.Visitor() {
+            @Override
+            public void visit(LogBuffer.Entry entry) {
+                String style;
+                if (entry.getSeverity() == LogBuffer.Severity.CRITICAL) {
+                    style = CRITICAL_LINE_STYLE;
+                } else if (entry.getSequence() % 2 == 1) {
+                    style = lineStyle + EVEN_LINE_STYLE;
+                } else {
+                    style = lineStyle;
+                }
+                html.append("<div style='").append(style).append("' >").append(entry.getMessage()).append("</div>");
+            }
+        });
+        return html.toString();
+    }
+
     private void build() {
         VLayout root = new VLayout();
         root.setWidth100();
@@ -198,8 +229,8 @@ public class LogWindow implements LogListener {
             @Override
             public void onChanged(ChangedEvent event) {
                 displayAllMessages = showAll.getValueAsBoolean();
-                text.setContents(((displayAllMessages) ? fullContent : briefContent) + "<br>");
-                text.scrollToBottom();
+                dirty = true;
+                render();
             }
         });
         showAll.setValue(false);
@@ -127,6 +127,9 @@ public class LoginModel {
 
     public static final String RM_PORTAL = "rm";
 
+    // maximum number of jobs whose permissions are kept, the least recently used are dropped first
+    static final int MAX_CACHED_JOB_PERMISSIONS = 1000;
+
     // a map containing the job id as key and another map as value containing the method name and true/false if the user has
     // the permission to the method for the current jobId
     Map<String, Map<String, Boolean>> schedulerPermissions = null;
@@ -148,7 +151,7 @@ public class LoginModel {
     public static LoginModel getInstance() {
         if (instance == null) {
             instance = new LoginModel();
-            instance.schedulerPermissions = new HashMap<>();
+            instance.schedulerPermissions = newSchedulerPermissions();
             instance.sessionPermissions = new HashMap<>();
             instance.RMNodeProviderPermissions = new HashMap<>();
             instance.RMNodeAdminPermissions = new HashMap<>();
@@ -168,7 +171,7 @@ public class LoginModel {
         this.logged = loggedIn;
         this.sessionId = null;
         this.login = null;
-        this.schedulerPermissions = new HashMap<>();
+        this.schedulerPermissions = newSchedulerPermissions();
         this.sessionPermissions = new HashMap<>();
         this.RMNodeProviderPermissions = new HashMap<>();
         this.RMNodeAdminPermissions = new HashMap<>();
@@ -212,6 +215,22 @@ public class LoginModel {
         instance.schedulerPermissions.putAll(permissions);
     }
 
+    /**
+     * Forgets the permissions of some jobs, so that they are checked again, e.g. when their owner changed
+     */
+    public static void removeSchedulerPermissions(Collection<String> jobIds) {
+        instance.schedulerPermissions.keySet().removeAll(jobIds);
+    }
+
+    static Map<String, Map<String, Boolean>> newSchedulerPermissions() {
+        return new LinkedHashMap<String, Map<String, Boolean>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, Boolean>> eldest) {
+                return size() > MAX_CACHED_JOB_PERMISSIONS;
+            }
+        };
+    }
+
     public static void addSessionPermissions(Map<String, Boolean> permissions) {
         instance.sessionPermissions.putAll(permissions);
     }
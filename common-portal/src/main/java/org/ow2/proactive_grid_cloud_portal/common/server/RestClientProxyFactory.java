@@ -0,0 +1,125 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import org.apache.http.client.HttpClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
+import org.jboss.resteasy.plugins.interceptors.encoding.AcceptEncodingGZIPFilter;
+import org.jboss.resteasy.plugins.interceptors.encoding.GZIPDecodingInterceptor;
+import org.jboss.resteasy.plugins.interceptors.encoding.GZIPEncodingInterceptor;
+
+
+/**
+ * Builds the RestEasy client and its proxies once, and shares them between all the request threads.
+ * <p>
+ * Building a client and generating a proxy is costly, whereas the resulting proxies are thread safe
+ * as long as the underlying http client uses a pooling connection manager. The client is rebuilt
+ * when the REST url of the configuration changes.
+ */
+public class RestClientProxyFactory {
+
+    private final HttpClient httpClient;
+
+    private final ExecutorService asyncExecutor;
+
+    private final Supplier<String> restUrl;
+
+    private volatile Proxies proxies;
+
+    /**
+     * @param httpClient http client shared by all the proxies
+     * @param asyncExecutor thread pool used by the RestEasy client for asynchronous calls
+     * @param restUrl supplies the REST url from the current configuration
+     */
+    public RestClientProxyFactory(HttpClient httpClient, ExecutorService asyncExecutor, Supplier<String> restUrl) {
+        this.httpClient = httpClient;
+        this.asyncExecutor = asyncExecutor;
+        this.restUrl = restUrl;
+    }
+
+    /**
+     * @param proxyType JAX-RS annotated interface
+     * @return the shared proxy of the given interface, bound to the configured REST url
+     */
+    public <T> T getProxy(Class<T> proxyType) {
+        return proxyType.cast(getProxies().get(proxyType));
+    }
+
+    private Proxies getProxies() {
+        String url = restUrl.get();
+        Proxies current = proxies;
+        if (current == null || !current.url.equals(url)) {
+            synchronized (this) {
+                current = proxies;
+                if (current == null || !current.url.equals(url)) {
+                    // the previous client is not closed: it may still serve in-flight requests,
+                    // and closing it would not release anything the shared http client does not own
+                    current = new Proxies(url, buildClient().target(url));
+                    proxies = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private ResteasyClient buildClient() {
+        ResteasyClientBuilder builder = new ResteasyClientBuilder();
+        builder.register(AcceptEncodingGZIPFilter.class);
+        builder.register(GZIPDecodingInterceptor.class);
+        builder.register(GZIPEncodingInterceptor.class);
+        return builder.asyncExecutor(asyncExecutor).httpEngine(new ApacheHttpClient4Engine(httpClient)).build();
+    }
+
+    /**
+     * Proxies generated from one client, bound to one REST url.
+     */
+    private static final class Proxies {
+
+        private final String url;
+
+        private final ResteasyWebTarget target;
+
+        private final Map<Class<?>, Object> byType = new ConcurrentHashMap<>();
+
+        private Proxies(String url, ResteasyWebTarget target) {
+            this.url = url;
+            this.target = target;
+        }
+
+        private Object get(Class<?> proxyType) {
+            return byType.computeIfAbsent(proxyType, target::proxy);
+        }
+    }
+
+}
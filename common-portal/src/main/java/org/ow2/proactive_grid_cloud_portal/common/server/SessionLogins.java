@@ -0,0 +1,94 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.common.server;
+
+import java.util.concurrent.TimeUnit;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+
+/**
+ * Remembers the login of the user owning each portal session, for the caches which share data
+ * between the sessions of a user.
+ * <p>
+ * The login of a session is resolved once from the server, and forgotten on logout or after
+ * {@link #IDLE_EXPIRATION_MINUTES} without use.
+ */
+public class SessionLogins {
+
+    /**
+     * Idle time after which the login of a session, and data cached for a session or a login, are forgotten.
+     */
+    public static final long IDLE_EXPIRATION_MINUTES = 30;
+
+    private final LoginResolver loginResolver;
+
+    private final Cache<String, String> logins = CacheBuilder.newBuilder()
+                                                             .expireAfterAccess(IDLE_EXPIRATION_MINUTES,
+                                                                                TimeUnit.MINUTES)
+                                                             .build();
+
+    /**
+     * @param loginResolver returns the login of the user owning a session
+     */
+    public SessionLogins(LoginResolver loginResolver) {
+        this.loginResolver = loginResolver;
+    }
+
+    /**
+     * @param sessionId session of the caller
+     * @return the login of the user owning the session
+     */
+    public String getLogin(String sessionId) throws RestServerException, ServiceException {
+        String login = logins.getIfPresent(sessionId);
+        if (login == null) {
+            login = loginResolver.getLogin(sessionId);
+            logins.put(sessionId, login);
+        }
+        return login;
+    }
+
+    /**
+     * Forgets the login associated to a session, typically on logout.
+     */
+    public void forget(String sessionId) {
+        logins.invalidate(sessionId);
+    }
+
+    /**
+     * Returns the login of the user owning a session.
+     */
+    public interface LoginResolver {
+
+        String getLogin(String sessionId) throws RestServerException, ServiceException;
+
+    }
+
+}
@@ -55,6 +55,11 @@ public abstract class Config {
 
     public static final String HTTPS_ALLOW_ANY_HOSTNAME = "web.https.allow_any_hostname";
 
+    /** maximum number of messages kept by the log window */
+    public static final String LOG_WINDOW_CAPACITY = "web.log.window.capacity";
+
+    private static final int DEFAULT_LOG_WINDOW_CAPACITY = 100;
+
     protected Config() {
         this.properties = new HashMap<String, String>();
         this.backup = new HashMap<String, String>();
@@ -115,6 +120,21 @@ public abstract class Config {
         return getBooleanValue(HTTPS_ALLOW_ANY_HOSTNAME, false);
     }
 
+    /**
+     * @return maximum number of messages kept by the log window
+     */
+    public int getLogWindowCapacity() {
+        String value = this.properties.get(LOG_WINDOW_CAPACITY);
+        if (value == null) {
+            return DEFAULT_LOG_WINDOW_CAPACITY;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return DEFAULT_LOG_WINDOW_CAPACITY;
+        }
+    }
+
     private boolean getBooleanValue(String property, boolean defaultValue) {
         String value = this.properties.get(property);
 
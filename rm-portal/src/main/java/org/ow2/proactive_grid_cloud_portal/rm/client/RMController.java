@@ -49,6 +49,7 @@ import org.ow2.proactive_grid_cloud_portal.rm.shared.RMConfig;
 
 import com.google.gwt.core.client.Callback;
 import com.google.gwt.core.client.GWT.UncaughtExceptionHandler;
+import com.google.gwt.core.client.JsArray;
 import com.google.gwt.http.client.Request;
 import com.google.gwt.json.client.*;
 import com.google.gwt.user.client.Cookies;
@@ -498,6 +499,7 @@ public class RMController extends Controller implements UncaughtExceptionHandler
 
             this.statHistReq = rm.getStatHistory(LoginModel.getInstance().getSessionId(),
                                                  range,
+                                                 RMConfig.get().getHistoryMaxPoints(),
                                                  new AsyncCallback<String>() {
                                                      @Override
                                                      public void onSuccess(String result) {
@@ -615,75 +617,66 @@ public class RMController extends Controller implements UncaughtExceptionHandler
     }
 
     /**
-     * Model is rendered in the CompactView based on the new and old (current) model.
-     * That is why, we take old model and clone it. Then we process server response
-     * and alternate new model by adding/removing node/nodesources.
+     * Applies the server response to the model in place: node sources and nodes are added, replaced
+     * or removed one event at a time, and the statistics are adjusted from each event instead of
+     * being recomputed over all the nodes. Listeners receive the changed entities through
+     * {@link RMModelImpl#updateByDelta(List, List)}.
+     * The response is read through {@link RMMonitoringOverlay}, without wrapping each value.
      * @param json
      */
     private void updateModelBasedOnResponse(String json) {
-        JSONObject obj = this.parseJSON(json).isObject();
+        RMMonitoringOverlay monitoring;
+        try {
+            monitoring = RMMonitoringOverlay.parse(json);
+        } catch (IllegalArgumentException e) {
+            LogModel.getInstance().logCriticalMessage("JSON Parser failed " + e.getClass().getName() + ": " +
+                                                      e.getLocalizedMessage());
+            LogModel.getInstance().logCriticalMessage("input was: " + json);
+            return;
+        }
 
         final long currentCounter = model.getMaxCounter();
 
-        final Long latestCounter = Long.valueOf(obj.get("latestCounter").isNumber().toString());
+        final Long latestCounter = (long) monitoring.getLatestCounter();
 
         model.setMaxCounter(latestCounter);
 
-        HashMap<String, NodeSource> newNodeSources = new HashMap<>();
-        if (isRegularRequest(currentCounter, latestCounter)) {
-            copyNodesSources(model.getNodeSources(), newNodeSources);
+        if (!isRegularRequest(currentCounter, latestCounter)) {
+            model.setNodes(new HashMap<>());
+            resetStatistics();
         }
 
-        final List<NodeSource> nodeSourceList = processNodeSources(newNodeSources, obj);
+        final Map<String, NodeSource> nodeSources = model.getNodeSources();
+
+        final List<NodeSource> nodeSourceList = processNodeSources(nodeSources, monitoring);
 
         final List<Node> nodeList = new LinkedList<>();
 
         // process nodes
-        JSONArray jsNodes = obj.get("nodesEvents").isArray();
-        if (jsNodes.size() > 0) {
-            for (int i = 0; i < jsNodes.size(); i++) {
-                try {
-                    JSONObject jsNode = jsNodes.get(i).isObject();
-
-                    final Node node = parseNode(jsNode);
+        JsArray<RMMonitoringOverlay.NodeEvent> jsNodes = monitoring.getNodeEvents();
+        for (int i = 0; i < jsNodes.length(); i++) {
+            try {
+                final Node node = jsNodes.get(i).toNode();
 
-                    nodeList.add(node);
+                nodeList.add(node);
 
-                    final NodeSource nodeSource = newNodeSources.get(node.getSourceName());
+                final NodeSource nodeSource = nodeSources.get(node.getSourceName());
 
-                    // if node source was not deleted
-                    if (nodeSource != null) {
-                        String userAccessType = retrieveUserAccessType(nodeSource);
-                        node.setUserAccessType(userAccessType);
+                // if node source was not deleted
+                if (nodeSource != null) {
+                    String userAccessType = retrieveUserAccessType(nodeSource);
+                    node.setUserAccessType(userAccessType);
 
-                        if (!node.isRemoved()) {
-                            addNodeToNodeSource(node, nodeSource);
-                        } else {
-                            removeNodeFromNodeSource(node, nodeSource);
-                        }
-                    }
-
-                } catch (Throwable t) {
-                    System.out.println("Failed to parse node : ");
-                    System.out.println(jsNodes.get(i).toString());
-                    t.printStackTrace();
-
-                    LogModel.getInstance().logCriticalMessage(t.getClass().getName() + ": " + t.getMessage() +
-                                                              " for input: " + jsNodes.get(i).toString());
-                }
-            }
-        } else {
-            // There are no node events which means that their state didn't change. We copy the nodes from the previous NS data
-            for (NodeSource nodeSource : newNodeSources.values()) {
-                // We copy only if there are nodes to be copied = it is not a NODESOURCE_ADDED
-                if (model.getNodeSources().get(nodeSource.getSourceName()) != null) {
-                    nodeSource.getHosts().putAll(model.getNodeSources().get(nodeSource.getSourceName()).getHosts());
+                    applyNodeEvent(node, nodeSource);
                 }
+
+            } catch (Throwable t) {
+                LogModel.getInstance().logCriticalMessage(t.getClass().getName() + ": " + t.getMessage() +
+                                                          " for input: " + jsNodes.get(i).toJson());
             }
         }
 
-        model.setNodes(newNodeSources);
-        model.nodesUpdate(newNodeSources);
+        model.nodesUpdate(nodeSources);
         try {
             model.updateByDelta(nodeSourceList, nodeList);
         } catch (Exception e) {
@@ -694,11 +687,6 @@ public class RMController extends Controller implements UncaughtExceptionHandler
                     .logImportantMessage("An Error occurred while the Controller tried to update NodeSources after HTTP request");
             throw e;
         }
-
-        recalculatePhysicalVirtualHosts();
-
-        recalculateStatistics();
-
     }
 
     private String retrieveUserAccessType(NodeSource nodeSource) {
@@ -730,40 +718,61 @@ public class RMController extends Controller implements UncaughtExceptionHandler
     }
 
     /**
-     * Add and remove NodeSources
-     * @param newNodeSources
-     * @param obj
+     * Add, replace and remove NodeSources. A replaced node source keeps the hosts
+     * and nodes of the previous one, later node events update them.
+     * @param nodeSources
+     * @param monitoring
+     * @return copies of the node sources of the response
      */
-    private List<NodeSource> processNodeSources(HashMap<String, NodeSource> newNodeSources, JSONObject obj) {
+    private List<NodeSource> processNodeSources(Map<String, NodeSource> nodeSources,
+            RMMonitoringOverlay monitoring) {
         List<NodeSource> nodeSourceList = new LinkedList<>();
-        JSONArray jsNodeSources = obj.get("nodeSource").isArray();
-        for (int i = 0; i < jsNodeSources.size(); i++) {
-            JSONObject jsNodeSource = jsNodeSources.get(i).isObject();
-
-            NodeSource nodeSource = parseNodeSource(jsNodeSource);
+        JsArray<RMMonitoringOverlay.NodeSourceEvent> jsNodeSources = monitoring.getNodeSourceEvents();
+        for (int i = 0; i < jsNodeSources.length(); i++) {
+            NodeSource nodeSource = jsNodeSources.get(i).toNodeSource();
             nodeSourceList.add(new NodeSource(nodeSource));
+
+            NodeSource previous = nodeSources.remove(nodeSource.getSourceName());
+            if (previous != null) {
+                countNodeSource(previous, -1);
+            }
             if (nodeSource.isRemoved()) {
-                newNodeSources.remove(nodeSource.getSourceName());
+                if (previous != null) {
+                    countNodeSourceContent(previous, -1);
+                }
             } else {
-                newNodeSources.put(nodeSource.getSourceName(), nodeSource);
+                if (previous != null) {
+                    nodeSource.getHosts().putAll(previous.getHosts());
+                    nodeSource.getDeploying().putAll(previous.getDeploying());
+                }
+                nodeSources.put(nodeSource.getSourceName(), nodeSource);
+                countNodeSource(nodeSource, 1);
             }
         }
         return nodeSourceList;
     }
 
-    private void removeNodeFromNodeSource(Node node, NodeSource nodeSource) {
-        if (node.isDeployingNode()) {
-            nodeSource.getDeploying().remove(node.getNodeUrl());
-        } else {
-            Host host = nodeSource.getHosts().get(node.getHostName());
+    /**
+     * Replaces or removes the node in its node source, and updates the statistics accordingly
+     */
+    private void applyNodeEvent(Node node, NodeSource nodeSource) {
+        Node previous = nodeSource.getDeploying().remove(node.getNodeUrl());
+        Host host = nodeSource.getHosts().get(node.getHostName());
+        if (previous == null && host != null) {
+            previous = host.getNodes().remove(node.getNodeUrl());
+        }
+        if (previous != null) {
+            countNode(previous, -1);
+        }
 
-            if (host != null) {
-                host.getNodes().remove(node.getNodeUrl());
+        if (!node.isRemoved()) {
+            addNodeToNodeSource(node, nodeSource);
+            countNode(node, 1);
+        }
 
-                if (host.getNodes().isEmpty()) {
-                    nodeSource.getHosts().remove(host);
-                }
-            }
+        if (host != null && host.getNodes().isEmpty()) {
+            nodeSource.getHosts().remove(host.getHostName());
+            countHost(host, -1);
         }
     }
 
@@ -779,45 +788,20 @@ public class RMController extends Controller implements UncaughtExceptionHandler
             if (host == null) { // create host if there is no host
                 host = new Host(node.getHostName(), node.getSourceName());
                 nodeSource.getHosts().put(node.getHostName(), host);
+                countHost(host, 1);
             }
 
             host.getNodes().put(node.getNodeUrl(), node);
 
-            if (node.isVirtual()) {
+            if (node.isVirtual() && !host.isVirtual()) {
+                countHost(host, -1);
                 host.setVirtual(true);
+                countHost(host, 1);
             }
         }
     }
 
-    /**
-     * @return clones node sources with all hosts and nodes
-     */
-    private void copyNodesSources(Map<String, NodeSource> oldNodeSources, HashMap<String, NodeSource> newNodeSources) {
-        for (NodeSource nodeSource : oldNodeSources.values()) {
-            NodeSource newNodeSource = new NodeSource(nodeSource);
-            newNodeSources.put(newNodeSource.getSourceName(), newNodeSource);
-        }
-    }
-
-    private void recalculatePhysicalVirtualHosts() {
-        int numPhysical = 0;
-        int numVirtual = 0;
-        for (NodeSource nos : model.getNodeSources().values()) {
-            for (Host h : nos.getHosts().values()) {
-                if (h.isVirtual()) {
-                    numVirtual++;
-                } else {
-                    numPhysical++;
-                }
-            }
-        }
-
-        model.setNumPhysicalHosts(numPhysical);
-        model.setNumVirtualHosts(numVirtual);
-
-    }
-
-    private void recalculateStatistics() {
+    private void resetStatistics() {
         model.setNumBusy(0);
         model.setNumConfiguring(0);
         model.setNumDeploying(0);
@@ -828,152 +812,69 @@ public class RMController extends Controller implements UncaughtExceptionHandler
         model.setNumLocked(0);
         model.setNumDeployedNodeSources(0);
         model.setNumUndeployedNodeSources(0);
+        model.setNumPhysicalHosts(0);
+        model.setNumVirtualHosts(0);
+    }
 
-        for (NodeSource nodeSource : model.getNodeSources().values()) {
-            switch (nodeSource.getNodeSourceStatus()) {
-                case NODES_DEPLOYED:
-                    model.setNumDeployedNodeSources(model.getNumDeployedNodeSources() + 1);
-                    break;
-                case NODES_UNDEPLOYED:
-                    model.setNumUndeployedNodeSources(model.getNumUndeployedNodeSources() + 1);
-                    break;
-            }
+    private void countNodeSource(NodeSource nodeSource, int delta) {
+        switch (nodeSource.getNodeSourceStatus()) {
+            case NODES_DEPLOYED:
+                model.setNumDeployedNodeSources(model.getNumDeployedNodeSources() + delta);
+                break;
+            case NODES_UNDEPLOYED:
+                model.setNumUndeployedNodeSources(model.getNumUndeployedNodeSources() + delta);
+                break;
+        }
+    }
 
-            for (Node node : nodeSource.getDeploying().values()) {
-                recalculateStatistics(node);
-            }
+    private void countNodeSourceContent(NodeSource nodeSource, int delta) {
+        for (Node node : nodeSource.getDeploying().values()) {
+            countNode(node, delta);
+        }
 
-            for (Host host : nodeSource.getHosts().values()) {
-                for (Node node : host.getNodes().values()) {
-                    recalculateStatistics(node);
-                }
+        for (Host host : nodeSource.getHosts().values()) {
+            countHost(host, delta);
+            for (Node node : host.getNodes().values()) {
+                countNode(node, delta);
             }
         }
     }
 
-    private void recalculateStatistics(Node node) {
+    private void countHost(Host host, int delta) {
+        if (host.isVirtual()) {
+            model.setNumVirtualHosts(model.getNumVirtualHosts() + delta);
+        } else {
+            model.setNumPhysicalHosts(model.getNumPhysicalHosts() + delta);
+        }
+    }
+
+    private void countNode(Node node, int delta) {
         switch (node.getNodeState()) {
             case BUSY:
-                model.setNumBusy(model.getNumBusy() + 1);
+                model.setNumBusy(model.getNumBusy() + delta);
                 break;
             case CONFIGURING:
-                model.setNumConfiguring(model.getNumConfiguring() + 1);
+                model.setNumConfiguring(model.getNumConfiguring() + delta);
                 break;
             case DEPLOYING:
-                model.setNumDeploying(model.getNumDeploying() + 1);
+                model.setNumDeploying(model.getNumDeploying() + delta);
                 break;
             case DOWN:
-                model.setNumDown(model.getNumDown() + 1);
+                model.setNumDown(model.getNumDown() + delta);
                 break;
             case FREE:
-                model.setNumFree(model.getNumFree() + 1);
+                model.setNumFree(model.getNumFree() + delta);
                 break;
             case LOST:
-                model.setNumLost(model.getNumLost() + 1);
+                model.setNumLost(model.getNumLost() + delta);
                 break;
             case TO_BE_REMOVED:
-                model.setNumToBeRemoved(model.getNumToBeRemoved() + 1);
+                model.setNumToBeRemoved(model.getNumToBeRemoved() + delta);
                 break;
         }
         if (node.isLocked()) {
-            model.setNumLocked(model.getNumLocked() + 1);
-        }
-    }
-
-    private NodeSource parseNodeSource(JSONObject nsObj) {
-        String sourceName = nsObj.get("sourceName").isString().stringValue();
-        String sourceDescription = getJsonStringNullable(nsObj, "sourceDescription");
-        LinkedHashMap<String, String> additionalInformation = getJsonMapNullable(nsObj, "additionalInformation");
-        String nodeSourceAdmin = nsObj.get("nodeSourceAdmin").isString().stringValue();
-        String nodeSourceStatus = getJsonStringNullable(nsObj, "nodeSourceStatus");
-        String eventType = getJsonStringNullable(nsObj, "eventType");
-        return new NodeSource(sourceName,
-                              sourceDescription,
-                              additionalInformation,
-                              nodeSourceAdmin,
-                              nodeSourceStatus,
-                              eventType);
-    }
-
-    private Node parseNode(JSONObject nodeObj) {
-        String hostName = nodeObj.get("hostName").isString().stringValue();
-        String nss = nodeObj.get("nodeSource").isString().stringValue();
-
-        String eventType = getJsonStringNullable(nodeObj, "eventType");
-
-        String nodeUrl = nodeObj.get("nodeUrl").isString().stringValue();
-        String nodeState = nodeObj.get("nodeState").isString().stringValue();
-        String nodeInfo = nodeObj.get("nodeInfo").isString().stringValue();
-        String timeStampFormatted = nodeObj.get("timeStampFormatted").isString().stringValue();
-        long timeStamp = Math.round(nodeObj.get("timeStamp").isNumber().doubleValue());
-        String nodeProvider = nodeObj.get("nodeProvider").isString().stringValue();
-
-        String nodeOwner = getJsonStringNullable(nodeObj, "nodeOwner");
-        String vmName = getJsonStringNullable(nodeObj, "vmname");
-        String description = getJsonStringNullable(nodeObj, "nodeInfo");
-        String defaultJMXUrl = getJsonStringNullable(nodeObj, "defaultJMXUrl");
-        String proactiveJMXUrl = getJsonStringNullable(nodeObj, "proactiveJMXUrl");
-
-        Map<String, String> usageInfo = Optional.ofNullable(nodeObj.get("usageInfo"))
-                                                .map(JSONValue::isObject)
-                                                .map(json -> {
-                                                    Map<String, String> metaMap = new HashMap<>();
-                                                    for (String key : json.keySet()) {
-                                                        String value = json.get(key).isString().stringValue();
-                                                        metaMap.put(key, value);
-                                                    }
-                                                    return metaMap;
-                                                })
-                                                .orElse(new HashMap<>());
-        List<String> tokens = Optional.ofNullable(nodeObj.get("tokens")).map(JSONValue::isArray).map(arr -> {
-            List<String> ts = new ArrayList<>(arr.size());
-            for (int i = 0; i < arr.size(); ++i) {
-                ts.add(arr.get(i).isString().stringValue());
-            }
-            return ts;
-        }).orElse(Collections.emptyList());
-
-        boolean isLocked = getJsonBooleanNullable(nodeObj, "locked", false);
-        long lockTime = getJsonLongNullable(nodeObj, "lockTime", -1);
-        String nodeLocker = getJsonStringNullable(nodeObj, "nodeLocker");
-
-        return new Node(nodeUrl,
-                        nodeState,
-                        nodeInfo,
-                        timeStamp,
-                        timeStampFormatted,
-                        nodeProvider,
-                        nodeOwner,
-                        nss,
-                        hostName,
-                        vmName,
-                        description,
-                        defaultJMXUrl,
-                        proactiveJMXUrl,
-                        isLocked,
-                        lockTime,
-                        nodeLocker,
-                        eventType,
-                        usageInfo,
-                        tokens);
-    }
-
-    private LinkedHashMap<String, String> getJsonMapNullable(JSONObject jsonObject, String attributeName) {
-        JSONObject mapAsJSONObject = jsonObject.get(attributeName).isObject();
-
-        if (mapAsJSONObject == null) {
-            return (LinkedHashMap<String, String>) Collections.EMPTY_MAP;
+            model.setNumLocked(model.getNumLocked() + delta);
         }
-
-        LinkedHashMap<String, String> result = new LinkedHashMap<>();
-        Iterator<String> mapAsJSONObjectKeysIterator = mapAsJSONObject.keySet().iterator();
-        while (mapAsJSONObjectKeysIterator.hasNext()) {
-            String currentKey = mapAsJSONObjectKeysIterator.next();
-            String currentValue = mapAsJSONObject.get(currentKey).isString().stringValue();
-            result.put(currentKey, currentValue);
-        }
-
-        return result;
     }
 
     public void fetchLoggersSettings(ListGrid loggersGrid) {
@@ -1049,40 +950,6 @@ public class RMController extends Controller implements UncaughtExceptionHandler
         });
     }
 
-    private String getJsonStringNullable(JSONObject jsonObject, String attributeName) {
-        return getJsonStringNullable(jsonObject, attributeName, "");
-    }
-
-    private boolean getJsonBooleanNullable(JSONObject jsonObject, String attributeName, boolean defaultValue) {
-        JSONBoolean result = jsonObject.get(attributeName).isBoolean();
-
-        if (result == null) {
-            return defaultValue;
-        }
-
-        return result.booleanValue();
-    }
-
-    private long getJsonLongNullable(JSONObject jsonObject, String attributeName, long defaultValue) {
-        JSONNumber result = jsonObject.get(attributeName).isNumber();
-
-        if (result == null) {
-            return defaultValue;
-        }
-
-        return Long.parseLong(result.toString());
-    }
-
-    private String getJsonStringNullable(JSONObject jsonObject, String attributeName, String defaultValue) {
-        JSONString result = jsonObject.get(attributeName).isString();
-
-        if (result == null) {
-            return defaultValue;
-        }
-
-        return result.stringValue();
-    }
-
     /**
      * Fetch and store NS Infrastructure and Policy creation parameters
      * store it in the model
@@ -47,7 +47,8 @@ public class RMListeners {
         /**
          * This method called when any node/nodesource was add/removed/updated
          *
-         * @param nodeSources map of nodesources which represents SNAPSHOT of current state, where nodesource stores hosts, host stores nodes.
+         * @param nodeSources map of nodesources which represents current state, where nodesource stores hosts, host stores nodes.
+         *                    The map is updated in place by the following deltas: copy what must outlive this call.
          */
         default void nodesUpdated(Map<String, NodeSource> nodeSources) {
         }
@@ -0,0 +1,231 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host.Node;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.core.client.JsonUtils;
+
+
+/**
+ * Overlay type over the RM monitoring response: the events of the node sources and of the nodes
+ * since the counter sent by the portal, and the latest counter.
+ * <p>
+ * The response is parsed by the native JSON parser of the browser and the events are read straight
+ * from the parsed objects, without wrapping every value as {@link com.google.gwt.json.client.JSONParser} does.
+ * The monitoring is polled every few seconds and carries every node on the first request,
+ * this is the decoding hot path of the RM portal.
+ */
+public final class RMMonitoringOverlay extends JavaScriptObject {
+
+    protected RMMonitoringOverlay() {
+    }
+
+    /**
+     * @param json the RM monitoring response
+     * @return the parsed response
+     * @throws IllegalArgumentException if the response is not valid JSON
+     */
+    public static RMMonitoringOverlay parse(String json) {
+        return JsonUtils.safeParse(json);
+    }
+
+    /**
+     * @return the counter of the latest event, -1 if the response has none
+     */
+    public native double getLatestCounter() /*-{
+        return typeof this.latestCounter === 'number' ? this.latestCounter : -1;
+    }-*/;
+
+    public native JsArray<NodeSourceEvent> getNodeSourceEvents() /*-{
+        return this.nodeSource instanceof Array ? this.nodeSource : [];
+    }-*/;
+
+    public native JsArray<NodeEvent> getNodeEvents() /*-{
+        return this.nodesEvents instanceof Array ? this.nodesEvents : [];
+    }-*/;
+
+    /**
+     * Reads the fields of the events, an absent or null field gets a default value.
+     */
+    abstract static class Event extends JavaScriptObject {
+
+        protected Event() {
+        }
+
+        /**
+         * @return the event as JSON, for error messages
+         */
+        public final native String toJson() /*-{
+            return JSON.stringify(this);
+        }-*/;
+
+        /**
+         * @return the field if it is a string, an empty string otherwise
+         */
+        final native String getString(String field) /*-{
+            var value = this[field];
+            return typeof value === 'string' ? value : "";
+        }-*/;
+
+        /**
+         * @return the field
+         * @throws IllegalArgumentException if the field is not a string
+         */
+        final String getRequiredString(String field) {
+            if (!isString(field)) {
+                throw new IllegalArgumentException("Expected JSON String attribute " + field);
+            }
+            return getString(field);
+        }
+
+        final native boolean isString(String field) /*-{
+            return typeof this[field] === 'string';
+        }-*/;
+
+        final native boolean getBoolean(String field, boolean defaultValue) /*-{
+            var value = this[field];
+            return typeof value === 'boolean' ? value : defaultValue;
+        }-*/;
+
+        final native double getNumber(String field, double defaultValue) /*-{
+            var value = this[field];
+            return typeof value === 'number' ? value : defaultValue;
+        }-*/;
+
+        /**
+         * @return the names and string values of an object field, one after the other
+         */
+        final native JsArrayString getEntries(String field) /*-{
+            var object = this[field];
+            var keysAndValues = [];
+            if (object != null && typeof object === 'object' && !(object instanceof Array)) {
+                for (var key in object) {
+                    if (object.hasOwnProperty(key) && typeof object[key] === 'string') {
+                        keysAndValues.push(key, object[key]);
+                    }
+                }
+            }
+            return keysAndValues;
+        }-*/;
+
+        final LinkedHashMap<String, String> getMap(String field) {
+            JsArrayString entries = getEntries(field);
+            LinkedHashMap<String, String> map = new LinkedHashMap<>(entries.length() / 2);
+            for (int i = 0; i < entries.length(); i += 2) {
+                map.put(entries.get(i), entries.get(i + 1));
+            }
+            return map;
+        }
+
+        /**
+         * @return the string items of an array field, or null if the field is not an array
+         */
+        final native JsArrayString getStrings(String field) /*-{
+            var array = this[field];
+            if (!(array instanceof Array)) {
+                return null;
+            }
+            var strings = [];
+            for (var i = 0; i < array.length; i++) {
+                if (typeof array[i] === 'string') {
+                    strings.push(array[i]);
+                }
+            }
+            return strings;
+        }-*/;
+    }
+
+    /**
+     * A node source added, changed or removed
+     */
+    public static final class NodeSourceEvent extends Event {
+
+        protected NodeSourceEvent() {
+        }
+
+        public NodeSource toNodeSource() {
+            return new NodeSource(getRequiredString("sourceName"),
+                                  getString("sourceDescription"),
+                                  getMap("additionalInformation"),
+                                  getRequiredString("nodeSourceAdmin"),
+                                  getString("nodeSourceStatus"),
+                                  getString("eventType"));
+        }
+    }
+
+    /**
+     * A node added, changed or removed
+     */
+    public static final class NodeEvent extends Event {
+
+        protected NodeEvent() {
+        }
+
+        public Node toNode() {
+            return new Node(getRequiredString("nodeUrl"),
+                            getRequiredString("nodeState"),
+                            getRequiredString("nodeInfo"),
+                            Math.round(getNumber("timeStamp", 0)),
+                            getRequiredString("timeStampFormatted"),
+                            getRequiredString("nodeProvider"),
+                            getString("nodeOwner"),
+                            getRequiredString("nodeSource"),
+                            getRequiredString("hostName"),
+                            getString("vmname"),
+                            getString("nodeInfo"),
+                            getString("defaultJMXUrl"),
+                            getString("proactiveJMXUrl"),
+                            getBoolean("locked", false),
+                            (long) getNumber("lockTime", -1),
+                            getString("nodeLocker"),
+                            getString("eventType"),
+                            new HashMap<>(getMap("usageInfo")),
+                            getTokens());
+        }
+
+        private List<String> getTokens() {
+            JsArrayString tokens = getStrings("tokens");
+            if (tokens == null) {
+                return Collections.emptyList();
+            }
+            List<String> list = new ArrayList<>(tokens.length());
+            for (int i = 0; i < tokens.length(); i++) {
+                list.add(tokens.get(i));
+            }
+            return list;
+        }
+    }
+}
@@ -31,6 +31,7 @@ import java.util.Set;
 
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.NodeMBeanRequest;
 
 import com.google.gwt.user.client.rpc.RemoteService;
 import com.google.gwt.user.client.rpc.RemoteServiceRelativePath;
@@ -346,6 +347,18 @@ public interface RMService extends RemoteService {
     String getNodeMBeansInfo(String sessionId, String nodeJmxUrl, String objectNames, List<String> attrs)
             throws RestServerException, ServiceException;
 
+    /**
+     * Retrieves the attributes, or the attributes history, of several mbeans of a node at once.
+     *
+     * @param sessionId current session
+     * @param nodeJmxUrl mbean server url
+     * @param requests mbeans and attributes to fetch
+     *
+     * @return the JSON result of each request, in the order of the requests, or null for the requests which failed
+     */
+    List<String> getNodeMBeansData(String sessionId, String nodeJmxUrl, List<NodeMBeanRequest> requests)
+            throws RestServerException, ServiceException;
+
     /**
      * Statistic history for the following values:<pre>
      * 	{ "BusyNodesCount",
@@ -369,6 +382,17 @@ public interface RMService extends RemoteService {
      */
     String getStatHistory(String sessionId, String range) throws RestServerException, ServiceException;
 
+    /**
+     * Statistic history, each source being reduced to at most maxPoints values
+     *
+     * @param sessionId current session
+     * @param range a String of 5 chars, one for each stat history source, indicating the time range to fetch
+     * @param maxPoints maximum number of values of each source, 0 to get all of them
+     * @return will contain the server response, a JSON object containing a key for each source
+     * @see #getStatHistory(String, String)
+     */
+    String getStatHistory(String sessionId, String range, int maxPoints) throws RestServerException, ServiceException;
+
     /**
      * Executes a script on a node
      * 
@@ -31,6 +31,7 @@ import java.util.Set;
 
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.NodeMBeanRequest;
 
 import com.google.gwt.http.client.Request;
 import com.google.gwt.user.client.rpc.AsyncCallback;
@@ -302,6 +303,18 @@ public interface RMServiceAsync {
     void getNodeMBeansInfo(String sessionId, String nodeJmxUrl, String objectNames, List<String> attrs,
             AsyncCallback<String> callback);
 
+    /**
+     * Retrieves the attributes, or the attributes history, of several mbeans of a node at once.
+     *
+     * @param sessionId current session
+     * @param nodeJmxUrl mbean server url
+     * @param requests mbeans and attributes to fetch
+     *
+     * @return the JSON result of each request, in the order of the requests, or null for the requests which failed
+     */
+    void getNodeMBeansData(String sessionId, String nodeJmxUrl, List<NodeMBeanRequest> requests,
+            AsyncCallback<List<String>> callback);
+
     void getNodeMBeanHistory(String sessionId, String nodeJmxUrl, String objectName, List<String> attrs,
             String timeRange, AsyncCallback callback) throws RestServerException, ServiceException;
 
@@ -332,6 +345,17 @@ public interface RMServiceAsync {
      */
     Request getStatHistory(String sessionId, String range, AsyncCallback<String> callback);
 
+    /**
+     * Statistic history, each source being reduced to at most maxPoints values
+     *
+     * @param sessionId current session
+     * @param range a String of 5 chars, one for each stat history source, indicating the time range to fetch
+     * @param maxPoints maximum number of values of each source, 0 to get all of them
+     * @param callback will contain the server response, a JSON object containing a key for each source
+     * @see #getStatHistory(String, String, AsyncCallback)
+     */
+    Request getStatHistory(String sessionId, String range, int maxPoints, AsyncCallback<String> callback);
+
     /**
      * Executes a script on a node
      * 
@@ -91,7 +91,7 @@ public class TreeView implements NodesListener, NodeSelectedListener {
 
     private RMController controller = null;
 
-    private final List<Node> currentNodes;
+    private final Set<Node> currentNodes;
 
     private static boolean hideEmptyNs = false;
 
@@ -123,6 +123,16 @@ public class TreeView implements NodesListener, NodeSelectedListener {
 
     private CompactView compactView;
 
+    /**
+     * node sources whose displayed number of nodes is recomputed once the current delta is applied
+     */
+    private final Map<String, NodeSource> nodeSourcesToCount = new LinkedHashMap<>();
+
+    /**
+     * node sources whose displayed attributes changed, the views are sorted once the current delta is applied
+     */
+    private final Map<String, NodeSource> nodeSourcesToSort = new LinkedHashMap<>();
+
     private class TNode extends TreeNode {
         Node rmNode = null;
 
@@ -162,11 +172,10 @@ public class TreeView implements NodesListener, NodeSelectedListener {
             this.rmNS = ns;
             this.setAttribute(NODE_ID, ns.getSourceName());
 
-            NodeSourceDisplayedNumberOfNodes nodeSourceDisplayedNumberOfNodes = new NodeSourceDisplayedNumberOfNodes(ns,
-                                                                                                                     currentNodes);
-            super.setAttribute(NUMBER_OF_NODES, nodeSourceDisplayedNumberOfNodes.getNumberOfNodes());
-            super.setAttribute(NUMBER_OF_BUSY_NODES, nodeSourceDisplayedNumberOfNodes.getNumberOfBusyNodes());
-            super.setAttribute(PERCENTAGE_OF_BUSY_NODES, nodeSourceDisplayedNumberOfNodes.getPercentageOfBusyNodes());
+            // the numbers of nodes are computed when the delta adding this node source is applied
+            super.setAttribute(NUMBER_OF_NODES, 0);
+            super.setAttribute(NUMBER_OF_BUSY_NODES, 0);
+            super.setAttribute(PERCENTAGE_OF_BUSY_NODES, "0%");
             super.setAttribute(NUMBER_OF_DEPLOYING_NODES, ns.getDeploying().size());
 
         }
@@ -180,19 +189,17 @@ public class TreeView implements NodesListener, NodeSelectedListener {
 
         private String percentageOfBusyNodes = "0%";
 
-        NodeSourceDisplayedNumberOfNodes(NodeSource nodeSource, List<Node> currentNodes) {
+        /**
+         * @param nodeSource node source to count the nodes of
+         * @param currentNodesOfSource current nodes belonging to the node source
+         */
+        NodeSourceDisplayedNumberOfNodes(NodeSource nodeSource, List<Node> currentNodesOfSource) {
             // Process nodes from the delta = nodes that have changed
-            List<Node> nodes = nodeSource.getHosts()
-                                         .values()
-                                         .stream()
-                                         .flatMap(host -> host.getNodes().values().stream())
-                                         .collect(Collectors.toList());
+            Set<Node> nodes = new HashSet<>();
+            nodeSource.getHosts().values().forEach(host -> nodes.addAll(host.getNodes().values()));
 
             // Process currentNodes, needed for a dynamic update of a NS where nodes haven't changed. Nodes don't change so they are not part of the delta
-            nodes.addAll(currentNodes.stream()
-                                     .filter(node -> node.getSourceName().equals(nodeSource.getSourceName()) &&
-                                                     !nodes.contains(node))
-                                     .collect(Collectors.toList()));
+            nodes.addAll(currentNodesOfSource);
             if (!nodes.isEmpty()) {
                 numberOfNodes = nodes.size();
                 numberOfBusyNodes = (int) nodes.stream()
@@ -265,7 +272,7 @@ public class TreeView implements NodesListener, NodeSelectedListener {
         this.controller.getEventDispatcher().addNodesListener(this);
         this.controller.getEventDispatcher().addNodeSelectedListener(this);
         this.currentTreeNodes = new HashMap<>();
-        this.currentNodes = new LinkedList<>();
+        this.currentNodes = new LinkedHashSet<>();
     }
 
     Canvas build(CompactView compactView) {
@@ -418,20 +425,20 @@ public class TreeView implements NodesListener, NodeSelectedListener {
     public void sortCompactView(CompactView compactView, List<NodeSource> nodeSources) {
         nodeSources = nodeSources == null ? currentNodeSources : nodeSources;
         compactView.removeNodeSources(currentNodeSources);
-        compactView.updateByDelta(nodeSources, currentNodes);
+        compactView.updateByDelta(nodeSources, new ArrayList<>(currentNodes));
     }
 
     @Override
     public void updateByDelta(List<NodeSource> nodeSources, List<Node> nodes) {
         processNodeSources(nodeSources, nodes);
 
-        treeGrid.refreshFields();
-
         processNodes(nodes);
 
-        treeGrid.refreshFields();
+        applyNodeSourceChanges();
+
+        getTreeGrid().refreshFields();
 
-        treeGrid.markForRedraw();
+        getTreeGrid().markForRedraw();
 
         if (isExpandAll) {
             tree.openAll();
@@ -468,20 +475,15 @@ public class TreeView implements NodesListener, NodeSelectedListener {
             currentNodes.add(node);
             treeNode.rmNode = node;
             treeNode.setIcon(node.getIcon());
-            List<NodeSource> nodeSources = currentNodeSources.stream()
-                                                             .filter(nodeSource -> nodeSource.getSourceName()
-                                                                                             .equals(node.getSourceName()))
-                                                             .collect(Collectors.toList());
-            if (!nodeSources.isEmpty()) {
-                addNodeToNodeSource(Collections.singletonList(node), nodeSources.get(0));
-                if (nodeSources.get(0).getHosts() != null &&
-                    nodeSources.get(0).getHosts().get(node.getHostName()) != null &&
-                    nodeSources.get(0).getHosts().get(node.getHostName()).getNodes() != null) {
-                    nodeSources.get(0).getHosts().get(node.getHostName()).getNodes().put(node.getNodeUrl(), node);
+            NodeSource nodeSource = getNodeSourceBySourceName(node.getSourceName());
+            if (nodeSource != null) {
+                addNodeToNodeSource(Collections.singletonList(node), nodeSource);
+                if (nodeSource.getHosts() != null && nodeSource.getHosts().get(node.getHostName()) != null &&
+                    nodeSource.getHosts().get(node.getHostName()).getNodes() != null) {
+                    nodeSource.getHosts().get(node.getHostName()).getNodes().put(node.getNodeUrl(), node);
                 }
-                updateNodeSourceDisplayedNumberOfNodesIfChanged(nodeSources.get(0));
+                updateNodeSourceDisplayedNumberOfNodesIfChanged(nodeSource);
             }
-            NodeSource nodeSource = getNodeSourceBySourceName(node.getSourceName());
             if (nodeSource != null && node.isDeployingNode() &&
                 !nodeSource.getDeploying().containsKey(node.getNodeUrl())) {
                 addDeployingNode(nodeSource, node);
@@ -594,19 +596,14 @@ public class TreeView implements NodesListener, NodeSelectedListener {
                     }
                 }
             });
-            List<NodeSource> filteredNodeSources = currentNodeSources.stream()
-                                                                     .filter(nodeSource -> nodeSource.getSourceName()
-                                                                                                     .equals(node.getSourceName()))
-                                                                     .collect(Collectors.toList());
-            if (!filteredNodeSources.isEmpty()) {
-                if (filteredNodeSources.get(0).getHosts() != null &&
-                    filteredNodeSources.get(0).getHosts().get(node.getHostName()) != null &&
-                    filteredNodeSources.get(0).getHosts().get(node.getHostName()).getNodes() != null) {
-                    filteredNodeSources.get(0).getHosts().get(node.getHostName()).getNodes().remove(node.getNodeUrl());
+            NodeSource nodeSource = getNodeSourceBySourceName(node.getSourceName());
+            if (nodeSource != null) {
+                if (nodeSource.getHosts() != null && nodeSource.getHosts().get(node.getHostName()) != null &&
+                    nodeSource.getHosts().get(node.getHostName()).getNodes() != null) {
+                    nodeSource.getHosts().get(node.getHostName()).getNodes().remove(node.getNodeUrl());
                 }
-                updateNodeSourceDisplayedNumberOfNodesIfChanged(filteredNodeSources.get(0));
+                updateNodeSourceDisplayedNumberOfNodesIfChanged(nodeSource);
             }
-            NodeSource nodeSource = getNodeSourceBySourceName(node.getSourceName());
             if (nodeSource != null && node.isDeployingNode()) {
                 removeDeployingNode(nodeSource, node);
             }
@@ -652,12 +649,18 @@ public class TreeView implements NodesListener, NodeSelectedListener {
     }
 
     private void addNodesToNodeSources(List<NodeSource> nodeSources, List<Node> nodes) {
-        nodeSources.forEach(nodeSource -> {
-            List<Node> filteredNodes = nodes.stream()
-                                            .filter(node -> node.getSourceName().equals(nodeSource.getSourceName()))
-                                            .collect(Collectors.toList());
-            addNodeToNodeSource(filteredNodes, nodeSource);
-        });
+        Map<String, List<Node>> nodesBySource = groupBySourceName(nodes);
+        nodeSources.forEach(nodeSource -> addNodeToNodeSource(nodesBySource.getOrDefault(nodeSource.getSourceName(),
+                                                                                         Collections.emptyList()),
+                                                              nodeSource));
+    }
+
+    private static Map<String, List<Node>> groupBySourceName(Collection<Node> nodes) {
+        Map<String, List<Node>> nodesBySource = new HashMap<>();
+        for (Node node : nodes) {
+            nodesBySource.computeIfAbsent(node.getSourceName(), sourceName -> new ArrayList<>()).add(node);
+        }
+        return nodesBySource;
     }
 
     private void addNodeToNodeSource(List<Node> nodes, NodeSource nodeSource) {
@@ -714,107 +717,124 @@ public class TreeView implements NodesListener, NodeSelectedListener {
     private void updateNodeSourceDescriptionIfChanged(NodeSource nodeSource) {
         TNS currentNs = (TNS) currentTreeNodes.get(nodeSource.getSourceName());
         NodeSourceDisplayedDescription nodeSourceDisplayedDescription = new NodeSourceDisplayedDescription(nodeSource.getSourceDescription());
+        boolean changed = false;
 
-        if (!currentNs.getAttribute(INFRASTRUCTURE_FIELD).equals(nodeSourceDisplayedDescription.getInfrastructure())) {
+        if (isAttributeChanged(currentNs, INFRASTRUCTURE_FIELD, nodeSourceDisplayedDescription.getInfrastructure())) {
             currentNs.setAttribute(INFRASTRUCTURE_FIELD, nodeSourceDisplayedDescription.getInfrastructure());
-            currentTreeNodes.put(nodeSource.getSourceName(), currentNs);
-            currentNodeSources.remove(nodeSource);
-            currentNodeSources.add(nodeSource);
-            sortNotEmptyNsView(nodeSource);
+            changed = true;
         }
-        if (!currentNs.getAttribute(POLICY_FIELD).equals(nodeSourceDisplayedDescription.getPolicy())) {
+        if (isAttributeChanged(currentNs, POLICY_FIELD, nodeSourceDisplayedDescription.getPolicy())) {
             currentNs.setAttribute(POLICY_FIELD, nodeSourceDisplayedDescription.getPolicy());
-            currentTreeNodes.put(nodeSource.getSourceName(), currentNs);
-            currentNodeSources.remove(nodeSource);
-            currentNodeSources.add(nodeSource);
-            sortNotEmptyNsView(nodeSource);
+            changed = true;
         }
-        if (!currentNs.getAttribute(ACCESS_FIELD).equals(nodeSourceDisplayedDescription.getAccess())) {
+        if (isAttributeChanged(currentNs, ACCESS_FIELD, nodeSourceDisplayedDescription.getAccess())) {
             currentNs.setAttribute(ACCESS_FIELD, nodeSourceDisplayedDescription.getAccess());
-            currentTreeNodes.put(nodeSource.getSourceName(), currentNs);
-            currentNodeSources.remove(nodeSource);
-            currentNodeSources.add(nodeSource);
-            sortNotEmptyNsView(nodeSource);
+            changed = true;
+        }
+        if (changed) {
+            nodeSourceDisplayChanged(nodeSource);
         }
-
     }
 
+    /**
+     * The numbers of nodes only depend on the state reached at the end of the delta,
+     * they are computed once for each node source by {@link #applyNodeSourceChanges()}
+     */
     private void updateNodeSourceDisplayedNumberOfNodesIfChanged(NodeSource nodeSource) {
+        nodeSourcesToCount.put(nodeSource.getSourceName(), nodeSource);
+    }
+
+    private void updateNodeSourceDisplayedNumberOfNodes(NodeSource nodeSource, List<Node> currentNodesOfSource) {
         TNS currentNs = (TNS) currentTreeNodes.get(nodeSource.getSourceName());
         NodeSourceDisplayedNumberOfNodes nodeSourceDisplayedNumberOfNodes = new NodeSourceDisplayedNumberOfNodes(nodeSource,
-                                                                                                                 currentNodes);
-        updateNodeSourceNumberOfNodesIfChanged(nodeSource, currentNs, nodeSourceDisplayedNumberOfNodes);
-        updateNodeSourceNumberOfBusyNodesIfChanged(nodeSource, currentNs, nodeSourceDisplayedNumberOfNodes);
-        updateNodeSourcePercentageOfBusyNodesIfChanged(nodeSource, currentNs, nodeSourceDisplayedNumberOfNodes);
-        updateNodeSourceNumberOfDeployingNodesIfChanged(nodeSource, currentNs);
-    }
-
-    private void updateNodeSourceNumberOfDeployingNodesIfChanged(NodeSource nodeSource, TNS currentNs) {
-        if (!currentNs.getAttribute(NUMBER_OF_DEPLOYING_NODES)
-                      .equals(String.valueOf(nodeSource.getDeploying().size()))) {
-            currentNs.setAttribute(NUMBER_OF_DEPLOYING_NODES, nodeSource.getDeploying().size());
-            currentTreeNodes.put(nodeSource.getSourceName(), currentNs);
-            currentNodeSources.remove(nodeSource);
-            currentNodeSources.add(nodeSource);
-            sortNotEmptyNsView(nodeSource);
-        }
-    }
+                                                                                                                 currentNodesOfSource);
+        boolean changed = false;
 
-    private void updateNodeSourcePercentageOfBusyNodesIfChanged(NodeSource nodeSource, TNS currentNs,
-            NodeSourceDisplayedNumberOfNodes nodeSourceDisplayedNumberOfNodes) {
-        if (!currentNs.getAttribute(PERCENTAGE_OF_BUSY_NODES)
-                      .equals(String.valueOf(nodeSourceDisplayedNumberOfNodes.getPercentageOfBusyNodes()))) {
-            currentNs.setAttribute(PERCENTAGE_OF_BUSY_NODES,
-                                   String.valueOf(nodeSourceDisplayedNumberOfNodes.getPercentageOfBusyNodes()));
-            currentTreeNodes.put(nodeSource.getSourceName(), currentNs);
-            currentNodeSources.remove(nodeSource);
-            currentNodeSources.add(nodeSource);
-            sortNotEmptyNsView(nodeSource);
+        int numberOfNodes = nodeSource.isUndeployed() ? 0 : nodeSourceDisplayedNumberOfNodes.getNumberOfNodes();
+        if (isAttributeChanged(currentNs, NUMBER_OF_NODES, String.valueOf(numberOfNodes))) {
+            currentNs.setAttribute(NUMBER_OF_NODES, numberOfNodes);
+            changed = true;
+        }
+        int numberOfBusyNodes = nodeSourceDisplayedNumberOfNodes.getNumberOfBusyNodes();
+        if (isAttributeChanged(currentNs, NUMBER_OF_BUSY_NODES, String.valueOf(numberOfBusyNodes))) {
+            currentNs.setAttribute(NUMBER_OF_BUSY_NODES, numberOfBusyNodes);
+            changed = true;
+        }
+        String percentageOfBusyNodes = nodeSourceDisplayedNumberOfNodes.getPercentageOfBusyNodes();
+        if (isAttributeChanged(currentNs, PERCENTAGE_OF_BUSY_NODES, percentageOfBusyNodes)) {
+            currentNs.setAttribute(PERCENTAGE_OF_BUSY_NODES, percentageOfBusyNodes);
+            changed = true;
+        }
+        int numberOfDeployingNodes = nodeSource.getDeploying().size();
+        if (isAttributeChanged(currentNs, NUMBER_OF_DEPLOYING_NODES, String.valueOf(numberOfDeployingNodes))) {
+            currentNs.setAttribute(NUMBER_OF_DEPLOYING_NODES, numberOfDeployingNodes);
+            changed = true;
+        }
+        if (changed) {
+            nodeSourceDisplayChanged(nodeSource);
         }
     }
 
-    private void updateNodeSourceNumberOfBusyNodesIfChanged(NodeSource nodeSource, TNS currentNs,
-            NodeSourceDisplayedNumberOfNodes nodeSourceDisplayedNumberOfNodes) {
-        if (!currentNs.getAttribute(NUMBER_OF_BUSY_NODES)
-                      .equals(String.valueOf(nodeSourceDisplayedNumberOfNodes.getNumberOfBusyNodes()))) {
-            currentNs.setAttribute(NUMBER_OF_BUSY_NODES, nodeSourceDisplayedNumberOfNodes.getNumberOfBusyNodes());
-            currentTreeNodes.put(nodeSource.getSourceName(), currentNs);
-            currentNodeSources.remove(nodeSource);
-            currentNodeSources.add(nodeSource);
-            sortNotEmptyNsView(nodeSource);
-        }
+    private static boolean isAttributeChanged(TreeNode treeNode, String attribute, String value) {
+        return !value.equals(treeNode.getAttribute(attribute));
     }
 
-    private void updateNodeSourceNumberOfNodesIfChanged(NodeSource nodeSource, TNS currentNs,
-            NodeSourceDisplayedNumberOfNodes nodeSourceDisplayedNumberOfNodes) {
-        int numberOfNodes = nodeSource.isUndeployed() ? 0 : nodeSourceDisplayedNumberOfNodes.getNumberOfNodes();
-        if (!currentNs.getAttribute(NUMBER_OF_NODES).equals(String.valueOf(numberOfNodes))) {
-            currentNs.setAttribute(NUMBER_OF_NODES, numberOfNodes);
-            currentTreeNodes.put(nodeSource.getSourceName(), currentNs);
-            currentNodeSources.remove(nodeSource);
-            currentNodeSources.add(nodeSource);
-            sortNotEmptyNsView(nodeSource);
-        }
+    /**
+     * Keeps the last displayed version of a node source, the views are sorted
+     * by {@link #applyNodeSourceChanges()}
+     */
+    private void nodeSourceDisplayChanged(NodeSource nodeSource) {
+        currentNodeSources.remove(nodeSource);
+        currentNodeSources.add(nodeSource);
+        nodeSourcesToSort.put(nodeSource.getSourceName(), nodeSource);
     }
 
+    /**
+     * The sort is done once for all the node sources of the delta by {@link #applyNodeSourceChanges()}
+     */
     private void sortNotEmptyNsView(NodeSource nodeSource) {
-        if (hideEmptyNs && isHidden(nodeSource)) {
-            hideNodeSource(nodeSource);
-            sortCompactView(compactView,
-                            currentNodeSources.stream()
-                                              .filter(ns -> !ns.getHosts().isEmpty() || !ns.getDeploying().isEmpty())
-                                              .collect(Collectors.toList()));
-        } else if (hideEmptyNs) {
-            showNodeSource(nodeSource);
+        nodeSourcesToSort.put(nodeSource.getSourceName(), nodeSource);
+    }
+
+    /**
+     * Updates the numbers of nodes of the node sources touched by the delta,
+     * then sorts the tree and the compact view at most once
+     */
+    void applyNodeSourceChanges() {
+        if (!nodeSourcesToCount.isEmpty()) {
+            Map<String, List<Node>> currentNodesBySource = groupBySourceName(currentNodes);
+            for (NodeSource nodeSource : nodeSourcesToCount.values()) {
+                if (currentTreeNodes.get(nodeSource.getSourceName()) instanceof TNS) {
+                    updateNodeSourceDisplayedNumberOfNodes(nodeSource,
+                                                           currentNodesBySource.getOrDefault(nodeSource.getSourceName(),
+                                                                                             Collections.emptyList()));
+                }
+            }
+            nodeSourcesToCount.clear();
+        }
+        if (nodeSourcesToSort.isEmpty()) {
+            return;
+        }
+        if (hideEmptyNs) {
+            for (NodeSource nodeSource : nodeSourcesToSort.values()) {
+                if (!currentTreeNodes.containsKey(nodeSource.getSourceName())) {
+                    continue;
+                }
+                if (isHidden(nodeSource)) {
+                    hideNodeSource(nodeSource);
+                } else {
+                    showNodeSource(nodeSource);
+                }
+            }
             sortCompactView(compactView,
                             currentNodeSources.stream()
                                               .filter(ns -> !ns.getHosts().isEmpty() || !ns.getDeploying().isEmpty())
                                               .collect(Collectors.toList()));
-        }
-        if (!hideEmptyNs) {
+        } else {
             getTreeGrid().sort();
             sortCompactView(compactView, currentNodeSources);
         }
+        nodeSourcesToSort.clear();
     }
 
     void removeNodeSource(NodeSource nodeSource) {
@@ -826,17 +846,14 @@ public class TreeView implements NodesListener, NodeSelectedListener {
                 if (treeNode instanceof THost) {
                     final THost tHost = (THost) treeNode;
                     currentTreeNodes.remove(tHost.rmHost.getId());
-                    removeCurrentNodeSource(nodeSource);
                 } else if (treeNode instanceof TNode) {
                     final TNode tNode = (TNode) treeNode;
                     currentTreeNodes.remove(tNode.rmNode.getNodeUrl());
-                    removeCurrentNodeSource(nodeSource);
                 }
             }
 
             tree.remove(treeNodeSource);
             currentTreeNodes.remove(nodeSource.getSourceName());
-            removeCurrentNodeSource(nodeSource);
         }
     }
 
@@ -877,10 +894,7 @@ public class TreeView implements NodesListener, NodeSelectedListener {
     }
 
     private void removeCurrentNodeSource(NodeSource nodeSource) {
-        List<Node> removesNodes = currentNodes.stream()
-                                              .filter(node -> node.getSourceName().equals(nodeSource.getSourceName()))
-                                              .collect(Collectors.toList());
-        currentNodes.removeAll(removesNodes);
+        currentNodes.removeIf(node -> node.getSourceName().equals(nodeSource.getSourceName()));
         currentNodeSources.remove(nodeSource);
     }
 
@@ -0,0 +1,140 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.client.monitoring;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
+import org.ow2.proactive_grid_cloud_portal.rm.client.RMServiceAsync;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.NodeMBeanRequest;
+
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+
+
+/**
+ * Groups the MBean requests issued by the monitoring charts.
+ * <p>
+ * Requests made during the same event loop turn are sent once control returns
+ * to the browser, in one {@link RMServiceAsync#getNodeMBeansData} call per node JMX url,
+ * so that refreshing every chart of a view costs a single round trip.
+ */
+public class NodeMBeanBatcher {
+
+    private static NodeMBeanBatcher instance = null;
+
+    private final Map<String, List<PendingRequest>> pendingRequests = new LinkedHashMap<>();
+
+    private RMServiceAsync rm;
+
+    private boolean flushScheduled = false;
+
+    private NodeMBeanBatcher() {
+    }
+
+    public static NodeMBeanBatcher getInstance() {
+        if (instance == null) {
+            instance = new NodeMBeanBatcher();
+        }
+        return instance;
+    }
+
+    /**
+     * Queues a request, sent with the other requests of the current event loop turn
+     *
+     * @param rm service used to send the batch
+     * @param nodeJmxUrl mbean server url
+     * @param request mbean and attributes to fetch
+     * @param callback receives the JSON result of the request
+     */
+    public void fetch(RMServiceAsync rm, String nodeJmxUrl, NodeMBeanRequest request,
+            AsyncCallback<String> callback) {
+        this.rm = rm;
+        List<PendingRequest> requests = pendingRequests.get(nodeJmxUrl);
+        if (requests == null) {
+            requests = new ArrayList<>();
+            pendingRequests.put(nodeJmxUrl, requests);
+        }
+        requests.add(new PendingRequest(request, callback));
+
+        if (!flushScheduled) {
+            flushScheduled = true;
+            Scheduler.get().scheduleDeferred(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        Map<String, List<PendingRequest>> batches = new LinkedHashMap<>(pendingRequests);
+        pendingRequests.clear();
+
+        String sessionId = LoginModel.getInstance().getSessionId();
+        for (Map.Entry<String, List<PendingRequest>> batch : batches.entrySet()) {
+            final List<PendingRequest> requests = batch.getValue();
+            List<NodeMBeanRequest> mbeanRequests = new ArrayList<>(requests.size());
+            for (PendingRequest request : requests) {
+                mbeanRequests.add(request.request);
+            }
+
+            rm.getNodeMBeansData(sessionId, batch.getKey(), mbeanRequests, new AsyncCallback<List<String>>() {
+                @Override
+                public void onSuccess(List<String> results) {
+                    for (int i = 0; i < requests.size(); i++) {
+                        PendingRequest request = requests.get(i);
+                        String result = i < results.size() ? results.get(i) : null;
+                        if (result == null) {
+                            request.callback.onFailure(new Exception("Failed to fetch " + request.request));
+                        } else {
+                            request.callback.onSuccess(result);
+                        }
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable caught) {
+                    for (PendingRequest request : requests) {
+                        request.callback.onFailure(caught);
+                    }
+                }
+            });
+        }
+    }
+
+    private static class PendingRequest {
+
+        private final NodeMBeanRequest request;
+
+        private final AsyncCallback<String> callback;
+
+        PendingRequest(NodeMBeanRequest request, AsyncCallback<String> callback) {
+            this.request = request;
+            this.callback = callback;
+        }
+    }
+}
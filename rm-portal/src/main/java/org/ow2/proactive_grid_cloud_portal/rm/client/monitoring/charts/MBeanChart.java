@@ -40,7 +40,10 @@ import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMController;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMServiceAsync;
+import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.NodeMBeanBatcher;
 import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.Reloadable;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.NodeMBeanRequest;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.RMConfig;
 import org.pepstock.charba.client.AbstractChart;
 import org.pepstock.charba.client.IsChart;
 import org.pepstock.charba.client.LineChart;
@@ -244,7 +247,7 @@ public abstract class MBeanChart extends VLayout implements Reloadable {
 
         LoginModel loginModel = LoginModel.getInstance();
 
-        AsyncCallback callback = new AsyncCallback<String>() {
+        AsyncCallback<String> callback = new AsyncCallback<String>() {
             public void onSuccess(String result) {
                 if (onFinish != null) {
                     onFinish.run();
@@ -272,20 +275,15 @@ public abstract class MBeanChart extends VLayout implements Reloadable {
             }
         };
 
-        if (realTime) {
-            rm.getNodeMBeanInfo(loginModel.getSessionId(), jmxServerUrl, mbeanName, Arrays.asList(attrs), callback);
-        } else {
-            try {
-                rm.getNodeMBeanHistory(loginModel.getSessionId(),
-                                       jmxServerUrl,
-                                       mbeanName,
-                                       Arrays.asList(attrs),
-                                       String.valueOf(timeRange.getChar()),
-                                       callback);
-            } catch (Exception e) {
-                LogModel.getInstance().logMessage(e.getMessage());
-            }
-        }
+        String range = realTime ? null : String.valueOf(timeRange.getChar());
+        NodeMBeanBatcher.getInstance().fetch(rm,
+                                             jmxServerUrl,
+                                             new NodeMBeanRequest(mbeanName,
+                                                                  Arrays.asList(attrs),
+                                                                  false,
+                                                                  range,
+                                                                  RMConfig.get().getHistoryMaxPoints()),
+                                             callback);
     }
 
     protected int getJsonInternalSize(JSONObject json) {
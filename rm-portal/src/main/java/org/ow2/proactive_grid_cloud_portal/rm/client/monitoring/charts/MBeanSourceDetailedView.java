@@ -60,6 +60,8 @@ public class MBeanSourceDetailedView extends DetailViewer {
 
     private List<String> attrs;
 
+    private Runnable onFinish;
+
     public MBeanSourceDetailedView(AsyncCallback<String> extraCallback, RMController controller, String jmxServerUrl,
             String mbean, List<String> attrs) {
         this.extraCallback = extraCallback;
@@ -89,6 +91,9 @@ public class MBeanSourceDetailedView extends DetailViewer {
         // loading runtime info
         rm.getNodeMBeanInfo(loginModel.getSessionId(), jmxServerUrl, mbean, attrs, new AsyncCallback<String>() {
             public void onSuccess(String result) {
+                if (onFinish != null) {
+                    onFinish.run();
+                }
 
                 if (extraCallback != null) {
                     extraCallback.onSuccess(result);
@@ -139,6 +144,10 @@ public class MBeanSourceDetailedView extends DetailViewer {
             }
 
             public void onFailure(Throwable caught) {
+                if (onFinish != null) {
+                    onFinish.run();
+                }
+
                 if (extraCallback != null) {
                     String errmessage = caught.getMessage();
                     if (caught instanceof RestServerException &&
@@ -160,4 +169,8 @@ public class MBeanSourceDetailedView extends DetailViewer {
         });
     }
 
+    public void onFinish(Runnable onFinish) {
+        this.onFinish = onFinish;
+    }
+
 }
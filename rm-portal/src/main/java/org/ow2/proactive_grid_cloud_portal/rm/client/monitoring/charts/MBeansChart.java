@@ -33,6 +33,9 @@ import org.ow2.proactive_grid_cloud_portal.common.client.model.LogModel;
 import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMController;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMServiceAsync;
+import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.NodeMBeanBatcher;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.NodeMBeanRequest;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.RMConfig;
 
 import com.google.gwt.json.client.JSONArray;
 import com.google.gwt.json.client.JSONNumber;
@@ -85,20 +88,15 @@ public abstract class MBeansChart extends MBeanChart {
             }
         };
 
-        if (realTime) {
-            rm.getNodeMBeansInfo(loginModel.getSessionId(), jmxServerUrl, mbeanName, Arrays.asList(attrs), callback);
-        } else {
-            try {
-                rm.getNodeMBeansHistory(loginModel.getSessionId(),
-                                        jmxServerUrl,
-                                        mbeanName,
-                                        Arrays.asList(attrs),
-                                        String.valueOf(timeRange.getChar()),
-                                        callback);
-            } catch (Exception e) {
-                LogModel.getInstance().logMessage(e.getMessage());
-            }
-        }
+        String range = realTime ? null : String.valueOf(timeRange.getChar());
+        NodeMBeanBatcher.getInstance().fetch(rm,
+                                             jmxServerUrl,
+                                             new NodeMBeanRequest(mbeanName,
+                                                                  Arrays.asList(attrs),
+                                                                  true,
+                                                                  range,
+                                                                  RMConfig.get().getHistoryMaxPoints()),
+                                             callback);
     }
 
     protected int getJsonInternalSize(JSONObject json) {
@@ -181,7 +181,14 @@ public class NetworkView extends VLayout implements Reloadable {
     }
 
     @Override
-    public void reload() {
+    public synchronized void reload() {
+        if (chain == null) {
+            // the network interfaces are not known yet, or could not be fetched
+            if (onFinish != null) {
+                onFinish.run();
+            }
+            return;
+        }
         chain.reload();
     }
 
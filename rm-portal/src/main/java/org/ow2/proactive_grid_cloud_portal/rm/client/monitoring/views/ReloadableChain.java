@@ -29,7 +29,10 @@ import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.Reloadable;
 
 
 /**
- * Reloads components one after another
+ * Reloads components together, and notifies when all of them are reloaded
+ * <p>
+ * The components are reloaded during the same event loop turn so that their MBean
+ * requests are grouped in one call by {@link org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.NodeMBeanBatcher}.
  */
 public class ReloadableChain implements Reloadable {
 
@@ -37,41 +40,59 @@ public class ReloadableChain implements Reloadable {
 
     private boolean reloading = false;
 
+    /** number of components of the current reload which are not reloaded yet */
+    private int pending = 0;
+
     private Runnable onFinish;
 
     public ReloadableChain(Reloadable... reloadables) {
         this.reloadables = reloadables;
 
-        for (int i = 0; i < reloadables.length - 1; i++) {
-            final int index = i;
-            reloadables[i].onFinish(new Runnable() {
+        for (Reloadable reloadable : reloadables) {
+            reloadable.onFinish(new Runnable() {
                 public void run() {
-                    if (reloading) {
-                        ReloadableChain.this.reloadables[index + 1].reload();
-                    }
+                    reloaded();
                 }
             });
         }
-        reloadables[reloadables.length - 1].onFinish(new Runnable() {
-            public void run() {
-                reloading = false;
-                if (onFinish != null) {
-                    onFinish.run();
-                }
-            }
-        });
+    }
+
+    private void reloaded() {
+        if (pending == 0) {
+            return;
+        }
+        pending--;
+        if (pending == 0 && reloading) {
+            finished();
+        }
+    }
+
+    private void finished() {
+        reloading = false;
+        if (onFinish != null) {
+            onFinish.run();
+        }
     }
 
     public synchronized void stopReloading() {
         reloading = false;
+        // components still reloading are not waited for, the next reload starts anew
+        pending = 0;
     }
 
     public void reload() {
-        if (reloading) {
+        if (reloading || pending > 0) {
             return;
         }
         reloading = true;
-        reloadables[0].reload();
+        if (reloadables.length == 0) {
+            finished();
+            return;
+        }
+        pending = reloadables.length;
+        for (Reloadable reloadable : reloadables) {
+            reloadable.reload();
+        }
     }
 
     @Override
@@ -63,6 +63,8 @@ public class SourceHostsView extends VLayout implements Reloadable {
 
     private VLayout currpane;
 
+    private Runnable onFinish;
+
     public SourceHostsView(final RMController controller, final String url, String nsname,
             AsyncCallback<String> extraCallback) {
 
@@ -103,6 +105,9 @@ public class SourceHostsView extends VLayout implements Reloadable {
 
         rm.getNodeMBeansInfo(loginModel.getSessionId(), url, mbeanname, mbeanAttrs, new AsyncCallback<String>() {
             public void onSuccess(String result) {
+                if (onFinish != null) {
+                    onFinish.run();
+                }
 
                 // Result should look like this: 
                 // {"ProActiveResourceManager:name=IaasMonitoring-OPENSTACK_NS_26599":
@@ -184,6 +189,9 @@ public class SourceHostsView extends VLayout implements Reloadable {
             }
 
             public void onFailure(Throwable caught) {
+                if (onFinish != null) {
+                    onFinish.run();
+                }
 
                 if (extraCallback != null) {
                     String errmessage = caught.getMessage();
@@ -243,5 +251,6 @@ public class SourceHostsView extends VLayout implements Reloadable {
 
     @Override
     public synchronized void onFinish(Runnable onFinish) {
+        this.onFinish = onFinish;
     }
 }
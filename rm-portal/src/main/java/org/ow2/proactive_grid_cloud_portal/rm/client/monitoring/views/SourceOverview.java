@@ -72,6 +72,7 @@ public class SourceOverview extends VLayout implements Reloadable {
 
     @Override
     public void onFinish(Runnable callback) {
+        nsInfo.onFinish(callback);
     }
 
 }
@@ -25,8 +25,10 @@
  */
 package org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views.compact;
 
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource;
@@ -44,12 +46,13 @@ import com.google.gwt.user.client.ui.FlowPanel;
  * FlowPanel. Plus we should be quite fast in finding indexes (in case we have 20K nodes).
  *
  * Thus, to have at the same time hierarchical structure (model) and
- * be able to find any index of this model we keep always updated tilesNumber field
- * in HierarchyNodeSource and HierarchyHost.
- * For example: we want to update node. For this we need to find index of the tile which represents
- * this node. Initially index is zero. Then we sequentially go through nodesources,
- * hosts, and nodes. Until we find our node, we add to index value of tilesNumber field of HierarchyNodeSource
- * and HierarchyHost, and 1 for the case of Node.
+ * be able to find any index of this model, every tile of the model is kept in a TileIndex,
+ * in the order of the FlowPanel. Nodesources are found by sourceName, hosts by hostName
+ * in their HierarchyNodeSource, and nodes by nodeUrl in their HierarchyHost.
+ * For example: we want to update node. We find its tile through these maps, then the TileIndex
+ * gives the index of this tile in O(log n), whatever the number of nodes drawn before it.
+ * tilesNumber fields of HierarchyNodeSource and HierarchyHost are still kept updated,
+ * they give the number of tiles of a nodesource or a host.
  *
  * Host tilesNumber are ephemeral because CompactFlowPanel handle them by it self.
  * As soon there is node but there is no dedicated host for this node, host will be created.
@@ -60,6 +63,17 @@ public class CompactFlowPanel extends FlowPanel {
 
     protected List<HierarchyNodeSource> model = new LinkedList<>();
 
+    /**
+     * Tiles of the model, in the order of the model.
+     */
+    protected final TileIndex tiles = new TileIndex();
+
+    /**
+     * Drawn nodesources by sourceName, in the order of the model. Several nodesources can have
+     * the same name, as the empty spaces between nodesources.
+     */
+    private final Map<String, List<HierarchyNodeSource>> nodeSourcesByName = new HashMap<>();
+
     private Tile currentSelectedTile;
 
     private NodeRemover nodeRemover;
@@ -88,7 +102,7 @@ public class CompactFlowPanel extends FlowPanel {
     }
 
     public void drawNodeSource(Tile nsTile) {
-        model.add(new HierarchyNodeSource(nsTile.getNodesource()));
+        addToModel(nsTile.getNodesource(), tiles.size());
         this.insert(nsTile, tileIndex);
         tileIndex++;
     }
@@ -101,13 +115,11 @@ public class CompactFlowPanel extends FlowPanel {
     }
 
     public boolean isNodeSourceDrawn(String sourceName) {
-        return model.stream().anyMatch(hierarchyNodeSource -> hierarchyNodeSource.getNodeSource()
-                                                                                 .getSourceName()
-                                                                                 .equals(sourceName));
+        return findNodeSource(sourceName) != null;
     }
 
     public boolean isNodeDrawn(NodeSource.Host.Node node) {
-        return indexOf(node).isPresent();
+        return nodeRemover.isDrawn(node);
     }
 
     public void redrawNode(NodeSource.Host.Node node) {
@@ -127,69 +139,63 @@ public class CompactFlowPanel extends FlowPanel {
     }
 
     protected void drawNormalNode(Tile nodeTile, Tile hostTile) {
-        int index = 0;
-
-        for (HierarchyNodeSource hierarchyNodeSource : model) {
-            if (hierarchyNodeSource.getNodeSource().getSourceName().equals(nodeTile.getNode().getSourceName())) {
-                ++index;
-                index += hierarchyNodeSource.getDeploying().size();
-
-                int indexOfFirstHost = index;
-
-                for (HierarchyHost hierarchyHost : hierarchyNodeSource.getHosts()) {
-                    if (hierarchyHost.getHost().getHostName().equals(nodeTile.getNode().getHostName())) {
-                        ++index;
-
-                        hierarchyNodeSource.incrementTiles();
-                        hierarchyHost.incrementTiles();
-
-                        hierarchyHost.getNodes().add(0, nodeTile.getNode());
-
-                        this.insert(nodeTile, index);
-                        return;
-                    } else {
-                        index += hierarchyHost.getTilesNumber();
-                    }
-                }
-
-                // if we are here than there is no host for this node yet
-                // thus we will add it and node after
-                hierarchyNodeSource.incrementTiles();
-                final HierarchyHost hierarchyHost = new HierarchyHost(hostTile.getHost());
-                hierarchyNodeSource.getHosts().add(0, hierarchyHost);
-                this.insert(hostTile, indexOfFirstHost);
-
-                hierarchyNodeSource.incrementTiles();
-                hierarchyHost.incrementTiles();
-                hierarchyHost.getNodes().add(0, nodeTile.getNode());
-                this.insert(nodeTile, indexOfFirstHost + 1);
-
-                return;
+        final HierarchyNodeSource hierarchyNodeSource = findNodeSource(nodeTile.getNode().getSourceName());
+        if (hierarchyNodeSource == null) {
+            return;
+        }
 
-            } else {
-                index += hierarchyNodeSource.getTilesNumber();
-            }
+        HierarchyHost hierarchyHost = hierarchyNodeSource.getHost(nodeTile.getNode().getHostName());
+        if (hierarchyHost == null) {
+            // there is no host for this node yet
+            // thus we will add it and node after
+            hierarchyHost = hierarchyNodeSource.addHost(hostTile.getHost());
+            this.insert(hostTile, hierarchyHost.getIndex());
         }
+
+        hierarchyNodeSource.incrementTiles();
+        this.insert(nodeTile, hierarchyHost.addNode(nodeTile.getNode()));
     }
 
     protected void drawDeployingNode(Tile nodeTile) {
-        int index = 0;
-        for (HierarchyNodeSource hierarchyNodeSource : model) {
-            if (hierarchyNodeSource.getNodeSource().getSourceName().equals(nodeTile.getNode().getSourceName())) {
-                ++index;
-
-                hierarchyNodeSource.incrementTiles();
-
-                hierarchyNodeSource.getDeploying().add(0, nodeTile.getNode());
+        final HierarchyNodeSource hierarchyNodeSource = findNodeSource(nodeTile.getNode().getSourceName());
+        if (hierarchyNodeSource != null) {
+            this.insert(nodeTile, hierarchyNodeSource.addDeployingNode(nodeTile.getNode()));
+        }
+    }
 
-                this.insert(nodeTile, index);
-                return;
-            } else {
-                index += hierarchyNodeSource.getTilesNumber();
-            }
+    /**
+     * Adds a nodesource to the model, its tile being at the given position.
+     */
+    protected HierarchyNodeSource addToModel(NodeSource nodeSource, int position) {
+        final HierarchyNodeSource hierarchyNodeSource = new HierarchyNodeSource(nodeSource, tiles, position);
+        model.add(hierarchyNodeSource);
+        nodeSourcesByName.computeIfAbsent(nodeSource.getSourceName(), name -> new LinkedList<>())
+                         .add(hierarchyNodeSource);
+        return hierarchyNodeSource;
+    }
+
+    /**
+     * Removes a nodesource and all its tiles from the model.
+     */
+    void removeFromModel(HierarchyNodeSource hierarchyNodeSource) {
+        hierarchyNodeSource.removeTiles();
+        model.remove(hierarchyNodeSource);
+        final String sourceName = hierarchyNodeSource.getNodeSource().getSourceName();
+        final List<HierarchyNodeSource> sameName = nodeSourcesByName.get(sourceName);
+        sameName.remove(hierarchyNodeSource);
+        if (sameName.isEmpty()) {
+            nodeSourcesByName.remove(sourceName);
         }
     }
 
+    /**
+     * @return the first drawn nodesource of the model with this sourceName, or null
+     */
+    HierarchyNodeSource findNodeSource(String sourceName) {
+        final List<HierarchyNodeSource> sameName = nodeSourcesByName.get(sourceName);
+        return sameName == null ? null : sameName.get(0);
+    }
+
     public void resetIndex() {
         tileIndex = 0;
     }
@@ -219,6 +225,6 @@ public class CompactFlowPanel extends FlowPanel {
     }
 
     public int getTilesNumber() {
-        return model.stream().mapToInt(HierarchyNodeSource::getTilesNumber).sum();
+        return tiles.size();
     }
 }
@@ -82,56 +82,24 @@ public class CompactFlowPanelOwn extends CompactFlowPanel {
      */
     @Override
     protected void drawNormalNode(Tile nodeTile, Tile hostTile) {
-        int index = 0;
-
         if (!isNodeSourceDrawn(nodeTile.getNode().getSourceName())) {
             final Tile nsTile = nodeSourceTiles.get(nodeTile.getNode().getSourceName());
-            model.add(new HierarchyNodeSource(nsTile.getNodesource()));
-            model.sort(Comparator.comparing(a -> a.getNodeSource().getSourceName()));
-            this.insert(nsTile, indexOf(nsTile.getNodesource()).get());
-        }
-
-        for (HierarchyNodeSource hierarchyNodeSource : model) {
-            if (hierarchyNodeSource.getNodeSource().getSourceName().equals(nodeTile.getNode().getSourceName())) {
-                ++index;
-                index += hierarchyNodeSource.getDeploying().size();
-
-                int indexOfFirstHost = index;
-
-                for (HierarchyHost hierarchyHost : hierarchyNodeSource.getHosts()) {
-                    if (hierarchyHost.getHost().getHostName().equals(nodeTile.getNode().getHostName())) {
-                        ++index;
-
-                        hierarchyNodeSource.incrementTiles();
-                        hierarchyHost.incrementTiles();
-
-                        hierarchyHost.getNodes().add(0, nodeTile.getNode());
-
-                        this.insert(nodeTile, index);
-                        return;
-                    } else {
-                        index += hierarchyHost.getTilesNumber();
-                    }
+            final String sourceName = nsTile.getNodesource().getSourceName();
+
+            // nodesources are sorted by name, the new one goes before the first one which follows it
+            int position = tiles.size();
+            for (HierarchyNodeSource hierarchyNodeSource : model) {
+                if (hierarchyNodeSource.getNodeSource().getSourceName().compareTo(sourceName) > 0) {
+                    position = hierarchyNodeSource.getIndex();
+                    break;
                 }
-
-                // if we are here than there is no host for this node yet
-                // thus we will add it and node after
-                hierarchyNodeSource.incrementTiles();
-                final HierarchyHost hierarchyHost = new HierarchyHost(hostTile.getHost());
-                hierarchyNodeSource.getHosts().add(0, hierarchyHost);
-                this.insert(hostTile, indexOfFirstHost);
-
-                hierarchyNodeSource.incrementTiles();
-                hierarchyHost.incrementTiles();
-                hierarchyHost.getNodes().add(0, nodeTile.getNode());
-                this.insert(nodeTile, indexOfFirstHost + 1);
-
-                return;
-
-            } else {
-                index += hierarchyNodeSource.getTilesNumber();
             }
+            addToModel(nsTile.getNodesource(), position);
+            model.sort(Comparator.comparing(a -> a.getNodeSource().getSourceName()));
+            this.insert(nsTile, position);
         }
+
+        super.drawNormalNode(nodeTile, hostTile);
     }
 
     /**
@@ -154,8 +122,7 @@ public class CompactFlowPanelOwn extends CompactFlowPanel {
 
                     // remove dangling nodesource
                     if (hierarchyNodeSource.isDangling()) {
-                        hierarchyNodeSourceIterator.remove();
-                        compactFlowPanel.remove(index - 2);
+                        removeNodeSource();
                     }
                 }
             }
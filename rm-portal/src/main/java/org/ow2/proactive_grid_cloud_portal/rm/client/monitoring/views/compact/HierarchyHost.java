@@ -25,15 +25,17 @@
  */
 package org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views.compact;
 
-import java.util.LinkedList;
+import java.util.AbstractList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource;
 
 
 /**
  * It is a wrapper around Host
- * It stores nodes in list so its order it preserved.
+ * Its nodes are the tiles which follow the host tile in the TileIndex, newest first.
  * Also it has tilesNumber tilesNumber which represent number of tilesNumber which are need to represent
  * this host with all its content into CompactFlowPanel
  */
@@ -42,10 +44,16 @@ public class HierarchyHost {
 
     private int tilesNumber = 1;
 
-    private List<NodeSource.Host.Node> nodes = new LinkedList<>();
+    private final TileIndex tiles;
 
-    HierarchyHost(NodeSource.Host host) {
+    private final TileIndex.Entry entry;
+
+    private final Map<String, TileIndex.Entry> nodes = new HashMap<>();
+
+    HierarchyHost(NodeSource.Host host, TileIndex tiles, int position) {
         this.host = host;
+        this.tiles = tiles;
+        this.entry = tiles.insert(position, this);
     }
 
     public NodeSource.Host getHost() {
@@ -56,8 +64,55 @@ public class HierarchyHost {
         return tilesNumber;
     }
 
+    /**
+     * @return position of the host tile
+     */
+    int getIndex() {
+        return tiles.indexOf(entry);
+    }
+
+    /**
+     * @return read-only view of the nodes of this host, in the order of their tiles
+     */
     public List<NodeSource.Host.Node> getNodes() {
-        return nodes;
+        return new AbstractList<NodeSource.Host.Node>() {
+            @Override
+            public NodeSource.Host.Node get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("No node at " + index);
+                }
+                return (NodeSource.Host.Node) tiles.get(getIndex() + 1 + index);
+            }
+
+            @Override
+            public int size() {
+                return tilesNumber - 1;
+            }
+        };
+    }
+
+    /**
+     * @return the tile of the node of this host with the given url, or null
+     */
+    TileIndex.Entry getNode(String nodeUrl) {
+        return nodes.get(nodeUrl);
+    }
+
+    /**
+     * Adds the node tile right after the host tile.
+     * @return position of the node tile
+     */
+    int addNode(NodeSource.Host.Node node) {
+        int position = getIndex() + 1;
+        nodes.put(node.getNodeUrl(), tiles.insert(position, node));
+        incrementTiles();
+        return position;
+    }
+
+    void removeNode(String nodeUrl) {
+        TileIndex.Entry node = nodes.remove(nodeUrl);
+        tiles.remove(tiles.indexOf(node), 1);
+        decrementTiles();
     }
 
     void decrementTiles() {
@@ -25,15 +25,19 @@
  */
 package org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views.compact;
 
-import java.util.LinkedList;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource;
 
 
 /**
  * It is a wrapper around NodeSource
- * It stores deploying nodes and hosts, in lists so their order it preserved.
+ * Its deploying nodes, then its hosts, are the tiles which follow the node source tile in the TileIndex,
+ * newest first, and they are also indexed by name.
  * Also it has tilesNumber tilesNumber which represent number of tilesNumber which are need to represent
  * this nodesource with all its content into CompactFlowPanel
  */
@@ -42,12 +46,18 @@ public class HierarchyNodeSource {
 
     private int tilesNumber = 1;
 
-    private List<HierarchyHost> hosts = new LinkedList<>();
+    private final TileIndex tiles;
 
-    private List<NodeSource.Host.Node> deploying = new LinkedList<>();
+    private final TileIndex.Entry entry;
 
-    HierarchyNodeSource(NodeSource nodeSource) {
+    private final Map<String, HierarchyHost> hosts = new HashMap<>();
+
+    private final Map<String, TileIndex.Entry> deploying = new HashMap<>();
+
+    HierarchyNodeSource(NodeSource nodeSource, TileIndex tiles, int position) {
         this.nodeSource = nodeSource;
+        this.tiles = tiles;
+        this.entry = tiles.insert(position, this);
     }
 
     public NodeSource getNodeSource() {
@@ -58,12 +68,100 @@ public class HierarchyNodeSource {
         return tilesNumber;
     }
 
+    /**
+     * @return position of the node source tile
+     */
+    int getIndex() {
+        return tiles.indexOf(entry);
+    }
+
+    /**
+     * @return snapshot of the hosts of this node source, in the order of their tiles,
+     *         collected in a single walk over the tiles
+     */
     public List<HierarchyHost> getHosts() {
-        return hosts;
+        List<HierarchyHost> result = new ArrayList<>(hosts.size());
+        int position = getIndex() + 1 + deploying.size();
+        for (int i = 0; i < hosts.size(); i++) {
+            HierarchyHost host = (HierarchyHost) tiles.get(position);
+            result.add(host);
+            position += host.getTilesNumber();
+        }
+        return result;
     }
 
+    /**
+     * @return read-only view of the deploying nodes of this node source, in the order of their tiles
+     */
     List<NodeSource.Host.Node> getDeploying() {
-        return deploying;
+        return new AbstractList<NodeSource.Host.Node>() {
+            @Override
+            public NodeSource.Host.Node get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("No deploying node at " + index);
+                }
+                return (NodeSource.Host.Node) tiles.get(getIndex() + 1 + index);
+            }
+
+            @Override
+            public int size() {
+                return deploying.size();
+            }
+        };
+    }
+
+    /**
+     * @return the host of this node source with the given name, or null
+     */
+    HierarchyHost getHost(String hostName) {
+        return hosts.get(hostName);
+    }
+
+    /**
+     * @return the tile of the deploying node of this node source with the given url, or null
+     */
+    TileIndex.Entry getDeployingNode(String nodeUrl) {
+        return deploying.get(nodeUrl);
+    }
+
+    /**
+     * Adds the host tile before the other hosts.
+     */
+    HierarchyHost addHost(NodeSource.Host host) {
+        HierarchyHost hierarchyHost = new HierarchyHost(host, tiles, getIndex() + 1 + deploying.size());
+        hosts.put(host.getHostName(), hierarchyHost);
+        incrementTiles();
+        return hierarchyHost;
+    }
+
+    void removeHost(HierarchyHost hierarchyHost) {
+        hosts.remove(hierarchyHost.getHost().getHostName());
+        tiles.remove(hierarchyHost.getIndex(), 1);
+        decrementTiles();
+    }
+
+    /**
+     * Adds the node tile right after the node source tile.
+     * @return position of the node tile
+     */
+    int addDeployingNode(NodeSource.Host.Node node) {
+        int position = getIndex() + 1;
+        deploying.put(node.getNodeUrl(), tiles.insert(position, node));
+        incrementTiles();
+        return position;
+    }
+
+    void removeDeployingNode(String nodeUrl) {
+        TileIndex.Entry node = deploying.remove(nodeUrl);
+        tiles.remove(tiles.indexOf(node), 1);
+        decrementTiles();
+    }
+
+    /**
+     * Removes the tiles of this node source, with all its content.
+     */
+    void removeTiles() {
+        tiles.remove(getIndex(), tilesNumber);
     }
 
     void decrementTiles() {
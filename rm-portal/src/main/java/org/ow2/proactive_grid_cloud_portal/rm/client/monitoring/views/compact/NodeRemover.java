@@ -28,7 +28,6 @@ package org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views.compact;
 import static org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host;
 import static org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host.Node;
 
-import java.util.Iterator;
 import java.util.Optional;
 
 import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource;
@@ -44,13 +43,9 @@ public class NodeRemover {
 
     HierarchyNodeSource hierarchyNodeSource;
 
-    Iterator<HierarchyNodeSource> hierarchyNodeSourceIterator;
-
     HierarchyHost hierarchyHost;
 
-    Iterator<HierarchyHost> hierarchyHostIterator;
-
-    Iterator<NodeSource.Host.Node> nodeIterator;
+    TileIndex.Entry nodeEntry;
 
     int index = 0;
 
@@ -102,6 +97,22 @@ public class NodeRemover {
         }
     }
 
+    /**
+     * Same as find(node).isPresent(), without computing the index of the node
+     * @param node
+     * @return true if node is drawn
+     */
+    boolean isDrawn(Node node) {
+        final HierarchyNodeSource ns = compactFlowPanel.findNodeSource(node.getSourceName());
+        if (ns == null) {
+            return false;
+        } else if (node.isDeployingNode() && ns.getDeployingNode(node.getNodeUrl()) != null) {
+            return true;
+        }
+        final HierarchyHost host = ns.getHost(node.getHostName());
+        return host != null && host.getNode(node.getNodeUrl()) != null;
+    }
+
     /**
      * Tries to find and remove node source with the same id (sourceName) as given
      * @param nodeSource
@@ -109,10 +120,10 @@ public class NodeRemover {
     void findAndRemove(NodeSource nodeSource) {
         init(nodeSource);
         if (findNodeSource()) {
-            hierarchyNodeSourceIterator.remove();
-            while (hierarchyNodeSource.getTilesNumber() > 0) {
+            int tilesNumber = hierarchyNodeSource.getTilesNumber();
+            compactFlowPanel.removeFromModel(hierarchyNodeSource);
+            for (int i = 0; i < tilesNumber; i++) {
                 compactFlowPanel.remove(index);
-                hierarchyNodeSource.decrementTiles();
             }
         }
     }
@@ -142,21 +153,28 @@ public class NodeRemover {
     }
 
     protected void removeHost() {
-        hierarchyHostIterator.remove();
-        hierarchyNodeSource.decrementTiles();
-        compactFlowPanel.remove(index - 1);
+        index = hierarchyHost.getIndex();
+        hierarchyNodeSource.removeHost(hierarchyHost);
+        compactFlowPanel.remove(index);
     }
 
     protected void removeNode() {
-        nodeIterator.remove();
+        hierarchyHost.removeNode(nodeUrl);
         hierarchyNodeSource.decrementTiles();
-        hierarchyHost.decrementTiles();
+        compactFlowPanel.remove(index);
+    }
+
+    /**
+     * SHOULD be called after findNodeSource(), once the node source has no other tile than its own.
+     */
+    protected void removeNodeSource() {
+        index = hierarchyNodeSource.getIndex();
+        compactFlowPanel.removeFromModel(hierarchyNodeSource);
         compactFlowPanel.remove(index);
     }
 
     private void removeDeployingNode() {
-        nodeIterator.remove();
-        hierarchyNodeSource.decrementTiles();
+        hierarchyNodeSource.removeDeployingNode(nodeUrl);
         compactFlowPanel.remove(index);
     }
 
@@ -166,16 +184,10 @@ public class NodeRemover {
      * @return true if node source was found
      */
     boolean findNodeSource() {
-        final Iterator<HierarchyNodeSource> nsIterator = compactFlowPanel.getModel().iterator();
-        while (nsIterator.hasNext()) {
-            final HierarchyNodeSource hierarchyNodeSource = nsIterator.next();
-            if (hierarchyNodeSource.getNodeSource().getSourceName().equals(sourceName)) {
-                this.hierarchyNodeSource = hierarchyNodeSource;
-                this.hierarchyNodeSourceIterator = nsIterator;
-                return true;
-            } else {
-                index += hierarchyNodeSource.getTilesNumber();
-            }
+        hierarchyNodeSource = compactFlowPanel.findNodeSource(sourceName);
+        if (hierarchyNodeSource != null) {
+            index = hierarchyNodeSource.getIndex();
+            return true;
         }
         return false;
     }
@@ -186,18 +198,7 @@ public class NodeRemover {
      * @return true if deploying node was found
      */
     private boolean findDeploying() {
-        ++index;
-        final Iterator<NodeSource.Host.Node> nodeIterator = hierarchyNodeSource.getDeploying().iterator();
-        while (nodeIterator.hasNext()) {
-            final Node existing = nodeIterator.next();
-            if (existing.getNodeUrl().equals(nodeUrl)) {
-                this.nodeIterator = nodeIterator;
-                return true;
-            } else {
-                ++index;
-            }
-        }
-        return false;
+        return findNodeEntry(hierarchyNodeSource.getDeployingNode(nodeUrl));
     }
 
     /**
@@ -206,18 +207,10 @@ public class NodeRemover {
      * @return true if host was found
      */
     boolean findHost() {
-        ++index;
-        index += hierarchyNodeSource.getDeploying().size();
-        final Iterator<HierarchyHost> hostIterator = hierarchyNodeSource.getHosts().iterator();
-        while (hostIterator.hasNext()) {
-            final HierarchyHost hierarchyHost = hostIterator.next();
-            if (hierarchyHost.getHost().getHostName().equals(hostName)) {
-                this.hierarchyHost = hierarchyHost;
-                this.hierarchyHostIterator = hostIterator;
-                return true;
-            } else {
-                index += hierarchyHost.getTilesNumber();
-            }
+        hierarchyHost = hierarchyNodeSource.getHost(hostName);
+        if (hierarchyHost != null) {
+            index = hierarchyHost.getIndex();
+            return true;
         }
         return false;
     }
@@ -228,17 +221,14 @@ public class NodeRemover {
      * @return true if node was found
      */
     boolean findNode() {
-        ++index;
-        final Iterator<NodeSource.Host.Node> nodeIterator = hierarchyHost.getNodes().iterator();
-        while (nodeIterator.hasNext()) {
-            final Node existing = nodeIterator.next();
-            if (existing.getNodeUrl().equals(nodeUrl)) {
-                this.nodeIterator = nodeIterator;
-
-                return true;
-            } else {
-                ++index;
-            }
+        return findNodeEntry(hierarchyHost.getNode(nodeUrl));
+    }
+
+    private boolean findNodeEntry(TileIndex.Entry entry) {
+        if (entry != null) {
+            this.nodeEntry = entry;
+            index = compactFlowPanel.tiles.indexOf(entry);
+            return true;
         }
         return false;
     }
@@ -251,10 +241,8 @@ public class NodeRemover {
         this.hostName = null;
         this.sourceName = null;
         this.hierarchyNodeSource = null;
-        this.hierarchyNodeSourceIterator = null;
         this.hierarchyHost = null;
-        this.hierarchyHostIterator = null;
-        this.nodeIterator = null;
+        this.nodeEntry = null;
         this.index = 0;
     }
 
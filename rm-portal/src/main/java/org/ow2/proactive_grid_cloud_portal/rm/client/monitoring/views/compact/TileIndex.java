@@ -0,0 +1,189 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views.compact;
+
+import java.util.Random;
+
+
+/**
+ * Ordered sequence of the tiles of a CompactFlowPanel, in the order they are displayed.
+ * <p>
+ * It is an implicit treap: entries are ordered by their position only, and each entry knows its parent,
+ * so that the position of an entry can be computed from the entry itself. Inserting, removing
+ * and finding the position of a tile take O(log n) on average, instead of walking the whole model.
+ */
+class TileIndex {
+
+    /**
+     * A tile in the index. The item is the HierarchyNodeSource, HierarchyHost or Node represented by the tile.
+     */
+    static final class Entry {
+
+        private final Object item;
+
+        private final int priority;
+
+        private Entry left;
+
+        private Entry right;
+
+        private Entry parent;
+
+        private int size = 1;
+
+        private Entry(Object item, int priority) {
+            this.item = item;
+            this.priority = priority;
+        }
+
+        Object getItem() {
+            return item;
+        }
+    }
+
+    // fixed seed: the shape of the tree does not depend on the run
+    private final Random random = new Random(0);
+
+    private Entry root;
+
+    /**
+     * @return number of tiles
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Inserts a tile, tiles at this position and after are shifted by one.
+     * @return the entry of the new tile
+     */
+    Entry insert(int position, Object item) {
+        Entry entry = new Entry(item, random.nextInt());
+        Entry[] parts = split(root, position);
+        setRoot(merge(merge(parts[0], entry), parts[1]));
+        return entry;
+    }
+
+    /**
+     * Removes count tiles starting at position.
+     */
+    void remove(int position, int count) {
+        Entry[] parts = split(root, position);
+        Entry[] removed = split(parts[1], count);
+        setRoot(merge(parts[0], removed[1]));
+    }
+
+    /**
+     * @return position of the tile
+     */
+    int indexOf(Entry entry) {
+        int index = size(entry.left);
+        while (entry.parent != null) {
+            if (entry == entry.parent.right) {
+                index += size(entry.parent.left) + 1;
+            }
+            entry = entry.parent;
+        }
+        return index;
+    }
+
+    /**
+     * @return the item of the tile at this position
+     */
+    Object get(int position) {
+        Entry entry = root;
+        while (entry != null) {
+            int leftSize = size(entry.left);
+            if (position < leftSize) {
+                entry = entry.left;
+            } else if (position == leftSize) {
+                return entry.item;
+            } else {
+                position -= leftSize + 1;
+                entry = entry.right;
+            }
+        }
+        throw new IndexOutOfBoundsException("No tile at " + position);
+    }
+
+    private void setRoot(Entry entry) {
+        root = entry;
+        if (root != null) {
+            root.parent = null;
+        }
+    }
+
+    /**
+     * @return the first count tiles of the tree, and the others
+     */
+    private Entry[] split(Entry entry, int count) {
+        if (entry == null) {
+            return new Entry[2];
+        }
+        Entry[] parts;
+        if (count <= size(entry.left)) {
+            parts = split(entry.left, count);
+            entry.left = parts[1];
+            parts[1] = entry;
+        } else {
+            parts = split(entry.right, count - size(entry.left) - 1);
+            entry.right = parts[0];
+            parts[0] = entry;
+        }
+        update(entry);
+        return parts;
+    }
+
+    private Entry merge(Entry first, Entry second) {
+        if (first == null) {
+            return second;
+        } else if (second == null) {
+            return first;
+        } else if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            update(first);
+            return first;
+        } else {
+            second.left = merge(first, second.left);
+            update(second);
+            return second;
+        }
+    }
+
+    private void update(Entry entry) {
+        entry.size = size(entry.left) + size(entry.right) + 1;
+        if (entry.left != null) {
+            entry.left.parent = entry;
+        }
+        if (entry.right != null) {
+            entry.right.parent = entry;
+        }
+    }
+
+    private static int size(Entry entry) {
+        return entry == null ? 0 : entry.size;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+
+/**
+ * Reduces the number of points of RRD histories before they are sent to the charts.
+ * <p>
+ * Histories are JSON objects holding one array of values per attribute, possibly nested in
+ * other objects or in strings containing JSON (MBeans histories). Every array longer than the
+ * requested number of points is split in buckets, each bucket being replaced by its minimum and
+ * maximum values in their original order, so that peaks remain visible. The last value is always
+ * kept as is, since clients read the current value from it.
+ */
+public class HistoryDownsampler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HistoryDownsampler.class);
+
+    /** two points per bucket, plus the last value */
+    private static final int MIN_POINTS = 3;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * @param history JSON history as returned by the REST API
+     * @param maxPoints maximum number of values of each array, values lower than or equal to 0 disable the downsampling
+     * @return the downsampled history, or the history itself if there was nothing to reduce or it could not be parsed
+     */
+    public String downsample(String history, int maxPoints) {
+        if (maxPoints <= 0 || history == null) {
+            return history;
+        }
+        try {
+            JsonNode root = mapper.readTree(history);
+            if (root != null && downsample(root, Math.max(MIN_POINTS, maxPoints))) {
+                return mapper.writeValueAsString(root);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("History could not be downsampled", e);
+        }
+        return history;
+    }
+
+    /**
+     * @return true if the node was modified
+     */
+    private boolean downsample(JsonNode node, int maxPoints) throws IOException {
+        if (!node.isObject()) {
+            return false;
+        }
+        boolean changed = false;
+        ObjectNode object = (ObjectNode) node;
+        Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            if (value.isArray() && value.size() > maxPoints && isNumeric((ArrayNode) value)) {
+                field.setValue(minMaxBuckets((ArrayNode) value, maxPoints));
+                changed = true;
+            } else if (value.isObject()) {
+                changed |= downsample(value, maxPoints);
+            } else if (value.isTextual() && value.asText().startsWith("{")) {
+                JsonNode nested = mapper.readTree(value.asText());
+                if (downsample(nested, maxPoints)) {
+                    field.setValue(new TextNode(mapper.writeValueAsString(nested)));
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static boolean isNumeric(ArrayNode values) {
+        for (JsonNode value : values) {
+            if (!value.isNumber() && !value.isNull()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static ArrayNode minMaxBuckets(ArrayNode values, int maxPoints) {
+        int last = values.size() - 1;
+        int buckets = (maxPoints - 1) / 2;
+        ArrayNode result = values.arrayNode();
+
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int from = (int) ((long) bucket * last / buckets);
+            int to = (int) ((long) (bucket + 1) * last / buckets);
+
+            int minIndex = -1;
+            int maxIndex = -1;
+            for (int i = from; i < to; i++) {
+                JsonNode value = values.get(i);
+                if (!value.isNumber()) {
+                    continue;
+                }
+                if (minIndex < 0 || value.asDouble() < values.get(minIndex).asDouble()) {
+                    minIndex = i;
+                }
+                if (maxIndex < 0 || value.asDouble() > values.get(maxIndex).asDouble()) {
+                    maxIndex = i;
+                }
+            }
+
+            if (minIndex < 0) {
+                // keep the gap of a bucket without any value
+                result.addNull();
+                result.addNull();
+            } else {
+                result.add(values.get(Math.min(minIndex, maxIndex)));
+                result.add(values.get(Math.max(minIndex, maxIndex)));
+            }
+        }
+        result.add(values.get(last));
+        return result;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.NodeMBeanRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Fetches several MBean requests of a node JMX server concurrently.
+ * <p>
+ * The monitoring views refresh all their charts at once: their requests are sent in one
+ * RPC, and forwarded here to the REST API in parallel instead of one after another.
+ */
+public class NodeMBeanBatchFetcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NodeMBeanBatchFetcher.class);
+
+    private final ExecutorService executor;
+
+    /**
+     * @param executor runs the upstream requests
+     */
+    public NodeMBeanBatchFetcher(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @param requests MBean requests of the same node
+     * @param source fetches one request from the REST API
+     * @return the JSON result of each request, in the order of the requests, or null
+     *         for the requests which failed
+     * @throws RestServerException the failure of the first request, when all the requests failed
+     * @throws ServiceException the failure of the first request, when all the requests failed
+     */
+    public List<String> fetchAll(List<NodeMBeanRequest> requests, MBeanSource source)
+            throws RestServerException, ServiceException {
+        List<Future<String>> futures = new ArrayList<>(requests.size());
+        for (NodeMBeanRequest request : requests) {
+            futures.add(executor.submit(() -> source.fetch(request)));
+        }
+
+        List<String> results = new ArrayList<>(requests.size());
+        Throwable firstFailure = null;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new ServiceException("Interrupted while fetching node MBeans");
+            } catch (ExecutionException e) {
+                LOGGER.debug("Failed to fetch " + requests.get(i), e.getCause());
+                if (firstFailure == null) {
+                    firstFailure = e.getCause();
+                }
+                results.add(null);
+            }
+        }
+
+        if (firstFailure != null && results.stream().allMatch(result -> result == null)) {
+            if (firstFailure instanceof RestServerException) {
+                throw (RestServerException) firstFailure;
+            } else if (firstFailure instanceof ServiceException) {
+                throw (ServiceException) firstFailure;
+            }
+            throw new ServiceException(firstFailure.getMessage(), firstFailure);
+        }
+        return results;
+    }
+
+    /**
+     * Fetches one MBean request from the REST API
+     */
+    public interface MBeanSource {
+
+        String fetch(NodeMBeanRequest request) throws RestServerException, ServiceException;
+
+    }
+}
@@ -0,0 +1,420 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import static org.ow2.proactive_grid_cloud_portal.common.server.SessionLogins.IDLE_EXPIRATION_MINUTES;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ow2.proactive_grid_cloud_portal.common.server.SessionLogins;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+
+/**
+ * Shares the RM monitoring delta stream between all the portal sessions.
+ * <p>
+ * Every portal tab polls {@code /rm/monitoring} with the last counter it knows. Instead of
+ * forwarding each poll to the Resource Manager, the hub keeps one channel per user login. A channel
+ * queries the RM at most once per refresh period, merges the received events into an in-memory
+ * snapshot and records them in a counter-indexed ring buffer. Each session is then answered
+ * locally with the events it has not seen yet, or with the whole snapshot when its counter
+ * is outside of the buffered window.
+ * <p>
+ * Channels are per login because the RM filters the monitoring events according to the user
+ * permissions, and the portal does not know these permissions to filter a shared stream itself:
+ * a delta fetched with the session of one user is only ever served to the sessions of that same
+ * user. The RM thus receives at most one monitoring request per refresh period and per connected
+ * user, whatever the number of tabs of each user.
+ * <p>
+ * The RM is queried outside of the channel monitor: while a channel is refreshed, the other
+ * sessions of the same user are answered from the previous snapshot instead of waiting for the RM.
+ */
+public class RMMonitoringHub implements RMMonitoringHubMBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RMMonitoringHub.class);
+
+    private static final String LATEST_COUNTER = "latestCounter";
+
+    private static final String NODE_SOURCES = "nodeSource";
+
+    private static final String NODES = "nodesEvents";
+
+    private static final String NODE_SOURCE_REMOVED = "NODESOURCE_REMOVED";
+
+    private static final String NODE_REMOVED = "NODE_REMOVED";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final MonitoringSource source;
+
+    private final SessionLogins sessionLogins;
+
+    private final long refreshPeriodMillis;
+
+    private final int bufferSize;
+
+    private final Cache<String, Channel> channels = CacheBuilder.newBuilder()
+                                                                .expireAfterAccess(IDLE_EXPIRATION_MINUTES,
+                                                                                   TimeUnit.MINUTES)
+                                                                .build();
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong upstreamCalls = new AtomicLong();
+
+    private final AtomicLong counterResets = new AtomicLong();
+
+    private final AtomicLong savedUpstreamCalls = new AtomicLong();
+
+    private final AtomicLong fullSnapshots = new AtomicLong();
+
+    /**
+     * @param source fetches a monitoring delta from the RM REST API
+     * @param sessionLogins logins of the users owning the sessions
+     * @param refreshPeriodMillis minimal delay between two upstream calls of the same channel
+     * @param bufferSize number of upstream deltas kept to answer sessions incrementally
+     */
+    public RMMonitoringHub(MonitoringSource source, SessionLogins sessionLogins, long refreshPeriodMillis,
+            int bufferSize) {
+        this.source = source;
+        this.sessionLogins = sessionLogins;
+        this.refreshPeriodMillis = refreshPeriodMillis;
+        this.bufferSize = Math.max(1, bufferSize);
+    }
+
+    /**
+     * Returns the monitoring events the session has not seen yet, in the format of the RM REST
+     * {@code /rm/monitoring} endpoint.
+     *
+     * @param sessionId session of the caller, also used to query the RM when the channel is stale
+     * @param counter last counter known by the caller, -1 to get the full state
+     * @return a JSON delta holding {@code latestCounter}, {@code nodeSource} and {@code nodesEvents}
+     */
+    public String getMonitoring(String sessionId, long counter) throws RestServerException, ServiceException {
+        requests.incrementAndGet();
+        Channel channel = getChannel(sessionLogins.getLogin(sessionId));
+        long now = System.currentTimeMillis();
+        long fetchedCounter;
+        synchronized (channel) {
+            channel.awaitFirstState();
+            if (channel.fetching || !channel.isStale(now)) {
+                return channel.eventsSince(counter, false);
+            }
+            channel.fetching = true;
+            fetchedCounter = channel.latestCounter;
+        }
+
+        boolean applied = false;
+        try {
+            JsonNode response = fetch(sessionId, fetchedCounter);
+            boolean reset = false;
+            if (response.get(LATEST_COUNTER).asLong() < fetchedCounter) {
+                // the RM was restarted, its counters start over
+                LOGGER.info("RM monitoring counter went back from {} to {}, resetting the channel",
+                            fetchedCounter,
+                            response.get(LATEST_COUNTER).asLong());
+                counterResets.incrementAndGet();
+                reset = true;
+                response = fetch(sessionId, -1);
+            }
+
+            synchronized (channel) {
+                if (reset) {
+                    channel.reset();
+                }
+                channel.apply(response, response.get(LATEST_COUNTER).asLong());
+                channel.lastRefresh = now;
+                channel.fetched();
+                applied = true;
+                return channel.eventsSince(counter, true);
+            }
+        } finally {
+            if (!applied) {
+                // a failed fetch must not keep the other sessions on the previous snapshot
+                synchronized (channel) {
+                    channel.fetched();
+                }
+            }
+        }
+    }
+
+    @Override
+    public long getRequests() {
+        return requests.get();
+    }
+
+    @Override
+    public long getUpstreamCalls() {
+        return upstreamCalls.get();
+    }
+
+    @Override
+    public long getCounterResets() {
+        return counterResets.get();
+    }
+
+    @Override
+    public long getSavedUpstreamCalls() {
+        return savedUpstreamCalls.get();
+    }
+
+    @Override
+    public long getFullSnapshots() {
+        return fullSnapshots.get();
+    }
+
+    private JsonNode fetch(String sessionId, long counter) throws RestServerException, ServiceException {
+        upstreamCalls.incrementAndGet();
+        String json = source.monitoring(sessionId, counter);
+        try {
+            JsonNode response = mapper.readTree(json);
+            if (response == null || !response.has(LATEST_COUNTER)) {
+                throw new ServiceException("Unexpected RM monitoring response: " + json);
+            }
+            return response;
+        } catch (IOException e) {
+            throw new ServiceException("Failed to parse RM monitoring response", e);
+        }
+    }
+
+    private Channel getChannel(String login) throws ServiceException {
+        try {
+            return channels.get(login, Channel::new);
+        } catch (ExecutionException e) {
+            throw new ServiceException("Failed to create the monitoring channel of " + login, e);
+        }
+    }
+
+    private static boolean isRemoved(JsonNode event, String removedEventType) {
+        JsonNode eventType = event.get("eventType");
+        return eventType != null && removedEventType.equalsIgnoreCase(eventType.asText());
+    }
+
+    private static String key(JsonNode event, String keyField) {
+        JsonNode key = event.get(keyField);
+        return key == null ? null : key.asText();
+    }
+
+    /**
+     * Monitoring state of one user: a snapshot of the live node sources and nodes, and the
+     * last deltas received from the RM. All the methods must be called while holding the
+     * channel monitor.
+     */
+    private final class Channel {
+
+        private final Map<String, JsonNode> nodeSources = new LinkedHashMap<>();
+
+        private final Map<String, JsonNode> nodes = new LinkedHashMap<>();
+
+        private final Deque<Delta> deltas = new ArrayDeque<>();
+
+        private long latestCounter = -1;
+
+        private long lastRefresh = 0;
+
+        /** true while a session of the channel queries the RM */
+        private boolean fetching = false;
+
+        private boolean isStale(long now) {
+            return latestCounter < 0 || now - lastRefresh >= refreshPeriodMillis;
+        }
+
+        /**
+         * Waits for the RM call of another session when the channel has nothing to answer yet.
+         */
+        private void awaitFirstState() throws ServiceException {
+            while (fetching && latestCounter < 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ServiceException("Interrupted while waiting for the RM monitoring state", e);
+                }
+            }
+        }
+
+        private void fetched() {
+            fetching = false;
+            notifyAll();
+        }
+
+        private void reset() {
+            nodeSources.clear();
+            nodes.clear();
+            deltas.clear();
+            latestCounter = -1;
+        }
+
+        private void apply(JsonNode response, long responseCounter) {
+            JsonNode nodeSourceEvents = response.path(NODE_SOURCES);
+            JsonNode nodeEvents = response.path(NODES);
+
+            for (JsonNode event : nodeSourceEvents) {
+                String name = key(event, "sourceName");
+                if (isRemoved(event, NODE_SOURCE_REMOVED)) {
+                    nodeSources.remove(name);
+                    nodes.values().removeIf(node -> name != null && name.equals(key(node, "nodeSource")));
+                } else {
+                    nodeSources.put(name, event);
+                }
+            }
+            for (JsonNode event : nodeEvents) {
+                String url = key(event, "nodeUrl");
+                if (isRemoved(event, NODE_REMOVED)) {
+                    nodes.remove(url);
+                } else {
+                    nodes.put(url, event);
+                }
+            }
+
+            if (latestCounter >= 0 && responseCounter > latestCounter) {
+                deltas.addLast(new Delta(latestCounter, responseCounter, nodeSourceEvents, nodeEvents));
+                while (deltas.size() > bufferSize) {
+                    deltas.removeFirst();
+                }
+            }
+            latestCounter = responseCounter;
+        }
+
+        /**
+         * @param fetched whether the caller queried the RM to get this answer
+         */
+        private String eventsSince(long counter, boolean fetched) throws ServiceException {
+            if (counter == latestCounter) {
+                countSaved(fetched);
+                return write(latestCounter, null, null);
+            }
+
+            Delta oldest = deltas.peekFirst();
+            if (counter < 0 || counter > latestCounter || oldest == null || counter < oldest.from) {
+                fullSnapshots.incrementAndGet();
+                return write(latestCounter, nodeSources.values(), nodes.values());
+            }
+
+            countSaved(fetched);
+            // later events of the same entity replace earlier ones, like the RM does
+            Map<String, JsonNode> changedNodeSources = new LinkedHashMap<>();
+            Map<String, JsonNode> changedNodes = new LinkedHashMap<>();
+            Iterator<Delta> iterator = deltas.descendingIterator();
+            Deque<Delta> newer = new ArrayDeque<>();
+            while (iterator.hasNext()) {
+                Delta delta = iterator.next();
+                if (delta.to <= counter) {
+                    break;
+                }
+                newer.addFirst(delta);
+            }
+            for (Delta delta : newer) {
+                for (JsonNode event : delta.nodeSources) {
+                    String name = key(event, "sourceName");
+                    changedNodeSources.remove(name);
+                    changedNodeSources.put(name, event);
+                }
+                for (JsonNode event : delta.nodes) {
+                    String url = key(event, "nodeUrl");
+                    changedNodes.remove(url);
+                    changedNodes.put(url, event);
+                }
+            }
+            return write(latestCounter, changedNodeSources.values(), changedNodes.values());
+        }
+
+        private void countSaved(boolean fetched) {
+            if (!fetched) {
+                savedUpstreamCalls.incrementAndGet();
+            }
+        }
+
+        private String write(long counter, Collection<JsonNode> nodeSourceEvents, Collection<JsonNode> nodeEvents)
+                throws ServiceException {
+            ObjectNode result = mapper.createObjectNode();
+            result.put(LATEST_COUNTER, counter);
+            ArrayNode nodeSourcesArray = result.putArray(NODE_SOURCES);
+            if (nodeSourceEvents != null) {
+                nodeSourcesArray.addAll(nodeSourceEvents);
+            }
+            ArrayNode nodesArray = result.putArray(NODES);
+            if (nodeEvents != null) {
+                nodesArray.addAll(nodeEvents);
+            }
+            try {
+                return mapper.writeValueAsString(result);
+            } catch (IOException e) {
+                throw new ServiceException("Failed to serialize RM monitoring state", e);
+            }
+        }
+    }
+
+    /**
+     * Events received from the RM between two counters.
+     */
+    private static final class Delta {
+
+        private final long from;
+
+        private final long to;
+
+        private final JsonNode nodeSources;
+
+        private final JsonNode nodes;
+
+        private Delta(long from, long to, JsonNode nodeSources, JsonNode nodes) {
+            this.from = from;
+            this.to = to;
+            this.nodeSources = nodeSources;
+            this.nodes = nodes;
+        }
+    }
+
+    /**
+     * Fetches a monitoring delta from the RM.
+     */
+    public interface MonitoringSource {
+
+        String monitoring(String sessionId, long counter) throws RestServerException, ServiceException;
+
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+/**
+ * JMX view of the {@link RMMonitoringHub} counters.
+ */
+public interface RMMonitoringHubMBean {
+
+    /**
+     * @return number of monitoring requests of the portal sessions served by the hub
+     */
+    long getRequests();
+
+    /**
+     * @return number of monitoring requests actually sent to the RM, including the counter resets
+     */
+    long getUpstreamCalls();
+
+    /**
+     * @return number of extra requests sent to the RM to get its whole state after it restarted
+     */
+    long getCounterResets();
+
+    /**
+     * @return number of requests answered with a delta without contacting the RM
+     */
+    long getSavedUpstreamCalls();
+
+    /**
+     * @return number of requests answered with the whole snapshot instead of a delta
+     */
+    long getFullSnapshots();
+
+}
@@ -31,10 +31,13 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.lang.management.ManagementFactory;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 import javax.ws.rs.WebApplicationException;
@@ -49,22 +52,18 @@ import org.apache.http.entity.mime.content.ByteArrayBody;
 import org.apache.http.entity.mime.content.FileBody;
 import org.apache.http.entity.mime.content.StringBody;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.jboss.resteasy.client.jaxrs.ResteasyClient;
-import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
-import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
-import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
-import org.jboss.resteasy.plugins.interceptors.encoding.AcceptEncodingGZIPFilter;
-import org.jboss.resteasy.plugins.interceptors.encoding.GZIPDecodingInterceptor;
-import org.jboss.resteasy.plugins.interceptors.encoding.GZIPEncodingInterceptor;
 import org.ow2.proactive.http.HttpClientBuilder;
 import org.ow2.proactive_grid_cloud_portal.common.server.CommonRestClient;
 import org.ow2.proactive_grid_cloud_portal.common.server.ConfigReader;
 import org.ow2.proactive_grid_cloud_portal.common.server.ConfigUtils;
+import org.ow2.proactive_grid_cloud_portal.common.server.RestClientProxyFactory;
 import org.ow2.proactive_grid_cloud_portal.common.server.Service;
+import org.ow2.proactive_grid_cloud_portal.common.server.SessionLogins;
 import org.ow2.proactive_grid_cloud_portal.common.shared.Config;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
 import org.ow2.proactive_grid_cloud_portal.rm.client.RMService;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.NodeMBeanRequest;
 import org.ow2.proactive_grid_cloud_portal.rm.shared.RMConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,13 +82,37 @@ public class RMServiceImpl extends Service implements RMService {
      */
     private static final int THREAD_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 8;
 
+    /**
+     * JMX name of the monitoring hub counters.
+     */
+    private static final String MONITORING_HUB_MBEAN_NAME = "org.ow2.proactive_grid_cloud_portal.rm:type=RMMonitoringHub";
+
     /**
      * Thread pool shared by RestEasy client proxies.
      */
     private ExecutorService threadPool;
 
+    /**
+     * RestEasy client proxies shared by all the requests.
+     */
+    private RestClientProxyFactory restClientProxyFactory;
+
     private CloseableHttpClient httpClient;
 
+    /**
+     * Login of the user owning each session.
+     */
+    private SessionLogins sessionLogins;
+
+    /**
+     * Serves the monitoring requests of all the sessions, null when disabled.
+     */
+    private RMMonitoringHub monitoringHub;
+
+    private NodeMBeanBatchFetcher nodeMBeanBatchFetcher;
+
+    private final HistoryDownsampler historyDownsampler = new HistoryDownsampler();
+
     @Override
     public void init() {
         loadProperties();
@@ -103,6 +126,46 @@ public class RMServiceImpl extends Service implements RMService {
                                             .build();
 
         threadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+
+        restClientProxyFactory = new RestClientProxyFactory(httpClient, threadPool, () -> RMConfig.get().getRestUrl());
+
+        nodeMBeanBatchFetcher = new NodeMBeanBatchFetcher(threadPool);
+
+        sessionLogins = new SessionLogins(this::getLoginFromSessionId);
+
+        if (RMConfig.get().isMonitoringHubEnabled()) {
+            monitoringHub = new RMMonitoringHub(this::getMonitoringFromRM,
+                                                sessionLogins,
+                                                RMConfig.get().getMonitoringHubRefreshTime(),
+                                                RMConfig.get().getMonitoringHubBufferSize());
+            registerMonitoringHubMBean();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (monitoringHub != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(MONITORING_HUB_MBEAN_NAME));
+            } catch (JMException e) {
+                LOGGER.warn("Could not unregister the RM monitoring hub MBean", e);
+            }
+        }
+        super.destroy();
+    }
+
+    private void registerMonitoringHubMBean() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MONITORING_HUB_MBEAN_NAME);
+            // left behind by a previous deployment of the portal
+            if (mBeanServer.isRegistered(name)) {
+                mBeanServer.unregisterMBean(name);
+            }
+            mBeanServer.registerMBean(monitoringHub, name);
+        } catch (JMException e) {
+            LOGGER.warn("Could not register the RM monitoring hub MBean, its counters are not exposed", e);
+        }
     }
 
     @Override
@@ -123,6 +186,8 @@ public class RMServiceImpl extends Service implements RMService {
     public void logout(String sessionId) throws ServiceException {
         RestClient restClientProxy = getRestClientProxy();
 
+        sessionLogins.forget(sessionId);
+
         try {
             restClientProxy.logout(sessionId);
         } catch (WebApplicationException e) {
@@ -218,8 +283,15 @@ public class RMServiceImpl extends Service implements RMService {
 
     @Override
     public String getMonitoring(String sessionId, Long counter) throws RestServerException, ServiceException {
+        if (monitoringHub != null) {
+            return monitoringHub.getMonitoring(sessionId, counter);
+        }
+        return getMonitoringFromRM(sessionId, counter);
+    }
+
+    private String getMonitoringFromRM(String sessionId, long counter) throws RestServerException, ServiceException {
         return executeFunctionReturnStreamAsStringWithoutNewLines(restClient -> restClient.monitoring(sessionId,
-                                                                                                      counter.toString()));
+                                                                                                      Long.toString(counter)));
     }
 
     /**
@@ -434,6 +506,35 @@ public class RMServiceImpl extends Service implements RMService {
                                                                                                              attrs));
     }
 
+    @Override
+    public List<String> getNodeMBeansData(String sessionId, String nodeJmxUrl, List<NodeMBeanRequest> requests)
+            throws RestServerException, ServiceException {
+        return nodeMBeanBatchFetcher.fetchAll(requests, request -> getNodeMBeanData(sessionId, nodeJmxUrl, request));
+    }
+
+    private String getNodeMBeanData(String sessionId, String nodeJmxUrl, NodeMBeanRequest request)
+            throws RestServerException, ServiceException {
+        if (request.isMultiple() && request.isHistory()) {
+            return historyDownsampler.downsample(getNodeMBeansHistory(sessionId,
+                                                                      nodeJmxUrl,
+                                                                      request.getObjectName(),
+                                                                      request.getAttrs(),
+                                                                      request.getTimeRange()),
+                                                 request.getMaxPoints());
+        } else if (request.isMultiple()) {
+            return getNodeMBeansInfo(sessionId, nodeJmxUrl, request.getObjectName(), request.getAttrs());
+        } else if (request.isHistory()) {
+            return historyDownsampler.downsample(getNodeMBeanHistory(sessionId,
+                                                                     nodeJmxUrl,
+                                                                     request.getObjectName(),
+                                                                     request.getAttrs(),
+                                                                     request.getTimeRange()),
+                                                 request.getMaxPoints());
+        } else {
+            return getNodeMBeanInfo(sessionId, nodeJmxUrl, request.getObjectName(), request.getAttrs());
+        }
+    }
+
     @Override
     public String getNodeMBeansHistory(String sessionId, String nodeJmxUrl, String objectNames, List<String> attrs,
             String timeRange) throws RestServerException, ServiceException {
@@ -450,6 +551,12 @@ public class RMServiceImpl extends Service implements RMService {
                                                                                                           range));
     }
 
+    @Override
+    public String getStatHistory(String sessionId, String range, int maxPoints)
+            throws RestServerException, ServiceException {
+        return historyDownsampler.downsample(getStatHistory(sessionId, range), maxPoints);
+    }
+
     @Override
     public String executeNodeScript(String sessionId, String script, String engine, String nodeUrl)
             throws RestServerException, ServiceException {
@@ -622,31 +729,11 @@ public class RMServiceImpl extends Service implements RMService {
     }
 
     private CommonRestClient getCommonRestClient() {
-        ResteasyClientBuilder builder = new ResteasyClientBuilder();
-        builder.register(AcceptEncodingGZIPFilter.class);
-        builder.register(GZIPDecodingInterceptor.class);
-        builder.register(GZIPEncodingInterceptor.class);
-        ResteasyClient client = builder.asyncExecutor(threadPool)
-                                       .httpEngine(new ApacheHttpClient4Engine(httpClient))
-                                       .build();
-        ResteasyWebTarget target = client.target(RMConfig.get().getRestUrl());
-
-        return target.proxy(CommonRestClient.class);
+        return restClientProxyFactory.getProxy(CommonRestClient.class);
     }
 
     private RestClient getRestClientProxy() {
-        ResteasyClientBuilder builder = new ResteasyClientBuilder();
-        builder.register(AcceptEncodingGZIPFilter.class);
-        builder.register(GZIPDecodingInterceptor.class);
-        builder.register(GZIPEncodingInterceptor.class);
-
-        ResteasyClient client = builder.asyncExecutor(threadPool)
-                                       .httpEngine(new ApacheHttpClient4Engine(httpClient))
-                                       .build();
-
-        ResteasyWebTarget target = client.target(RMConfig.get().getRestUrl());
-
-        return target.proxy(RestClient.class);
+        return restClientProxyFactory.getProxy(RestClient.class);
     }
 
     private String executeFunction(BiFunction<RestClient, Set<String>, InputStream> action, Set<String> urls,
@@ -0,0 +1,97 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.shared;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.user.client.rpc.IsSerializable;
+
+
+/**
+ * Attributes to fetch from one MBean, or from all the MBeans matching an object name pattern,
+ * of a node JMX server
+ */
+public class NodeMBeanRequest implements IsSerializable {
+
+    private String objectName;
+
+    private ArrayList<String> attrs;
+
+    private boolean multiple;
+
+    private String timeRange;
+
+    private int maxPoints;
+
+    public NodeMBeanRequest() {
+    }
+
+    /**
+     * @param objectName name of the MBean, or object name pattern if multiple
+     * @param attrs attributes to fetch
+     * @param multiple whether objectName is a pattern matching several MBeans
+     * @param timeRange range of the history to fetch, or null for the current values
+     * @param maxPoints maximum number of values of the history, 0 to get all of them
+     */
+    public NodeMBeanRequest(String objectName, List<String> attrs, boolean multiple, String timeRange,
+            int maxPoints) {
+        this.objectName = objectName;
+        this.attrs = new ArrayList<>(attrs);
+        this.multiple = multiple;
+        this.timeRange = timeRange;
+        this.maxPoints = maxPoints;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public List<String> getAttrs() {
+        return attrs;
+    }
+
+    public boolean isMultiple() {
+        return multiple;
+    }
+
+    public String getTimeRange() {
+        return timeRange;
+    }
+
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+
+    public boolean isHistory() {
+        return timeRange != null;
+    }
+
+    @Override
+    public String toString() {
+        return objectName + attrs;
+    }
+}
@@ -86,11 +86,31 @@ public class RMConfig extends Config {
 
     private static final String DEFAULT_RM_VERSION = "0.0";
 
+    /** whether monitoring requests of all the sessions are served from a shared server-side cache */
+    public static final String MONITORING_HUB_ENABLED = "rm.monitoring.hub.enabled";
+
+    private static final String DEFAULT_MONITORING_HUB_ENABLED = "true";
+
+    /** minimal delay in millis between two monitoring requests sent to the RM for the same user */
+    public static final String MONITORING_HUB_REFRESH_TIME = "rm.monitoring.hub.refresh.time";
+
+    private static final String DEFAULT_MONITORING_HUB_REFRESH_TIME = "1000";
+
+    /** number of monitoring deltas kept in memory to answer the sessions incrementally */
+    public static final String MONITORING_HUB_BUFFER_SIZE = "rm.monitoring.hub.buffer.size";
+
+    private static final String DEFAULT_MONITORING_HUB_BUFFER_SIZE = "256";
+
     /** stat history refresh rate in millis */
     public static final String STATISTICS_REFRESH_TIME = "rm.client.stats.time";
 
     private static final String DEFAULT_STATISTICS_REFRESH_TIME = "3000";
 
+    /** maximum number of values of each history displayed in a chart, 0 to display all of them */
+    public static final String HISTORY_MAX_POINTS = "rm.history.max.points";
+
+    private static final String DEFAULT_HISTORY_MAX_POINTS = "300";
+
     /** message of the day */
     public static final String MOTD_URL = "rm.motd.url";
 
@@ -152,10 +172,14 @@ public class RMConfig extends Config {
         properties.put(VERSION, DEFAULT_VERSION);
         properties.put(RM_VERSION, DEFAULT_RM_VERSION);
         properties.put(REST_VERSION, DEFAULT_REST_VERSION);
+        properties.put(MONITORING_HUB_ENABLED, DEFAULT_MONITORING_HUB_ENABLED);
+        properties.put(MONITORING_HUB_REFRESH_TIME, DEFAULT_MONITORING_HUB_REFRESH_TIME);
+        properties.put(MONITORING_HUB_BUFFER_SIZE, DEFAULT_MONITORING_HUB_BUFFER_SIZE);
         properties.put(STATISTICS_REFRESH_TIME, DEFAULT_STATISTICS_REFRESH_TIME);
         properties.put(MOTD_URL, DEFAULT_MOTD_URL);
         properties.put(MONITORING_PROTOCOL, MONITORING_PROTOCOL_DEFAULT);
         properties.put(MONITORING_PERIOD, MONITORING_PERIOD_DEFAULT);
+        properties.put(HISTORY_MAX_POINTS, DEFAULT_HISTORY_MAX_POINTS);
         properties.put(RM_JMX_HOSTNAME, RM_JMX_HOSTNAME_DEFAULT);
         properties.put(RM_JMX_PORT, RM_JMX_PORT_DEFAULT);
         properties.put(RM_JMX_SERVER_NAME, RM_JMX_SERVER_NAME_DEFAULT);
@@ -217,6 +241,27 @@ public class RMConfig extends Config {
         return Integer.parseInt(properties.get(CLIENT_BURST_REFRESH_TIME));
     }
 
+    /**
+     * @return true if monitoring requests are served from the shared server-side cache
+     */
+    public boolean isMonitoringHubEnabled() {
+        return Boolean.parseBoolean(properties.get(MONITORING_HUB_ENABLED));
+    }
+
+    /**
+     * @return minimal delay in millis between two monitoring requests sent to the RM for the same user
+     */
+    public int getMonitoringHubRefreshTime() {
+        return Integer.parseInt(properties.get(MONITORING_HUB_REFRESH_TIME));
+    }
+
+    /**
+     * @return number of monitoring deltas kept in memory by the shared server-side cache
+     */
+    public int getMonitoringHubBufferSize() {
+        return Integer.parseInt(properties.get(MONITORING_HUB_BUFFER_SIZE));
+    }
+
     /**
      * @return refresh rate in millis for the Statistics History
      */
@@ -224,6 +269,13 @@ public class RMConfig extends Config {
         return Integer.parseInt(properties.get(STATISTICS_REFRESH_TIME));
     }
 
+    /**
+     * @return maximum number of values of each history displayed in a chart, 0 to display all of them
+     */
+    public int getHistoryMaxPoints() {
+        return Integer.parseInt(properties.get(HISTORY_MAX_POINTS));
+    }
+
     /**
      * @return protocol for jmx nodes communication (default or proactive)
      */
@@ -0,0 +1,149 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.EntryPoint;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.dom.client.Document;
+import com.google.gwt.dom.client.PreElement;
+import com.google.gwt.json.client.JSONArray;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONParser;
+import com.google.gwt.json.client.JSONValue;
+
+
+/**
+ * Compares the decoding of the RM monitoring with {@link RMMonitoringOverlay} to the former decoding,
+ * which wrapped each value with {@link JSONParser}, on generated first responses of 100 to 10000 nodes.
+ * <p>
+ * Not run with the tests: it needs a browser. The runGwtDecodeBenchmark task compiles the
+ * RmDecodeBenchmark module and prints the page with the time taken by each decoding once run by
+ * headless Chrome. The compiled decodebenchmark/decode-benchmark.html can also be opened in any
+ * browser, the times are also logged in the browser console.
+ */
+public class DecodeBenchmark implements EntryPoint {
+
+    private static final int[] SIZES = { 100, 1000, 5000, 10000 };
+
+    private static final int ITERATIONS = 10;
+
+    private PreElement output;
+
+    @Override
+    public void onModuleLoad() {
+        output = Document.get().createPreElement();
+        Document.get().getBody().appendChild(output);
+
+        for (int size : SIZES) {
+            String monitoring = generateMonitoring(size);
+            // warm up
+            decode(monitoring);
+            wrapAll(monitoring);
+
+            print(size + " nodes (" + monitoring.length() / 1024 + " KB): overlay " +
+                  measure(() -> decode(monitoring)) + ", JSONParser " + measure(() -> wrapAll(monitoring)));
+        }
+    }
+
+    private static String measure(Runnable decoding) {
+        Duration duration = new Duration();
+        for (int i = 0; i < ITERATIONS; i++) {
+            decoding.run();
+        }
+        return (duration.elapsedMillis() / ITERATIONS) + " ms";
+    }
+
+    private static void decode(String json) {
+        RMMonitoringOverlay monitoring = RMMonitoringOverlay.parse(json);
+        JsArray<RMMonitoringOverlay.NodeSourceEvent> nodeSources = monitoring.getNodeSourceEvents();
+        for (int i = 0; i < nodeSources.length(); i++) {
+            nodeSources.get(i).toNodeSource();
+        }
+        JsArray<RMMonitoringOverlay.NodeEvent> nodes = monitoring.getNodeEvents();
+        for (int i = 0; i < nodes.length(); i++) {
+            nodes.get(i).toNode();
+        }
+    }
+
+    /**
+     * The parsing part of the former decoding: every value is parsed and wrapped, the node
+     * sources and nodes are not even built.
+     */
+    private static void wrapAll(String json) {
+        visit(JSONParser.parseStrict(json));
+    }
+
+    private static int visit(JSONValue value) {
+        int count = 1;
+        JSONObject object = value.isObject();
+        if (object != null) {
+            for (String key : object.keySet()) {
+                count += visit(object.get(key));
+            }
+        }
+        JSONArray array = value.isArray();
+        if (array != null) {
+            for (int i = 0; i < array.size(); i++) {
+                count += visit(array.get(i));
+            }
+        }
+        return count;
+    }
+
+    private void print(String line) {
+        output.setInnerText(output.getInnerText() + line + "\n");
+        log(line);
+    }
+
+    private static native void log(String line) /*-{
+        $wnd.console.log(line);
+    }-*/;
+
+    private static String generateMonitoring(int size) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"latestCounter\":")
+            .append(size + 1)
+            .append(",\"nodeSource\":[{\"sourceName\":\"Default\",\"sourceDescription\":\"userAccessType[ALL]\"")
+            .append(",\"additionalInformation\":{},\"nodeSourceAdmin\":\"rm\",\"nodeSourceStatus\":\"deployed\"")
+            .append(",\"eventType\":\"NODESOURCE_CREATED\"}],\"nodesEvents\":[");
+        for (int i = 0; i < size; i++) {
+            json.append(i == 0 ? "" : ",")
+                .append("{\"hostName\":\"host")
+                .append(i / 10)
+                .append("\",\"nodeSource\":\"Default\",\"nodeUrl\":\"pnp://host")
+                .append(i / 10)
+                .append(":64738/Default-node")
+                .append(i)
+                .append("\",\"nodeState\":\"FREE\",\"nodeInfo\":\"generated node\"")
+                .append(",\"timeStamp\":1700000000000,\"timeStampFormatted\":\"11/14/23 10:13:20\"")
+                .append(",\"nodeProvider\":\"rm\",\"nodeOwner\":null,\"vmname\":\"Dummy\",\"defaultJMXUrl\":null")
+                .append(",\"proactiveJMXUrl\":null,\"locked\":false,\"lockTime\":-1,\"nodeLocker\":null")
+                .append(",\"eventType\":\"NODE_ADDED\",\"usageInfo\":{\"CURRENT_JOB\":\"\"},\"tokens\":[\"gpu\"]}");
+        }
+        return json.append("]}").toString();
+    }
+}
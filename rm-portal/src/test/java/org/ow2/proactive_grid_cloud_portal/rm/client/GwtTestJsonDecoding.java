@@ -0,0 +1,136 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.client;
+
+import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host.Node;
+
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.json.client.JSONArray;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONParser;
+import com.google.gwt.junit.client.GWTTestCase;
+
+
+/**
+ * Checks that {@link RMMonitoringOverlay} decodes the same values as the former decoding with
+ * {@link JSONParser}, kept in {@link LegacyJsonParsing}.
+ * <p>
+ * Runs the RmJsonDecoding module in HtmlUnit: the overlay needs a JavaScript engine.
+ */
+public class GwtTestJsonDecoding extends GWTTestCase {
+
+    private static final String MONITORING = json("{'latestCounter':12,'nodeSource':[{'sourceName':'Default',",
+                                                  "'sourceDescription':'userAccessType[ALL]',",
+                                                  "'additionalInformation':{'infrastructure':'local','nodes':'4'},",
+                                                  "'nodeSourceAdmin':'rm','nodeSourceStatus':'deployed',",
+                                                  "'eventType':'NODESOURCE_CREATED'},{'sourceName':'Cloud',",
+                                                  "'sourceDescription':null,'additionalInformation':{},",
+                                                  "'nodeSourceAdmin':'admin','nodeSourceStatus':'undeployed',",
+                                                  "'eventType':null}],'nodesEvents':[{'hostName':'host1',",
+                                                  "'nodeSource':'Default','nodeUrl':'pnp://host1:64738/Default-0',",
+                                                  "'nodeState':'BUSY','nodeInfo':'a node','timeStamp':1700000000000,",
+                                                  "'timeStampFormatted':'11/14/23 10:13:20','nodeProvider':'rm',",
+                                                  "'nodeOwner':'admin','vmname':'Dummy',",
+                                                  "'defaultJMXUrl':'service:jmx:rmi:///jndi/rmi://host1:5000',",
+                                                  "'proactiveJMXUrl':'service:jmx:ro:///jndi/pnp://host1:64738',",
+                                                  "'locked':true,'lockTime':1700000000500,'nodeLocker':'admin',",
+                                                  "'eventType':'NODE_STATE_CHANGED','usageInfo':{'CURRENT_JOB':'42',",
+                                                  "'CURRENT_TASK':'split'},'tokens':['gpu','fast']},",
+                                                  "{'hostName':'host2','nodeSource':'Cloud',",
+                                                  "'nodeUrl':'pnp://host2:64738/Cloud-0','nodeState':'FREE',",
+                                                  "'nodeInfo':'','timeStamp':1700000001000,",
+                                                  "'timeStampFormatted':'11/14/23 10:13:21','nodeProvider':'admin',",
+                                                  "'nodeOwner':null,'vmname':null,'defaultJMXUrl':null,",
+                                                  "'proactiveJMXUrl':null,'locked':null,'lockTime':null,",
+                                                  "'nodeLocker':null,'eventType':'NODE_ADDED','usageInfo':null,",
+                                                  "'tokens':null}]}");
+
+    @Override
+    public String getModuleName() {
+        return "org.ow2.proactive_grid_cloud_portal.RmJsonDecoding";
+    }
+
+    public void testNodeSourcesAreDecodedAsWithJSONParser() {
+        JsArray<RMMonitoringOverlay.NodeSourceEvent> nodeSources = RMMonitoringOverlay.parse(MONITORING)
+                                                                                      .getNodeSourceEvents();
+        JSONArray legacyNodeSources = JSONParser.parseStrict(MONITORING).isObject().get("nodeSource").isArray();
+
+        assertEquals(legacyNodeSources.size(), nodeSources.length());
+        for (int i = 0; i < nodeSources.length(); i++) {
+            JSONObject legacyNodeSource = legacyNodeSources.get(i).isObject();
+            assertNodeSourceEquals(LegacyJsonParsing.parseNodeSource(legacyNodeSource),
+                                   nodeSources.get(i).toNodeSource());
+        }
+    }
+
+    public void testNodesAreDecodedAsWithJSONParser() {
+        JsArray<RMMonitoringOverlay.NodeEvent> nodes = RMMonitoringOverlay.parse(MONITORING).getNodeEvents();
+        JSONArray legacyNodes = JSONParser.parseStrict(MONITORING).isObject().get("nodesEvents").isArray();
+
+        assertEquals(legacyNodes.size(), nodes.length());
+        for (int i = 0; i < nodes.length(); i++) {
+            assertNodeEquals(LegacyJsonParsing.parseNode(legacyNodes.get(i).isObject()), nodes.get(i).toNode());
+        }
+    }
+
+    /**
+     * @return the parts joined, with single quotes replaced by double quotes
+     */
+    private static String json(String... parts) {
+        return String.join("", parts).replace('\'', '"');
+    }
+
+    private static void assertNodeSourceEquals(NodeSource expected, NodeSource actual) {
+        assertEquals(expected.getSourceName(), actual.getSourceName());
+        assertEquals(expected.getSourceDescription(), actual.getSourceDescription());
+        assertEquals(expected.getAdditionalInformation(), actual.getAdditionalInformation());
+        assertEquals(expected.getNodeSourceAdmin(), actual.getNodeSourceAdmin());
+        assertEquals(expected.getNodeSourceStatus(), actual.getNodeSourceStatus());
+        assertEquals(expected.getEventType(), actual.getEventType());
+    }
+
+    private static void assertNodeEquals(Node expected, Node actual) {
+        assertEquals(expected.getNodeUrl(), actual.getNodeUrl());
+        assertEquals(expected.getNodeState(), actual.getNodeState());
+        assertEquals(expected.getNodeInfo(), actual.getNodeInfo());
+        assertEquals(expected.getTimeStamp(), actual.getTimeStamp());
+        assertEquals(expected.getTimeStampFormatted(), actual.getTimeStampFormatted());
+        assertEquals(expected.getNodeProvider(), actual.getNodeProvider());
+        assertEquals(expected.getNodeOwner(), actual.getNodeOwner());
+        assertEquals(expected.getSourceName(), actual.getSourceName());
+        assertEquals(expected.getHostName(), actual.getHostName());
+        assertEquals(expected.getVmName(), actual.getVmName());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getDefaultJMXUrl(), actual.getDefaultJMXUrl());
+        assertEquals(expected.getProactiveJMXUrl(), actual.getProactiveJMXUrl());
+        assertEquals(expected.isLocked(), actual.isLocked());
+        assertEquals(expected.getLockTime(), actual.getLockTime());
+        assertEquals(expected.getNodeLocker(), actual.getNodeLocker());
+        assertEquals(expected.getEventType(), actual.getEventType());
+        assertEquals(expected.getUsageInfo(), actual.getUsageInfo());
+        assertEquals(expected.getTokens(), actual.getTokens());
+    }
+}
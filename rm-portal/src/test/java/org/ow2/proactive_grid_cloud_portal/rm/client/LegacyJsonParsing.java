@@ -0,0 +1,186 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.ow2.proactive_grid_cloud_portal.rm.client.NodeSource.Host.Node;
+
+import com.google.gwt.json.client.JSONBoolean;
+import com.google.gwt.json.client.JSONNumber;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONString;
+import com.google.gwt.json.client.JSONValue;
+
+
+/**
+ * The decoding of the node sources and nodes with {@link com.google.gwt.json.client.JSONParser} formerly
+ * in {@link RMController}, replaced by {@link RMMonitoringOverlay}, kept to check that both decode the
+ * same values.
+ */
+class LegacyJsonParsing {
+
+    private LegacyJsonParsing() {
+    }
+
+    static NodeSource parseNodeSource(JSONObject nsObj) {
+        String sourceName = nsObj.get("sourceName").isString().stringValue();
+        String sourceDescription = getJsonStringNullable(nsObj, "sourceDescription");
+        LinkedHashMap<String, String> additionalInformation = getJsonMapNullable(nsObj, "additionalInformation");
+        String nodeSourceAdmin = nsObj.get("nodeSourceAdmin").isString().stringValue();
+        String nodeSourceStatus = getJsonStringNullable(nsObj, "nodeSourceStatus");
+        String eventType = getJsonStringNullable(nsObj, "eventType");
+        return new NodeSource(sourceName,
+                              sourceDescription,
+                              additionalInformation,
+                              nodeSourceAdmin,
+                              nodeSourceStatus,
+                              eventType);
+    }
+
+    static Node parseNode(JSONObject nodeObj) {
+        String hostName = nodeObj.get("hostName").isString().stringValue();
+        String nss = nodeObj.get("nodeSource").isString().stringValue();
+
+        String eventType = getJsonStringNullable(nodeObj, "eventType");
+
+        String nodeUrl = nodeObj.get("nodeUrl").isString().stringValue();
+        String nodeState = nodeObj.get("nodeState").isString().stringValue();
+        String nodeInfo = nodeObj.get("nodeInfo").isString().stringValue();
+        String timeStampFormatted = nodeObj.get("timeStampFormatted").isString().stringValue();
+        long timeStamp = Math.round(nodeObj.get("timeStamp").isNumber().doubleValue());
+        String nodeProvider = nodeObj.get("nodeProvider").isString().stringValue();
+
+        String nodeOwner = getJsonStringNullable(nodeObj, "nodeOwner");
+        String vmName = getJsonStringNullable(nodeObj, "vmname");
+        String description = getJsonStringNullable(nodeObj, "nodeInfo");
+        String defaultJMXUrl = getJsonStringNullable(nodeObj, "defaultJMXUrl");
+        String proactiveJMXUrl = getJsonStringNullable(nodeObj, "proactiveJMXUrl");
+
+        Map<String, String> usageInfo = Optional.ofNullable(nodeObj.get("usageInfo"))
+                                                .map(JSONValue::isObject)
+                                                .map(json -> {
+                                                    Map<String, String> metaMap = new HashMap<>();
+                                                    for (String key : json.keySet()) {
+                                                        String value = json.get(key).isString().stringValue();
+                                                        metaMap.put(key, value);
+                                                    }
+                                                    return metaMap;
+                                                })
+                                                .orElse(new HashMap<>());
+        List<String> tokens = Optional.ofNullable(nodeObj.get("tokens")).map(JSONValue::isArray).map(arr -> {
+            List<String> ts = new ArrayList<>(arr.size());
+            for (int i = 0; i < arr.size(); ++i) {
+                ts.add(arr.get(i).isString().stringValue());
+            }
+            return ts;
+        }).orElse(Collections.emptyList());
+
+        boolean isLocked = getJsonBooleanNullable(nodeObj, "locked", false);
+        long lockTime = getJsonLongNullable(nodeObj, "lockTime", -1);
+        String nodeLocker = getJsonStringNullable(nodeObj, "nodeLocker");
+
+        return new Node(nodeUrl,
+                        nodeState,
+                        nodeInfo,
+                        timeStamp,
+                        timeStampFormatted,
+                        nodeProvider,
+                        nodeOwner,
+                        nss,
+                        hostName,
+                        vmName,
+                        description,
+                        defaultJMXUrl,
+                        proactiveJMXUrl,
+                        isLocked,
+                        lockTime,
+                        nodeLocker,
+                        eventType,
+                        usageInfo,
+                        tokens);
+    }
+
+    private static LinkedHashMap<String, String> getJsonMapNullable(JSONObject jsonObject, String attributeName) {
+        JSONObject mapAsJSONObject = jsonObject.get(attributeName).isObject();
+
+        if (mapAsJSONObject == null) {
+            return (LinkedHashMap<String, String>) Collections.EMPTY_MAP;
+        }
+
+        LinkedHashMap<String, String> result = new LinkedHashMap<>();
+        Iterator<String> mapAsJSONObjectKeysIterator = mapAsJSONObject.keySet().iterator();
+        while (mapAsJSONObjectKeysIterator.hasNext()) {
+            String currentKey = mapAsJSONObjectKeysIterator.next();
+            String currentValue = mapAsJSONObject.get(currentKey).isString().stringValue();
+            result.put(currentKey, currentValue);
+        }
+
+        return result;
+    }
+
+    private static String getJsonStringNullable(JSONObject jsonObject, String attributeName) {
+        return getJsonStringNullable(jsonObject, attributeName, "");
+    }
+
+    private static boolean getJsonBooleanNullable(JSONObject jsonObject, String attributeName,
+            boolean defaultValue) {
+        JSONBoolean result = jsonObject.get(attributeName).isBoolean();
+
+        if (result == null) {
+            return defaultValue;
+        }
+
+        return result.booleanValue();
+    }
+
+    private static long getJsonLongNullable(JSONObject jsonObject, String attributeName, long defaultValue) {
+        JSONNumber result = jsonObject.get(attributeName).isNumber();
+
+        if (result == null) {
+            return defaultValue;
+        }
+
+        return Long.parseLong(result.toString());
+    }
+
+    private static String getJsonStringNullable(JSONObject jsonObject, String attributeName, String defaultValue) {
+        JSONString result = jsonObject.get(attributeName).isString();
+
+        if (result == null) {
+            return defaultValue;
+        }
+
+        return result.stringValue();
+    }
+}
@@ -118,4 +118,56 @@ public class TreeViewTest {
 
     }
 
+    @Test
+    public void testUpdateByDeltaSortsOncePerDelta() {
+        final int numberOfNodeSources = 200;
+        final int hostsPerNodeSource = 5;
+        final int nodesPerHost = 10;
+
+        final List<NodeSource> nodeSourceList = IntStream.range(0, numberOfNodeSources).mapToObj(i -> {
+            final NodeSource nodeSource = new NodeSource("scaleSource" + i,
+                                                         "Infrastructure: AzureInfrastructure, Policy: TestPolicy userAccessType: [ALL], providerAccessType: [ALL]",
+                                                         new LinkedHashMap<>(),
+                                                         "",
+                                                         "undeployed",
+                                                         "");
+            nodeSource.setNodeSourceStatus(NodeSourceStatus.NODES_DEPLOYED);
+            return nodeSource;
+        }).collect(Collectors.toList());
+
+        final List<NodeSource.Host.Node> nodeList = new LinkedList<>();
+        for (NodeSource nodeSource : nodeSourceList) {
+            for (int i = 0; i < hostsPerNodeSource * nodesPerHost; i++) {
+                final String hostName = nodeSource.getSourceName() + "host" + (i % hostsPerNodeSource);
+                final NodeSource.Host.Node node = new NodeSource.Host.Node(nodeSource.getSourceName(),
+                                                                           hostName,
+                                                                           hostName + "node" + i);
+                node.setNodeState(NodeState.FREE);
+                nodeList.add(node);
+            }
+        }
+        assertEquals(10000, nodeList.size());
+
+        final TreeGrid treeGrid = mock(TreeGrid.class);
+        when(treeView.getTreeGrid()).thenReturn(treeGrid);
+        when(treeView.tree.getAllNodes()).thenReturn(new TreeNode[0]);
+        doNothing().when(treeView).sortCompactView(any(CompactView.class), any(List.class));
+
+        treeView.updateByDelta(nodeSourceList, nodeList);
+
+        verify(treeGrid, times(1)).sort();
+        verify(treeView, times(1)).sortCompactView(any(CompactView.class), any(List.class));
+        assertEquals(numberOfNodeSources + numberOfNodeSources * hostsPerNodeSource + nodeList.size(),
+                     treeView.currentTreeNodes.size());
+        nodeSourceList.forEach(nodeSource -> assertEquals(hostsPerNodeSource, nodeSource.getHosts().size()));
+
+        nodeList.forEach(node -> node.setNodeState(NodeState.BUSY));
+        treeView.updateByDelta(Collections.emptyList(), nodeList);
+
+        verify(treeGrid, times(2)).sort();
+        verify(treeView, times(2)).sortCompactView(any(CompactView.class), any(List.class));
+        assertEquals(numberOfNodeSources + numberOfNodeSources * hostsPerNodeSource + nodeList.size(),
+                     treeView.currentTreeNodes.size());
+    }
+
 }
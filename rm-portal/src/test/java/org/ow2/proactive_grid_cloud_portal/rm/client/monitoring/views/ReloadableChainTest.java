@@ -0,0 +1,104 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.Reloadable;
+
+
+public class ReloadableChainTest {
+
+    @Test
+    public void testFinishesOnceAllComponentsAreReloaded() {
+        ManualReloadable first = new ManualReloadable();
+        ManualReloadable second = new ManualReloadable();
+        AtomicInteger finished = new AtomicInteger();
+        ReloadableChain chain = new ReloadableChain(first, second);
+        chain.onFinish(finished::incrementAndGet);
+
+        chain.reload();
+        assertEquals(1, first.reloads);
+        assertEquals(1, second.reloads);
+
+        first.finish();
+        assertEquals(0, finished.get());
+        second.finish();
+        assertEquals(1, finished.get());
+    }
+
+    @Test
+    public void testEmptyChainFinishesImmediately() {
+        AtomicInteger finished = new AtomicInteger();
+        ReloadableChain chain = new ReloadableChain();
+        chain.onFinish(finished::incrementAndGet);
+
+        chain.reload();
+        chain.reload();
+
+        assertEquals(2, finished.get());
+    }
+
+    @Test
+    public void testReloadsAgainAfterBeingStopped() {
+        ManualReloadable component = new ManualReloadable();
+        AtomicInteger finished = new AtomicInteger();
+        ReloadableChain chain = new ReloadableChain(component);
+        chain.onFinish(finished::incrementAndGet);
+
+        chain.reload();
+        chain.stopReloading();
+        chain.reload();
+
+        assertEquals(2, component.reloads);
+        component.finish();
+        assertEquals(1, finished.get());
+    }
+
+    private static class ManualReloadable implements Reloadable {
+
+        private int reloads = 0;
+
+        private Runnable onFinish;
+
+        @Override
+        public void reload() {
+            reloads++;
+        }
+
+        @Override
+        public void onFinish(Runnable callback) {
+            this.onFinish = callback;
+        }
+
+        void finish() {
+            onFinish.run();
+        }
+    }
+}
@@ -32,6 +32,7 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views.compact.CompactFlowPanelTest.assertIndexesMatchModel;
 import static org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views.compact.CompactFlowPanelTest.host;
 import static org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views.compact.CompactFlowPanelTest.hosts;
 import static org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views.compact.CompactFlowPanelTest.node;
@@ -40,7 +41,9 @@ import static org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views.com
 import static org.ow2.proactive_grid_cloud_portal.rm.client.monitoring.views.compact.CompactFlowPanelTest.nodes;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -136,6 +139,34 @@ public class CompactFlowPanelOwnTest {
         assertEquals(3, compactFlowPanelOwn.getTilesNumber());
     }
 
+    @Test(timeout = 20000)
+    public void testScaleOutBurst() {
+        List<NodeSource.Host.Node> nodes = new ArrayList<>();
+        for (Tile nodeSourceTile : nodeSources(3)) {
+            compactFlowPanelOwn.drawNodeSource(nodeSourceTile);
+
+            for (Tile hostTile : hosts(nodeSourceTile.getNodesource().getSourceName(), 1000)) {
+                final Tile nodeTile = nodes(nodeSourceTile.getNodesource().getSourceName(),
+                                            hostTile.getHost().getHostName(),
+                                            1).get(0);
+                nodes.add(nodeTile.getNode());
+                compactFlowPanelOwn.drawNode(nodeTile, hostTile);
+            }
+        }
+
+        assertEquals(3 * (1 + 1000 * 2), compactFlowPanelOwn.getTilesNumber());
+        assertIndexesMatchModel(compactFlowPanelOwn);
+
+        // dangling hosts and nodesources are removed with the last node
+        Collections.shuffle(nodes, new Random(42));
+        for (NodeSource.Host.Node node : nodes) {
+            compactFlowPanelOwn.remove(node);
+        }
+
+        verify(compactFlowPanelOwn, times(3 * (1 + 1000 * 2))).remove(anyInt());
+        assertEquals(0, compactFlowPanelOwn.getTilesNumber());
+    }
+
     @Test(expected = NullPointerException.class)
     public void testTryToDrawNodeWithoutNodeSource() {
         final Tile nodeTile = node("SOURCEname", "local", "httpptth");
@@ -39,7 +39,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -282,6 +284,64 @@ public class CompactFlowPanelTest {
         assertFalse(spyCompactFlowPanel.indexOf(aNode).isPresent());
     }
 
+    @Test(timeout = 20000)
+    public void testScaleOutBurst() {
+        List<NodeSource.Host.Node> nodes = new ArrayList<>();
+        for (Tile nodeSourceTile : nodeSources(3)) {
+            spyCompactFlowPanel.drawNodeSource(nodeSourceTile);
+
+            for (Tile deployingTile : deployingNodes(nodeSourceTile.getNodesource().getSourceName(), 100)) {
+                spyCompactFlowPanel.drawNode(deployingTile, null);
+            }
+
+            // one host per node, as for cloud instances
+            for (Tile hostTile : hosts(nodeSourceTile.getNodesource().getSourceName(), 1000)) {
+                final Tile nodeTile = nodes(nodeSourceTile.getNodesource().getSourceName(),
+                                            hostTile.getHost().getHostName(),
+                                            1).get(0);
+                nodes.add(nodeTile.getNode());
+                spyCompactFlowPanel.drawNode(nodeTile, hostTile);
+            }
+        }
+
+        assertEquals(3 * (1 + 100 + 1000 * 2), spyCompactFlowPanel.getTilesNumber());
+        // hosts are drawn newest first, after the deploying nodes
+        assertEquals(1 + 100 + 999 * 2 + 1, spyCompactFlowPanel.indexOf(nodes.get(0)).get().longValue());
+        assertIndexesMatchModel(spyCompactFlowPanel);
+
+        Collections.shuffle(nodes, new Random(42));
+        for (NodeSource.Host.Node node : nodes.subList(0, 2000)) {
+            spyCompactFlowPanel.remove(node);
+        }
+
+        assertEquals(3 * (1 + 100) + 1000 * 2, spyCompactFlowPanel.getTilesNumber());
+        assertIndexesMatchModel(spyCompactFlowPanel);
+        for (NodeSource.Host.Node node : nodes.subList(0, 2000)) {
+            assertFalse(spyCompactFlowPanel.isNodeDrawn(node));
+        }
+    }
+
+    /**
+     * Checks that the index of every nodesource, deploying node, host and node is
+     * its position when the model is walked from the beginning.
+     */
+    public static void assertIndexesMatchModel(CompactFlowPanel compactFlowPanel) {
+        int index = 0;
+        for (HierarchyNodeSource hierarchyNodeSource : compactFlowPanel.getModel()) {
+            assertEquals(index++, compactFlowPanel.indexOf(hierarchyNodeSource.getNodeSource()).get().intValue());
+            for (NodeSource.Host.Node deploying : hierarchyNodeSource.getDeploying()) {
+                assertEquals(index++, compactFlowPanel.indexOf(deploying).get().intValue());
+            }
+            for (HierarchyHost hierarchyHost : hierarchyNodeSource.getHosts()) {
+                assertEquals(index++, compactFlowPanel.indexOf(hierarchyHost.getHost()).get().intValue());
+                for (NodeSource.Host.Node node : hierarchyHost.getNodes()) {
+                    assertEquals(index++, compactFlowPanel.indexOf(node).get().intValue());
+                }
+            }
+        }
+        assertEquals(index, compactFlowPanel.getTilesNumber());
+    }
+
     public static List<Tile> nodeSources(int num) {
         return IntStream.range(0, num).mapToObj(i -> {
             return nodeSource("nodeSource" + i);
@@ -0,0 +1,122 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+
+public class HistoryDownsamplerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final HistoryDownsampler downsampler = new HistoryDownsampler();
+
+    @Test
+    public void long_histories_keep_their_peaks_and_last_value() throws Exception {
+        ObjectNode history = mapper.createObjectNode();
+        ArrayNode values = history.putArray("BusyNodesCount");
+        for (int i = 0; i < 10000; i++) {
+            values.add(i == 4321 ? 1000 : i == 8765 ? -1000 : i % 10);
+        }
+        values.add(42);
+
+        JsonNode result = mapper.readTree(downsampler.downsample(history.toString(), 300));
+        JsonNode reduced = result.get("BusyNodesCount");
+
+        assertTrue(reduced.size() <= 300);
+        assertEquals(42, reduced.get(reduced.size() - 1).asInt());
+        assertEquals(1000, max(reduced), 0);
+        assertEquals(-1000, min(reduced), 0);
+    }
+
+    @Test
+    public void all_arrays_of_an_history_have_the_same_length() throws Exception {
+        ObjectNode history = mapper.createObjectNode();
+        ArrayNode free = history.putArray("FreeNodesCount");
+        ArrayNode busy = history.putArray("BusyNodesCount");
+        for (int i = 0; i < 1000; i++) {
+            free.add(i);
+            // buckets without any value are kept as gaps
+            busy.addNull();
+        }
+
+        JsonNode result = mapper.readTree(downsampler.downsample(history.toString(), 100));
+
+        assertEquals(result.get("FreeNodesCount").size(), result.get("BusyNodesCount").size());
+        assertTrue(result.get("BusyNodesCount").get(0).isNull());
+    }
+
+    @Test
+    public void short_histories_and_disabled_downsampling_are_left_untouched() {
+        String history = "{\"FreeNodesCount\":[1,2,3]}";
+
+        assertSame(history, downsampler.downsample(history, 300));
+        assertSame(history, downsampler.downsample(history, 0));
+        assertSame("not json", downsampler.downsample("not json", 300));
+    }
+
+    @Test
+    public void histories_nested_in_strings_are_downsampled() throws Exception {
+        ObjectNode mbeanHistory = mapper.createObjectNode();
+        ArrayNode values = mbeanHistory.putArray("RxBytes");
+        for (int i = 0; i < 1000; i++) {
+            values.add(i);
+        }
+        ObjectNode history = mapper.createObjectNode();
+        history.put("sigar:Type=NetInterface,Name=eth0", mbeanHistory.toString());
+
+        JsonNode result = mapper.readTree(downsampler.downsample(history.toString(), 51));
+        JsonNode nested = mapper.readTree(result.get("sigar:Type=NetInterface,Name=eth0").asText());
+
+        assertEquals(51, nested.get("RxBytes").size());
+        assertEquals(999, nested.get("RxBytes").get(50).asInt());
+    }
+
+    private static double max(JsonNode values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (JsonNode value : values) {
+            max = Math.max(max, value.asDouble());
+        }
+        return max;
+    }
+
+    private static double min(JsonNode values) {
+        double min = Double.POSITIVE_INFINITY;
+        for (JsonNode value : values) {
+            min = Math.min(min, value.asDouble());
+        }
+        return min;
+    }
+}
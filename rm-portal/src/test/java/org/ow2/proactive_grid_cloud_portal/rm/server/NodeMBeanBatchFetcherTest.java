@@ -0,0 +1,119 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.rm.shared.NodeMBeanRequest;
+
+
+public class NodeMBeanBatchFetcherTest {
+
+    private ExecutorService executor;
+
+    private NodeMBeanBatchFetcher fetcher;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        fetcher = new NodeMBeanBatchFetcher(executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void requests_are_fetched_concurrently_and_returned_in_order() throws Exception {
+        List<NodeMBeanRequest> requests = Arrays.asList(request("cpu"), request("memory"), request("network"));
+        CountDownLatch allStarted = new CountDownLatch(requests.size());
+
+        List<String> results = fetcher.fetchAll(requests, request -> {
+            allStarted.countDown();
+            // only succeeds if every request runs at the same time
+            awaitAllStarted(allStarted);
+            return "{\"" + request.getObjectName() + "\":1}";
+        });
+
+        assertEquals(Arrays.asList("{\"cpu\":1}", "{\"memory\":1}", "{\"network\":1}"), results);
+    }
+
+    @Test
+    public void failed_requests_have_a_null_result() throws Exception {
+        List<String> results = fetcher.fetchAll(Arrays.asList(request("cpu"), request("missing")), request -> {
+            if (request.getObjectName().equals("missing")) {
+                throw new RestServerException(404, "not found");
+            }
+            return "{}";
+        });
+
+        assertEquals("{}", results.get(0));
+        assertNull(results.get(1));
+    }
+
+    @Test
+    public void failure_is_rethrown_when_all_requests_failed() throws Exception {
+        try {
+            fetcher.fetchAll(Collections.singletonList(request("cpu")), request -> {
+                throw new RestServerException(401, "not connected");
+            });
+            fail("the failure should be rethrown");
+        } catch (RestServerException e) {
+            assertEquals(401, e.getStatus());
+        }
+    }
+
+    private void awaitAllStarted(CountDownLatch allStarted) throws ServiceException {
+        try {
+            if (!allStarted.await(10, TimeUnit.SECONDS)) {
+                throw new ServiceException("requests were not fetched concurrently");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("interrupted");
+        }
+    }
+
+    private NodeMBeanRequest request(String objectName) {
+        return new NodeMBeanRequest(objectName, Collections.singletonList("attr"), false, null, 0);
+    }
+}
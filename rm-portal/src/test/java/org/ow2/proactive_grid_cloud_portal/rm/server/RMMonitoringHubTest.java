@@ -0,0 +1,277 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.rm.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.common.server.SessionLogins;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+public class RMMonitoringHubTest {
+
+    /** upstream response making the fake RM fail */
+    private static final String FAILURE = "failure";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final List<String> upstreamResponses = new ArrayList<>();
+
+    private final List<String> upstreamSessions = new ArrayList<>();
+
+    private RMMonitoringHub hub;
+
+    /** when set, the fake RM waits for it before answering */
+    private volatile CountDownLatch slowUpstream;
+
+    private final CountDownLatch upstreamStarted = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        // refresh period 0: every request reaches the fake RM, unless stated otherwise
+        hub = newHub(0);
+    }
+
+    @Test
+    public void full_state_is_fetched_once_and_shared_between_sessions_of_a_user() throws Exception {
+        hub = newHub(60_000);
+        upstreamResponses.add(response(5, nodeSource("ns", "NODESOURCE_ADDED"), node("n1", "NODE_ADDED")));
+
+        JsonNode first = read(hub.getMonitoring("alice-tab1", -1));
+        JsonNode second = read(hub.getMonitoring("alice-tab2", -1));
+
+        assertEquals(5, first.get("latestCounter").asLong());
+        assertEquals(first, second);
+        assertEquals(1, first.get("nodesEvents").size());
+        assertEquals(1, hub.getUpstreamCalls());
+        assertEquals(2, hub.getFullSnapshots());
+        assertEquals(0, hub.getSavedUpstreamCalls());
+    }
+
+    @Test
+    public void deltas_served_without_the_rm_are_counted_as_saved() throws Exception {
+        hub = newHub(60_000);
+        upstreamResponses.add(response(5, nodeSource("ns", "NODESOURCE_ADDED"), node("n1", "NODE_ADDED")));
+
+        hub.getMonitoring("alice-tab1", -1);
+        hub.getMonitoring("alice-tab1", 5);
+        hub.getMonitoring("alice-tab2", 5);
+
+        assertEquals(3, hub.getRequests());
+        assertEquals(1, hub.getUpstreamCalls());
+        assertEquals(1, hub.getFullSnapshots());
+        assertEquals(2, hub.getSavedUpstreamCalls());
+    }
+
+    @Test
+    public void sessions_are_answered_from_the_snapshot_while_the_rm_is_queried() throws Exception {
+        upstreamResponses.add(response(5, nodeSource("ns", "NODESOURCE_ADDED"), node("n1", "NODE_ADDED")));
+        upstreamResponses.add(response(7, null, node("n2", "NODE_ADDED")));
+        hub.getMonitoring("alice-tab1", -1);
+
+        slowUpstream = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> refresh = executor.submit(() -> hub.getMonitoring("alice-tab1", 5));
+            assertTrue(upstreamStarted.await(10, TimeUnit.SECONDS));
+
+            JsonNode stale = read(hub.getMonitoring("alice-tab2", 5));
+            assertEquals(5, stale.get("latestCounter").asLong());
+            assertEquals(0, stale.get("nodesEvents").size());
+
+            slowUpstream.countDown();
+            assertEquals(7, read(refresh.get(10, TimeUnit.SECONDS)).get("latestCounter").asLong());
+        } finally {
+            slowUpstream.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(2, hub.getUpstreamCalls());
+        assertEquals(1, hub.getSavedUpstreamCalls());
+    }
+
+    @Test
+    public void users_have_their_own_channel() throws Exception {
+        hub = newHub(60_000);
+        upstreamResponses.add(response(5, nodeSource("ns", "NODESOURCE_ADDED"), node("n1", "NODE_ADDED")));
+        upstreamResponses.add(response(5, nodeSource("ns", "NODESOURCE_ADDED")));
+
+        hub.getMonitoring("alice-tab1", -1);
+        JsonNode bob = read(hub.getMonitoring("bob-tab1", -1));
+
+        assertEquals(0, bob.get("nodesEvents").size());
+        assertEquals(2, hub.getUpstreamCalls());
+        assertEquals("bob-tab1", upstreamSessions.get(1));
+    }
+
+    @Test
+    public void session_receives_only_events_after_its_counter() throws Exception {
+        upstreamResponses.add(response(5, nodeSource("ns", "NODESOURCE_ADDED"), node("n1", "NODE_ADDED")));
+        upstreamResponses.add(response(7, null, node("n2", "NODE_ADDED")));
+        upstreamResponses.add(response(9, null, node("n1", "NODE_STATE_CHANGED"), node("n3", "NODE_ADDED")));
+
+        hub.getMonitoring("alice-tab1", -1);
+        hub.getMonitoring("alice-tab1", 5);
+        JsonNode delta = read(hub.getMonitoring("alice-tab2", 5));
+
+        assertEquals(9, delta.get("latestCounter").asLong());
+        assertEquals(0, delta.get("nodeSource").size());
+        assertEquals(3, delta.get("nodesEvents").size());
+        assertEquals("n2", delta.get("nodesEvents").get(0).get("nodeUrl").asText());
+        assertEquals("NODE_STATE_CHANGED", delta.get("nodesEvents").get(1).get("eventType").asText());
+    }
+
+    @Test
+    public void removed_nodes_are_dropped_from_the_snapshot() throws Exception {
+        upstreamResponses.add(response(5,
+                                       nodeSource("ns", "NODESOURCE_ADDED"),
+                                       node("n1", "NODE_ADDED"),
+                                       node("n2", "NODE_ADDED")));
+        upstreamResponses.add(response(6, null, node("n1", "NODE_REMOVED")));
+        upstreamResponses.add(response(6, null));
+
+        hub.getMonitoring("alice-tab1", -1);
+        JsonNode delta = read(hub.getMonitoring("alice-tab1", 5));
+        JsonNode full = read(hub.getMonitoring("alice-tab2", -1));
+
+        assertEquals("NODE_REMOVED", delta.get("nodesEvents").get(0).get("eventType").asText());
+        assertEquals(1, full.get("nodesEvents").size());
+        assertEquals("n2", full.get("nodesEvents").get(0).get("nodeUrl").asText());
+    }
+
+    @Test
+    public void counter_outside_of_the_buffer_gets_the_full_snapshot() throws Exception {
+        hub = new RMMonitoringHub(this::upstream, new SessionLogins(sessionId -> sessionId.split("-")[0]), 0, 1);
+        upstreamResponses.add(response(5, nodeSource("ns", "NODESOURCE_ADDED"), node("n1", "NODE_ADDED")));
+        upstreamResponses.add(response(7, null, node("n2", "NODE_ADDED")));
+        upstreamResponses.add(response(9, null, node("n3", "NODE_ADDED")));
+
+        hub.getMonitoring("alice-tab1", -1);
+        hub.getMonitoring("alice-tab1", 5);
+        JsonNode full = read(hub.getMonitoring("alice-tab1", 5));
+
+        assertEquals(1, full.get("nodeSource").size());
+        assertEquals(3, full.get("nodesEvents").size());
+        assertEquals(2, hub.getFullSnapshots());
+    }
+
+    @Test
+    public void channel_is_reset_when_the_rm_restarts() throws Exception {
+        upstreamResponses.add(response(50, nodeSource("ns", "NODESOURCE_ADDED"), node("n1", "NODE_ADDED")));
+        upstreamResponses.add(response(2, null));
+        upstreamResponses.add(response(2, nodeSource("other", "NODESOURCE_ADDED")));
+
+        hub.getMonitoring("alice-tab1", -1);
+        JsonNode full = read(hub.getMonitoring("alice-tab1", 50));
+
+        assertEquals(2, full.get("latestCounter").asLong());
+        assertEquals("other", full.get("nodeSource").get(0).get("sourceName").asText());
+        assertEquals(0, full.get("nodesEvents").size());
+        assertEquals(3, hub.getUpstreamCalls());
+        assertEquals(1, hub.getCounterResets());
+    }
+
+    @Test
+    public void failed_reset_fetch_lets_the_next_request_query_the_rm() throws Exception {
+        upstreamResponses.add(response(50, nodeSource("ns", "NODESOURCE_ADDED"), node("n1", "NODE_ADDED")));
+        upstreamResponses.add(response(2, null));
+        upstreamResponses.add(FAILURE);
+        upstreamResponses.add(response(2, null));
+        upstreamResponses.add(response(2, nodeSource("other", "NODESOURCE_ADDED")));
+
+        hub.getMonitoring("alice-tab1", -1);
+        try {
+            hub.getMonitoring("alice-tab1", 50);
+            fail();
+        } catch (ServiceException e) {
+            assertEquals("RM unavailable", e.getMessage());
+        }
+        JsonNode full = read(hub.getMonitoring("alice-tab2", 50));
+
+        assertEquals(2, full.get("latestCounter").asLong());
+        assertEquals("other", full.get("nodeSource").get(0).get("sourceName").asText());
+        assertEquals(5, hub.getUpstreamCalls());
+        assertEquals(2, hub.getCounterResets());
+    }
+
+    private RMMonitoringHub newHub(long refreshPeriod) {
+        return new RMMonitoringHub(this::upstream,
+                                   new SessionLogins(sessionId -> sessionId.split("-")[0]),
+                                   refreshPeriod,
+                                   16);
+    }
+
+    private String upstream(String sessionId, long counter) throws ServiceException {
+        CountDownLatch latch = slowUpstream;
+        if (latch != null) {
+            upstreamStarted.countDown();
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (upstreamResponses) {
+            upstreamSessions.add(sessionId);
+            String response = upstreamResponses.remove(0);
+            if (FAILURE.equals(response)) {
+                throw new ServiceException("RM unavailable");
+            }
+            return response;
+        }
+    }
+
+    private JsonNode read(String json) throws Exception {
+        return mapper.readTree(json);
+    }
+
+    private static String response(long counter, String nodeSource, String... nodes) {
+        return "{\"latestCounter\":" + counter + ",\"nodeSource\":[" + (nodeSource == null ? "" : nodeSource) +
+               "],\"nodesEvents\":[" + String.join(",", nodes) + "]}";
+    }
+
+    private static String nodeSource(String name, String eventType) {
+        return "{\"sourceName\":\"" + name + "\",\"eventType\":\"" + eventType + "\"}";
+    }
+
+    private static String node(String url, String eventType) {
+        return "{\"nodeUrl\":\"" + url + "\",\"nodeSource\":\"ns\",\"eventType\":\"" + eventType + "\"}";
+    }
+}
@@ -33,6 +33,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.json.JobsResultOverlay.JobNode;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.json.SchedulerJSONUtils;
 
 import com.google.common.collect.ImmutableMap;
@@ -104,9 +105,9 @@ public class Job implements Serializable, Comparable<Job> {
 
     private int numberOfNodesInParallel;
 
-    private final ImmutableMap<String, String> genericInformation;
+    private ImmutableMap<String, String> genericInformation;
 
-    private final Map<String, String> variables;
+    private Map<String, String> variables;
 
     private final Map<String, Map<String, String>> detailedVariables;
 
@@ -154,7 +155,7 @@ public class Job implements Serializable, Comparable<Job> {
         }
         this.variables = builder.getVariables();
         if (this.variables != null) {
-            this.variables.replaceAll((key, value) -> value.matches("ENC((.*))") ? "*******" : value);
+            hideEncryptedValues(this.variables);
         }
         this.detailedVariables = builder.getDetailedVariables();
         if (builder.getResultMap() != null) {
@@ -516,100 +517,11 @@ public class Job implements Serializable, Comparable<Job> {
     }
 
     /**
-     * @param jsonJob the JSON representation of a job
-     * @return a POJO equivalent
+     * @param jsonJobInfo the JSON representation of a job
+     * @return a POJO equivalent, read by the same {@link JobNode} as the jobs of the job list
      */
-    public static Job parseJson(JSONObject jsonJob) {
-        JSONObject jsonInfo = jsonJob.get("node").isObject();
-        return parseJSONInfo(jsonInfo);
-    }
-
     public static Job parseJSONInfo(JSONObject jsonJobInfo) {
-        String user = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("owner"));
-        String tenant = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("tenant"));
-        String priority = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("priority"));
-        String status = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("status"));
-        int pending = (int) jsonJobInfo.get("numberOfPendingTasks").isNumber().doubleValue();
-        int running = (int) jsonJobInfo.get("numberOfRunningTasks").isNumber().doubleValue();
-        int finished = (int) jsonJobInfo.get("numberOfFinishedTasks").isNumber().doubleValue();
-        int total = (int) jsonJobInfo.get("totalNumberOfTasks").isNumber().doubleValue();
-        int failed = (int) jsonJobInfo.get("numberOfFailedTasks").isNumber().doubleValue();
-        int faulty = (int) jsonJobInfo.get("numberOfFaultyTasks").isNumber().doubleValue();
-        int inError = (int) jsonJobInfo.get("numberOfInErrorTasks").isNumber().doubleValue();
-        long submittedTime = (long) jsonJobInfo.get("submittedTime").isNumber().doubleValue();
-        long startTime = (long) jsonJobInfo.get("startTime").isNumber().doubleValue();
-        Long startAtTime = null;
-        if (jsonJobInfo.get("startAt").isNumber() != null) {
-            startAtTime = (long) jsonJobInfo.get("startAt").isNumber().doubleValue();
-        }
-        long inErrorTime = (long) jsonJobInfo.get("inErrorTime").isNumber().doubleValue();
-        long finishedTime = (long) jsonJobInfo.get("finishedTime").isNumber().doubleValue();
-        long cumulatedCoreTime = jsonJobInfo.get("cumulatedCoreTime") == null ? 0
-                                                                              : (long) jsonJobInfo.get("cumulatedCoreTime")
-                                                                                                  .isNumber()
-                                                                                                  .doubleValue();
-        JSONValue parentIdValue = jsonJobInfo.get("parentId");
-        long parentId = parentIdValue == null ? 0
-                                              : parentIdValue.isNumber() == null ? 0
-                                                                                 : (long) parentIdValue.isNumber()
-                                                                                                       .doubleValue();
-        int childrenCount = (int) (jsonJobInfo.get("childrenCount") == null ? 0 : jsonJobInfo.get("childrenCount")
-                                                                                             .isNumber()
-                                                                                             .doubleValue());
-        int numberOfNodes = (int) (jsonJobInfo.get("numberOfNodes") == null ? 0 : jsonJobInfo.get("numberOfNodes")
-                                                                                             .isNumber()
-                                                                                             .doubleValue());
-        int numberOfNodesInParallel = (int) (jsonJobInfo.get("numberOfNodesInParallel") == null ? 0
-                                                                                                : jsonJobInfo.get("numberOfNodesInParallel")
-                                                                                                             .isNumber()
-                                                                                                             .doubleValue());
-        String description = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("description"));
-
-        Map<String, String> genericInformation = SchedulerJSONUtils.extractMap(jsonJobInfo.get("genericInformation"));
-        Map<String, String> variables = SchedulerJSONUtils.extractMap(jsonJobInfo.get("variables"));
-        Map<String, String> resultMap = SchedulerJSONUtils.extractMap(jsonJobInfo.get("resultMap"));
-
-        String name = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("name"));
-        String projectName = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("projectName"));
-        String bucketName = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("bucketName"));
-        String submissionMode = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("submissionMode"));
-        String label = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("label"));
-        int id = Integer.valueOf(jsonJobInfo.get("id").isString().stringValue());
-
-        return new JobBuilder().id(id)
-                               .name(name)
-                               .projectName(projectName)
-                               .bucketName(bucketName)
-                               .status(JobStatus.valueOf(status))
-                               .priority(JobPriority.findPriority(priority))
-                               .user(user)
-                               .tenant(tenant)
-                               .genericInformation(genericInformation)
-                               .variables(variables)
-                               .detailedVariables(new HashMap<>())
-                               .resultMap(resultMap)
-                               .pendingTasks(pending)
-                               .runningTasks(running)
-                               .finishedTasks(finished)
-                               .totalTasks(total)
-                               .failedTasks(failed)
-                               .faultyTasks(faulty)
-                               .inErrorTasks(inError)
-                               .submitTime(submittedTime)
-                               .startAtTime(startAtTime)
-                               .startTime(startTime)
-                               .inErrorTime(inErrorTime)
-                               .finishTime(finishedTime)
-                               .description(description)
-                               .cumulatedCoreTime(cumulatedCoreTime)
-                               .parentId(parentId)
-                               .childrenCount(childrenCount)
-                               .numberOfNodes(numberOfNodes)
-                               .numberOfNodesInParallel(numberOfNodesInParallel)
-                               .submissionMode(submissionMode)
-                               .label(label)
-                               .build();
-
+        return jsonJobInfo.getJavaScriptObject().<JobNode> cast().toJob();
     }
 
     public static Map<String, Map<String, String>> parseJSONDetailedVariables(JSONObject jsonJobInfo) {
@@ -719,6 +631,27 @@ public class Job implements Serializable, Comparable<Job> {
         this.pendingTasks = pending;
     }
 
+    private static void hideEncryptedValues(Map<String, String> variables) {
+        variables.replaceAll((key, value) -> value.matches("ENC((.*))") ? "*******" : value);
+    }
+
+    /**
+     * The job list only carries the variables displayed in the jobs grid, all of them are set with the
+     * details of the job
+     */
+    public void setVariables(Map<String, String> variables) {
+        this.variables = new LinkedHashMap<>(variables);
+        hideEncryptedValues(this.variables);
+    }
+
+    /**
+     * The job list only carries the generic information displayed in the jobs grid, all of them are set
+     * with the details of the job
+     */
+    public void setGenericInformation(Map<String, String> genericInformation) {
+        this.genericInformation = ImmutableMap.copyOf(genericInformation);
+    }
+
     public void setDetailsVariables(Map<String, Map<String, String>> detailedVariables) {
         this.detailedVariables.clear();
         this.detailedVariables.putAll(detailedVariables);
@@ -78,6 +78,18 @@ public class JobOutput {
 
     protected List<List<String>> liveContent;
 
+    /** cursor returned by the server with the last live output chunk, null before the first one */
+    protected String liveCursor;
+
+    /** last line of the live output when it was not terminated yet, null otherwise */
+    protected String livePartialLine;
+
+    /** whether {@link #livePartialLine} is displayed as the last live line */
+    protected boolean livePartialLineDisplayed;
+
+    /** maximum number of live lines kept, the oldest are dropped first */
+    protected int maxLiveLines = Integer.MAX_VALUE;
+
     /**
      * Default constructor
      * 
@@ -119,26 +131,80 @@ public class JobOutput {
 
     /**
      * Update the live output
+     * <p>
+     * A chunk may end in the middle of a line: this line is displayed, and replaced once the
+     * next chunk completes it.
      * @param out the out chunk to append
      * @return a list of line that contain PA_REMOTE_CONNECTION for remote visu
      */
     public List<String> updateLive(String out) {
         ArrayList<String> remoteVisuLines = new ArrayList<String>();
+        List<String> liveLines = this.liveContent.get(0);
+
+        if (this.livePartialLine != null) {
+            if (this.livePartialLineDisplayed) {
+                liveLines.remove(liveLines.size() - 1);
+            }
+            out = this.livePartialLine + out;
+            this.livePartialLine = null;
+            this.livePartialLineDisplayed = false;
+        }
 
         String[] expl = lineByLine(out);
+        boolean lastLineComplete = out.endsWith("\n") || out.endsWith("\r");
         String formatedLine;
-        for (String str : expl) {
-            if (str.contains(TasksModel.PA_REMOTE_CONNECTION)) {
+        for (int i = 0; i < expl.length; i++) {
+            String str = expl[i];
+            boolean partial = i == expl.length - 1 && !lastLineComplete;
+            if (!partial && str.contains(TasksModel.PA_REMOTE_CONNECTION)) {
                 remoteVisuLines.add(str);
             }
             formatedLine = formatLine(str);
             if (!formatedLine.isEmpty()) {
-                this.liveContent.get(0).add(formatedLine);
+                liveLines.add(formatedLine);
+            }
+            if (partial) {
+                this.livePartialLine = str;
+                this.livePartialLineDisplayed = !formatedLine.isEmpty();
             }
         }
+
+        // drop by batches of a tenth of the capacity, not one line per update
+        if (liveLines.size() - this.maxLiveLines > this.maxLiveLines / 10) {
+            liveLines.subList(0, liveLines.size() - this.maxLiveLines).clear();
+        }
         return remoteVisuLines;
     }
 
+    /**
+     * @param maxLiveLines maximum number of live lines kept, the oldest are dropped first
+     */
+    public void setMaxLiveLines(int maxLiveLines) {
+        this.maxLiveLines = maxLiveLines;
+    }
+
+    /**
+     * Drops the live output, before receiving it again from its start
+     */
+    public void resetLive() {
+        if (this.liveContent != null) {
+            this.liveContent.get(0).clear();
+        }
+        this.livePartialLine = null;
+        this.livePartialLineDisplayed = false;
+    }
+
+    /**
+     * @return cursor returned by the server with the last live output chunk, null before the first one
+     */
+    public String getLiveCursor() {
+        return liveCursor;
+    }
+
+    public void setLiveCursor(String liveCursor) {
+        this.liveCursor = liveCursor;
+    }
+
     /**
      * @return the output lines, exploded in a list, per task (finished time as key for sorting)
      */
@@ -150,6 +216,22 @@ public class JobOutput {
         }
     }
 
+    /**
+     * @return the number of lines stored, live lines included
+     */
+    public int getLineCount() {
+        int count = 0;
+        for (List<String> taskLines : this.lines.values()) {
+            count += taskLines.size();
+        }
+        if (this.liveContent != null) {
+            for (List<String> liveLines : this.liveContent) {
+                count += liveLines.size();
+            }
+        }
+        return count;
+    }
+
     /**
      * @return the output lines for a given task.
      */
@@ -44,6 +44,7 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.ResultCon
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.ServerLogsController;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.TasksController;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.json.SchedulerJSONUtils;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.json.SchedulerStatisticsOverlay;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.ExecutionsModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.VarInfoView;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
@@ -846,9 +847,11 @@ public class SchedulerController extends Controller implements UncaughtException
                         public void onSuccess(String result) {
                             HashMap<String, String> stats = new HashMap<String, String>();
 
-                            JSONObject json = parseJSON(result).isObject();
+                            SchedulerStatisticsOverlay json = SchedulerStatisticsOverlay.parse(result);
                             if (json == null) {
                                 error("Expected JSON Object: " + result);
+                                SchedulerController.this.setStatsUpdated(true);
+                                return;
                             }
 
                             List<String> aList = Arrays.asList("JobSubmittingPeriod",
@@ -885,7 +888,7 @@ public class SchedulerController extends Controller implements UncaughtException
                                                                "InErrorTasksCount",
                                                                "TotalTasksCount");
                             for (String propName : aList) {
-                                stats.put(propName, SchedulerJSONUtils.getStringOrElse(json, propName, "0"));
+                                stats.put(propName, json.getStringOrElse(propName, "0"));
                             }
 
                             model.setSchedulerStatistics(stats);
@@ -1192,8 +1195,7 @@ public class SchedulerController extends Controller implements UncaughtException
             @Override
             public void onSuccess(String result) {
                 try {
-                    Map<String, Map<String, String>> detailedVariables = SchedulerJSONUtils.getDetailedVariables(result);
-                    job.setDetailsVariables(detailedVariables);
+                    SchedulerJSONUtils.setJobDetails(job, result);
                     varInfoView.buildVariablesEntries(job);
                 } catch (org.ow2.proactive_grid_cloud_portal.common.client.json.JSONException e) {
                     LogModel.getInstance().logImportantMessage("Failed to parse detailed variables for job " +
@@ -31,6 +31,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.ExecutionListMode;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.JobsDiff;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.TasksModel.RemoteHint;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.JobVisuMap;
 
@@ -92,6 +93,17 @@ public class SchedulerListeners {
          */
         public void jobsUpdated(Map<Integer, Job> jobs);
 
+        /**
+         * Called when the Model receives a new JobSet revision, with the difference
+         * to the previous one. Views which can update themselves incrementally override it.
+         *
+         * @param jobs the last JobSet received by the model
+         * @param diff the jobs added, removed and changed since the previous JobSet
+         */
+        default void jobsUpdated(Map<Integer, Job> jobs, JobsDiff diff) {
+            jobsUpdated(jobs);
+        }
+
         /**
          * The job list has changed, and the new version is currently being fetched
          * <p>
@@ -26,6 +26,7 @@
 package org.ow2.proactive_grid_cloud_portal.scheduler.client;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -38,12 +39,14 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerListeners.S
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerListeners.StatisticsListener;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerListeners.UsersListener;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerListeners.VisualizationListener;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.BoundedCache;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.ExecutionsModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.OutputModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.ResultModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.ServerLogsModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.TasksModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.JobVisuMap;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
 
 import com.google.gwt.i18n.client.DateTimeFormat;
 import com.google.gwt.i18n.client.DateTimeFormat.PredefinedFormat;
@@ -68,11 +71,11 @@ public class SchedulerModelImpl extends SchedulerModel implements SchedulerEvent
 
     private HashMap<String, String> accountStats = null;
 
-    private Map<String, String> imagePath = null;
+    private BoundedCache<String, String> imagePath = null;
 
-    private Map<String, JobVisuMap> visuMap = null;
+    private BoundedCache<String, JobVisuMap> visuMap = null;
 
-    private Map<String, String> htmlMap = null;
+    private BoundedCache<String, String> htmlMap = null;
 
     private Map<String, StatHistory> statistics = null;
 
@@ -115,9 +118,10 @@ public class SchedulerModelImpl extends SchedulerModel implements SchedulerEvent
         this.visuListeners = new ArrayList<VisualizationListener>();
         this.statsListeners = new ArrayList<StatsListener>();
         this.usageListeners = new ArrayList<SchedulerListeners.UsageListener>();
-        this.imagePath = new HashMap<String, String>();
-        this.visuMap = new HashMap<String, JobVisuMap>();
-        this.htmlMap = new HashMap<String, String>();
+        SchedulerConfig config = SchedulerConfig.get();
+        this.imagePath = new BoundedCache<>(config.getJobCacheSize(), Long.MAX_VALUE, path -> 1);
+        this.visuMap = new BoundedCache<>(config.getJobCacheSize(), Long.MAX_VALUE, map -> 1);
+        this.htmlMap = new BoundedCache<>(config.getJobCacheSize(), config.getVisuCacheMaxChars(), String::length);
         this.requestedStatRange = new HashMap<String, Range>();
     }
 
@@ -186,6 +190,20 @@ public class SchedulerModelImpl extends SchedulerModel implements SchedulerEvent
         }
     }
 
+    /**
+     * Drops the visualization and output kept for jobs that were removed
+     *
+     * @param jobIds ids of the removed jobs
+     */
+    public void forgetJobs(Collection<String> jobIds) {
+        this.imagePath.removeAll(jobIds);
+        this.visuMap.removeAll(jobIds);
+        this.htmlMap.removeAll(jobIds);
+        if (this.outputModel != null) {
+            this.outputModel.removeJobOutputs(jobIds);
+        }
+    }
+
     @Override
     public List<SchedulerUser> getSchedulerUsers() {
         return this.users;
@@ -35,6 +35,9 @@ import javax.ws.rs.HeaderParam;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.TasksCentricController;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.JobsProjection;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.LiveLogChunk;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.TasksOutput;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.FilterModel;
 
 import com.google.gwt.user.client.rpc.RemoteService;
@@ -59,17 +62,17 @@ public interface SchedulerService extends RemoteService {
      * Removes several jobs from the scheduler.
      * @param sessionId the session id of the user that removes the job
      * @param jobIdList the list of the job ids that are to be removed
-     * @return number of removed jobs
+     * @return for each job id, null if the removal succeeded on this job, the reason of the failure otherwise
      */
-    int removeJobs(String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException;
+    Map<Integer, String> removeJobs(String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException;
 
     /**
      * Pauses a job.
      * @param sessionId the session id of the user that pauses the job
      * @param list the list of the job ids that are to be paused
-     * @return number of paused jobs
+     * @return for each job id, null if pausing succeeded on this job, the reason of the failure otherwise
      */
-    int pauseJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
+    Map<Integer, String> pauseJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
 
     /**
      * By making an asynchronous call to the server, all in error tasks from the selected jobs are restarted.
@@ -77,32 +80,33 @@ public interface SchedulerService extends RemoteService {
      * @param sessionId     the session id of the user which is logged in
      * @param list          the list of jobs which are to be resumed
      *                      or not.
+     * @return for each job id, null if the restart succeeded on this job, the reason of the failure otherwise
      */
-    int restartAllInErrorTasks(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
+    Map<Integer, String> restartAllInErrorTasks(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
 
     /**
      * Resumes a job.
      * @param sessionId the session id of the user that resumes the job
      * @param list the list of the job ids that are to be resumed
-     * @return number of resumed jobs
+     * @return for each job id, null if resuming succeeded on this job, the reason of the failure otherwise
      */
-    int resumeJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
+    Map<Integer, String> resumeJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
 
     /**
      * resbumit several jobs.
      * @param sessionId the session id of the user that resubmits the jobs
      * @param jobIdList the list of the job ids that are to be resubmitted
-     * @return number of resubmitted jobs
+     * @return for each job id, null if the resubmission succeeded on this job, the reason of the failure otherwise
      */
-    int resubmitAllJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException;
+    Map<Integer, String> resubmitAllJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException;
 
     /**
      * Kills several jobs.
      * @param sessionId the session id of the user that resumes the job
      * @param list the list of the job ids that are to be resumed
-     * @return number of killed jobs
+     * @return for each job id, null if killing succeeded on this job, the reason of the failure otherwise
      */
-    int killJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
+    Map<Integer, String> killJobs(String sessionId, List<Integer> list) throws RestServerException, ServiceException;
 
     /**
      * Kill a task
@@ -241,8 +245,9 @@ public interface SchedulerService extends RemoteService {
      * @param sessionId the session id of the user which is logged in
      * @param list the list of the job ids which are going to have their priority changed
      * @param priorityName the name of the new priority
+     * @return for each job id, null if the priority change succeeded on this job, the reason of the failure otherwise
      */
-    void setPriorityByName(String sessionId, List<Integer> list, String priorityName)
+    Map<Integer, String> setPriorityByName(String sessionId, List<Integer> list, String priorityName)
             throws RestServerException, ServiceException;
 
     /**
@@ -306,6 +311,18 @@ public interface SchedulerService extends RemoteService {
     String getTaskOutput(final String sessionId, final String jobId, final String taskName, final OutputMode logMode)
             throws RestServerException, ServiceException;
 
+    /**
+     * Gets the output of several tasks of a job in a single call
+     * @param sessionId the session id of the user which is logged in
+     * @param jobId the id of the job
+     * @param taskNames the names of the tasks, not the ids
+     * @param logMode one of {@link SchedulerServiceAsync#LOG_ALL}, {@link SchedulerServiceAsync#LOG_STDERR},
+     * 	 {@link SchedulerServiceAsync#LOG_STDOUT}
+     * @return the output of each task, or the reason why it could not be fetched
+     */
+    TasksOutput getTasksOutput(final String sessionId, final String jobId, final List<String> taskNames,
+            final OutputMode logMode) throws RestServerException, ServiceException;
+
     /**
      * Gets the output of a job even for tasks that have not terminated yet
      * @param sessionId current session id
@@ -314,6 +331,16 @@ public interface SchedulerService extends RemoteService {
      */
     String getLiveLogJob(final String sessionId, final String jobId) throws RestServerException, ServiceException;
 
+    /**
+     * Gets the output of a job received since a cursor, even for tasks that have not terminated yet
+     * @param sessionId current session id
+     * @param jobId id of the job for which logs should be fetched
+     * @param cursor cursor returned with the previous chunk, or null to start reading the output
+     * @return console output for the job following the cursor, and the cursor to send next
+     */
+    LiveLogChunk getLiveLogJob(final String sessionId, final String jobId, final String cursor)
+            throws RestServerException, ServiceException;
+
     /**
      * Gets the number of bytes available in the job output stream for the given job id,
      * might be used to determine if fetch is necessary
@@ -354,12 +381,14 @@ public interface SchedulerService extends RemoteService {
      * @param pending fetch pending jobs
      * @param running fetch running jobs
      * @param finished fetch finished jobs
+     * @param projection variables and generic information displayed in the jobs grid, the other ones are
+     *                   not returned
      * @return the raw json jobinfo from the rest api
      */
 
     String revisionAndjobsinfo(@HeaderParam("sessionid") String sessionId, String startCursor, String endCursor,
             int pageSize, boolean first, String user, boolean pending, boolean running, boolean finished,
-            FilterModel filterModel) throws RestServerException, ServiceException;
+            FilterModel filterModel, JobsProjection projection) throws RestServerException, ServiceException;
 
     /**
      * Image representing the job as designed in the WF studio when applicable
@@ -32,6 +32,9 @@ import java.util.Set;
 
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.TasksCentricController;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.JobsProjection;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.LiveLogChunk;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.TasksOutput;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.FilterModel;
 
 import com.google.gwt.http.client.Request;
@@ -64,7 +67,7 @@ public interface SchedulerServiceAsync {
      * @param list the list of jobs which are to be removed
      * @param isJobRemoved the result showing whether the removed was successfully or not. 
      */
-    void removeJobs(String sessionId, List<Integer> list, AsyncCallback<Integer> isJobRemoved);
+    void removeJobs(String sessionId, List<Integer> list, AsyncCallback<Map<Integer, String>> isJobRemoved);
 
     /**
      * Pausing a job by making an asynchronous call to the server. 
@@ -73,7 +76,7 @@ public interface SchedulerServiceAsync {
      * @param asyncCallback the result retrieved from the server which shows if the paused was successfully
      * or not.
      */
-    void pauseJobs(String sessionId, List<Integer> jobIdList, AsyncCallback<Integer> asyncCallback);
+    void pauseJobs(String sessionId, List<Integer> jobIdList, AsyncCallback<Map<Integer, String>> asyncCallback);
 
     /**
      * By making an asynchronous call to the server, all in error tasks from the selected jobs are restarted.
@@ -82,7 +85,8 @@ public interface SchedulerServiceAsync {
      * @param asyncCallback the result retrieved from the server which shows if the in error tasks were successfully
      * or not.
      */
-    void restartAllInErrorTasks(String sessionId, List<Integer> list, AsyncCallback<Integer> asyncCallback);
+    void restartAllInErrorTasks(String sessionId, List<Integer> list,
+            AsyncCallback<Map<Integer, String>> asyncCallback);
 
     /**
      * By making an asynchronous call to the server, several jobs are resumed.
@@ -91,16 +95,17 @@ public interface SchedulerServiceAsync {
      * @param asyncCallback the result retrieved from the server which shows if the jobs were resumed successfully
      * or not.
      */
-    void resumeJobs(String sessionId, List<Integer> list, AsyncCallback<Integer> asyncCallback);
+    void resumeJobs(String sessionId, List<Integer> list, AsyncCallback<Map<Integer, String>> asyncCallback);
 
     /**
      * resbumit several jobs.
      * @param sessionId the session id of the user that resubmits the jobs
      * @param jobIdList the list of the job ids that are to be resubmitted
-     * @param asyncCallback
-     * @return number of resubmitted jobs
+     * @param asyncCallback receives for each job id, null if the resubmission succeeded on this job,
+     * the reason of the failure otherwise
      */
-    void resubmitAllJobs(final String sessionId, List<Integer> jobIdList, AsyncCallback<Integer> asyncCallback);
+    void resubmitAllJobs(final String sessionId, List<Integer> jobIdList,
+            AsyncCallback<Map<Integer, String>> asyncCallback);
 
     /**
      * By making an asynchronous call to the server, several jobs are killed.
@@ -109,7 +114,7 @@ public interface SchedulerServiceAsync {
      * @param asyncCallback the result retrieved from the server which shows if the jobs were killed successfully
      * or not. 
      */
-    void killJobs(String sessionId, List<Integer> list, AsyncCallback<Integer> asyncCallback);
+    void killJobs(String sessionId, List<Integer> list, AsyncCallback<Map<Integer, String>> asyncCallback);
 
     /**
      * Kill a task within a given job
@@ -231,7 +236,8 @@ public interface SchedulerServiceAsync {
      * @param priorityName the name of the new priority
      * @param callback the object used for notifying the caller when the asynchronous call is completed.
      */
-    void setPriorityByName(String sessionId, List<Integer> list, String priorityName, AsyncCallback<Void> callback);
+    void setPriorityByName(String sessionId, List<Integer> list, String priorityName,
+            AsyncCallback<Map<Integer, String>> callback);
 
     /**
      * Pauses the Scheduler.
@@ -293,6 +299,18 @@ public interface SchedulerServiceAsync {
     Request getTaskOutput(String sessionId, String jobId, String taskName, OutputMode logMode,
             AsyncCallback<String> callback);
 
+    /**
+     * Gets the output of several tasks of a job in a single call
+     * @param sessionId the session id of the user which is logged in
+     * @param jobId the id of the job
+     * @param taskNames the names of the tasks, not the IDs
+     * @param logMode one of {@link #LOG_ALL}, {@link #LOG_STDOUT}, {@link #LOG_STDERR}
+     * @param callback async callback for the client, containing the output of each task or the reason why it could
+     *                 not be fetched
+     */
+    Request getTasksOutput(String sessionId, String jobId, List<String> taskNames, OutputMode logMode,
+            AsyncCallback<TasksOutput> callback);
+
     /**
      * Gets the output of a job even for tasks that have not terminated yet
      * @param sessionId current session id
@@ -301,6 +319,16 @@ public interface SchedulerServiceAsync {
      */
     Request getLiveLogJob(String sessionId, String jobId, AsyncCallback<String> callback);
 
+    /**
+     * Gets the output of a job received since a cursor, even for tasks that have not terminated yet
+     * @param sessionId current session id
+     * @param jobId id of the job for which logs should be fetched
+     * @param cursor cursor returned with the previous chunk, or null to start reading the output
+     * @param callback async callback for the client, containing the job output following the cursor or the error
+     *                 message
+     */
+    Request getLiveLogJob(String sessionId, String jobId, String cursor, AsyncCallback<LiveLogChunk> callback);
+
     /**
      * Gets the number of bytes available in the job output stream for the given job id,
      * might be used to determine if fetch is necessary
@@ -333,10 +361,11 @@ public interface SchedulerServiceAsync {
      * @param pending fetch pending jobs
      * @param running fetch running jobs
      * @param finished fetch finished jobs 
+     * @param projection variables and generic information displayed in the jobs grid
      */
     void revisionAndjobsinfo(String sessionId, String startCursor, String endCursor, int pageSize, boolean first,
             String user, boolean pending, boolean running, boolean finished, FilterModel filterModel,
-            AsyncCallback<String> callback);
+            JobsProjection projection, AsyncCallback<String> callback);
 
     void schedulerStateRevision(String sessionId, AsyncCallback<Long> callback);
 
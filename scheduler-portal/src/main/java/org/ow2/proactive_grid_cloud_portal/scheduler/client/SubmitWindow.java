@@ -106,6 +106,8 @@ public class SubmitWindow {
 
     private static final String URL_UPLOAD_FILE = GWT.getModuleBaseURL() + "uploader";
 
+    private static final String URL_CATALOG = GWT.getModuleBaseURL() + "catalog";
+
     private static final String METHOD_INSTRUCTION = "Select a method";
 
     private static final String METHOD_FROM_FILE = "import from file";
@@ -218,8 +220,6 @@ public class SubmitWindow {
 
     private Label errorLabel;
 
-    private String CATALOG_URL = null;
-
     private Map<String, JobVariable> variables;
 
     private String job;
@@ -305,15 +305,6 @@ public class SubmitWindow {
         this.window.destroy();
     }
 
-    /**
-     * Builds the catalog URL. If none is configured in the settings file, sets
-     * the URL to the bundled Catalog
-     *
-     */
-    private void buildCatalogUrl() {
-        CATALOG_URL = new CatalogUrlSchedulerClientBuilder().getCatalogUrl();
-    }
-
     private void initRootPage() {
         rootPage = new VLayout();
         rootPage.setMargin(5);
@@ -910,7 +901,7 @@ public class SubmitWindow {
         bucketsListBox.addChangeHandler(event -> {
             String selectedBucket = bucketsListBox.getSelectedValue();
             if (!CATALOG_SELECT_BUCKET.equals(selectedBucket)) {
-                String workflowUrl = CATALOG_URL + "/buckets/" + selectedBucket + "/resources?kind=Workflow%2Fstandard";
+                String workflowUrl = URL_CATALOG + "?bucketName=" + URL.encodeQueryString(selectedBucket);
                 RequestBuilder req = new RequestBuilder(RequestBuilder.GET, workflowUrl);
                 req.setHeader(SESSION_ID_PARAMETER_NAME, LoginModel.getInstance().getSessionId());
                 req.setCallback(new RequestCallback() {
@@ -952,7 +943,8 @@ public class SubmitWindow {
             }
         });
 
-        RequestBuilder req = new RequestBuilder(RequestBuilder.GET, CATALOG_URL + "/buckets?kind=Workflow%2Fstandard");
+        // listed through the portal, which shares the catalog responses between sessions
+        RequestBuilder req = new RequestBuilder(RequestBuilder.GET, URL_CATALOG);
         req.setHeader(SESSION_ID_PARAMETER_NAME, LoginModel.getInstance().getSessionId());
         req.setCallback(new RequestCallback() {
             @Override
@@ -1480,7 +1472,6 @@ public class SubmitWindow {
 
         initRootPage(); // ------------ root page of the window
         if (!isResubmit && !isKillAndResubmit) {
-            buildCatalogUrl();
             initSelectWfPart(); // -------- Select workflow Panel
         }
         initVarsPart(); // ------------ Fill workflow variables Panel
@@ -28,12 +28,6 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.client;
 import java.io.Serializable;
 import java.util.Date;
 
-import org.ow2.proactive_grid_cloud_portal.scheduler.client.json.SchedulerJSONUtils;
-
-import com.google.gwt.json.client.JSONObject;
-import com.google.gwt.json.client.JSONString;
-import com.google.gwt.json.client.JSONValue;
-
 
 /**
  * A representation for the business object corresponding to a Task.
@@ -385,93 +379,4 @@ public class Task implements Serializable, Comparable<Task> {
         return ((Long) this.id).compareTo(task.getId());
     }
 
-    /**
-     * @param jsonTask the JSON representation of a Task
-     * @return the POJO equivalent
-     */
-    public static Task parseJson(JSONObject jsonTask) {
-        String name = SchedulerJSONUtils.getStringOrDefault(jsonTask.get("name"));
-        JSONObject taskInfo = jsonTask.get("taskInfo").isObject();
-        String hostName = "";
-        if (taskInfo.containsKey("executionHostName")) {
-            JSONString host = taskInfo.get("executionHostName").isString();
-            if (host != null) {
-                hostName = host.stringValue();
-            }
-        }
-        long id = (long) taskInfo.get("taskId").isObject().get("id").isNumber().doubleValue();
-        String status = taskInfo.get("taskStatus").isString().stringValue();
-        TaskStatus taskStatus = TaskStatus.valueOf(status);
-        long startTime = (long) taskInfo.get("startTime").isNumber().doubleValue();
-        long inErrorTime = (long) taskInfo.get("inErrorTime").isNumber().doubleValue();
-        long finishedTime = (long) taskInfo.get("finishedTime").isNumber().doubleValue();
-        long executionDuration = (long) taskInfo.get("executionDuration").isNumber().doubleValue();
-
-        JSONObject jobIdInfo = taskInfo.get("jobId").isObject();
-
-        long jobId = (long) jobIdInfo.get("id").isNumber().doubleValue();
-        String jobName = SchedulerJSONUtils.getStringOrDefault(jobIdInfo.get("readableName"));
-
-        String description = "";
-        if (jsonTask.containsKey("description")) {
-            JSONString desc = jsonTask.get("description").isString();
-            if (desc != null)
-                description = desc.stringValue();
-        }
-        String tag = "";
-        JSONValue tagValue = jsonTask.get("tag");
-        if (tagValue != null && tagValue instanceof JSONString) {
-            tag = ((JSONString) tagValue).stringValue();
-        }
-        int maxExec = (int) jsonTask.get("maxNumberOfExecution").isNumber().doubleValue();
-        int execLeft = (int) taskInfo.get("numberOfExecutionLeft").isNumber().doubleValue();
-        int execOnFailureLeft = (int) taskInfo.get("numberOfExecutionOnFailureLeft").isNumber().doubleValue();
-        int maxExecOnFailure = (int) jsonTask.get("maxNumberOfExecutionOnFailure").isNumber().doubleValue();
-        boolean visualizationActivated = false;
-        String visualizationConnectionString = "";
-        if (taskInfo.containsKey("visualizationActivated") &&
-            taskInfo.get("visualizationActivated").isBoolean() != null) {
-            visualizationActivated = (boolean) taskInfo.get("visualizationActivated").isBoolean().booleanValue();
-        }
-        if (taskInfo.containsKey("visualizationConnectionString") &&
-            taskInfo.get("visualizationConnectionString").isString() != null) {
-            visualizationConnectionString = (String) taskInfo.get("visualizationConnectionString")
-                                                             .isString()
-                                                             .stringValue();
-        }
-
-        int nodes = 1;
-        if (jsonTask.containsKey("parallelEnvironment")) {
-            JSONObject parEnv = jsonTask.get("parallelEnvironment").isObject();
-            if (parEnv != null && parEnv.containsKey("nodesNumber")) {
-                nodes = (int) parEnv.get("nodesNumber").isNumber().doubleValue();
-            }
-        }
-        long scheduledTime = (long) taskInfo.get("scheduledTime").isNumber().doubleValue();
-
-        Task result = new Task(id,
-                               name,
-                               taskStatus,
-                               hostName,
-                               startTime,
-                               inErrorTime,
-                               finishedTime,
-                               scheduledTime,
-                               executionDuration,
-                               description,
-                               nodes,
-                               maxExec,
-                               execLeft,
-                               maxExecOnFailure,
-                               execOnFailureLeft,
-                               visualizationActivated,
-                               visualizationConnectionString);
-        result.setTag(tag);
-        result.setJobId(jobId);
-        result.setJobName(jobName);
-
-        result.setStartAtTime(scheduledTime);
-        return result;
-    }
-
 }
@@ -98,7 +98,7 @@ public class ExecutionsController {
     public void executionStateRevision(boolean forceRefresh) {
         switch (this.model.getMode()) {
             case JOB_CENTRIC:
-                this.jobsController.jobsStateRevision();
+                this.jobsController.jobsStateRevision(forceRefresh);
                 break;
             case TASK_CENTRIC:
                 this.tasksController.tasksStateRevision(forceRefresh);
@@ -40,9 +40,11 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.*;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.json.SchedulerJSONUtils;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.ExecutionsModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.JobsModel;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.JobsPaginationModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.JobResultView;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.JobsView;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.KeyValueGrid;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.jobs.JobsColumnsFactory;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.jobs.JobsListGrid;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
 
@@ -97,9 +99,24 @@ public class JobsController {
 
     private static final String HEADER_PA_ERROR = "proactive_error";
 
+    /**
+     * Maximum number of failed jobs detailed in the log after an action on several jobs.
+     */
+    private static final int MAX_LOGGED_FAILURES = 10;
+
     //The job signal that contains the ready_ prefix specifies that the job is ready to receive the given signal
     public static final String PREFIX_SIGNAL_READY = "ready_";
 
+    /**
+     * Parameters of the last successful jobs query: filter, page, cursors, user and status flags.
+     */
+    private List<Object> lastJobsQuery;
+
+    /**
+     * Scheduler state revision at which the last jobs query was fetched, -1 if unknown.
+     */
+    private long lastJobsRevision = -1;
+
     /**
      * Builds a jobs controller from a parent scheduler controller.
      * @param parentController the parent controller.
@@ -177,9 +194,9 @@ public class JobsController {
         }
 
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.pauseJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Integer>() {
-            public void onSuccess(Integer result) {
-                LogModel.getInstance().logMessage("Successfully paused " + result + "/" + l.size() + STR_JOB);
+        scheduler.pauseJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Map<Integer, String>>() {
+            public void onSuccess(Map<Integer, String> result) {
+                logBulkActionResult("paused", result);
             }
 
             public void onFailure(Throwable caught) {
@@ -203,12 +220,9 @@ public class JobsController {
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
         scheduler.restartAllInErrorTasks(LoginModel.getInstance().getSessionId(),
                                          selectedJobs,
-                                         new AsyncCallback<Integer>() {
-                                             public void onSuccess(Integer result) {
-                                                 LogModel.getInstance()
-                                                         .logMessage("Successfully restarted in error tasks  " +
-                                                                     result + "/" + selectedJobs.size() +
-                                                                     " for selected jobs");
+                                         new AsyncCallback<Map<Integer, String>>() {
+                                             public void onSuccess(Map<Integer, String> result) {
+                                                 logBulkActionResult("restarted in error tasks of", result);
                                                  parentController.getParentController()
                                                                  .getTasksController()
                                                                  .updateTasks(false);
@@ -235,17 +249,18 @@ public class JobsController {
         }
 
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.resumeJobs(LoginModel.getInstance().getSessionId(), selectedJobs, new AsyncCallback<Integer>() {
-            public void onSuccess(Integer result) {
-                LogModel.getInstance()
-                        .logMessage("Successfully resumed " + result + "/" + selectedJobs.size() + STR_JOB);
-            }
-
-            public void onFailure(Throwable caught) {
-                String message = JSONUtils.getJsonErrorMessage(caught);
-                LogModel.getInstance().logImportantMessage("Failed to resume jobs : " + message);
-            }
-        });
+        scheduler.resumeJobs(LoginModel.getInstance().getSessionId(),
+                             selectedJobs,
+                             new AsyncCallback<Map<Integer, String>>() {
+                                 public void onSuccess(Map<Integer, String> result) {
+                                     logBulkActionResult("resumed", result);
+                                 }
+
+                                 public void onFailure(Throwable caught) {
+                                     String message = JSONUtils.getJsonErrorMessage(caught);
+                                     LogModel.getInstance().logImportantMessage("Failed to resume jobs : " + message);
+                                 }
+                             });
     }
 
     /**
@@ -260,9 +275,10 @@ public class JobsController {
         }
 
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.removeJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Integer>() {
-            public void onSuccess(Integer result) {
-                LogModel.getInstance().logMessage("Successfully removed " + result + "/" + l.size() + STR_JOB);
+        scheduler.removeJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Map<Integer, String>>() {
+            public void onSuccess(Map<Integer, String> result) {
+                logBulkActionResult("removed", result);
+                forgetRemovedJobs(result);
             }
 
             public void onFailure(Throwable caught) {
@@ -272,6 +288,55 @@ public class JobsController {
         });
     }
 
+    /**
+     * Drops what the model keeps for the jobs that were successfully removed
+     *
+     * @param result for each job id, null if the job was removed
+     */
+    private void forgetRemovedJobs(Map<Integer, String> result) {
+        List<String> removed = new ArrayList<>();
+        for (Map.Entry<Integer, String> jobResult : result.entrySet()) {
+            if (jobResult.getValue() == null) {
+                removed.add(String.valueOf(jobResult.getKey()));
+            }
+        }
+        this.parentController.getModel().getParentModel().forgetJobs(removed);
+    }
+
+    /**
+     * Logs the outcome of an action applied to several jobs: the number of jobs on which it succeeded,
+     * then the first failures with their reason.
+     *
+     * @param actionDone past participle of the action, as in "Successfully killed 3/4 jobs"
+     * @param result for each job id, null if the action succeeded, the reason of the failure otherwise
+     */
+    private void logBulkActionResult(String actionDone, Map<Integer, String> result) {
+        int failures = 0;
+        StringBuilder details = new StringBuilder();
+        for (Map.Entry<Integer, String> jobResult : result.entrySet()) {
+            if (jobResult.getValue() != null) {
+                if (failures < MAX_LOGGED_FAILURES) {
+                    details.append(failures == 0 ? "" : ", ")
+                           .append(jobResult.getKey())
+                           .append(" (")
+                           .append(jobResult.getValue())
+                           .append(")");
+                }
+                failures++;
+            }
+        }
+
+        LogModel.getInstance()
+                .logMessage("Successfully " + actionDone + " " + (result.size() - failures) + "/" + result.size() +
+                            STR_JOB);
+        if (failures > 0) {
+            if (failures > MAX_LOGGED_FAILURES) {
+                details.append(", ...");
+            }
+            LogModel.getInstance().logImportantMessage("Failed for " + failures + STR_JOB + ": " + details);
+        }
+    }
+
     /**
      * Gets the signals of a job
      *
@@ -329,6 +394,7 @@ public class JobsController {
         scheduler.setLabelOnJobs(LoginModel.getInstance().getSessionId(), labelId, jobIds, new AsyncCallback<Void>() {
             public void onSuccess(Void result) {
                 LogModel.getInstance().logMessage("Successfully added label  " + labelId + " on jobs " + jobIds + ".");
+                invalidateJobsRevision();
             }
 
             public void onFailure(Throwable caught) {
@@ -349,6 +415,7 @@ public class JobsController {
         scheduler.removeJobLabel(LoginModel.getInstance().getSessionId(), jobIds, new AsyncCallback<Void>() {
             public void onSuccess(Void result) {
                 LogModel.getInstance().logMessage("Successfully removed the label  from jobs " + jobIds + ".");
+                invalidateJobsRevision();
             }
 
             public void onFailure(Throwable caught) {
@@ -371,9 +438,9 @@ public class JobsController {
         }
 
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.killJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Integer>() {
-            public void onSuccess(Integer result) {
-                LogModel.getInstance().logMessage("Successfully killed " + result + "/" + l.size() + STR_JOB);
+        scheduler.killJobs(LoginModel.getInstance().getSessionId(), l, new AsyncCallback<Map<Integer, String>>() {
+            public void onSuccess(Map<Integer, String> result) {
+                logBulkActionResult("killed", result);
             }
 
             public void onFailure(Throwable caught) {
@@ -417,11 +484,10 @@ public class JobsController {
         scheduler.setPriorityByName(LoginModel.getInstance().getSessionId(),
                                     l,
                                     priority.name(),
-                                    new AsyncCallback<Void>() {
-                                        public void onSuccess(Void result) {
-                                            LogModel.getInstance()
-                                                    .logMessage("Successfully set priority to " + priority.name() +
-                                                                " for " + l.size() + STR_JOB);
+                                    new AsyncCallback<Map<Integer, String>>() {
+                                        public void onSuccess(Map<Integer, String> result) {
+                                            logBulkActionResult("set priority to " + priority.name() + " of",
+                                                                result);
                                         }
 
                                         public void onFailure(Throwable caught) {
@@ -508,11 +574,9 @@ public class JobsController {
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
         scheduler.resubmitAllJobs(LoginModel.getInstance().getSessionId(),
                                   selectedJobIds,
-                                  new AsyncCallback<Integer>() {
-                                      public void onSuccess(Integer result) {
-                                          LogModel.getInstance().logMessage("Successfully resubmitted " + result + "/" +
-                                                                            selectedJobIds.size() + STR_JOB);
-
+                                  new AsyncCallback<Map<Integer, String>>() {
+                                      public void onSuccess(Map<Integer, String> result) {
+                                          logBulkActionResult("resubmitted", result);
                                       }
 
                                       public void onFailure(Throwable caught) {
@@ -603,6 +667,16 @@ public class JobsController {
      * update the model and views
      */
     public void fetchJobs(boolean showUpdating) {
+        fetchJobs(showUpdating, -1);
+    }
+
+    /**
+     * Fetch the jobs of the current page from the server.
+     *
+     * @param showUpdating true to display the loading state while fetching, the jobs are then always fetched
+     * @param revision scheduler state revision read before this fetch, -1 if unknown
+     */
+    void fetchJobs(boolean showUpdating, final long revision) {
         if (showUpdating) {
             model.jobsUpdating();
         }
@@ -624,6 +698,8 @@ public class JobsController {
         boolean fetchRunning = executionModel.isFetchRunningExecutions();
         boolean fetchFinished = executionModel.isFetchFinishedExecutions();
 
+        final List<Object> query = getCurrentJobsQuery();
+
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
         scheduler.revisionAndjobsinfo(LoginModel.getInstance().getSessionId(),
                                       startCursor,
@@ -635,9 +711,11 @@ public class JobsController {
                                       fetchRunning,
                                       fetchFinished,
                                       model.getFilterModel(),
+                                      JobsColumnsFactory.getProjection(),
                                       new AsyncCallback<String>() {
 
                                           public void onFailure(Throwable caught) {
+                                              lastJobsQuery = null;
                                               if (!LoginModel.getInstance().isLoggedIn()) {
                                                   // might have been disconnected in between
                                                   return;
@@ -664,16 +742,19 @@ public class JobsController {
                                           public void onSuccess(String result) {
                                               Map<Integer, Job> jobs;
                                               try {
+                                                  long decodingStart = System.currentTimeMillis();
                                                   jobs = SchedulerJSONUtils.parseJSONJobs(result,
                                                                                           paginationController.getModel());
-                                                  model.setJobs(jobs);
+                                                  long decodingTime = System.currentTimeMillis() - decodingStart;
+                                                  jobsFetched(query, revision, jobs);
 
                                                   int jn = jobs.size();
                                                   if (jn > 0) {
                                                       long t = (System.currentTimeMillis() - t1);
                                                       LogModel.getInstance()
                                                               .logMessage("<span style='color:gray;'>Fetched " + jn +
-                                                                          " jobs in " + t + " ms</span>");
+                                                                          " jobs in " + t + " ms, decoded in " +
+                                                                          decodingTime + " ms</span>");
                                                   }
                                               } catch (JSONException e) {
                                                   LogModel.getInstance().logCriticalMessage(e.getMessage());
@@ -756,10 +837,45 @@ public class JobsController {
                                            });
     }
 
+    /**
+     * @return the parameters identifying the jobs query of the current filter, page and status flags
+     */
+    List<Object> getCurrentJobsQuery() {
+        JobsPaginationModel paginationModel = paginationController.getModel();
+        ExecutionsModel executionModel = this.parentController.getModel();
+        return Arrays.asList(paginationModel.getStartCursor(),
+                             paginationModel.getEndCursor(),
+                             paginationModel.getPageSize(),
+                             paginationModel.isFirst(),
+                             executionModel.isFetchMyExecutionsOnly() ? LoginModel.getInstance().getLogin() : null,
+                             executionModel.isFetchPendingExecutions(),
+                             executionModel.isFetchRunningExecutions(),
+                             executionModel.isFetchFinishedExecutions(),
+                             model.getFilterModel());
+    }
+
+    /**
+     * Forces the next refresh to fetch the jobs, for changes that do not update the scheduler state revision.
+     */
+    public void invalidateJobsRevision() {
+        lastJobsRevision = -1;
+    }
+
+    /**
+     * Displays the fetched jobs, and remembers the query and the revision they were fetched for.
+     */
+    void jobsFetched(List<Object> query, long revision, Map<Integer, Job> jobs) {
+        model.setJobs(jobs);
+        lastJobsQuery = query;
+        lastJobsRevision = revision;
+    }
+
     /**
      * Fetch jobs state revision. If revision is more recent, fetch jobs.
+     *
+     * @param forceRefresh true to fetch the jobs even if the revision did not change
      */
-    public void jobsStateRevision() {
+    public void jobsStateRevision(boolean forceRefresh) {
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
         scheduler.schedulerStateRevision(LoginModel.getInstance().getSessionId(), new AsyncCallback<Long>() {
 
@@ -788,7 +904,13 @@ public class JobsController {
             }
 
             public void onSuccess(Long result) {
-                fetchJobs(false);
+                if (!forceRefresh && result >= 0 && result == lastJobsRevision &&
+                    getCurrentJobsQuery().equals(lastJobsQuery)) {
+                    // nothing changed since the jobs on display were fetched
+                    parentController.getParentController().setExecutionsDataUpdated(true);
+                } else {
+                    fetchJobs(false, result);
+                }
                 parentController.getParentController().setExecutionsUpdated(true);
             }
         });
@@ -841,6 +963,7 @@ public class JobsController {
             public void onSuccess(Boolean result) {
                 if (result) {
                     LogModel.getInstance().logMessage("Successfully updated Start At value for jobs(s) " + jobIds);
+                    invalidateJobsRevision();
                     startAtUpdateWindow.clearAfterSuccess();
                 } else {
                     LogModel.getInstance().logImportantMessage("Start At has not been updated for job(s) " + jobIds);
@@ -28,6 +28,7 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.client.controller;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -46,7 +47,9 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.SelectionTarget;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.Task;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.OutputModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.OutputView;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.LiveLogChunk;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.TasksOutput;
 
 import com.google.gwt.http.client.Request;
 import com.google.gwt.http.client.URL;
@@ -64,10 +67,19 @@ import com.smartgwt.client.widgets.layout.Layout;
  */
 public class OutputController extends AbstractSelectedTargetController<OutputModel> {
 
+    /** maximum number of tasks whose output is fetched by a single getTasksOutput request */
+    private static final int TASKS_OUTPUT_BATCH_SIZE = 50;
+
+    /** the live output is fetched at most every MAX_LIVE_BACKOFF refresh times while the job is quiet */
+    private static final int MAX_LIVE_BACKOFF = 8;
+
     /** periodically fetches live output */
     private Timer liveOutputUpdater = null;
 
-    /** contains all pending getTaskOutput requests, taskId as key */
+    /** delay before the next live output fetch, grows while no new output is received */
+    private int liveOutputDelay;
+
+    /** contains all pending getTaskOutput and getTasksOutput requests, taskId or first task index as key */
     private Map<String, Request> taskOutputRequests = null;
 
     protected OutputView view;
@@ -140,6 +152,7 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
             @Override
             public void onSuccess(String result) {
                 List<Task> tasks = model.getParentModel().getTasksModel().getTasks();
+                List<Task> startedTasks = new ArrayList<>(tasks.size());
 
                 for (Task t : tasks) {
                     switch (t.getStatus()) {
@@ -149,17 +162,112 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
                         case NOT_STARTED:
                             break;
                         default:
-                            fetchTaskOutput(jobId, t, logMode);
+                            startedTasks.add(t);
                             break;
                     }
                 }
 
+                fetchTasksOutput(jobId, startedTasks, 0, logMode);
                 currentOutput.setComplete(true);
             }
         });
 
     }
 
+    /**
+     * Fetch the output for a batch of tasks with a single request, store the results
+     * (or error messages) in the model, then fetch the next batch
+     *
+     * @param jobId id of the job containing the tasks
+     * @param tasks tasks for which the output should be fetched
+     * @param from index of the first task of the batch
+     * @param logMode one of {@link SchedulerServiceAsync#LOG_ALL}, {@link SchedulerServiceAsync#LOG_STDERR},
+     *   {@link SchedulerServiceAsync#LOG_STDOUT}
+     */
+    private void fetchTasksOutput(final String jobId, final List<Task> tasks, final int from,
+            final OutputMode logMode) {
+        if (from >= tasks.size()) {
+            return;
+        }
+        final int to = Math.min(from + TASKS_OUTPUT_BATCH_SIZE, tasks.size());
+        final List<Task> batch = new ArrayList<>(tasks.subList(from, to));
+        List<String> taskNames = new ArrayList<>(batch.size());
+        for (Task task : batch) {
+            taskNames.add(task.getName());
+        }
+        final String requestKey = "tasks:" + from;
+
+        SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
+        Request req = scheduler.getTasksOutput(LoginModel.getInstance().getSessionId(),
+                                               jobId,
+                                               taskNames,
+                                               logMode,
+                                               new AsyncCallback<TasksOutput>() {
+                                                   public void onFailure(Throwable caught) {
+                                                       Map<Task, String> failures = new LinkedHashMap<>();
+                                                       for (Task task : batch) {
+                                                           failures.put(task,
+                                                                        formatOutputFailure(task,
+                                                                                            caught.getMessage()));
+                                                       }
+                                                       model.setTasksOutput(jobId, failures);
+                                                       LogModel.getInstance()
+                                                               .logMessage("Failed to get output for " +
+                                                                           batch.size() + " tasks in job " + jobId);
+
+                                                       taskOutputRequests.remove(requestKey);
+                                                       fetchTasksOutput(jobId, tasks, to, logMode);
+                                                   }
+
+                                                   public void onSuccess(TasksOutput result) {
+                                                       Map<Task, String> outputs = new LinkedHashMap<>();
+                                                       for (Task task : batch) {
+                                                           if (result.getOutputs().containsKey(task.getName())) {
+                                                               outputs.put(task,
+                                                                           result.getOutputs().get(task.getName()));
+                                                           } else {
+                                                               String failure = result.getFailures()
+                                                                                      .get(task.getName());
+                                                               outputs.put(task, formatOutputFailure(task, failure));
+                                                               LogModel.getInstance()
+                                                                       .logMessage("Failed to get output for task " +
+                                                                                   task.getName() + " in job " +
+                                                                                   jobId);
+                                                           }
+                                                       }
+                                                       model.setTasksOutput(jobId, outputs);
+                                                       LogModel.getInstance()
+                                                               .logMessage("Successfully fetched output for " +
+                                                                           result.getOutputs().size() +
+                                                                           " tasks in job " + jobId);
+
+                                                       taskOutputRequests.remove(requestKey);
+                                                       fetchTasksOutput(jobId, tasks, to, logMode);
+                                                   }
+                                               });
+        this.taskOutputRequests.put(requestKey, req);
+    }
+
+    /**
+     * @param task task whose output could not be fetched
+     * @param error the error returned by the server, possibly a serialized JSON exception
+     * @return the error to display in place of the output of the task
+     */
+    private String formatOutputFailure(Task task, String error) {
+        String msg = JSONUtils.getJsonErrorMessage(error);
+        // might be an exception
+        try {
+            JSONObject json = JSONUtils.parseJSON(error).isObject();
+            if (json.containsKey("stackTrace")) {
+                // the output splits the lines of the stack trace and escapes them, like task output lines
+                msg = json.get("stackTrace").isString().stringValue();
+            }
+        } catch (Throwable t) {
+            // not json
+        }
+        return "[" + task.getName() + "] <span style='color:red;'>" + msg + "</span>";
+    }
+
     /**
      * Fetch the output for a single task,
      * store the result (or error message) in the model
@@ -177,24 +285,10 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
                                               logMode,
                                               new AsyncCallback<String>() {
                                                   public void onFailure(Throwable caught) {
-                                                      String msg = JSONUtils.getJsonErrorMessage(caught);
-                                                      // might be an exception
-                                                      try {
-                                                          JSONObject json = JSONUtils.parseJSON(caught.getMessage())
-                                                                                     .isObject();
-                                                          if (json.containsKey("stackTrace")) {
-                                                              msg = json.get("stackTrace").isString().stringValue();
-                                                              msg = msg.replace("\t", "&nbsp;&nbsp;&nbsp;&nbsp;");
-                                                              msg = msg.replace("\n", "<br>");
-                                                          }
-                                                      } catch (Throwable t) {
-                                                          // not json
-                                                      }
                                                       model.setTaskOutput(jobId,
                                                                           task,
-                                                                          "[" + task.getName() +
-                                                                                "] <span style='color:red;'>" + msg +
-                                                                                "</span>");
+                                                                          formatOutputFailure(task,
+                                                                                              caught.getMessage()));
                                                       LogModel.getInstance()
                                                               .logMessage("Failed to get output for task " +
                                                                           task.getName() + " in job " +
@@ -252,11 +346,28 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
                 doFetchLiveLog();
             }
         };
-        int refreshTime = SchedulerConfig.get().getLivelogsRefreshTime();
-        this.liveOutputUpdater.scheduleRepeating(refreshTime);
+        this.liveOutputDelay = SchedulerConfig.get().getLivelogsRefreshTime();
         this.doFetchLiveLog();
     }
 
+    /**
+     * Schedule the next live logs fetch: at the refresh time after new output,
+     * and less and less often while the job is quiet
+     * @param quiet true if the last fetch returned no output
+     */
+    private void scheduleNextLiveFetch(boolean quiet) {
+        if (this.liveOutputUpdater == null) {
+            return;
+        }
+        int refreshTime = SchedulerConfig.get().getLivelogsRefreshTime();
+        if (quiet) {
+            this.liveOutputDelay = Math.min(this.liveOutputDelay * 2, refreshTime * MAX_LIVE_BACKOFF);
+        } else {
+            this.liveOutputDelay = refreshTime;
+        }
+        this.liveOutputUpdater.schedule(this.liveOutputDelay);
+    }
+
     /**
      * Stop the timer that will periodically fetch live logs
      */
@@ -281,20 +392,35 @@ public class OutputController extends AbstractSelectedTargetController<OutputMod
         }
 
         SchedulerServiceAsync scheduler = Scheduler.getSchedulerService();
-        scheduler.getLiveLogJob(LoginModel.getInstance().getSessionId(), jobId, new AsyncCallback<String>() {
-            public void onSuccess(String result) {
-                if (result.length() > 0) {
-                    LogModel.getInstance()
-                            .logMessage("Fetched livelog chunk for job " + jobId + " (" + result.length() + " chars)");
-                    model.appendLiveOutput(jobId, result);
-                }
-            }
-
-            public void onFailure(Throwable caught) {
-                String msg = JSONUtils.getJsonErrorMessage(caught);
-                LogModel.getInstance().logImportantMessage("Failed to fetch live log for job " + jobId + ": " + msg);
-            }
-        });
+        scheduler.getLiveLogJob(LoginModel.getInstance().getSessionId(),
+                                jobId,
+                                currentOutput.getLiveCursor(),
+                                new AsyncCallback<LiveLogChunk>() {
+                                    public void onSuccess(LiveLogChunk result) {
+                                        if (result.isReset()) {
+                                            currentOutput.resetLive();
+                                        }
+                                        currentOutput.setLiveCursor(result.getCursor());
+                                        String text = result.getText();
+                                        if (text.length() > 0) {
+                                            LogModel.getInstance()
+                                                    .logMessage("Fetched livelog chunk for job " + jobId + " (" +
+                                                                text.length() + " chars)");
+                                            model.appendLiveOutput(jobId, text);
+                                        } else if (result.isReset()) {
+                                            model.notifyUpdatedCurrentOutput();
+                                        }
+                                        scheduleNextLiveFetch(text.isEmpty());
+                                    }
+
+                                    public void onFailure(Throwable caught) {
+                                        String msg = JSONUtils.getJsonErrorMessage(caught);
+                                        LogModel.getInstance()
+                                                .logImportantMessage("Failed to fetch live log for job " + jobId +
+                                                                     ": " + msg);
+                                        scheduleNextLiveFetch(true);
+                                    }
+                                });
     }
 
     public void cancelCurrentRequests() {
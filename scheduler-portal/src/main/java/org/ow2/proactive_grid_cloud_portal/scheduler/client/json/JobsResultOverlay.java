@@ -0,0 +1,233 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.json;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.Job;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobBuilder;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobPriority;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobStatus;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.core.client.JsonUtils;
+
+
+/**
+ * Overlay type over the result of the jobs GraphQL query.
+ * <p>
+ * The result is parsed by the native JSON parser of the browser and the jobs are read straight
+ * from the parsed objects, without wrapping every value as {@link com.google.gwt.json.client.JSONParser} does.
+ * The job list is refreshed every few seconds with up to a page of jobs, this is its decoding hot path.
+ */
+public final class JobsResultOverlay extends JavaScriptObject {
+
+    protected JobsResultOverlay() {
+    }
+
+    /**
+     * @param json the result of the jobs query
+     * @return the parsed result
+     * @throws JSONException if the result is not valid JSON
+     */
+    public static JobsResultOverlay parse(String json) throws JSONException {
+        try {
+            return JsonUtils.safeParse(json);
+        } catch (IllegalArgumentException e) {
+            throw new JSONException("JSON Parser failed " + e.getMessage() + "\ninput was: " + json, e);
+        }
+    }
+
+    /**
+     * @return the errors returned by the query as a JSON string, or null if there are none
+     */
+    public native String getErrors() /*-{
+        return this.errors == null ? null : JSON.stringify(this.errors);
+    }-*/;
+
+    /**
+     * @return the jobs connection, or null if the result has no data
+     */
+    public native JobsConnection getJobs() /*-{
+        return this.data == null || this.data.jobs == null ? null : this.data.jobs;
+    }-*/;
+
+    /**
+     * A page of jobs
+     */
+    public static final class JobsConnection extends JavaScriptObject {
+
+        protected JobsConnection() {
+        }
+
+        public native double getTotalCount() /*-{
+            return typeof this.totalCount === 'number' ? this.totalCount : 0;
+        }-*/;
+
+        public native PageInfo getPageInfo() /*-{
+            return this.pageInfo;
+        }-*/;
+
+        public native JsArray<JobNode> getNodes() /*-{
+            var nodes = [];
+            var edges = this.edges || [];
+            for (var i = 0; i < edges.length; i++) {
+                nodes.push(edges[i].node);
+            }
+            return nodes;
+        }-*/;
+    }
+
+    /**
+     * Position of a page of jobs
+     */
+    public static final class PageInfo extends JavaScriptObject {
+
+        protected PageInfo() {
+        }
+
+        public native String getStartCursor() /*-{
+            return typeof this.startCursor === 'string' ? this.startCursor : null;
+        }-*/;
+
+        public native String getEndCursor() /*-{
+            return typeof this.endCursor === 'string' ? this.endCursor : null;
+        }-*/;
+
+        public native boolean hasNextPage() /*-{
+            return this.hasNextPage === true;
+        }-*/;
+
+        public native boolean hasPreviousPage() /*-{
+            return this.hasPreviousPage === true;
+        }-*/;
+    }
+
+    /**
+     * A job of the list, or the job info returned by the REST API: both have the same fields
+     */
+    public static final class JobNode extends JavaScriptObject {
+
+        protected JobNode() {
+        }
+
+        public Job toJob() {
+            return new JobBuilder().id(Integer.valueOf(getString("id")))
+                                   .name(getString("name"))
+                                   .projectName(getString("projectName"))
+                                   .bucketName(getString("bucketName"))
+                                   .status(JobStatus.valueOf(getString("status")))
+                                   .priority(JobPriority.findPriority(getString("priority")))
+                                   .user(getString("owner"))
+                                   .tenant(getString("tenant"))
+                                   .genericInformation(getMap("genericInformation"))
+                                   .variables(getMap("variables"))
+                                   .detailedVariables(new HashMap<>())
+                                   .resultMap(getMap("resultMap"))
+                                   .pendingTasks(getInt("numberOfPendingTasks"))
+                                   .runningTasks(getInt("numberOfRunningTasks"))
+                                   .finishedTasks(getInt("numberOfFinishedTasks"))
+                                   .totalTasks(getInt("totalNumberOfTasks"))
+                                   .failedTasks(getInt("numberOfFailedTasks"))
+                                   .faultyTasks(getInt("numberOfFaultyTasks"))
+                                   .inErrorTasks(getInt("numberOfInErrorTasks"))
+                                   .submitTime(getLong("submittedTime"))
+                                   .startAtTime(isNumber("startAt") ? getLong("startAt") : null)
+                                   .startTime(getLong("startTime"))
+                                   .inErrorTime(getLong("inErrorTime"))
+                                   .finishTime(getLong("finishedTime"))
+                                   .description(getString("description"))
+                                   .cumulatedCoreTime(getLong("cumulatedCoreTime"))
+                                   .parentId(getLong("parentId"))
+                                   .childrenCount(getInt("childrenCount"))
+                                   .numberOfNodes(getInt("numberOfNodes"))
+                                   .numberOfNodesInParallel(getInt("numberOfNodesInParallel"))
+                                   .submissionMode(getString("submissionMode"))
+                                   .label(getString("label"))
+                                   .build();
+        }
+
+        private int getInt(String field) {
+            return (int) getNumber(field);
+        }
+
+        private long getLong(String field) {
+            return (long) getNumber(field);
+        }
+
+        /**
+         * @return the field if it is a string, an empty string otherwise
+         */
+        private native String getString(String field) /*-{
+            var value = this[field];
+            return typeof value === 'string' ? value : "";
+        }-*/;
+
+        private native boolean isNumber(String field) /*-{
+            return typeof this[field] === 'number';
+        }-*/;
+
+        /**
+         * @return the field if it is a number, 0 otherwise
+         */
+        private native double getNumber(String field) /*-{
+            var value = this[field];
+            return typeof value === 'number' ? value : 0;
+        }-*/;
+
+        /**
+         * @return the keys and values of a map returned as a list of key and value objects, one after the other
+         */
+        private native JsArrayString getEntries(String field) /*-{
+            var entries = this[field];
+            var keysAndValues = [];
+            if (entries instanceof Array) {
+                for (var i = 0; i < entries.length; i++) {
+                    keysAndValues.push(entries[i].key, entries[i].value);
+                }
+            }
+            return keysAndValues;
+        }-*/;
+
+        private Map<String, String> getMap(String field) {
+            JsArrayString entries = getEntries(field);
+            if (entries.length() == 0) {
+                return Collections.emptyMap();
+            }
+            Map<String, String> map = new LinkedHashMap<>(entries.length() / 2);
+            for (int i = 0; i < entries.length(); i += 2) {
+                map.put(entries.get(i), entries.get(i + 1));
+            }
+            return map;
+        }
+    }
+}
@@ -32,9 +32,9 @@ import java.util.stream.IntStream;
 import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONException;
 import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONUtils;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.Job;
-import org.ow2.proactive_grid_cloud_portal.scheduler.client.Task;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.JobsPaginationModel;
 
+import com.google.gwt.core.client.JsArray;
 import com.google.gwt.json.client.*;
 
 
@@ -52,28 +52,35 @@ public class SchedulerJSONUtils extends JSONUtils {
      * @throws JSONException if it fails to parse the JSON.
      */
     public static JSONPaginatedTasks parseJSONPaginatedTasks(String jsonString) throws JSONException {
-        JSONValue val = parseJSON(jsonString);
-        return parseJSONPaginatedTasks(val);
+        return TasksResultOverlay.parse(jsonString);
     }
 
     /**
      * Parse a paginated list of jobs
-     * @param jsonString the JSON as a string representing the paginated list of tasks.
-     * @return An object wrapping the list of tasks and the total number of tasks without pagination.
+     * @param jsonString the JSON as a string representing the paginated list of jobs.
+     * @return the jobs of the page, by id
      * @throws JSONException if it fails to parse the JSON.
      */
     public static Map<Integer, Job> parseJSONJobs(String jsonString, JobsPaginationModel paginationModel)
             throws JSONException {
-        JSONValue val = parseJSON(jsonString);
-        return getJobsFromJson(val, paginationModel);
-    }
+        JobsResultOverlay result = JobsResultOverlay.parse(jsonString);
+        String errors = result.getErrors();
+        if (errors != null) {
+            throw new JSONException(errors);
+        }
+        JobsResultOverlay.JobsConnection jsonJobs = result.getJobs();
+        if (jsonJobs == null || jsonJobs.getPageInfo() == null) {
+            throw new JSONException("Expected jobs in: " + jsonString);
+        }
+        setPageInfo(jsonJobs.getPageInfo(), paginationModel, (long) jsonJobs.getTotalCount());
 
-    private static JSONObject getObject(JSONValue value) throws JSONException {
-        JSONObject jsonObject = value.isObject();
-        if (jsonObject == null) {
-            throw new JSONException("Expected JSON Object: " + value.toString());
+        JsArray<JobsResultOverlay.JobNode> nodes = jsonJobs.getNodes();
+        Map<Integer, Job> jobs = new HashMap<>();
+        for (int i = 0; i < nodes.length(); i++) {
+            Job j = nodes.get(i).toJob();
+            jobs.put(j.getId(), j);
         }
-        return jsonObject;
+        return jobs;
     }
 
     public static JSONValue getProperty(JSONObject obj, String propertyName) throws JSONException {
@@ -84,14 +91,6 @@ public class SchedulerJSONUtils extends JSONUtils {
         return jsonValue;
     }
 
-    private static JSONArray getArray(JSONValue value) throws JSONException {
-        JSONArray arr = value.isArray();
-        if (arr == null) {
-            throw new JSONException("Expected JSON Array: " + value.toString());
-        }
-        return arr;
-    }
-
     private static String getString(JSONValue value) throws JSONException {
         if (value.isNull() != null) {
             return null;
@@ -103,46 +102,6 @@ public class SchedulerJSONUtils extends JSONUtils {
         return string.stringValue();
     }
 
-    private static long getSize(JSONObject obj) throws JSONException {
-        return getLongValue(obj, "size");
-    }
-
-    private static long getLongValue(JSONObject obj, String fieldName) throws JSONException {
-        JSONValue jsonLongValue = obj.get(fieldName);
-        if (jsonLongValue == null) {
-            throw new JSONException("Expected JSON Object with attribute " + fieldName + ": " + obj.toString());
-        }
-        JSONNumber jsonLong = jsonLongValue.isNumber();
-        if (jsonLong == null) {
-            throw new JSONException("Expected JSON number: " + jsonLongValue.toString());
-        }
-        return (long) jsonLong.doubleValue();
-    }
-
-    /**
-     * Parse a paginated list of tasks
-     * @param jsonString the JSON representing the paginated list of tasks.
-     * @return An object wrapping the list of tasks and the total number of tasks without pagination.
-     * @throws JSONException if it fails to parse the JSON.
-     */
-    public static JSONPaginatedTasks parseJSONPaginatedTasks(JSONValue value) throws JSONException {
-        JSONObject jsonTasksTotal = getObject(value);
-
-        JSONArray arr = getArray(getProperty(jsonTasksTotal, "list"));
-
-        List<Task> tasks = new ArrayList<Task>();
-
-        for (int i = 0; i < arr.size(); i++) {
-            JSONObject jsonTask = arr.get(i).isObject();
-            tasks.add(Task.parseJson(jsonTask));
-        }
-
-        long totalTasks = getSize(jsonTasksTotal);
-
-        JSONPaginatedTasks result = new JSONPaginatedTasks(tasks, totalTasks);
-        return result;
-    }
-
     /**
      * @param arr list of tags as a JSON array
      * @return the list of tags
@@ -163,17 +122,17 @@ public class SchedulerJSONUtils extends JSONUtils {
         return tags;
     }
 
-    private static void setPageInfoFromJson(JSONObject jsonPageInfo, JobsPaginationModel paginationModel,
-            long totalItems) throws JSONException {
-        paginationModel.setCurrentEndCursor(getString(getProperty(jsonPageInfo, "endCursor")));
-        paginationModel.setCurrentStartCursor(getString(getProperty(jsonPageInfo, "startCursor")));
+    private static void setPageInfo(JobsResultOverlay.PageInfo pageInfo, JobsPaginationModel paginationModel,
+            long totalItems) {
+        paginationModel.setCurrentEndCursor(pageInfo.getEndCursor());
+        paginationModel.setCurrentStartCursor(pageInfo.getStartCursor());
 
         boolean endCursor = (paginationModel.getEndCursor() != null);
         boolean startCursor = (paginationModel.getStartCursor() != null);
 
-        paginationModel.setHasNextPage(getProperty(jsonPageInfo, "hasNextPage").isBoolean().booleanValue());
+        paginationModel.setHasNextPage(pageInfo.hasNextPage());
 
-        paginationModel.setHasPreviousPage(getProperty(jsonPageInfo, "hasPreviousPage").isBoolean().booleanValue());
+        paginationModel.setHasPreviousPage(pageInfo.hasPreviousPage());
 
         //The number of jobs is updated only when there are no start or end cursor otherwise the number is not correct
         if (!startCursor && !endCursor) {
@@ -181,33 +140,6 @@ public class SchedulerJSONUtils extends JSONUtils {
         }
     }
 
-    private static Map<Integer, Job> getJobsFromJson(JSONValue value, JobsPaginationModel paginationModel)
-            throws JSONException {
-        Map<Integer, Job> jobs = new HashMap<>();
-
-        JSONObject jsonMain = getObject(value);
-
-        JSONValue jsonError = jsonMain.get("errors");
-        if (jsonError != null) {
-            throw new JSONException(jsonError.toString());
-        }
-
-        JSONObject jsonData = getObject(getProperty(jsonMain, "data"));
-        JSONObject jsonJobs = getObject(getProperty(jsonData, "jobs"));
-        long totalItems = getLongValue(jsonJobs, "totalCount");
-        JSONObject jsonPageInfo = getObject(getProperty(jsonJobs, "pageInfo"));
-        setPageInfoFromJson(jsonPageInfo, paginationModel, totalItems);
-        JSONArray jsonEdges = getArray(getProperty(jsonJobs, "edges"));
-
-        for (int i = 0; i < jsonEdges.size(); i++) {
-            JSONObject jsonJob = jsonEdges.get(i).isObject();
-            Job j = Job.parseJson(jsonJob);
-            jobs.put(j.getId(), j);
-        }
-
-        return jobs;
-    }
-
     public static String getStringOrDefault(JSONValue jsonValue) {
         return getStringOrDefault(jsonValue, "");
     }
@@ -236,6 +168,25 @@ public class SchedulerJSONUtils extends JSONUtils {
         return Job.parseJSONDetailedVariables(jsonJobInfo);
     }
 
+    /**
+     * Sets on a job the maps of its details: the job list only carries the variables and generic
+     * information displayed in the jobs grid
+     *
+     * @param job the job to complete
+     * @param jsonString the details of the job
+     * @throws JSONException if it fails to parse the JSON
+     */
+    public static void setJobDetails(Job job, String jsonString) throws JSONException {
+        JSONValue val = parseJSON(jsonString);
+        JSONObject jsonJobInfo = val.isObject();
+        if (jsonJobInfo == null) {
+            throw new JSONException("Expected JSON Object: " + jsonString);
+        }
+        job.setDetailsVariables(Job.parseJSONDetailedVariables(jsonJobInfo));
+        job.setVariables(extractObjectMap(jsonJobInfo.get("variables")));
+        job.setGenericInformation(extractObjectMap(jsonJobInfo.get("genericInformation")));
+    }
+
     public static Map<String, Map<String, Map<String, String>>> getDetailedSignals(String jsonString)
             throws JSONException {
         JSONValue val = parseJSON(jsonString);
@@ -288,6 +239,22 @@ public class SchedulerJSONUtils extends JSONUtils {
         return Collections.emptyMap();
     }
 
+    /**
+     * @param mapValue a map as a JSON object, as returned by the REST API
+     * @return the map, empty if the value is not an object
+     */
+    public static Map<String, String> extractObjectMap(JSONValue mapValue) {
+        JSONObject object = mapValue == null ? null : mapValue.isObject();
+        if (object == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> resultMap = new LinkedHashMap<>();
+        for (String key : object.keySet()) {
+            resultMap.put(key, getStringOrDefault(object.get(key)));
+        }
+        return resultMap;
+    }
+
     public static Set<String> extractSet(JSONValue setValue) {
         if (setValue == null || setValue.isArray() == null) {
             return Collections.emptySet();
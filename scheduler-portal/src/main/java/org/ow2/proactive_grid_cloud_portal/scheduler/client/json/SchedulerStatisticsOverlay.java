@@ -0,0 +1,70 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.json;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsonUtils;
+
+
+/**
+ * Overlay type over the scheduler statistics returned by the REST API.
+ * <p>
+ * The statistics are parsed by the native JSON parser of the browser and read straight from the
+ * parsed object, as in {@link JobsResultOverlay}.
+ */
+public final class SchedulerStatisticsOverlay extends JavaScriptObject {
+
+    protected SchedulerStatisticsOverlay() {
+    }
+
+    /**
+     * @param json the scheduler statistics
+     * @return the statistics, or null if the input is not a JSON object
+     */
+    public static SchedulerStatisticsOverlay parse(String json) {
+        SchedulerStatisticsOverlay statistics;
+        try {
+            statistics = JsonUtils.safeParse(json);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return isObject(statistics) ? statistics : null;
+    }
+
+    /**
+     * @param name name of the statistic
+     * @param defaultValue value returned when the statistic is missing or is not a string
+     * @return the value of the statistic
+     */
+    public native String getStringOrElse(String name, String defaultValue) /*-{
+        var value = this[name];
+        return typeof value === 'string' ? value : defaultValue;
+    }-*/;
+
+    private static native boolean isObject(JavaScriptObject value) /*-{
+        return value !== null && typeof value === 'object' && !(value instanceof Array);
+    }-*/;
+}
@@ -0,0 +1,188 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.json;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.Task;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.TaskStatus;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsonUtils;
+
+
+/**
+ * Overlay type over a page of tasks returned by the REST API.
+ * <p>
+ * The page is parsed by the native JSON parser of the browser and the tasks are read straight
+ * from the parsed objects, as in {@link JobsResultOverlay}. The tasks of the selected job are
+ * refreshed every few seconds, a page of tasks is decoded on each refresh.
+ */
+public final class TasksResultOverlay extends JavaScriptObject {
+
+    protected TasksResultOverlay() {
+    }
+
+    /**
+     * @param json a page of tasks
+     * @return the tasks of the page and the total number of tasks
+     * @throws JSONException if the page is not valid JSON or misses the tasks or their number
+     */
+    public static JSONPaginatedTasks parse(String json) throws JSONException {
+        TasksResultOverlay result;
+        try {
+            result = JsonUtils.safeParse(json);
+        } catch (IllegalArgumentException e) {
+            throw new JSONException("JSON Parser failed " + e.getMessage() + "\ninput was: " + json, e);
+        }
+        if (result == null || !result.hasList()) {
+            throw new JSONException("Expected JSON Object with attribute list: " + json);
+        }
+        if (!result.hasSize()) {
+            throw new JSONException("Expected JSON Object with attribute size: " + json);
+        }
+
+        JsArray<TaskNode> nodes = result.getList();
+        List<Task> tasks = new ArrayList<>(nodes.length());
+        for (int i = 0; i < nodes.length(); i++) {
+            tasks.add(nodes.get(i).toTask());
+        }
+        return new JSONPaginatedTasks(tasks, (long) result.getSize());
+    }
+
+    private native boolean hasList() /*-{
+        return this.list instanceof Array;
+    }-*/;
+
+    private native boolean hasSize() /*-{
+        return typeof this.size === 'number';
+    }-*/;
+
+    private native JsArray<TaskNode> getList() /*-{
+        return this.list;
+    }-*/;
+
+    private native double getSize() /*-{
+        return this.size;
+    }-*/;
+
+    /**
+     * A task of the page, with its task info
+     */
+    public static final class TaskNode extends JavaScriptObject {
+
+        protected TaskNode() {
+        }
+
+        public Task toTask() {
+            long scheduledTime = (long) getInfoNumber("scheduledTime");
+            Task task = new Task((long) getTaskId(),
+                                 getString("name"),
+                                 TaskStatus.valueOf(getInfoString("taskStatus")),
+                                 getInfoString("executionHostName"),
+                                 (long) getInfoNumber("startTime"),
+                                 (long) getInfoNumber("inErrorTime"),
+                                 (long) getInfoNumber("finishedTime"),
+                                 scheduledTime,
+                                 (long) getInfoNumber("executionDuration"),
+                                 getString("description"),
+                                 getNodesNumber(),
+                                 (int) getNumber("maxNumberOfExecution"),
+                                 (int) getInfoNumber("numberOfExecutionLeft"),
+                                 (int) getNumber("maxNumberOfExecutionOnFailure"),
+                                 (int) getInfoNumber("numberOfExecutionOnFailureLeft"),
+                                 isVisualizationActivated(),
+                                 getInfoString("visualizationConnectionString"));
+            task.setTag(getString("tag"));
+            task.setJobId((long) getJobId());
+            task.setJobName(getJobName());
+            task.setStartAtTime(scheduledTime);
+            return task;
+        }
+
+        /**
+         * @return the field if it is a string, an empty string otherwise
+         */
+        private native String getString(String field) /*-{
+            var value = this[field];
+            return typeof value === 'string' ? value : "";
+        }-*/;
+
+        /**
+         * @return the field if it is a number, 0 otherwise
+         */
+        private native double getNumber(String field) /*-{
+            var value = this[field];
+            return typeof value === 'number' ? value : 0;
+        }-*/;
+
+        /**
+         * @return the field of the task info if it is a string, an empty string otherwise
+         */
+        private native String getInfoString(String field) /*-{
+            var value = this.taskInfo == null ? null : this.taskInfo[field];
+            return typeof value === 'string' ? value : "";
+        }-*/;
+
+        /**
+         * @return the field of the task info if it is a number, 0 otherwise
+         */
+        private native double getInfoNumber(String field) /*-{
+            var value = this.taskInfo == null ? null : this.taskInfo[field];
+            return typeof value === 'number' ? value : 0;
+        }-*/;
+
+        private native boolean isVisualizationActivated() /*-{
+            return this.taskInfo != null && this.taskInfo.visualizationActivated === true;
+        }-*/;
+
+        private native double getTaskId() /*-{
+            var taskId = this.taskInfo == null ? null : this.taskInfo.taskId;
+            return taskId != null && typeof taskId.id === 'number' ? taskId.id : 0;
+        }-*/;
+
+        private native double getJobId() /*-{
+            var jobId = this.taskInfo == null ? null : this.taskInfo.jobId;
+            return jobId != null && typeof jobId.id === 'number' ? jobId.id : 0;
+        }-*/;
+
+        private native String getJobName() /*-{
+            var jobId = this.taskInfo == null ? null : this.taskInfo.jobId;
+            return jobId != null && typeof jobId.readableName === 'string' ? jobId.readableName : "";
+        }-*/;
+
+        /**
+         * @return the number of nodes of the parallel environment, 1 without parallel environment
+         */
+        private native int getNodesNumber() /*-{
+            var parEnv = this.parallelEnvironment;
+            return parEnv != null && typeof parEnv.nodesNumber === 'number' ? parEnv.nodesNumber : 1;
+        }-*/;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+
+/**
+ * Per-job cache of the model, bounded both in number of entries and in total weight.
+ * <p>
+ * Entries are evicted least recently used first. The most recently used entry and the pinned
+ * entry are always kept, even when they weigh more than the bound on their own, since they are
+ * displayed.
+ * <p>
+ * Values may grow after they were put, {@link #updated(Object)} weighs them again.
+ *
+ * @param <K> key type, the job id
+ * @param <V> value type
+ */
+public class BoundedCache<K, V> {
+
+    /**
+     * Estimates the memory used by a cached value, in a unit chosen by the cache owner.
+     */
+    public interface Weigher<V> {
+        long weigh(V value);
+    }
+
+    private final int maxEntries;
+
+    private final long maxWeight;
+
+    private final Weigher<V> weigher;
+
+    /** values in access order, least recently used first */
+    private final LinkedHashMap<K, V> values = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<K, Long> weights = new HashMap<>();
+
+    private long totalWeight = 0;
+
+    /** key of the value never evicted, null if none */
+    private K pinned = null;
+
+    /**
+     * @param maxEntries maximum number of values kept
+     * @param maxWeight maximum total weight of the values kept
+     * @param weigher estimates the weight of a value
+     */
+    public BoundedCache(int maxEntries, long maxWeight, Weigher<V> weigher) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * @return the value associated with <code>key</code>, marked as the most recently used, or null
+     */
+    public V get(K key) {
+        return values.get(key);
+    }
+
+    public boolean containsKey(K key) {
+        return values.containsKey(key);
+    }
+
+    public void put(K key, V value) {
+        values.put(key, value);
+        setWeight(key, weigher.weigh(value));
+        evict();
+    }
+
+    /**
+     * Weighs again the value associated with <code>key</code> after it changed, and marks it as
+     * the most recently used
+     */
+    public void updated(K key) {
+        V value = values.get(key);
+        if (value != null) {
+            setWeight(key, weigher.weigh(value));
+            evict();
+        }
+    }
+
+    public V remove(K key) {
+        V value = values.remove(key);
+        Long weight = weights.remove(key);
+        if (weight != null) {
+            totalWeight -= weight;
+        }
+        return value;
+    }
+
+    /**
+     * Drops the values of jobs that do not exist anymore
+     */
+    public void removeAll(Collection<K> keys) {
+        for (K key : keys) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Keeps the value associated with <code>key</code>, whatever its weight and its last use,
+     * until another key is pinned
+     *
+     * @param key key of the value to keep, null to keep none
+     */
+    public void pin(K key) {
+        this.pinned = key;
+        evict();
+    }
+
+    public void clear() {
+        values.clear();
+        weights.clear();
+        totalWeight = 0;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public long getTotalWeight() {
+        return totalWeight;
+    }
+
+    private void setWeight(K key, long weight) {
+        Long previous = weights.put(key, weight);
+        totalWeight += weight - (previous == null ? 0 : previous);
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<K, V>> eldest = values.entrySet().iterator();
+        // the last entry, the most recently used, is never visited
+        int remaining = values.size();
+        while (remaining > 1 && (values.size() > maxEntries || totalWeight > maxWeight)) {
+            K key = eldest.next().getKey();
+            remaining--;
+            if (Objects.equals(key, pinned)) {
+                continue;
+            }
+            eldest.remove();
+            totalWeight -= weights.remove(key);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.Job;
+
+
+/**
+ * Difference between two successive job lists of the jobs model.
+ * @author the activeeon team.
+ *
+ */
+public class JobsDiff {
+
+    /**
+     * Jobs that were not in the previous list.
+     */
+    private final List<Job> added = new ArrayList<>();
+
+    /**
+     * Ids of the jobs that are not in the new list anymore.
+     */
+    private final List<Integer> removed = new ArrayList<>();
+
+    /**
+     * Jobs of both lists whose fields changed.
+     */
+    private final List<Job> changed = new ArrayList<>();
+
+    /**
+     * Computes the difference between two job lists.
+     * @param previous the previous jobs, or null
+     * @param current the new jobs
+     * @return the difference between the two lists
+     */
+    public static JobsDiff compute(Map<Integer, Job> previous, Map<Integer, Job> current) {
+        JobsDiff diff = new JobsDiff();
+        if (previous == null) {
+            previous = Collections.emptyMap();
+        }
+        for (Map.Entry<Integer, Job> entry : current.entrySet()) {
+            Job before = previous.get(entry.getKey());
+            if (before == null) {
+                diff.added.add(entry.getValue());
+            } else if (!sameFields(before, entry.getValue())) {
+                diff.changed.add(entry.getValue());
+            }
+        }
+        for (Integer id : previous.keySet()) {
+            if (!current.containsKey(id)) {
+                diff.removed.add(id);
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * Compares field by field, {@link Job#isEqual(Job)} misses some of the displayed fields.
+     */
+    static boolean sameFields(Job a, Job b) {
+        return a.getId().equals(b.getId()) && a.getStatus() == b.getStatus() && a.getPriority() == b.getPriority() &&
+               a.getPendingTasks() == b.getPendingTasks() && a.getRunningTasks() == b.getRunningTasks() &&
+               a.getFinishedTasks() == b.getFinishedTasks() && a.getTotalTasks() == b.getTotalTasks() &&
+               a.getFailedTasks() == b.getFailedTasks() && a.getFaultyTasks() == b.getFaultyTasks() &&
+               a.getInErrorTasks() == b.getInErrorTasks() && a.getSubmitTime() == b.getSubmitTime() &&
+               a.getStartTime() == b.getStartTime() && a.getInErrorTime() == b.getInErrorTime() &&
+               a.getFinishTime() == b.getFinishTime() && a.getCumulatedCoreTime() == b.getCumulatedCoreTime() &&
+               a.getParentId() == b.getParentId() && a.getChildrenCount() == b.getChildrenCount() &&
+               a.getNumberOfNodes() == b.getNumberOfNodes() &&
+               a.getNumberOfNodesInParallel() == b.getNumberOfNodesInParallel() &&
+               Objects.equals(a.getStartAtTime(), b.getStartAtTime()) && Objects.equals(a.getName(), b.getName()) &&
+               Objects.equals(a.getProjectName(), b.getProjectName()) &&
+               Objects.equals(a.getBucketName(), b.getBucketName()) &&
+               Objects.equals(a.getSubmissionMode(), b.getSubmissionMode()) &&
+               Objects.equals(a.getLabel(), b.getLabel()) && Objects.equals(a.getUser(), b.getUser()) &&
+               Objects.equals(a.getTenant(), b.getTenant()) && Objects.equals(a.getDescription(), b.getDescription()) &&
+               Objects.equals(a.getGenericInformation(), b.getGenericInformation()) &&
+               Objects.equals(a.getVariables(), b.getVariables()) &&
+               Objects.equals(a.getDetailedVariables(), b.getDetailedVariables()) &&
+               Objects.equals(a.getResultMap(), b.getResultMap());
+    }
+
+    /**
+     * @return the jobs that were not in the previous list
+     */
+    public List<Job> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return the ids of the jobs that are not in the new list anymore
+     */
+    public List<Integer> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return the jobs of both lists whose fields changed
+     */
+    public List<Job> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return true if both lists hold the same jobs, with the same fields
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+}
@@ -29,7 +29,9 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
+import org.ow2.proactive_grid_cloud_portal.common.client.model.LoginModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.Job;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerListeners.JobSelectedListener;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerListeners.JobsUpdatedListener;
@@ -124,12 +126,13 @@ public class JobsModel {
 
     /**
      * Modifies the local joblist
-     * triggers {@link JobsUpdatedListener#jobsUpdated(java.util.Map)}},
+     * triggers {@link JobsUpdatedListener#jobsUpdated(java.util.Map, JobsDiff)}},
      * or {@link JobsUpdatedListener#jobsUpdating()} if <code>jobs</code> was null
      * 
      * @param jobs a jobset, or null
      */
     public void setJobs(Map<Integer, Job> jobs) {
+        Map<Integer, Job> previousJobs = this.jobs;
         this.jobs = jobs;
         boolean empty = false;
 
@@ -138,8 +141,11 @@ public class JobsModel {
             this.jobs = new LinkedHashMap<Integer, Job>();
         }
 
+        JobsDiff diff = JobsDiff.compute(previousJobs, this.jobs);
+        forgetPermissionsOfReassignedJobs(previousJobs, diff);
+
         for (JobsUpdatedListener listener : this.jobsUpdatedListeners) {
-            listener.jobsUpdated(this.jobs);
+            listener.jobsUpdated(this.jobs, diff);
             if (empty)
                 listener.jobsUpdating();
         }
@@ -161,6 +167,22 @@ public class JobsModel {
         }
     }
 
+    /**
+     * The permissions of a job depend on its owner: they are checked again once it changed.
+     */
+    private void forgetPermissionsOfReassignedJobs(Map<Integer, Job> previousJobs, JobsDiff diff) {
+        List<String> reassigned = new ArrayList<>();
+        for (Job job : diff.getChanged()) {
+            Job previous = previousJobs.get(job.getId());
+            if (previous != null && !Objects.equals(previous.getUser(), job.getUser())) {
+                reassigned.add(String.valueOf(job.getId()));
+            }
+        }
+        if (!reassigned.isEmpty()) {
+            LoginModel.removeSchedulerPermissions(reassigned);
+        }
+    }
+
     /**
      * Notifies that a job has been submitted.
      * @param j
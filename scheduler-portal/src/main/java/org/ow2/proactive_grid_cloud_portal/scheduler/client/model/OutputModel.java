@@ -26,8 +26,9 @@
 package org.ow2.proactive_grid_cloud_portal.scheduler.client.model;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobOutput;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.OutputMode;
@@ -35,6 +36,7 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerListeners.J
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerModelImpl;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SelectionTarget;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.Task;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
 
 
 /**
@@ -44,7 +46,8 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.Task;
  */
 public class OutputModel extends AbstractSelectedTargetModel {
 
-    protected HashMap<String, JobOutput> outputs = null;
+    /** outputs of the last displayed jobs, bounded in number of jobs and of lines */
+    protected BoundedCache<String, JobOutput> outputs = null;
 
     protected JobOutput currentOutput = null;
 
@@ -60,7 +63,10 @@ public class OutputModel extends AbstractSelectedTargetModel {
         super(parentModel);
         this.parentModel.setOutputModel(this);
 
-        this.outputs = new HashMap<String, JobOutput>();
+        SchedulerConfig config = SchedulerConfig.get();
+        this.outputs = new BoundedCache<>(config.getJobCacheSize(),
+                                          config.getOutputCacheMaxLines(),
+                                          JobOutput::getLineCount);
 
         this.jobOutputListeners = new ArrayList<JobOutputListener>();
     }
@@ -76,6 +82,7 @@ public class OutputModel extends AbstractSelectedTargetModel {
         JobOutput result = this.outputs.get(jobId);
         if (result == null && createIfNotExists) {
             result = new JobOutput(jobId);
+            result.setMaxLiveLines(SchedulerConfig.get().getOutputMaxLines());
             this.outputs.put(jobId, result);
         }
         return result;
@@ -90,6 +97,7 @@ public class OutputModel extends AbstractSelectedTargetModel {
     public void setTaskOutput(String jobId, Task task, String output) {
         JobOutput jobOutput = this.getJobOutput(jobId, true);
         List<String> remoteVisuLines = jobOutput.update(task, output, this.outputMode);
+        this.outputs.updated(jobId);
 
         processRemoteVisuLines(remoteVisuLines);
 
@@ -98,6 +106,24 @@ public class OutputModel extends AbstractSelectedTargetModel {
         }
     }
 
+    /**
+     * Set the output for several tasks in a given job
+     * 
+     * notify listeners once all the outputs are set
+     * 
+     */
+    public void setTasksOutput(String jobId, Map<Task, String> tasksOutput) {
+        JobOutput jobOutput = this.getJobOutput(jobId, true);
+        for (Map.Entry<Task, String> taskOutput : tasksOutput.entrySet()) {
+            processRemoteVisuLines(jobOutput.update(taskOutput.getKey(), taskOutput.getValue(), this.outputMode));
+        }
+        this.outputs.updated(jobId);
+
+        if (this.currentOutput != null && this.currentOutput.getJobId() == jobId) {
+            this.notifyUpdatedCurrentOutput();
+        }
+    }
+
     /**
      * Append a job output fragment to the stored live output
      * @param jobId id of the job to which this fragment belongs
@@ -106,12 +132,22 @@ public class OutputModel extends AbstractSelectedTargetModel {
     public void appendLiveOutput(String jobId, String out) {
         JobOutput jobOutput = this.getJobOutput(jobId, true);
         List<String> remoteVisuLines = jobOutput.updateLive(out);
+        this.outputs.updated(jobId);
 
         processRemoteVisuLines(remoteVisuLines);
 
         this.notifyUpdatedCurrentOutput();
     }
 
+    /**
+     * Drops the stored output of jobs that were removed
+     *
+     * @param jobIds ids of the removed jobs
+     */
+    public void removeJobOutputs(Collection<String> jobIds) {
+        this.outputs.removeAll(jobIds);
+    }
+
     protected void processRemoteVisuLines(List<String> lines) {
         for (String line : lines) {
             this.parentModel.getTasksModel().addRemoteHint(line, true);
@@ -180,6 +216,8 @@ public class OutputModel extends AbstractSelectedTargetModel {
 
     public void setCurrentOutput(JobOutput output) {
         this.currentOutput = output;
+        // the displayed output keeps receiving updates, it must stay the cached one
+        this.outputs.pin(output == null ? null : output.getJobId());
 
         if (this.currentOutput == null) {
             this.setLiveEnabled(false, false);
@@ -25,11 +25,15 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler.client.util;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.JobsProjection;
+
 import com.google.gwt.i18n.client.DateTimeFormat;
 import com.google.gwt.json.client.JSONBoolean;
 import com.google.gwt.json.client.JSONObject;
@@ -105,6 +109,25 @@ public class JobColumnsUtil {
         return value;
     }
 
+    /**
+     * @param columnNames names of the extra columns of the jobs grid
+     * @return the variables and generic information displayed by these columns
+     */
+    public static JobsProjection getProjection(List<String> columnNames) {
+        String genericInformationPrefix = GENERIC_INFORMATION_TYPE + FIELDS_SEPARATOR;
+        String variablePrefix = VARIABLE_TYPE + FIELDS_SEPARATOR;
+        List<String> genericInformation = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        for (String columnName : columnNames) {
+            if (columnName.startsWith(genericInformationPrefix)) {
+                genericInformation.add(columnName.substring(genericInformationPrefix.length()));
+            } else if (columnName.startsWith(variablePrefix)) {
+                variables.add(columnName.substring(variablePrefix.length()));
+            }
+        }
+        return new JobsProjection(variables, genericInformation);
+    }
+
     /**
      * Get the column value from the column name
      * @param columnName the name of the column
@@ -0,0 +1,276 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.view;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gwt.safehtml.shared.SafeHtmlUtils;
+
+
+/**
+ * Indexes the lines of an output, split in blocks (one per task), without concatenating them,
+ * so that any range of lines can be rendered and searched without building the whole output.
+ * <p>
+ * A line usually takes one row, a line holding {@code <br>} breaks takes one row per break:
+ * rows are the unit of the vertical positions.
+ */
+public class LogViewport {
+
+    private static final String BREAK = "<br>";
+
+    /** non empty blocks of formatted lines */
+    private List<Block> blocks = new ArrayList<>();
+
+    /** index of the first line of each block, and total number of lines as last element */
+    private int[] blockStarts = { 0 };
+
+    /** index of the first row of each block, and total number of rows as last element */
+    private int[] blockRowStarts = { 0 };
+
+    /**
+     * Indexes new content. Lines appended to the lists are visible once this method is called again.
+     * @param lines formatted output lines, per block
+     */
+    public void setBlocks(Collection<List<String>> lines) {
+        Map<List<String>, Block> previous = new IdentityHashMap<>();
+        for (Block block : this.blocks) {
+            previous.put(block.lines, block);
+        }
+        List<Block> nonEmpty = new ArrayList<>(lines.size());
+        for (List<String> block : lines) {
+            if (block != null && !block.isEmpty()) {
+                nonEmpty.add(new Block(block, previous.get(block)));
+            }
+        }
+        int[] starts = new int[nonEmpty.size() + 1];
+        int[] rowStarts = new int[nonEmpty.size() + 1];
+        for (int i = 0; i < nonEmpty.size(); i++) {
+            starts[i + 1] = starts[i] + nonEmpty.get(i).measured.length;
+            rowStarts[i + 1] = rowStarts[i] + nonEmpty.get(i).getRowCount();
+        }
+        this.blocks = nonEmpty;
+        this.blockStarts = starts;
+        this.blockRowStarts = rowStarts;
+    }
+
+    /**
+     * @return total number of lines
+     */
+    public int getLineCount() {
+        return blockStarts[blockStarts.length - 1];
+    }
+
+    /**
+     * @return total number of rows
+     */
+    public int getRowCount() {
+        return blockRowStarts[blockRowStarts.length - 1];
+    }
+
+    /**
+     * @return the formatted line at the given index
+     */
+    public String getLine(int index) {
+        int block = blockOf(index);
+        return blocks.get(block).measured[index - blockStarts[block]];
+    }
+
+    /**
+     * @param index index of a line, or the line count for the row following the last line
+     * @return the index of the first row of the line
+     */
+    public int getRowOf(int index) {
+        if (index == getLineCount()) {
+            return getRowCount();
+        }
+        int block = blockOf(index);
+        return blockRowStarts[block] + blocks.get(block).rowStarts[index - blockStarts[block]];
+    }
+
+    /**
+     * @param row index of a row, clamped to the rows of the output
+     * @return the index of the line displayed on the row, the line count if there is no line
+     */
+    public int getLineAt(int row) {
+        if (row >= getRowCount()) {
+            return getLineCount();
+        }
+        int block = search(blockRowStarts, blocks.size(), Math.max(0, row));
+        Block lines = blocks.get(block);
+        return blockStarts[block] + search(lines.rowStarts, lines.measured.length, row - blockRowStarts[block]);
+    }
+
+    /**
+     * @param block a list of lines given to {@link #setBlocks(Collection)}
+     * @return the index of the first line of the block, -1 if it is unknown or empty
+     */
+    public int getBlockStart(List<String> block) {
+        for (int i = 0; i < blocks.size(); i++) {
+            if (blocks.get(i).lines == block) {
+                return blockStarts[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param from index of the first line to render
+     * @param to index following the last line to render
+     * @param lineHeight height of a line in pixels
+     * @param highlightedLine index of a line to highlight, -1 for none
+     * @return the HTML of the lines, each one in a block as high as its rows, long lines are not wrapped
+     */
+    public String render(int from, int to, int lineHeight, int highlightedLine) {
+        from = Math.max(0, from);
+        to = Math.min(getLineCount(), to);
+        StringBuilder builder = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            builder.append("<div style='height:")
+                   .append((getRowOf(i + 1) - getRowOf(i)) * lineHeight)
+                   .append("px;line-height:")
+                   .append(lineHeight)
+                   .append("px;white-space:nowrap;")
+                   .append(i == highlightedLine ? "background-color:#ffff99;'>" : "'>")
+                   .append(getLine(i))
+                   .append("</div>");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Searches a text in the displayed lines, ignoring case
+     * @param query the text to search
+     * @param from index of the first line to search, the search wraps around at the end
+     * @return the index of the first line containing the text, -1 if none does
+     */
+    public int find(String query, int from) {
+        int count = getLineCount();
+        if (query == null || query.isEmpty() || count == 0) {
+            return -1;
+        }
+        String escapedQuery = SafeHtmlUtils.htmlEscape(query).toLowerCase();
+        from = Math.max(0, Math.min(from, count));
+        for (int n = 0; n < count; n++) {
+            int index = (from + n) % count;
+            if (textOf(getLine(index)).toLowerCase().contains(escapedQuery)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private int blockOf(int index) {
+        if (index < 0 || index >= getLineCount()) {
+            throw new IndexOutOfBoundsException("Line " + index + " of " + getLineCount());
+        }
+        return search(blockStarts, blocks.size(), index);
+    }
+
+    /**
+     * @param starts ascending start positions, the first one being 0
+     * @param count number of elements starting at these positions
+     * @return the index of the last element starting at or before the position
+     */
+    private static int search(int[] starts, int count, int position) {
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (starts[middle] <= position) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the number of rows of a formatted line: one, plus one per break before its end
+     */
+    static int rowsOf(String line) {
+        int end = line.endsWith(BREAK) ? line.length() - BREAK.length() : line.length();
+        int rows = 1;
+        for (int i = line.indexOf(BREAK); i >= 0 && i < end; i = line.indexOf(BREAK, i + BREAK.length())) {
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * @return the line without its HTML tags, entities are kept escaped
+     */
+    private static String textOf(String html) {
+        StringBuilder text = new StringBuilder(html.length());
+        boolean inTag = false;
+        for (int i = 0; i < html.length(); i++) {
+            char c = html.charAt(i);
+            if (c == '<') {
+                inTag = true;
+            } else if (c == '>') {
+                inTag = false;
+            } else if (!inTag) {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Lines of a block, and the rows they take. The rows of a line are only counted again when
+     * the line was replaced since the block was last indexed.
+     */
+    private static final class Block {
+
+        private final List<String> lines;
+
+        /** the lines when the block was indexed */
+        private final String[] measured;
+
+        /** index of the first row of each line in the block, and number of rows as last element */
+        private final int[] rowStarts;
+
+        private Block(List<String> lines, Block previous) {
+            this.lines = lines;
+            this.measured = lines.toArray(new String[lines.size()]);
+            this.rowStarts = new int[measured.length + 1];
+            for (int i = 0; i < measured.length; i++) {
+                boolean unchanged = previous != null && i < previous.measured.length &&
+                                    previous.measured[i] == measured[i];
+                int rows = unchanged ? previous.rowStarts[i + 1] - previous.rowStarts[i] : rowsOf(measured[i]);
+                rowStarts[i + 1] = rowStarts[i] + rows;
+            }
+        }
+
+        private int getRowCount() {
+            return rowStarts[measured.length];
+        }
+    }
+}
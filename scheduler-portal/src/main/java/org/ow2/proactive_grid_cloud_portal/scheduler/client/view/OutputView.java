@@ -33,6 +33,7 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobOutput;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.OutputMode;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerListeners.JobOutputListener;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SelectionTarget;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.Task;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.OutputController;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.OutputModel;
 
@@ -40,6 +41,7 @@ import com.smartgwt.client.widgets.Canvas;
 import com.smartgwt.client.widgets.form.DynamicForm;
 import com.smartgwt.client.widgets.form.fields.CheckboxItem;
 import com.smartgwt.client.widgets.form.fields.SelectItem;
+import com.smartgwt.client.widgets.form.fields.TextItem;
 import com.smartgwt.client.widgets.form.fields.events.ChangedEvent;
 import com.smartgwt.client.widgets.form.fields.events.ChangedHandler;
 import com.smartgwt.client.widgets.layout.HLayout;
@@ -62,6 +64,17 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
     /** stdout, stderr or both */
     private SelectItem outSelect = null;
 
+    /** text to search in the output */
+    private TextItem searchItem = null;
+
+    /** displays the output lines, only rendering the visible ones */
+    private VirtualLogPane logPane = null;
+
+    /** output and target displayed by the log pane, to know whether an update only appends lines */
+    private JobOutput displayedOutput = null;
+
+    private SelectionTarget displayedTarget = null;
+
     public OutputView(OutputController controller) {
         super(controller);
 
@@ -155,6 +168,21 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
         form.setNumCols(4);
         form.setFields(liveCheck, targetSelect, outSelect);
 
+        this.searchItem = new TextItem("searchOutput");
+        this.searchItem.setShowTitle(false);
+        this.searchItem.setHint("Search");
+        this.searchItem.setShowHintInField(true);
+        this.searchItem.setTooltip("Press Enter to go to the next line containing this text");
+
+        DynamicForm searchForm = new DynamicForm();
+        searchForm.setNumCols(1);
+        searchForm.setFields(searchItem);
+        searchForm.addItemKeyPressHandler(event -> {
+            if ("Enter".equals(event.getKeyName())) {
+                logPane.findNext(searchItem.getValueAsString());
+            }
+        });
+
         HLayout buttons = new HLayout();
         buttons.setWidth100();
         buttons.setHeight(22);
@@ -163,7 +191,7 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
         Canvas fill = new Canvas();
         fill.setWidth100();
 
-        buttons.setMembers(form, fill, refreshButton);
+        buttons.setMembers(form, fill, searchForm, refreshButton);
 
         VLayout textLayout = this.buildOutputPane();
 
@@ -175,12 +203,27 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
         return root;
     }
 
+    @Override
+    protected VLayout buildOutputPane() {
+        VLayout textLayout = super.buildOutputPane();
+
+        this.logPane = new VirtualLogPane();
+        this.logPane.setHeight100();
+        this.logPane.setWidth100();
+        this.logPane.setShowEdges(true);
+        this.logPane.hide();
+        textLayout.addMember(this.logPane);
+
+        return textLayout;
+    }
+
     /**
      * The view when a user is not authorized to fetch the job's output
      */
     public void goToNotAuthorized() {
         this.text.setContents(" "); // whitespace otherwise it logs are empty, they won't be replaced in text panel
         this.text.hide();
+        this.hideLogPane();
 
         this.label.setContents(this.notAuthorized);
         this.label.setIcon(null);
@@ -204,14 +247,14 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
                 if (lines.isEmpty()) {
                     this.goToLoadingState();
                 } else {
-                    this.update(lines);
+                    this.update(output, target, lines);
                 }
             } else {
                 this.goToTargetSelectedState(output);
                 if (lines.isEmpty()) {
                     this.goToUnavailableOutputState();
                 } else {
-                    this.update(lines);
+                    this.update(output, target, lines);
                 }
             }
         }
@@ -219,24 +262,57 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
 
     /**
      * Display the output lines of the current selected job or task
+     * @param output the output containing the lines
+     * @param target whether the lines are the ones of the job or of the selected task
      * @param lines the lines to be displayed.
      */
-    protected void update(Collection<List<String>> lines) {
-        StringBuilder builder = new StringBuilder();
-
-        for (List<String> outputLines : lines) {
-            if (!outputLines.isEmpty()) {
-                builder.append("<div>");
-                for (String outputLine : outputLines) {
-                    builder.append("<nobr>");
-                    builder.append(outputLine);
-                    builder.append("</nobr>");
-                }
-                builder.append("</div>");
-            }
+    protected void update(JobOutput output, SelectionTarget target, Collection<List<String>> lines) {
+        // live output only grows, other updates replace the output
+        boolean appended = output == this.displayedOutput && target == this.displayedTarget && output.isLive();
+        if (output != this.displayedOutput || target != this.displayedTarget) {
+            this.logPane.reset();
+            this.displayedOutput = output;
+            this.displayedTarget = target;
         }
+        this.logPane.setLines(lines, appended);
+
+        this.label.hide();
+        this.text.hide();
+        this.logPane.show();
+    }
+
+    private void hideLogPane() {
+        this.logPane.hide();
+        this.displayedOutput = null;
+        this.displayedTarget = null;
+    }
 
-        this.showContent(builder.toString());
+    @Override
+    protected void goToUnavailableOutputState() {
+        super.goToUnavailableOutputState();
+        this.hideLogPane();
+    }
+
+    @Override
+    protected void goToLoadingState() {
+        super.goToLoadingState();
+        this.hideLogPane();
+    }
+
+    /**
+     * Called when the selected task has been changed: when the output of the whole job is
+     * displayed, scrolls to the output of the task.
+     */
+    @Override
+    public void taskSelected(Task task) {
+        super.taskSelected(task);
+        JobOutput output = this.displayedOutput;
+        if (task != null && output != null && !output.isLive() && this.displayedTarget == SelectionTarget.JOB_TARGET) {
+            List<String> taskLines = output.getLines(task);
+            if (taskLines != null) {
+                this.logPane.scrollToBlock(taskLines);
+            }
+        }
     }
 
     /**
@@ -260,6 +336,7 @@ public class OutputView extends AbstractOutputDisplayView<OutputModel, OutputCon
      */
     protected void goToNoTargetState() {
         super.goToNoTargetState();
+        this.hideLogPane();
         this.outSelect.disable();
         this.liveCheck.setValue(false);
         this.liveCheck.disable();
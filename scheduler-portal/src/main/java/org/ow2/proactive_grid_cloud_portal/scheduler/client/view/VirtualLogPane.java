@@ -0,0 +1,191 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.view;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.smartgwt.client.types.Overflow;
+import com.smartgwt.client.widgets.Canvas;
+
+
+/**
+ * Displays output lines, only rendering the lines visible in the viewport.
+ * <p>
+ * The pane contains an empty spacer as high as the whole output, so that the scrollbar behaves
+ * as if all the lines were displayed, and a window holding the visible lines, moved and
+ * rendered again as the user scrolls. The window is as wide as its longest line, the pane then
+ * scrolls horizontally. When new lines are appended while the pane is scrolled to the bottom,
+ * it stays at the bottom.
+ */
+public class VirtualLogPane extends Canvas {
+
+    /** height of a row in pixels, a line holding breaks takes several rows */
+    static final int LINE_HEIGHT = 16;
+
+    /** rows rendered above and below the viewport, so that short scrolls do not render again */
+    private static final int OVERSCAN_LINES = 30;
+
+    private final LogViewport viewport = new LogViewport();
+
+    private final Canvas spacer = new Canvas();
+
+    private final Canvas window = new Canvas();
+
+    /** range of the rendered lines */
+    private int renderedFrom = -1;
+
+    private int renderedTo = -1;
+
+    private int highlightedLine = -1;
+
+    public VirtualLogPane() {
+        this.setOverflow(Overflow.AUTO);
+
+        this.spacer.setWidth(1);
+        this.spacer.setHeight(1);
+
+        // at least as wide as the pane, and wider if a line is longer
+        this.window.setWidth100();
+        this.window.setHeight(1);
+        this.window.setOverflow(Overflow.VISIBLE);
+
+        this.addChild(this.spacer);
+        this.addChild(this.window);
+
+        this.addScrolledHandler(event -> renderWindow(Integer.MAX_VALUE));
+        this.addResizedHandler(event -> renderWindow(0));
+    }
+
+    /**
+     * Displays new lines
+     * @param lines formatted output lines, per block
+     * @param appended true if the lines are the previously displayed ones followed by new lines,
+     *                 false if the output was replaced
+     */
+    public void setLines(Collection<List<String>> lines, boolean appended) {
+        boolean follow = appended && isScrolledToBottom();
+        int previousCount = this.viewport.getLineCount();
+
+        this.viewport.setBlocks(lines);
+        int count = this.viewport.getLineCount();
+        this.spacer.setHeight(Math.max(1, this.viewport.getRowCount() * LINE_HEIGHT));
+
+        if (follow) {
+            this.scrollToBottom();
+        }
+        if (appended && count >= previousCount) {
+            // the last line may have been completed
+            renderWindow(Math.max(0, previousCount - 1));
+        } else {
+            // the output was replaced, or its oldest lines were dropped
+            this.highlightedLine = -1;
+            renderWindow(0);
+        }
+    }
+
+    /**
+     * Forgets the displayed lines and scrolls back to the top
+     */
+    public void reset() {
+        this.viewport.setBlocks(Collections.<List<String>> emptyList());
+        this.highlightedLine = -1;
+        this.spacer.setHeight(1);
+        this.scrollTo(0, 0);
+        renderWindow(0);
+    }
+
+    /**
+     * Scrolls to and highlights the next line containing a text, ignoring case
+     * @param query the text to search
+     * @return false if no line contains the text
+     */
+    public boolean findNext(String query) {
+        int from = this.highlightedLine >= 0 ? this.highlightedLine + 1
+                                             : this.viewport.getLineAt(getScrollTop() / LINE_HEIGHT);
+        this.highlightedLine = this.viewport.find(query, from);
+        if (this.highlightedLine >= 0) {
+            scrollToLine(this.highlightedLine);
+        }
+        renderWindow(0);
+        return this.highlightedLine >= 0;
+    }
+
+    /**
+     * Scrolls to the first line of a block
+     * @param block a list of lines displayed by this pane
+     * @return false if the block is not displayed
+     */
+    public boolean scrollToBlock(List<String> block) {
+        int start = this.viewport.getBlockStart(block);
+        if (start < 0) {
+            return false;
+        }
+        scrollToLine(start);
+        return true;
+    }
+
+    private void scrollToLine(int index) {
+        this.scrollTo(getScrollLeft(), this.viewport.getRowOf(index) * LINE_HEIGHT);
+        renderWindow(Integer.MAX_VALUE);
+    }
+
+    private boolean isScrolledToBottom() {
+        return getScrollTop() >= getScrollBottom() - LINE_HEIGHT;
+    }
+
+    /**
+     * Renders the lines around the viewport, unless they are already rendered
+     * @param changedFrom index of the first line whose content changed since the last rendering
+     */
+    private void renderWindow(int changedFrom) {
+        int count = this.viewport.getLineCount();
+        int firstVisibleRow = getScrollTop() / LINE_HEIGHT;
+        int lastVisibleRow = firstVisibleRow + getViewportHeight() / LINE_HEIGHT + 1;
+        int firstVisible = this.viewport.getLineAt(firstVisibleRow);
+        int lastVisible = Math.min(count, this.viewport.getLineAt(lastVisibleRow) + 1);
+
+        boolean visibleRendered = firstVisible >= this.renderedFrom && lastVisible <= this.renderedTo;
+        if (visibleRendered && changedFrom >= this.renderedTo) {
+            return;
+        }
+
+        int from = this.viewport.getLineAt(firstVisibleRow - OVERSCAN_LINES);
+        int to = Math.min(count, this.viewport.getLineAt(lastVisibleRow + OVERSCAN_LINES) + 1);
+        int fromRow = this.viewport.getRowOf(from);
+
+        this.window.setTop(fromRow * LINE_HEIGHT);
+        this.window.setHeight(Math.max(1, (this.viewport.getRowOf(to) - fromRow) * LINE_HEIGHT));
+        // an inline block is as wide as its longest line, the lines then share this width
+        this.window.setContents(to > from ? "<div style='display:inline-block;min-width:100%;'>" +
+                                            this.viewport.render(from, to, LINE_HEIGHT, this.highlightedLine) +
+                                            "</div>"
+                                          : " ");
+        this.renderedFrom = from;
+        this.renderedTo = to;
+    }
+}
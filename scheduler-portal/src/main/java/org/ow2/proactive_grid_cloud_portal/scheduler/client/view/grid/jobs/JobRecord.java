@@ -40,7 +40,7 @@ public class JobRecord extends ListGridRecord {
     /**
      * the attribute to store the job.
      */
-    private static final String JOB_ATTR = "job";
+    static final String JOB_ATTR = "job";
 
     public JobRecord(Job j) {
         setAttribute(JOB_ATTR, j);
@@ -25,6 +25,7 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.jobs;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.ow2.proactive_grid_cloud_portal.common.client.JSUtil;
@@ -33,6 +34,7 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobStatus;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.util.JobColumnsUtil;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.ColumnsFactory;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.GridColumns;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.JobsProjection;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerPortalDisplayConfig;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerPortalDisplayConfig.JSONColumn;
 
@@ -113,6 +115,8 @@ public class JobsColumnsFactory implements ColumnsFactory<Job> {
 
     private static GridColumns[] ALL_COLUMNS;
 
+    private static JobsProjection PROJECTION;
+
     static {
         List<JSONColumn> extraColumns = SchedulerPortalDisplayConfig.get().getExtraColumns();
 
@@ -124,6 +128,13 @@ public class JobsColumnsFactory implements ColumnsFactory<Job> {
                                                columnConfiguration.isHidden());
         }
 
+        // hidden columns included, so that showing one does not need a new query
+        List<String> extraColumnNames = new ArrayList<>(extraColumns.size());
+        for (GridColumns extraColumn : EXTRA_COLUMNS) {
+            extraColumnNames.add(extraColumn.getName());
+        }
+        PROJECTION = JobColumnsUtil.getProjection(extraColumnNames);
+
         ALL_COLUMNS = new GridColumns[COLUMNS.length + EXTRA_COLUMNS.length];
         System.arraycopy(COLUMNS, 0, ALL_COLUMNS, 0, COLUMNS.length);
         System.arraycopy(EXTRA_COLUMNS, 0, ALL_COLUMNS, COLUMNS.length, EXTRA_COLUMNS.length);
@@ -134,6 +145,14 @@ public class JobsColumnsFactory implements ColumnsFactory<Job> {
         return ALL_COLUMNS;
     }
 
+    /**
+     * @return the variables and generic information displayed in the extra columns, the only ones
+     * fetched with the job list
+     */
+    public static JobsProjection getProjection() {
+        return PROJECTION;
+    }
+
     protected void buildCommonRecordAttributes(Job item, Record record) {
         record.setAttribute(ID_ATTR.getName(), item.getId());
 
@@ -39,11 +39,13 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.*;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerListeners.JobsUpdatedListener;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.ActionsController;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.JobsController;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.JobsDiff;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.GridColumns;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.view.grid.ItemsListGrid;
 
 import com.google.gwt.user.client.Window;
 import com.smartgwt.client.data.DSRequest;
+import com.smartgwt.client.data.Record;
 import com.smartgwt.client.data.RecordList;
 import com.smartgwt.client.data.SortSpecifier;
 import com.smartgwt.client.types.Alignment;
@@ -100,6 +102,11 @@ public class JobsListGrid extends ItemsListGrid<Job> implements JobsUpdatedListe
 
     private boolean selSingleSelected;
 
+    /**
+     * Jobs added to the grid on submission, before the server lists them.
+     */
+    private final Set<Integer> submittedJobsIds = new HashSet<>();
+
     private Menu menu;
 
     private MenuItem actionsItem;
@@ -201,19 +208,132 @@ public class JobsListGrid extends ItemsListGrid<Job> implements JobsUpdatedListe
         this.ds.invalidateCache();
         RecordList data = new RecordList();
         for (Job j : jobs.values()) {
-            JobRecord jobRecord = new JobRecord(j);
-            this.columnsFactory.buildRecord(j, jobRecord);
-            data.add(jobRecord);
-
-            if (selectedJobsIds != null && selectedJobsIds.contains(j.getId())) {
-                jobRecord.setAttribute("isSelected", true);
-            }
+            data.add(buildJobRecord(j, selectedJobsIds));
         }
 
         this.ds.setCacheData(data.toArray());
         data.destroy();
+        this.submittedJobsIds.clear();
         applyCurrentLocalFilter();
 
+        selectJobFromUrlOnce();
+    }
+
+    /**
+     * Applies the difference to the datasource, and to the displayed rows when the jobs
+     * only changed in place, without rebuilding the whole grid.
+     * The grid is rebuilt when most of the jobs changed, e.g. when another page is displayed.
+     */
+    @Override
+    public void jobsUpdated(Map<Integer, Job> jobs, JobsDiff diff) {
+        if (diff.getAdded().size() + diff.getRemoved().size() > jobs.size() / 2) {
+            jobsUpdated(jobs);
+            return;
+        }
+
+        if (!diff.isEmpty() || !this.submittedJobsIds.isEmpty()) {
+            applyDiff(jobs, diff);
+        }
+
+        selectJobFromUrlOnce();
+    }
+
+    private void applyDiff(Map<Integer, Job> jobs, JobsDiff diff) {
+        List<Integer> selectedJobsIds = this.controller.getModel().getSelectedJobsIds();
+        boolean refetch = this.filter != null || !diff.getAdded().isEmpty() || !diff.getRemoved().isEmpty();
+
+        for (Integer jobId : diff.getRemoved()) {
+            this.ds.removeData(buildIdRecord(jobId));
+        }
+
+        for (Job job : diff.getAdded()) {
+            JobRecord jobRecord = buildJobRecord(job, selectedJobsIds);
+            if (this.submittedJobsIds.remove(job.getId())) {
+                // replaces the record added on submission
+                this.ds.updateData(jobRecord);
+            } else {
+                this.ds.addData(jobRecord);
+            }
+        }
+
+        // jobs submitted by this client that the server does not list
+        for (Integer jobId : this.submittedJobsIds) {
+            if (!jobs.containsKey(jobId)) {
+                this.ds.removeData(buildIdRecord(jobId));
+                refetch = true;
+            }
+        }
+        this.submittedJobsIds.clear();
+
+        RecordList rows = this.getRecordList();
+        for (Job job : diff.getChanged()) {
+            JobRecord jobRecord = buildJobRecord(job, selectedJobsIds);
+
+            // the row is compared before the datasource update, which may share the record with the grid
+            if (!refetch) {
+                int rowNum = rows.findIndex(ID_ATTR.getName(), job.getId());
+                if (rowNum < 0) {
+                    refetch = true;
+                } else if (updateRow(rows.get(rowNum), jobRecord)) {
+                    // a sorted field changed: the row may have to move
+                    refetch = true;
+                } else {
+                    this.refreshRow(rowNum);
+                }
+            }
+
+            this.ds.updateData(jobRecord);
+        }
+
+        if (refetch) {
+            applyCurrentLocalFilter();
+        }
+    }
+
+    /**
+     * Copies the changed fields of the job record to the displayed row.
+     *
+     * @return true if one of the changed fields is used to sort the grid
+     */
+    private boolean updateRow(Record row, JobRecord jobRecord) {
+        Set<String> sortFields = new HashSet<>();
+        SortSpecifier[] sort = this.getSort();
+        if (sort != null) {
+            for (SortSpecifier sortSpecifier : sort) {
+                sortFields.add(sortSpecifier.getField());
+            }
+        }
+
+        boolean sortChanged = false;
+        row.setAttribute(JobRecord.JOB_ATTR, JobRecord.getJob(jobRecord));
+        for (GridColumns column : this.columnsFactory.getColumns()) {
+            String name = column.getName();
+            Object value = jobRecord.getAttributeAsObject(name);
+            if (!Objects.equals(value, row.getAttributeAsObject(name))) {
+                row.setAttribute(name, value);
+                sortChanged |= sortFields.contains(name);
+            }
+        }
+        return sortChanged;
+    }
+
+    private JobRecord buildJobRecord(Job job, List<Integer> selectedJobsIds) {
+        JobRecord jobRecord = new JobRecord(job);
+        this.columnsFactory.buildRecord(job, jobRecord);
+
+        if (selectedJobsIds != null && selectedJobsIds.contains(job.getId())) {
+            jobRecord.setAttribute("isSelected", true);
+        }
+        return jobRecord;
+    }
+
+    private Record buildIdRecord(int jobId) {
+        Record record = new Record();
+        record.setAttribute(ID_ATTR.getName(), jobId);
+        return record;
+    }
+
+    private void selectJobFromUrlOnce() {
         //select the job given in the URL if it has not been automatically selected before
         if (!isJobFromUrlAutoSelected && selectJobIdFromUrl()) {
             isJobFromUrlAutoSelected = true;
@@ -228,6 +348,7 @@ public class JobsListGrid extends ItemsListGrid<Job> implements JobsUpdatedListe
     @Override
     public void jobSubmitted(Job j) {
         JobRecord jr = new JobRecord(j);
+        this.submittedJobsIds.add(j.getId());
         DSRequest customErrorHandling = new DSRequest();
         customErrorHandling.setWillHandleError(true);
         this.ds.addData(jr, (dsResponse, o, dsRequest) -> {
@@ -0,0 +1,270 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static com.google.common.net.UrlEscapers.urlPathSegmentEscaper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.ow2.proactive_grid_cloud_portal.common.server.SessionLogins;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+
+/**
+ * Caches the workflow buckets and the workflows of each bucket for each user, and the
+ * workflows imported from the catalog for all the portal sessions.
+ * <p>
+ * A cached response that a user got or revalidated less than the freshness window ago is served
+ * to this user without contacting the catalog. Otherwise the catalog is asked, with the session of
+ * the caller, whether the response is still current: the request carries the entity tag of the
+ * cached response and the catalog answers with no content when it did not change. The entity tag
+ * of a listing is not known to depend on the rights of the caller, so listings are only
+ * shared between the sessions of a same user, while the content of a workflow is shared by
+ * all the users allowed to read it. Listings and workflows are thus only transferred again
+ * once they changed in the catalog. Responses without an entity tag are not cached.
+ * <p>
+ * The least recently used responses are evicted once their total size exceeds the limit.
+ */
+public class CatalogCache implements CatalogCacheMBean {
+
+    static final String WORKFLOW_KIND = "kind=Workflow%2Fstandard";
+
+    private final String catalogUrl;
+
+    private final SessionLogins sessionLogins;
+
+    private final Fetcher fetcher;
+
+    private final long freshMillis;
+
+    private final Cache<String, Entry> entries;
+
+    private final AtomicLong freshHits = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param catalogUrl base URL of the catalog REST API
+     * @param maxBytes maximum total size of the cached responses, 0 disables the cache
+     * @param freshMillis time during which a response got by a user is served to this user without
+     *                    revalidation, 0 to revalidate on each use
+     * @param sessionLogins logins of the users owning the sessions
+     * @param fetcher sends the requests to the catalog
+     */
+    public CatalogCache(String catalogUrl, long maxBytes, long freshMillis, SessionLogins sessionLogins,
+            Fetcher fetcher) {
+        this.catalogUrl = catalogUrl;
+        this.freshMillis = freshMillis;
+        this.sessionLogins = sessionLogins;
+        this.fetcher = fetcher;
+        this.entries = CacheBuilder.newBuilder()
+                                   .maximumWeight(maxBytes)
+                                   .weigher((String key, Entry entry) -> key.length() + entry.content.length)
+                                   .build();
+    }
+
+    /**
+     * @param httpClient client used to send the requests to the catalog
+     * @return fetcher sending conditional GET requests with the given client
+     */
+    public static Fetcher httpFetcher(CloseableHttpClient httpClient) {
+        return (url, sessionId, entityTag) -> {
+            HttpGet get = new HttpGet(url);
+            get.addHeader("sessionId", sessionId);
+            if (entityTag != null) {
+                get.addHeader(HttpHeaders.IF_NONE_MATCH, entityTag);
+            }
+            try (CloseableHttpResponse response = httpClient.execute(get)) {
+                Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+                HttpEntity entity = response.getEntity();
+                return new CatalogResponse(response.getStatusLine().getStatusCode(),
+                                           etag == null ? null : etag.getValue(),
+                                           entity == null ? new byte[0] : EntityUtils.toByteArray(entity));
+            }
+        };
+    }
+
+    /**
+     * @param sessionId session of the caller
+     * @return JSON array of the buckets containing workflows
+     */
+    public byte[] getBuckets(String sessionId) throws IOException, RestServerException, ServiceException {
+        String path = "/buckets?" + WORKFLOW_KIND;
+        String login = sessionLogins.getLogin(sessionId);
+        return get(login + ":" + path, path, sessionId, login);
+    }
+
+    /**
+     * @param sessionId session of the caller
+     * @param bucketName bucket to list
+     * @return JSON array of the workflows of the bucket
+     */
+    public byte[] getWorkflows(String sessionId, String bucketName)
+            throws IOException, RestServerException, ServiceException {
+        String path = "/buckets/" + urlPathSegmentEscaper().escape(bucketName) + "/resources?" + WORKFLOW_KIND;
+        String login = sessionLogins.getLogin(sessionId);
+        return get(login + ":" + path, path, sessionId, login);
+    }
+
+    /**
+     * @param sessionId session of the caller
+     * @param bucketName bucket of the workflow
+     * @param workflowName name of the workflow
+     * @return XML of the latest revision of the workflow
+     */
+    public byte[] getWorkflow(String sessionId, String bucketName, String workflowName)
+            throws IOException, RestServerException, ServiceException {
+        String path = "/buckets/" + urlPathSegmentEscaper().escape(bucketName) + "/resources/" +
+                      urlPathSegmentEscaper().escape(workflowName) + "/raw";
+        return get(path, path, sessionId, sessionLogins.getLogin(sessionId));
+    }
+
+    @Override
+    public long getFreshHits() {
+        return freshHits.get();
+    }
+
+    @Override
+    public long getHits() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @param key key of the response in the cache
+     * @param path path of the resource in the catalog
+     * @param login login of the caller, a response is only served without revalidation to the users who
+     *              got it from the catalog
+     */
+    private byte[] get(String key, String path, String sessionId, String login)
+            throws IOException, RestServerException {
+        long now = System.currentTimeMillis();
+        Entry cached = entries.getIfPresent(key);
+        if (cached != null && cached.isFresh(login, now - freshMillis)) {
+            freshHits.incrementAndGet();
+            return cached.content;
+        }
+
+        CatalogResponse response = fetcher.fetch(catalogUrl + path,
+                                                 sessionId,
+                                                 cached == null ? null : cached.entityTag);
+
+        if (cached != null && response.status == HttpStatus.SC_NOT_MODIFIED) {
+            hits.incrementAndGet();
+            cached.validated(login, now);
+            return cached.content;
+        }
+        misses.incrementAndGet();
+
+        if (response.status != HttpStatus.SC_OK) {
+            throw new RestServerException(response.status, new String(response.content, StandardCharsets.UTF_8));
+        }
+        if (response.entityTag != null) {
+            Entry entry = new Entry(response.entityTag, response.content);
+            entry.validated(login, now);
+            entries.put(key, entry);
+        } else {
+            entries.invalidate(key);
+        }
+        return response.content;
+    }
+
+    /**
+     * Sends a request to the catalog.
+     */
+    @FunctionalInterface
+    public interface Fetcher {
+
+        /**
+         * @param url URL of the requested resource
+         * @param sessionId session of the caller
+         * @param entityTag entity tag of the cached response, to send as If-None-Match, or null
+         * @return response of the catalog
+         */
+        CatalogResponse fetch(String url, String sessionId, String entityTag) throws IOException;
+    }
+
+    public static final class CatalogResponse {
+
+        private final int status;
+
+        private final String entityTag;
+
+        private final byte[] content;
+
+        public CatalogResponse(int status, String entityTag, byte[] content) {
+            this.status = status;
+            this.entityTag = entityTag;
+            this.content = content;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String entityTag;
+
+        private final byte[] content;
+
+        /** last time each user got this response from the catalog, or had it revalidated */
+        private final Map<String, Long> validations = new ConcurrentHashMap<>();
+
+        private Entry(String entityTag, byte[] content) {
+            this.entityTag = entityTag;
+            this.content = content;
+        }
+
+        private boolean isFresh(String login, long validatedAfter) {
+            Long validation = validations.get(login);
+            return validation != null && validation > validatedAfter;
+        }
+
+        private void validated(String login, long time) {
+            validations.put(login, time);
+        }
+    }
+}
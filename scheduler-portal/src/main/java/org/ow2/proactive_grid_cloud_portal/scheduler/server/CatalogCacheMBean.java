@@ -23,26 +23,26 @@
  * If needed, contact us to obtain a release under GPL Version 2 or 3
  * or a different license than the AGPL.
  */
-package org.ow2.proactive_grid_cloud_portal.scheduler.client;
-
-import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 
+/**
+ * JMX view of the {@link CatalogCache} counters.
+ */
+public interface CatalogCacheMBean {
 
-public class CatalogUrlSchedulerClientBuilder {
+    /**
+     * @return number of responses served from the cache without contacting the catalog
+     */
+    long getFreshHits();
 
-    private String catalogUrl;
+    /**
+     * @return number of responses served from the cache after the catalog confirmed they did not change
+     */
+    long getHits();
 
-    public String getCatalogUrl() {
-        if (this.catalogUrl == null) {
-            String catalogUrlFromConfig = SchedulerConfig.get().getCatalogPublicUrl();
+    /**
+     * @return number of responses transferred from the catalog
+     */
+    long getMisses();
 
-            if (catalogUrlFromConfig == null || catalogUrlFromConfig.isEmpty()) {
-                this.catalogUrl = com.google.gwt.user.client.Window.Location.getHref().replace("/scheduler/", "/") +
-                                  "catalog";
-            } else {
-                this.catalogUrl = catalogUrlFromConfig;
-            }
-        }
-        return this.catalogUrl;
-    }
 }
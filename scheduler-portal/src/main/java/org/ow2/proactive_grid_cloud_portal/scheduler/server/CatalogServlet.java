@@ -0,0 +1,89 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.ow2.proactive_grid_cloud_portal.common.server.Service;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Lists the workflows of the catalog that can be imported in the submit window.
+ * <p>
+ * Without parameter, the buckets containing workflows are returned. With a 'bucketName'
+ * parameter, the workflows of this bucket are returned. Both are the JSON arrays returned
+ * by the catalog for the session given in the 'sessionId' header, served from the
+ * {@link CatalogCache} when they did not change for the user of the session.
+ */
+@SuppressWarnings("serial")
+public class CatalogServlet extends HttpServlet {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogServlet.class);
+
+    private static final String PARAMS_SESSION_ID = "sessionId";
+
+    private static final String PARAMS_BUCKET_NAME = "bucketName";
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String sessionId = request.getHeader(PARAMS_SESSION_ID);
+        String bucketName = request.getParameter(PARAMS_BUCKET_NAME);
+        if (sessionId == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Header 'sessionId' is missing");
+            return;
+        }
+
+        CatalogCache catalogCache = ((SchedulerServiceImpl) Service.get()).getCatalogCache();
+        byte[] content;
+        try {
+            content = bucketName == null ? catalogCache.getBuckets(sessionId)
+                                         : catalogCache.getWorkflows(sessionId, bucketName);
+        } catch (RestServerException e) {
+            response.sendError(e.getStatus(), e.getMessage());
+            return;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to list the workflows of the catalog", e);
+            response.sendError(HttpServletResponse.SC_BAD_GATEWAY, "Catalog is not reachable: " + e.getMessage());
+            return;
+        } catch (ServiceException e) {
+            LOGGER.warn("Failed to get the user of the session", e);
+            response.sendError(HttpServletResponse.SC_BAD_GATEWAY, "Scheduler is not reachable: " + e.getMessage());
+            return;
+        }
+
+        response.setContentType("application/json");
+        response.setContentLength(content.length);
+        response.getOutputStream().write(content);
+    }
+}
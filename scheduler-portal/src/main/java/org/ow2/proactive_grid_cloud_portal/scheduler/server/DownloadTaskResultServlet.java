@@ -33,15 +33,25 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.codehaus.jettison.json.JSONObject;
 import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONUtils;
 import org.ow2.proactive_grid_cloud_portal.common.server.Service;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 /**
  * The servlet which is called when the result of a task is wanted to be downloaded
+ * <p>
+ * When the scheduler announces the length of the result, a single byte range can be requested
+ * with the Range header, so that interrupted downloads can be resumed. The range is forwarded to
+ * the scheduler; if the scheduler does not serve ranges, the beginning of the result is still
+ * downloaded from the scheduler and skipped, only the requested range being sent to the client.
  * @author ahagea
  *
  */
@@ -56,6 +66,8 @@ public class DownloadTaskResultServlet extends HttpServlet {
 
     public static final String METADATA_FILE_EXTENSION = "file.extension";
 
+    private static final String BYTES_UNIT = "bytes";
+
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
         download(request, response);
@@ -72,13 +84,12 @@ public class DownloadTaskResultServlet extends HttpServlet {
         String destination = request.getParameter("destination");
         String sessionId = request.getParameter("sessionId");
 
-        InputStream is = null;
+        CloseableHttpResponse result = null;
         ServletOutputStream out = null;
         try {
 
-            JSONObject json = new JSONObject(((SchedulerServiceImpl) Service.get()).getTaskResultMetadata(sessionId,
-                                                                                                          jobId,
-                                                                                                          taskId));
+            String metadata = ((SchedulerServiceImpl) Service.get()).getTaskResultMetadata(sessionId, jobId, taskId);
+            JSONObject json = new JSONObject(metadata);
             String contentType;
             if (destination.equals("file")) {
                 contentType = "application/octet-stream";
@@ -105,15 +116,35 @@ public class DownloadTaskResultServlet extends HttpServlet {
             response.setHeader("Location", "job" + jobId + "_" + taskId + ".result");
 
             out = response.getOutputStream();
-            if (contentType.equals("text/plain")) {
-                is = ((SchedulerServiceImpl) Service.get()).getTaskResult(sessionId, jobId, taskId);
-            } else {
-                is = ((SchedulerServiceImpl) Service.get()).getTaskSerializedResult(sessionId, jobId, taskId);
+            SchedulerServiceImpl service = (SchedulerServiceImpl) Service.get();
+            boolean serialized = !contentType.equals("text/plain");
+            String version = jobId + "/" + taskId + "/" + metadata;
+            byte[] buffer = new byte[SchedulerConfig.get().getDownloadBufferSize()];
+
+            String range = request.getHeader("Range");
+            result = service.getTaskResultResponse(sessionId, jobId, taskId, serialized, forwardableRange(range));
+            int status = result.getStatusLine().getStatusCode();
+            if (status == HttpServletResponse.SC_PARTIAL_CONTENT) {
+                ContentRange served = ContentRange.parse(result.getFirstHeader("Content-Range"));
+                if (served != null && ifRangeMatches(request, etag(served.length, version))) {
+                    sendServedRange(response, result.getEntity().getContent(), out, buffer, served, version);
+                    return;
+                }
             }
+            if (status != HttpServletResponse.SC_OK) {
+                // the range served by the scheduler can not be used, the range is computed here instead
+                IOUtils.closeQuietly(result);
+                result = service.getTaskResultResponse(sessionId, jobId, taskId, serialized, null);
+            }
+
+            HttpEntity entity = result.getEntity();
+            InputStream is = entity.getContent();
+            long length = entity.getContentLength();
 
-            int buf;
-            while ((buf = is.read()) != -1) {
-                out.write(buf);
+            if (length < 0) {
+                IOUtils.copyLarge(is, out, buffer);
+            } else {
+                sendWithRange(request, response, is, out, buffer, length, version);
             }
 
         } catch (Throwable t) {
@@ -121,10 +152,197 @@ public class DownloadTaskResultServlet extends HttpServlet {
             String str = "Failed to download result: " + JSONUtils.getJsonErrorMessage(t);
             out.write(str.getBytes());
         } finally {
-            if (is != null)
-                is.close();
+            // closing the response without reading the end of a partially sent result drops the
+            // connection to the scheduler, instead of downloading the rest of the result
+            IOUtils.closeQuietly(result);
             out.flush();
             out.close();
         }
     }
+
+    /**
+     * @return the Range header to forward to the scheduler, only a single byte range is forwarded
+     */
+    static String forwardableRange(String range) {
+        if (range == null || !range.startsWith(BYTES_UNIT + "=") || range.indexOf(',') >= 0) {
+            return null;
+        }
+        return range;
+    }
+
+    /**
+     * @param version identifies the result: the scheduler does not version task results, so the validator
+     *                is derived from the task, its result metadata and length, which changes in most cases
+     *                when a task is re-executed
+     */
+    private static String etag(long length, String version) {
+        return "\"" + Long.toHexString(length) + "-" + Integer.toHexString(version.hashCode()) + "\"";
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag) {
+        String ifRange = request.getHeader("If-Range");
+        return ifRange == null || ifRange.equals(etag);
+    }
+
+    /**
+     * Sends the range already served by the scheduler, without downloading the rest of the result.
+     */
+    private void sendServedRange(HttpServletResponse response, InputStream is, ServletOutputStream out,
+            byte[] buffer, ContentRange served, String version) throws IOException {
+        response.setHeader("Accept-Ranges", BYTES_UNIT);
+        response.setHeader("ETag", etag(served.length, version));
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setHeader("Content-Range",
+                           BYTES_UNIT + " " + served.range.first + "-" + served.range.last + "/" + served.length);
+        response.setHeader("Content-Length", Long.toString(served.range.length()));
+        IOUtils.copyLarge(is, out, 0, served.range.length(), buffer);
+    }
+
+    /**
+     * Sends the result, or the byte range asked by the Range header if it applies to the current result.
+     * The result is read from its beginning, the bytes before the range are skipped.
+     *
+     * @param length length of the whole result
+     * @param version identifies the result, see {@link #etag(long, String)}
+     */
+    private void sendWithRange(HttpServletRequest request, HttpServletResponse response, InputStream is,
+            ServletOutputStream out, byte[] buffer, long length, String version) throws IOException {
+        String etag = etag(length, version);
+        response.setHeader("Accept-Ranges", BYTES_UNIT);
+        response.setHeader("ETag", etag);
+
+        ByteRange range = null;
+        if (ifRangeMatches(request, etag)) {
+            range = ByteRange.parse(request.getHeader("Range"), length);
+        }
+
+        if (range == null) {
+            response.setHeader("Content-Length", Long.toString(length));
+            IOUtils.copyLarge(is, out, buffer);
+        } else if (range == ByteRange.UNSATISFIABLE) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader("Content-Range", BYTES_UNIT + " */" + length);
+        } else {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", BYTES_UNIT + " " + range.first + "-" + range.last + "/" + length);
+            response.setHeader("Content-Length", Long.toString(range.length()));
+            IOUtils.copyLarge(is, out, range.first, range.length(), buffer);
+        }
+    }
+
+    /**
+     * Byte range served by the scheduler, from its Content-Range header.
+     */
+    static final class ContentRange {
+
+        final ByteRange range;
+
+        /**
+         * length of the whole result
+         */
+        final long length;
+
+        ContentRange(ByteRange range, long length) {
+            this.range = range;
+            this.length = length;
+        }
+
+        /**
+         * @param header Content-Range header of a partial response, possibly null
+         * @return the served range, or null if the header is absent, invalid or does not give the length
+         */
+        static ContentRange parse(Header header) {
+            return header == null ? null : parse(header.getValue());
+        }
+
+        static ContentRange parse(String header) {
+            if (header == null || !header.startsWith(BYTES_UNIT + " ")) {
+                return null;
+            }
+            String spec = header.substring(BYTES_UNIT.length() + 1).trim();
+            int dash = spec.indexOf('-');
+            int slash = spec.indexOf('/');
+            if (dash < 0 || slash < dash) {
+                return null;
+            }
+            try {
+                long first = Long.parseLong(spec.substring(0, dash).trim());
+                long last = Long.parseLong(spec.substring(dash + 1, slash).trim());
+                long length = Long.parseLong(spec.substring(slash + 1).trim());
+                if (first < 0 || last < first || last >= length) {
+                    return null;
+                }
+                return new ContentRange(new ByteRange(first, last), length);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Single byte range of a Range header, positions included.
+     */
+    static final class ByteRange {
+
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        final long first;
+
+        final long last;
+
+        ByteRange(long first, long last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        long length() {
+            return last - first + 1;
+        }
+
+        /**
+         * @param header value of the Range header, possibly null
+         * @param length length of the whole content
+         * @return the requested range, bounded by the content length, {@link #UNSATISFIABLE} if it starts
+         * after the end of the content, or null if the header is absent, invalid or asks for several ranges,
+         * in which case the whole content is sent
+         */
+        static ByteRange parse(String header, long length) {
+            if (header == null || !header.startsWith(BYTES_UNIT + "=")) {
+                return null;
+            }
+            String spec = header.substring(BYTES_UNIT.length() + 1).trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0 || spec.indexOf(',') >= 0) {
+                return null;
+            }
+            String firstPosition = spec.substring(0, dash).trim();
+            String lastPosition = spec.substring(dash + 1).trim();
+            try {
+                long first;
+                long last;
+                if (firstPosition.isEmpty()) {
+                    long suffixLength = Long.parseLong(lastPosition);
+                    if (suffixLength < 0) {
+                        return null;
+                    } else if (suffixLength == 0) {
+                        return UNSATISFIABLE;
+                    }
+                    first = Math.max(0, length - suffixLength);
+                    last = length - 1;
+                } else {
+                    first = Long.parseLong(firstPosition);
+                    last = lastPosition.isEmpty() ? Long.MAX_VALUE : Long.parseLong(lastPosition);
+                    if (first < 0 || last < first) {
+                        return null;
+                    }
+                }
+                if (first >= length) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(first, Math.min(last, length - 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
 }
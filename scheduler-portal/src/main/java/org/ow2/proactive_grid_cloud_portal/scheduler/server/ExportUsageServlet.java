@@ -25,12 +25,17 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -38,21 +43,36 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.io.IOUtils;
 import org.ow2.proactive_grid_cloud_portal.common.server.Service;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobUsage;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.TaskUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
+/**
+ * Exports the usage of the scheduler as CSV.
+ * <p>
+ * Job usages are converted while they are read from the REST server and written straight
+ * to the response, compressed when the client accepts gzip, so that exporting a large
+ * period does not require holding the whole report in memory.
+ */
 public class ExportUsageServlet extends HttpServlet {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExportUsageServlet.class);
+
     private static final String ISO_8601_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSz";
 
     private static final String LINE_SEPARATOR = "\n";
 
+    private static final int BUFFER_SIZE = 8192;
+
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        InputStream usage = null;
         try {
             String sessionId = request.getParameter("sessionId");
             SimpleDateFormat formatter = new SimpleDateFormat(ISO_8601_FORMAT);
@@ -60,14 +80,15 @@ public class ExportUsageServlet extends HttpServlet {
             Date startDate = getDateParameter(request, formatter, "startDate");
             Date endDate = getDateParameter(request, formatter, "endDate");
 
-            String csvContent = csvExport(sessionId, user, startDate, endDate);
+            // opened before writing anything so that a REST failure can still be reported as an error
+            usage = ((SchedulerServiceImpl) Service.get()).getUsageStream(sessionId, user, startDate, endDate);
 
             response.setContentType("text/csv");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
             response.setHeader("Content-Disposition", "attachment; filename=\"SchedulerUsage.csv\"");
-            PrintWriter writer = response.getWriter();
-            writer.write(csvContent);
-            writer.flush();
-            writer.close();
+            response.setHeader("Vary", "Accept-Encoding");
+
+            csvExport(usage, openWriter(request, response));
         } catch (ParseException e) {
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Dates parameter should use ISO 8601 format");
         } catch (ServiceException e) {
@@ -76,6 +97,16 @@ public class ExportUsageServlet extends HttpServlet {
         } catch (RestServerException e) {
             response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
                                "Failed to retrieve usage data: " + e.getMessage());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to export usage data", e);
+            if (response.isCommitted()) {
+                // the report is already partially sent, the client only sees a truncated file
+                throw e;
+            }
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                               "Failed to retrieve usage data: " + e.getMessage());
+        } finally {
+            IOUtils.closeQuietly(usage);
         }
     }
 
@@ -84,47 +115,54 @@ public class ExportUsageServlet extends HttpServlet {
         return formatter.parse(request.getParameter(parameterName));
     }
 
-    private String csvExport(String sessionId, String user, Date startDate, Date endDate)
-            throws ServiceException, RestServerException, IOException {
+    private Writer openWriter(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        OutputStream output = response.getOutputStream();
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader("Content-Encoding", "gzip");
+            output = new GZIPOutputStream(output, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private void csvExport(InputStream usage, Writer writer) throws IOException {
         Object[] header = { "Owner", "Tenant", "Project", "Job Id", "Parent Job Id", "Job Status", "Job Name",
                             "Submitted Time", "Job Duration", "Task Id", "Task Name", "Task Status", "Task Tag",
                             "Task Execution Host Name", "Task Node Number", "Executions", "Node Failures",
                             "Task Start Time", "Task Finished Time", "Task Duration", "Task Description" };
-        List<JobUsage> jobUsages = ((SchedulerServiceImpl) Service.get()).getUsage(sessionId, user, startDate, endDate);
-        StringBuilder sb = new StringBuilder();
         CSVFormat csvFileFormat = CSVFormat.DEFAULT.withRecordSeparator(LINE_SEPARATOR);
-        CSVPrinter csvFilePrinter = new CSVPrinter(sb, csvFileFormat);
-        csvFilePrinter.printRecord(header);
-        for (JobUsage jobUsage : jobUsages) {
-            for (TaskUsage taskUsage : jobUsage.getTaskUsages()) {
-                csvFilePrinter.printRecord(jobUsage.getOwner(),
-                                           jobUsage.getTenant() == null ? "" : jobUsage.getTenant(),
-                                           jobUsage.getProject(),
-                                           jobUsage.getJobId(),
-                                           jobUsage.getParentId(),
-                                           jobUsage.getStatus(),
-                                           jobUsage.getJobName(),
-                                           jobUsage.getSubmittedTime(),
-                                           jobUsage.getJobDuration(),
-                                           taskUsage.getTaskId(),
-                                           taskUsage.getTaskName(),
-                                           taskUsage.getTaskStatus(),
-                                           taskUsage.getTaskTag() == null ? "" : taskUsage.getTaskTag(),
-                                           taskUsage.getExecutionHostName(),
-                                           taskUsage.getTaskNodeNumber(),
-                                           (taskUsage.getMaxNumberOfExecution() -
-                                            taskUsage.getNumberOfExecutionLeft()) + " / " +
-                                                                          taskUsage.getMaxNumberOfExecution(),
-                                           (taskUsage.getMaxNumberOfExecutionOnFailure() -
-                                            taskUsage.getNumberOfExecutionOnFailureLeft()) + " / " + taskUsage.getMaxNumberOfExecutionOnFailure(),
-                                           taskUsage.getTaskStartTime(),
-                                           taskUsage.getTaskFinishedTime(),
-                                           taskUsage.getTaskExecutionDuration(),
-                                           taskUsage.getTaskDescription());
-            }
+        try (CSVPrinter csvFilePrinter = new CSVPrinter(writer, csvFileFormat)) {
+            csvFilePrinter.printRecord(header);
+            UsageJsonReader.readJobUsages(usage, jobUsage -> printJobUsage(csvFilePrinter, jobUsage));
         }
+    }
 
-        csvFilePrinter.close();
-        return sb.toString();
+    private void printJobUsage(CSVPrinter csvFilePrinter, JobUsage jobUsage) throws IOException {
+        for (TaskUsage taskUsage : jobUsage.getTaskUsages()) {
+            csvFilePrinter.printRecord(jobUsage.getOwner(),
+                                       jobUsage.getTenant() == null ? "" : jobUsage.getTenant(),
+                                       jobUsage.getProject(),
+                                       jobUsage.getJobId(),
+                                       jobUsage.getParentId(),
+                                       jobUsage.getStatus(),
+                                       jobUsage.getJobName(),
+                                       jobUsage.getSubmittedTime(),
+                                       jobUsage.getJobDuration(),
+                                       taskUsage.getTaskId(),
+                                       taskUsage.getTaskName(),
+                                       taskUsage.getTaskStatus(),
+                                       taskUsage.getTaskTag() == null ? "" : taskUsage.getTaskTag(),
+                                       taskUsage.getExecutionHostName(),
+                                       taskUsage.getTaskNodeNumber(),
+                                       (taskUsage.getMaxNumberOfExecution() - taskUsage.getNumberOfExecutionLeft()) +
+                                                                      " / " + taskUsage.getMaxNumberOfExecution(),
+                                       (taskUsage.getMaxNumberOfExecutionOnFailure() -
+                                        taskUsage.getNumberOfExecutionOnFailureLeft()) + " / " +
+                                                                                         taskUsage.getMaxNumberOfExecutionOnFailure(),
+                                       taskUsage.getTaskStartTime(),
+                                       taskUsage.getTaskFinishedTime(),
+                                       taskUsage.getTaskExecutionDuration(),
+                                       taskUsage.getTaskDescription());
+        }
     }
 }
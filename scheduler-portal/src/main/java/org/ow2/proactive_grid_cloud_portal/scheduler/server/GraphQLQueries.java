@@ -28,7 +28,10 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -37,12 +40,16 @@ import org.ow2.proactive.scheduling.api.graphql.beans.input.Jobs;
 import org.ow2.proactive.scheduling.api.graphql.beans.input.Query;
 import org.ow2.proactive.scheduling.api.graphql.common.NullStatus;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobStatus;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.JobsProjection;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.Action;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.Constraint;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.FilterModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 
 /**
  * Queries provider
@@ -53,7 +60,22 @@ public final class GraphQLQueries {
 
     private static final String RETURN_NOTHING_FILTER = "RETURN_NOTHING_FILTER";
 
-    private static GraphQLQueries client;
+    /**
+     * Placeholders of the cursors in the compiled job queries
+     */
+    private static final String START_CURSOR_PLACEHOLDER = "START_CURSOR_PLACEHOLDER";
+
+    private static final String END_CURSOR_PLACEHOLDER = "END_CURSOR_PLACEHOLDER";
+
+    /**
+     * Cursors are opaque strings generated by the scheduling API, they are substituted in the compiled
+     * queries only when the query builder would not have to escape them
+     */
+    private static final Pattern SAFE_CURSOR = Pattern.compile("[A-Za-z0-9+/=_\\-]*");
+
+    private static final int MAX_COMPILED_QUERIES = 1000;
+
+    private static final long COMPILED_QUERIES_EXPIRATION_MINUTES = 30;
 
     /**
      * Logger
@@ -79,19 +101,162 @@ public final class GraphQLQueries {
     private static List<String> PENDING_JOB_STATUSES = Collections.singletonList(JobStatus.PENDING.name()
                                                                                                   .toUpperCase());
 
+    /**
+     * Job queries rendered with cursor placeholders, by filtering and paging parameters. All the tabs
+     * of all the users refresh the job list with the same few parameters, only the cursors change.
+     */
+    private final Cache<JobsQueryKey, String> compiledJobsQueries = CacheBuilder.newBuilder()
+                                                                                .maximumSize(MAX_COMPILED_QUERIES)
+                                                                                .expireAfterAccess(COMPILED_QUERIES_EXPIRATION_MINUTES,
+                                                                                                   TimeUnit.MINUTES)
+                                                                                .build();
+
     private GraphQLQueries() {
     }
 
     public static GraphQLQueries get() {
-        if (client == null) {
-            client = new GraphQLQueries();
-        }
-        return client;
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Lazy and thread safe initialization of the singleton
+     */
+    private static final class Holder {
+
+        private static final GraphQLQueries INSTANCE = new GraphQLQueries();
     }
 
+    /**
+     * @param projection variables and generic information displayed by the jobs grid, null to query all of them
+     */
     public Query getRevisionAndjobsInfoQuery(final String user, final boolean pending, final boolean running,
             final boolean finished, String startCursor, String endCursor, int pageSize, boolean first,
-            FilterModel filterModel) {
+            FilterModel filterModel, JobsProjection projection) {
+        String queryString = getJobsQueryString(user,
+                                                pending,
+                                                running,
+                                                finished,
+                                                startCursor,
+                                                endCursor,
+                                                pageSize,
+                                                first,
+                                                filterModel,
+                                                projection);
+        if (queryString == null) {
+            return null;
+        }
+        return new Query.Builder().query(queryString).build();
+    }
+
+    /**
+     * @return the jobs query string, from the compiled queries when possible, or null if it cannot be built
+     */
+    String getJobsQueryString(final String user, final boolean pending, final boolean running,
+            final boolean finished, String startCursor, String endCursor, int pageSize, boolean first,
+            FilterModel filterModel, JobsProjection projection) {
+        String queryString = null;
+        // the cache key needs the filter, a query without filter is built without the cache
+        if (filterModel != null && isSafeCursor(startCursor) && isSafeCursor(endCursor)) {
+            queryString = getCompiledJobsQuery(new JobsQueryKey(user,
+                                                                pending,
+                                                                running,
+                                                                finished,
+                                                                startCursor != null,
+                                                                endCursor != null,
+                                                                pageSize,
+                                                                first,
+                                                                filterModel,
+                                                                projection),
+                                               filterModel,
+                                               projection,
+                                               startCursor,
+                                               endCursor);
+        }
+        if (queryString == null) {
+            queryString = buildJobsQueryString(user,
+                                               pending,
+                                               running,
+                                               finished,
+                                               startCursor,
+                                               endCursor,
+                                               pageSize,
+                                               first,
+                                               filterModel,
+                                               projection);
+        }
+        return queryString;
+    }
+
+    /**
+     * @return the compiled query of the key with the given cursors, or null if the query cannot be compiled
+     */
+    private String getCompiledJobsQuery(JobsQueryKey key, FilterModel filterModel, JobsProjection projection,
+            String startCursor, String endCursor) {
+        String template = compiledJobsQueries.getIfPresent(key);
+        if (template == null) {
+            template = compileJobsQuery(key, filterModel, projection);
+            if (template == null) {
+                return null;
+            }
+            compiledJobsQueries.put(key, template);
+        }
+
+        String queryString = template;
+        if (startCursor != null) {
+            queryString = queryString.replace(START_CURSOR_PLACEHOLDER, startCursor);
+        }
+        if (endCursor != null) {
+            queryString = queryString.replace(END_CURSOR_PLACEHOLDER, endCursor);
+        }
+        return queryString;
+    }
+
+    /**
+     * Renders the query of the key with cursor placeholders
+     * @return the query string, or null if the placeholders cannot be substituted safely
+     */
+    private String compileJobsQuery(JobsQueryKey key, FilterModel filterModel, JobsProjection projection) {
+        String template = buildJobsQueryString(key.user,
+                                               key.pending,
+                                               key.running,
+                                               key.finished,
+                                               key.hasStartCursor ? START_CURSOR_PLACEHOLDER : null,
+                                               key.hasEndCursor ? END_CURSOR_PLACEHOLDER : null,
+                                               key.pageSize,
+                                               key.first,
+                                               filterModel,
+                                               projection);
+        if (template == null ||
+            countOccurrences(template, START_CURSOR_PLACEHOLDER) != (key.hasStartCursor ? 1 : 0) ||
+            countOccurrences(template, END_CURSOR_PLACEHOLDER) != (key.hasEndCursor ? 1 : 0)) {
+            // e.g. a filter value contains a placeholder
+            return null;
+        }
+        return template;
+    }
+
+    private static boolean isSafeCursor(String cursor) {
+        return cursor == null || (SAFE_CURSOR.matcher(cursor).matches() &&
+                                  !cursor.contains(START_CURSOR_PLACEHOLDER) &&
+                                  !cursor.contains(END_CURSOR_PLACEHOLDER));
+    }
+
+    private static int countOccurrences(String string, String substring) {
+        int count = 0;
+        for (int index = string.indexOf(substring); index >= 0; index = string.indexOf(substring,
+                                                                                         index + substring.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Builds the jobs query string without the compiled queries
+     * @return the query string, or null if it cannot be built
+     */
+    String buildJobsQueryString(final String user, final boolean pending, final boolean running,
+            final boolean finished, String startCursor, String endCursor, int pageSize, boolean first,
+            FilterModel filterModel, JobsProjection projection) {
         try {
             Jobs.Builder jobsBuilder = new Jobs.Builder().excludeDataManagement().excludeRemovedTime();
 
@@ -111,8 +276,7 @@ public final class GraphQLQueries {
             List<JobInput> input = getJobInputs(user, pending, running, finished, filterModel);
             jobsBuilder.input(input);
 
-            Query.Builder queryBuilder = new Query.Builder().query(jobsBuilder.build().getQueryString());
-            return queryBuilder.build();
+            return JobsQueryProjection.projectQuery(jobsBuilder.build().getQueryString(), projection);
         } catch (Exception e) {
             return null;
         }
@@ -862,4 +1026,84 @@ public final class GraphQLQueries {
                 return null;
         }
     }
+
+    /**
+     * Parameters of a job query, except the value of the cursors
+     */
+    private static final class JobsQueryKey {
+
+        private final String user;
+
+        private final boolean pending;
+
+        private final boolean running;
+
+        private final boolean finished;
+
+        private final boolean hasStartCursor;
+
+        private final boolean hasEndCursor;
+
+        private final int pageSize;
+
+        private final boolean first;
+
+        private final boolean matchAny;
+
+        private final List<Constraint> constraints;
+
+        /** whether the variables and generic information are queried */
+        private final boolean withVariables;
+
+        private final boolean withGenericInformation;
+
+        private JobsQueryKey(String user, boolean pending, boolean running, boolean finished, boolean hasStartCursor,
+                boolean hasEndCursor, int pageSize, boolean first, FilterModel filterModel,
+                JobsProjection projection) {
+            this.user = user;
+            this.pending = pending;
+            this.running = running;
+            this.finished = finished;
+            this.hasStartCursor = hasStartCursor;
+            this.hasEndCursor = hasEndCursor;
+            this.pageSize = pageSize;
+            this.first = first;
+            this.matchAny = filterModel.isMatchAny();
+            this.constraints = new ArrayList<>(filterModel.getConstraints());
+            this.withVariables = projection == null || !projection.getVariables().isEmpty();
+            this.withGenericInformation = projection == null || !projection.getGenericInformation().isEmpty();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            JobsQueryKey that = (JobsQueryKey) o;
+            return pending == that.pending && running == that.running && finished == that.finished &&
+                   hasStartCursor == that.hasStartCursor && hasEndCursor == that.hasEndCursor &&
+                   pageSize == that.pageSize && first == that.first && matchAny == that.matchAny &&
+                   withVariables == that.withVariables && withGenericInformation == that.withGenericInformation &&
+                   Objects.equals(user, that.user) && constraints.equals(that.constraints);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(user,
+                                pending,
+                                running,
+                                finished,
+                                hasStartCursor,
+                                hasEndCursor,
+                                pageSize,
+                                first,
+                                matchAny,
+                                constraints,
+                                withVariables,
+                                withGenericInformation);
+        }
+    }
 }
@@ -0,0 +1,221 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+
+/**
+ * Rewrites a job descriptor while it is parsed, without building its DOM: the values of
+ * the job variables are replaced and a START_AT generic information can be added.
+ * <p>
+ * Only the element being read is kept in memory, the rest of the descriptor is copied as is
+ * to the output, in UTF-8.
+ */
+final class JobDescriptorRewriter {
+
+    private static final String VARIABLE = "variable";
+
+    private static final String TASK = "task";
+
+    private static final String GENERIC_INFORMATION = "genericInformation";
+
+    private static final String INFO = "info";
+
+    private static final String TASK_FLOW = "taskFlow";
+
+    private static final String NAME = "name";
+
+    private static final String VALUE = "value";
+
+    private static final String START_AT = "START_AT";
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private final Map<String, String> variables;
+
+    private final String startAt;
+
+    /**
+     * @param variables new values of the job variables, by name, the other variables are left untouched
+     * @param startAt value of the START_AT generic information to add, null or empty to add none
+     */
+    JobDescriptorRewriter(Map<String, String> variables, String startAt) {
+        this.variables = variables;
+        this.startAt = startAt == null || startAt.isEmpty() ? null : startAt;
+    }
+
+    /**
+     * @param job the job descriptor to rewrite
+     * @param output receives the rewritten descriptor, not closed
+     */
+    void rewrite(Reader job, OutputStream output) throws XMLStreamException {
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(job);
+        XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(output, StandardCharsets.UTF_8.name());
+        try {
+            rewrite(reader, writer);
+            writer.flush();
+        } finally {
+            reader.close();
+            writer.close();
+        }
+    }
+
+    private void rewrite(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+        // local names of the elements enclosing the current one, the root first
+        List<String> ancestors = new ArrayList<>();
+        boolean startAtPending = startAt != null;
+
+        // the output encoding may differ from the declared one
+        String version = reader.getVersion();
+        writer.writeStartDocument(StandardCharsets.UTF_8.name(), version == null ? "1.0" : version);
+
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    String localName = reader.getLocalName();
+                    boolean jobChild = ancestors.size() == 1;
+                    if (startAtPending && jobChild && TASK_FLOW.equals(localName)) {
+                        // no generic information on the job, it is inserted right before the task flow
+                        writer.writeStartElement(nullToEmpty(reader.getPrefix()),
+                                                 GENERIC_INFORMATION,
+                                                 nullToEmpty(reader.getNamespaceURI()));
+                        writeStartAt(writer, reader);
+                        writer.writeEndElement();
+                        startAtPending = false;
+                    }
+                    String newValue = null;
+                    if (VARIABLE.equals(localName) && !isTaskVariable(ancestors)) {
+                        String name = reader.getAttributeValue(null, NAME);
+                        newValue = name == null ? null : variables.get(name);
+                    }
+                    copyStartElement(reader, writer, newValue);
+                    ancestors.add(localName);
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    ancestors.remove(ancestors.size() - 1);
+                    if (startAtPending && ancestors.size() == 1 &&
+                        GENERIC_INFORMATION.equals(reader.getLocalName())) {
+                        writeStartAt(writer, reader);
+                        startAtPending = false;
+                    }
+                    writer.writeEndElement();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                    writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                case XMLStreamConstants.CDATA:
+                    writer.writeCData(reader.getText());
+                    break;
+                case XMLStreamConstants.COMMENT:
+                    writer.writeComment(reader.getText());
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    writer.writeProcessingInstruction(reader.getPITarget(), reader.getPIData());
+                    break;
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    writer.writeEntityRef(reader.getLocalName());
+                    break;
+                case XMLStreamConstants.DTD:
+                    writer.writeDTD(reader.getText());
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    writer.writeEndDocument();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private boolean isTaskVariable(List<String> ancestors) {
+        int size = ancestors.size();
+        return size >= 2 && TASK.equals(ancestors.get(size - 2));
+    }
+
+    /**
+     * @param newValue value replacing the one of the 'value' attribute, null to copy it
+     */
+    private void copyStartElement(XMLStreamReader reader, XMLStreamWriter writer, String newValue)
+            throws XMLStreamException {
+        writer.writeStartElement(nullToEmpty(reader.getPrefix()),
+                                 reader.getLocalName(),
+                                 nullToEmpty(reader.getNamespaceURI()));
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String prefix = reader.getNamespacePrefix(i);
+            if (prefix == null || prefix.isEmpty()) {
+                writer.writeDefaultNamespace(reader.getNamespaceURI(i));
+            } else {
+                writer.writeNamespace(prefix, reader.getNamespaceURI(i));
+            }
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespace = reader.getAttributeNamespace(i);
+            String localName = reader.getAttributeLocalName(i);
+            String value = reader.getAttributeValue(i);
+            if (namespace == null || namespace.isEmpty()) {
+                writer.writeAttribute(localName, newValue != null && VALUE.equals(localName) ? newValue : value);
+            } else {
+                writer.writeAttribute(reader.getAttributePrefix(i), namespace, localName, value);
+            }
+        }
+    }
+
+    /**
+     * Writes the START_AT information in the namespace of the current element
+     */
+    private void writeStartAt(XMLStreamWriter writer, XMLStreamReader reader) throws XMLStreamException {
+        writer.writeStartElement(nullToEmpty(reader.getPrefix()), INFO, nullToEmpty(reader.getNamespaceURI()));
+        writer.writeAttribute(NAME, START_AT);
+        writer.writeAttribute(VALUE, startAt);
+        writer.writeEndElement();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.ow2.proactive_grid_cloud_portal.common.server.SessionLogins.IDLE_EXPIRATION_MINUTES;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+
+/**
+ * Caches, for each portal session, the methods its user is allowed to call on the jobs.
+ * <p>
+ * The portal checks the permissions of every job displayed in the jobs list. Permissions
+ * already known for a session are served without querying the scheduler, the others are
+ * fetched with a single request. The permissions of the jobs of a new jobs page are
+ * prefetched, with the methods last checked by the session, as soon as the page is received.
+ * <p>
+ * Permissions are kept at most for the time to live, which bounds how long a change of the
+ * job access rights can go unnoticed, and are dropped as soon as the owner of a job changes.
+ */
+public class JobPermissionCache {
+
+    /**
+     * Maximum number of jobs whose permissions are kept for a session.
+     */
+    static final int MAX_JOBS_PER_SESSION = 5000;
+
+    private final long timeToLiveMillis;
+
+    private final Cache<String, SessionPermissions> sessions = CacheBuilder.newBuilder()
+                                                                           .expireAfterAccess(IDLE_EXPIRATION_MINUTES,
+                                                                                              TimeUnit.MINUTES)
+                                                                           .build();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param timeToLiveMillis time during which the permissions of a job are served without
+     *                         querying the scheduler, 0 disables the cache
+     */
+    public JobPermissionCache(long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * @param sessionId session of the caller
+     * @param jobIds jobs to check
+     * @param methods methods to check on each job
+     * @param fetcher fetches, in one request, permissions from the scheduler with the session of the caller
+     * @return for each job, whether each method can be called
+     */
+    public Map<String, Map<String, Boolean>> getPermissions(String sessionId, List<String> jobIds,
+            List<String> methods, Fetcher fetcher) throws RestServerException, ServiceException {
+        if (timeToLiveMillis <= 0) {
+            misses.addAndGet(jobIds.size());
+            return fetcher.fetch(jobIds, methods);
+        }
+
+        SessionPermissions session = getSession(sessionId);
+        session.methods = new ArrayList<>(methods);
+
+        Map<String, Map<String, Boolean>> result = new HashMap<>(jobIds.size());
+        List<String> missing = new ArrayList<>();
+        for (String jobId : jobIds) {
+            Entry entry = session.jobs.getIfPresent(jobId);
+            if (entry != null && entry.covers(methods)) {
+                result.put(jobId, entry.permissions);
+            } else {
+                missing.add(jobId);
+            }
+        }
+        hits.addAndGet(result.size());
+
+        if (!missing.isEmpty()) {
+            misses.addAndGet(missing.size());
+            Map<String, Map<String, Boolean>> fetched = fetcher.fetch(missing, methods);
+            if (fetched != null) {
+                result.putAll(store(session, fetched));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the permissions of the jobs whose owner changed and fetches, in one request, the
+     * permissions of the jobs not cached yet. Nothing is fetched until the session checked
+     * permissions at least once, as the methods to check are not known before.
+     *
+     * @param sessionId session which received a jobs page
+     * @param jobOwners owner of each job of the page
+     * @param fetcher fetches permissions from the scheduler with the session of the caller
+     */
+    public void prefetch(String sessionId, Map<String, String> jobOwners, Fetcher fetcher)
+            throws RestServerException, ServiceException {
+        if (timeToLiveMillis <= 0 || jobOwners.isEmpty()) {
+            return;
+        }
+
+        SessionPermissions session = getSession(sessionId);
+        List<String> methods = session.methods;
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<String, String> jobOwner : jobOwners.entrySet()) {
+            String jobId = jobOwner.getKey();
+            Entry entry = session.jobs.getIfPresent(jobId);
+            if (entry != null && entry.owner != null && !entry.owner.equals(jobOwner.getValue())) {
+                session.jobs.asMap().remove(jobId, entry);
+                entry = null;
+            }
+            if (entry == null || methods == null || !entry.covers(methods)) {
+                missing.add(jobId);
+            } else if (entry.owner == null) {
+                session.jobs.asMap().replace(jobId, entry, new Entry(entry.permissions, jobOwner.getValue()));
+            }
+        }
+
+        if (methods == null || missing.isEmpty()) {
+            return;
+        }
+        misses.addAndGet(missing.size());
+        Map<String, Map<String, Boolean>> fetched = fetcher.fetch(missing, methods);
+        if (fetched != null) {
+            for (Map.Entry<String, Map<String, Boolean>> permissions : fetched.entrySet()) {
+                String jobId = permissions.getKey();
+                session.jobs.put(jobId, new Entry(permissions.getValue(), jobOwners.get(jobId)));
+            }
+        }
+    }
+
+    /**
+     * Drops the permissions of some jobs for all the sessions, typically when they are removed,
+     * so that a job id reused by the scheduler does not inherit them.
+     */
+    public void invalidateJobs(Collection<String> jobIds) {
+        for (SessionPermissions session : sessions.asMap().values()) {
+            session.jobs.invalidateAll(jobIds);
+        }
+    }
+
+    /**
+     * Forgets the permissions of a session, typically on logout.
+     */
+    public void forgetSession(String sessionId) {
+        sessions.invalidate(sessionId);
+    }
+
+    /**
+     * @return number of job permissions answered without querying the scheduler
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of job permissions requested to the scheduler
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private SessionPermissions getSession(String sessionId) {
+        return sessions.asMap().computeIfAbsent(sessionId, id -> new SessionPermissions(timeToLiveMillis));
+    }
+
+    /**
+     * @return the fetched permissions, merged with the permissions of other methods already cached
+     */
+    private static Map<String, Map<String, Boolean>> store(SessionPermissions session,
+            Map<String, Map<String, Boolean>> fetched) {
+        Map<String, Map<String, Boolean>> stored = new HashMap<>(fetched.size());
+        for (Map.Entry<String, Map<String, Boolean>> permissions : fetched.entrySet()) {
+            Entry previous = session.jobs.getIfPresent(permissions.getKey());
+            Map<String, Boolean> merged = new HashMap<>();
+            if (previous != null) {
+                merged.putAll(previous.permissions);
+            }
+            merged.putAll(permissions.getValue());
+            session.jobs.put(permissions.getKey(),
+                             new Entry(merged, previous == null ? null : previous.owner));
+            stored.put(permissions.getKey(), merged);
+        }
+        return stored;
+    }
+
+    /**
+     * Permissions known for the jobs of a session.
+     */
+    private static final class SessionPermissions {
+
+        private final Cache<String, Entry> jobs;
+
+        /**
+         * Methods last checked by the session, null before the first check
+         */
+        private volatile List<String> methods;
+
+        private SessionPermissions(long timeToLiveMillis) {
+            this.jobs = CacheBuilder.newBuilder()
+                                    .expireAfterWrite(timeToLiveMillis, TimeUnit.MILLISECONDS)
+                                    .maximumSize(MAX_JOBS_PER_SESSION)
+                                    .build();
+        }
+    }
+
+    /**
+     * Permissions of a job, and its owner when it is known.
+     */
+    private static final class Entry {
+
+        private final Map<String, Boolean> permissions;
+
+        private final String owner;
+
+        private Entry(Map<String, Boolean> permissions, String owner) {
+            this.permissions = permissions;
+            this.owner = owner;
+        }
+
+        private boolean covers(List<String> methods) {
+            return permissions.keySet().containsAll(methods);
+        }
+    }
+
+    /**
+     * Fetches job permissions from the scheduler.
+     */
+    public interface Fetcher {
+
+        Map<String, Map<String, Boolean>> fetch(List<String> jobIds, List<String> methods)
+                throws RestServerException, ServiceException;
+
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.JobsProjection;
+
+
+/**
+ * Restricts the variables and generic information of the jobs list to the ones displayed in
+ * the jobs grid: the maps are not queried at all when no column displays them, and only the
+ * displayed entries are sent to the browser otherwise.
+ */
+final class JobsQueryProjection {
+
+    static final String VARIABLES_FIELD = "variables";
+
+    static final String GENERIC_INFORMATION_FIELD = "genericInformation";
+
+    private JobsQueryProjection() {
+    }
+
+    /**
+     * @param queryString a jobs query
+     * @return the query without the selection of the maps that no column displays
+     */
+    static String projectQuery(String queryString, JobsProjection projection) {
+        if (projection == null) {
+            return queryString;
+        }
+        String projected = queryString;
+        if (projection.getVariables().isEmpty()) {
+            projected = removeSelection(projected, VARIABLES_FIELD);
+        }
+        if (projection.getGenericInformation().isEmpty()) {
+            projected = removeSelection(projected, GENERIC_INFORMATION_FIELD);
+        }
+        return projected;
+    }
+
+    /**
+     * Removes the entries of the maps of each job that no column displays
+     *
+     * @param result result of a jobs query
+     */
+    @SuppressWarnings("unchecked")
+    static void projectResult(Map<String, Object> result, JobsProjection projection) {
+        Object data = result == null || projection == null ? null : result.get("data");
+        Object jobs = data instanceof Map ? ((Map<String, Object>) data).get("jobs") : null;
+        Object edges = jobs instanceof Map ? ((Map<String, Object>) jobs).get("edges") : null;
+        if (!(edges instanceof List)) {
+            return;
+        }
+        Set<String> variables = new HashSet<>(projection.getVariables());
+        Set<String> genericInformation = new HashSet<>(projection.getGenericInformation());
+        for (Object edge : (List<Object>) edges) {
+            Object node = edge instanceof Map ? ((Map<String, Object>) edge).get("node") : null;
+            if (node instanceof Map) {
+                retainEntries((Map<String, Object>) node, VARIABLES_FIELD, variables);
+                retainEntries((Map<String, Object>) node, GENERIC_INFORMATION_FIELD, genericInformation);
+            }
+        }
+    }
+
+    /**
+     * @param field a map of the job, as returned by the scheduling api: a list of key and value objects
+     */
+    @SuppressWarnings("unchecked")
+    private static void retainEntries(Map<String, Object> node, String field, Set<String> keys) {
+        Object entries = node.get(field);
+        if (!(entries instanceof List)) {
+            return;
+        }
+        List<Object> retained = new ArrayList<>();
+        for (Object entry : (List<Object>) entries) {
+            if (entry instanceof Map && keys.contains(((Map<String, Object>) entry).get("key"))) {
+                retained.add(entry);
+            }
+        }
+        node.put(field, retained);
+    }
+
+    /**
+     * Removes every selection of the field with its sub-selection, outside of string literals
+     */
+    static String removeSelection(String queryString, String field) {
+        StringBuilder result = new StringBuilder(queryString.length());
+        boolean inString = false;
+        int i = 0;
+        while (i < queryString.length()) {
+            char c = queryString.charAt(i);
+            if (inString) {
+                result.append(c);
+                if (c == '\\' && i + 1 < queryString.length()) {
+                    result.append(queryString.charAt(++i));
+                } else if (c == '"') {
+                    inString = false;
+                }
+                i++;
+                continue;
+            }
+            if (c == '"') {
+                inString = true;
+                result.append(c);
+                i++;
+                continue;
+            }
+            int end = selectionEnd(queryString, i, field);
+            if (end > i) {
+                i = end;
+            } else {
+                result.append(c);
+                i++;
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * @return the index following the selection of the field starting at index, or index if there is none
+     */
+    private static int selectionEnd(String queryString, int index, String field) {
+        if (!queryString.startsWith(field, index) ||
+            (index > 0 && Character.isJavaIdentifierPart(queryString.charAt(index - 1)))) {
+            return index;
+        }
+        int i = index + field.length();
+        while (i < queryString.length() && Character.isWhitespace(queryString.charAt(i))) {
+            i++;
+        }
+        if (i >= queryString.length() || queryString.charAt(i) != '{') {
+            return index;
+        }
+        int depth = 0;
+        for (; i < queryString.length(); i++) {
+            char c = queryString.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return index;
+    }
+}
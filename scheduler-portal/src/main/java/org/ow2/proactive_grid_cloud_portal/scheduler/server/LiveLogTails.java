@@ -0,0 +1,243 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.LiveLogChunk;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+
+/**
+ * Buffers the live output of the jobs watched by the portal sessions.
+ * <p>
+ * The output of a job is read from the scheduler with the session of its first viewer, and
+ * appended to a buffer shared by all the viewers of the job. Each viewer keeps a cursor on the
+ * buffer and only receives the output following it. The scheduler is only asked for more
+ * output when a viewer has read the whole buffer, and at most once per read interval, so that
+ * several viewers of the same job share the same scheduler reads.
+ * <p>
+ * A session must have been allowed by the scheduler to read the live output of a job once
+ * before it reads the shared buffer.
+ */
+public class LiveLogTails {
+
+    /**
+     * Maximum number of characters buffered per job, the oldest are dropped first.
+     */
+    static final int MAX_BUFFERED_CHARS = 1024 * 1024;
+
+    /**
+     * Idle time after which the output of a job is dropped.
+     */
+    private static final long TAIL_IDLE_EXPIRATION_MINUTES = 2;
+
+    /**
+     * Idle time after which the rights of a session on a job are forgotten.
+     */
+    private static final long VIEWER_IDLE_EXPIRATION_MINUTES = 30;
+
+    private static final char CURSOR_SEPARATOR = ':';
+
+    private static final AtomicLong TAIL_IDS = new AtomicLong();
+
+    private final long readIntervalMillis;
+
+    private final LongSupplier clock;
+
+    private final Cache<String, Tail> tails = CacheBuilder.newBuilder()
+                                                          .expireAfterAccess(TAIL_IDLE_EXPIRATION_MINUTES,
+                                                                             TimeUnit.MINUTES)
+                                                          .build();
+
+    private final Cache<String, Boolean> admittedViewers = CacheBuilder.newBuilder()
+                                                                       .expireAfterAccess(VIEWER_IDLE_EXPIRATION_MINUTES,
+                                                                                          TimeUnit.MINUTES)
+                                                                       .build();
+
+    private final AtomicLong upstreamReads = new AtomicLong();
+
+    /**
+     * @param readIntervalMillis minimum time between two reads of the output of a job from the scheduler
+     */
+    public LiveLogTails(long readIntervalMillis) {
+        this(readIntervalMillis, System::currentTimeMillis);
+    }
+
+    LiveLogTails(long readIntervalMillis, LongSupplier clock) {
+        this.readIntervalMillis = readIntervalMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @param sessionId session of the viewer
+     * @param jobId id of the job
+     * @param cursor cursor returned with the last chunk received by the viewer, null for the first read
+     * @param upstream reads the live output of the job from the scheduler
+     * @return the output following the cursor
+     */
+    public LiveLogChunk read(String sessionId, String jobId, String cursor, Upstream upstream)
+            throws RestServerException, ServiceException {
+        String viewer = sessionId + CURSOR_SEPARATOR + jobId;
+        if (admittedViewers.getIfPresent(viewer) == null) {
+            upstream.checkAccess(sessionId, jobId);
+            admittedViewers.put(viewer, Boolean.TRUE);
+        }
+
+        Tail tail = tails.asMap().computeIfAbsent(jobId, id -> new Tail(sessionId));
+        synchronized (tail) {
+            long offset = tail.parseCursor(cursor);
+            // a new viewer first receives the buffered output
+            boolean caughtUp = (offset < 0 ? tail.start : offset) >= tail.end();
+            if (!caughtUp || clock.getAsLong() - tail.lastRead < readIntervalMillis) {
+                return tail.chunk(offset);
+            }
+            try {
+                tail.append(readUpstream(tail, jobId, upstream));
+                return tail.chunk(offset);
+            } catch (RestServerException | ServiceException | RuntimeException e) {
+                if (tail.readerSessionId.equals(sessionId)) {
+                    throw e;
+                }
+                // the session reading the output may have been closed
+                tails.asMap().remove(jobId, tail);
+            }
+        }
+        // read the output again with the session of this viewer
+        return read(sessionId, jobId, cursor, upstream);
+    }
+
+    /**
+     * Forgets the rights of a session, and drops the outputs read with it, typically on logout.
+     */
+    public void forgetSession(String sessionId) {
+        String prefix = sessionId + CURSOR_SEPARATOR;
+        admittedViewers.asMap().keySet().removeIf(viewer -> viewer.startsWith(prefix));
+        tails.asMap().values().removeIf(tail -> tail.readerSessionId.equals(sessionId));
+    }
+
+    /**
+     * @return number of reads of live outputs from the scheduler
+     */
+    public long getUpstreamReads() {
+        return upstreamReads.get();
+    }
+
+    private String readUpstream(Tail tail, String jobId, Upstream upstream)
+            throws RestServerException, ServiceException {
+        upstreamReads.incrementAndGet();
+        String text = upstream.read(tail.readerSessionId, jobId);
+        tail.lastRead = clock.getAsLong();
+        return text;
+    }
+
+    /**
+     * Live output of a job received since the first viewer started reading it.
+     */
+    private static final class Tail {
+
+        private final long id = TAIL_IDS.incrementAndGet();
+
+        private final String readerSessionId;
+
+        private final StringBuilder buffer = new StringBuilder();
+
+        /**
+         * Offset of the first buffered character, since the start of the output
+         */
+        private long start;
+
+        private long lastRead = Long.MIN_VALUE / 2;
+
+        private Tail(String readerSessionId) {
+            this.readerSessionId = readerSessionId;
+        }
+
+        private long end() {
+            return start + buffer.length();
+        }
+
+        private void append(String text) {
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+            buffer.append(text);
+            int overflow = buffer.length() - MAX_BUFFERED_CHARS;
+            if (overflow > 0) {
+                buffer.delete(0, overflow);
+                start += overflow;
+            }
+        }
+
+        /**
+         * @return the offset designated by a cursor, -1 if it does not designate the buffered output
+         */
+        private long parseCursor(String cursor) {
+            if (cursor == null) {
+                return -1;
+            }
+            int separator = cursor.indexOf(CURSOR_SEPARATOR);
+            try {
+                if (separator < 0 || Long.parseLong(cursor.substring(0, separator)) != id) {
+                    return -1;
+                }
+                long offset = Long.parseLong(cursor.substring(separator + 1));
+                return offset >= start && offset <= end() ? offset : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        private LiveLogChunk chunk(long offset) {
+            boolean reset = offset < 0;
+            int from = reset ? 0 : (int) (offset - start);
+            return new LiveLogChunk(buffer.substring(from), "" + id + CURSOR_SEPARATOR + end(), reset);
+        }
+    }
+
+    /**
+     * Reads the live output of jobs from the scheduler.
+     */
+    public interface Upstream {
+
+        /**
+         * Fails if the session is not allowed to read the live output of the job.
+         */
+        void checkAccess(String sessionId, String jobId) throws RestServerException, ServiceException;
+
+        /**
+         * @return the live output of the job received since the last read with this session
+         */
+        String read(String sessionId, String jobId) throws RestServerException, ServiceException;
+
+    }
+}
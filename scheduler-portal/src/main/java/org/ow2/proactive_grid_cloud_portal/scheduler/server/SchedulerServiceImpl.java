@@ -30,36 +30,52 @@ import static org.ow2.proactive_grid_cloud_portal.common.server.HttpUtils.*;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.lang.management.ManagementFactory;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.jar.JarFile;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ContentProducer;
 import org.apache.http.entity.ContentType;
+import org.apache.http.entity.EntityTemplate;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.entity.mime.MIME;
 import org.apache.http.entity.mime.MultipartEntity;
+import org.apache.http.entity.mime.content.AbstractContentBody;
 import org.apache.http.entity.mime.content.ByteArrayBody;
+import org.apache.http.entity.mime.content.ContentBody;
 import org.apache.http.entity.mime.content.FileBody;
 import org.apache.http.entity.mime.content.StringBody;
 import org.apache.http.impl.client.CloseableHttpClient;
@@ -67,13 +83,6 @@ import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 import org.glassfish.jersey.uri.UriComponent;
-import org.jboss.resteasy.client.jaxrs.ResteasyClient;
-import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
-import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
-import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
-import org.jboss.resteasy.plugins.interceptors.encoding.AcceptEncodingGZIPFilter;
-import org.jboss.resteasy.plugins.interceptors.encoding.GZIPDecodingInterceptor;
-import org.jboss.resteasy.plugins.interceptors.encoding.GZIPEncodingInterceptor;
 import org.jboss.resteasy.specimpl.PathSegmentImpl;
 import org.ow2.proactive.http.HttpClientBuilder;
 import org.ow2.proactive.scheduling.api.graphql.beans.input.Query;
@@ -81,7 +90,9 @@ import org.ow2.proactive.scheduling.api.graphql.client.SchedulingApiClientGwt;
 import org.ow2.proactive_grid_cloud_portal.common.server.CommonRestClient;
 import org.ow2.proactive_grid_cloud_portal.common.server.ConfigReader;
 import org.ow2.proactive_grid_cloud_portal.common.server.ConfigUtils;
+import org.ow2.proactive_grid_cloud_portal.common.server.RestClientProxyFactory;
 import org.ow2.proactive_grid_cloud_portal.common.server.Service;
+import org.ow2.proactive_grid_cloud_portal.common.server.SessionLogins;
 import org.ow2.proactive_grid_cloud_portal.common.shared.Config;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
@@ -90,13 +101,15 @@ import org.ow2.proactive_grid_cloud_portal.scheduler.client.OutputMode;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerService;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerServiceAsync;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.controller.TasksCentricController;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.JobsProjection;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.LiveLogChunk;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.TasksOutput;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.FilterModel;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
-import com.google.common.io.Files;
 
 
 /**
@@ -113,6 +126,12 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
 
     public static final String SUBMISSION_MODE_SCHEDULER_PORTAL = "scheduler-portal";
 
+    /**
+     * Edited workflows are written in UTF-8 by {@link JobDescriptorRewriter}.
+     */
+    private static final ContentType WORKFLOW_CONTENT_TYPE = ContentType.create("application/xml",
+                                                                                StandardCharsets.UTF_8);
+
     private CloseableHttpClient httpClient;
 
     /**
@@ -120,16 +139,66 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     private static final int THREAD_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 8;
 
+    /**
+     * JMX domain of the cache counters.
+     */
+    private static final String MBEAN_DOMAIN = "org.ow2.proactive_grid_cloud_portal.scheduler";
+
     /**
      * Thread pool shared by RestEasy client proxies.
      */
     private ExecutorService threadPool;
 
+    /**
+     * RestEasy client proxies shared by all the requests.
+     */
+    private RestClientProxyFactory restClientProxyFactory;
+
     /**
      * GraphQL Client
      */
     private SchedulingApiClientGwt graphQLClient;
 
+    /**
+     * Latest scheduler state revision received from the scheduler, shared by all the sessions
+     */
+    private volatile long latestRevision = -1;
+
+    /**
+     * Time at which {@link #latestRevision} was received
+     */
+    private volatile long latestRevisionTime;
+
+    /**
+     * Login of the user owning each session, shared by the caches
+     */
+    private SessionLogins sessionLogins;
+
+    /**
+     * Statistics and users shared between the sessions
+     */
+    private SchedulerSnapshotCache snapshotCache;
+
+    /**
+     * Job permissions of each session
+     */
+    private JobPermissionCache permissionCache;
+
+    /**
+     * Catalog buckets and workflows shared by all the sessions
+     */
+    private CatalogCache catalogCache;
+
+    /**
+     * Live outputs of the jobs, shared between their viewers
+     */
+    private LiveLogTails liveLogTails;
+
+    /**
+     * MBeans exposing the cache counters, unregistered when the servlet is destroyed
+     */
+    private final List<ObjectName> registeredMBeans = new ArrayList<>();
+
     /**
      * JSON Mapper
      */
@@ -154,7 +223,61 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
 
         threadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
 
+        restClientProxyFactory = new RestClientProxyFactory(httpClient,
+                                                            threadPool,
+                                                            () -> SchedulerConfig.get().getRestUrl());
+
         graphQLClient = new SchedulingApiClientGwt(SchedulerConfig.get().getSchedulingApiUrl(), httpClient, threadPool);
+
+        sessionLogins = new SessionLogins(this::getLoginFromSessionId);
+
+        snapshotCache = new SchedulerSnapshotCache(sessionLogins,
+                                                   this::getRecentRevision,
+                                                   SchedulerConfig.get().getStatsCacheTtl());
+        registerMBean(snapshotCache, "SchedulerSnapshotCache");
+
+        permissionCache = new JobPermissionCache(SchedulerConfig.get().getPermissionCacheTtl());
+
+        catalogCache = new CatalogCache(new CatalogUrlSchedulerServerBuilder().getCatalogUrl(),
+                                        SchedulerConfig.get().getCatalogCacheMaxBytes(),
+                                        SchedulerConfig.get().getCatalogCacheFreshMillis(),
+                                        sessionLogins,
+                                        CatalogCache.httpFetcher(httpClient));
+        registerMBean(catalogCache, "CatalogCache");
+
+        liveLogTails = new LiveLogTails(SchedulerConfig.get().getLivelogsRefreshTime() / 2);
+    }
+
+    @Override
+    public void destroy() {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registeredMBeans) {
+            try {
+                mBeanServer.unregisterMBean(name);
+            } catch (JMException e) {
+                LOGGER.log(Level.WARNING, "Could not unregister the MBean " + name, e);
+            }
+        }
+        registeredMBeans.clear();
+        super.destroy();
+    }
+
+    /**
+     * Exposes the counters of a cache through JMX, a failure only loses the counters.
+     */
+    private void registerMBean(Object mBean, String type) {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_DOMAIN + ":type=" + type);
+            // left behind by a previous deployment of the portal
+            if (mBeanServer.isRegistered(name)) {
+                mBeanServer.unregisterMBean(name);
+            }
+            mBeanServer.registerMBean(mBean, name);
+            registeredMBeans.add(name);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Could not register the " + type + " MBean, its counters are not exposed", e);
+        }
     }
 
     /**
@@ -167,70 +290,72 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     }
 
     /**
-     * Submits a XML file to the REST part by using an HTTP client.
+     * Submits a XML workflow to the REST part by using an HTTP client.
+     * <p>
+     * The workflow is written straight to the request while it is sent, without being copied
+     * to a file first.
      *
      * @param sessionId the id of the client which submits the job
-     * @param file      the XML file that is submitted
+     * @param workflow  writes the XML workflow that is submitted
      * @return an error message upon failure, "id=<jobId>" upon success
      */
-    public String submitXMLFile(String sessionId, File file)
+    public String submitXML(String sessionId, ContentProducer workflow)
             throws RestServerException, ServiceException, URISyntaxException {
         HttpPost method = new HttpPost(SchedulerConfig.get().getRestUrl() + "/scheduler/submit");
         URI uri = new URIBuilder(method.getURI()).addParameter(SUBMISSION_MODE, SUBMISSION_MODE_SCHEDULER_PORTAL)
                                                  .build();
         method.setURI(uri);
-        method.addHeader("sessionId", sessionId);
-
-        boolean isJar = isJarFile(file);
-
-        try {
-            String name = isJar ? "jar" : "file";
-            String mime = isJar ? "application/java-archive" : "application/xml";
-            String charset = "ISO-8859-1";
-
-            MultipartEntity entity = new MultipartEntity();
-            entity.addPart("file", new FileBody(file, name, mime, charset));
-            method.setEntity(entity);
-
-            HttpResponse execute = httpClient.execute(method);
-            InputStream is = execute.getEntity().getContent();
-            String ret = convertToString(is);
-
-            if (execute.getStatusLine().getStatusCode() == Response.Status.OK.getStatusCode()) {
-                return ret;
-            } else {
-                throw new RestServerException(execute.getStatusLine().getStatusCode(), ret);
-            }
-        } catch (IOException e) {
-            throw new ServiceException("Failed to read response: " + e.getMessage());
-        } finally {
-            method.releaseConnection();
-            if (file != null) {
-                file.delete();
-            }
-        }
+        return postWorkflow(sessionId, method, workflowStreamBody(workflow));
     }
 
     /**
-     * Validate a XML file to the REST part by using an HTTP client.
+     * Validate a XML workflow to the REST part by using an HTTP client.
      *
      * @param sessionId the id of the client which submits the job
-     * @param file      the XML file that is submitted
+     * @param workflow  writes the XML workflow that is validated
      * @return an error message upon failure, "id=<jobId>" upon success
      */
-    public String validateXMLFile(String sessionId, File file) throws RestServerException, ServiceException {
+    public String validateXML(String sessionId, ContentProducer workflow)
+            throws RestServerException, ServiceException {
         HttpPost method = new HttpPost(SchedulerConfig.get().getRestUrl() + "/scheduler/validate");
-        method.addHeader("sessionId", sessionId);
+        return postWorkflow(sessionId, method, workflowStreamBody(workflow));
+    }
 
-        boolean isJar = isJarFile(file);
+    /**
+     * The part has no length, the multipart body is sent chunked and the workflow
+     * is written to it only as fast as the scheduler reads it.
+     */
+    private ContentBody workflowStreamBody(ContentProducer workflow) {
+        return new AbstractContentBody(WORKFLOW_CONTENT_TYPE) {
+            @Override
+            public String getFilename() {
+                return "file";
+            }
 
-        try {
-            String name = isJar ? "jar" : "file";
-            String mime = isJar ? "application/java-archive" : "application/xml";
-            String charset = "ISO-8859-1";
+            @Override
+            public void writeTo(OutputStream out) throws IOException {
+                workflow.writeTo(out);
+            }
 
+            @Override
+            public String getTransferEncoding() {
+                return MIME.ENC_BINARY;
+            }
+
+            @Override
+            public long getContentLength() {
+                return -1;
+            }
+        };
+    }
+
+    private String postWorkflow(String sessionId, HttpPost method, ContentBody workflow)
+            throws RestServerException, ServiceException {
+        method.addHeader("sessionId", sessionId);
+
+        try {
             MultipartEntity entity = new MultipartEntity();
-            entity.addPart("file", new FileBody(file, name, mime, charset));
+            entity.addPart("file", workflow);
             method.setEntity(entity);
 
             HttpResponse execute = httpClient.execute(method);
@@ -246,27 +371,27 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
             throw new ServiceException("Failed to read response: " + e.getMessage());
         } finally {
             method.releaseConnection();
-            if (file != null) {
-                file.delete();
-            }
         }
     }
 
     /**
-     * Submits an XML file to the job-planner REST using an HTTP client.
+     * Submits an XML workflow to the job-planner REST using an HTTP client.
+     * <p>
+     * The workflow is written straight to the request while it is sent, without being copied
+     * to a string first.
      *
      * @param sessionId the id of the client which submits the job
-     * @param file      the XML file that is submitted
+     * @param workflow  writes the XML workflow that is submitted
      * @return an error message upon failure, "id=<jobId>" upon success
      */
-    public String planXMLFile(String sessionId, File file) throws RestServerException, ServiceException {
+    public String planXML(String sessionId, ContentProducer workflow) throws RestServerException, ServiceException {
         HttpPost method = new HttpPost(SchedulerConfig.get().getJobplannerUrl());
         method.addHeader("sessionId", sessionId);
-        method.addHeader("Content-type", ContentType.APPLICATION_XML.toString());
+        method.addHeader("Content-type", WORKFLOW_CONTENT_TYPE.toString());
 
         try {
-            StringEntity entity = new StringEntity(Files.toString(file, Charset.forName("ISO-8859-1")),
-                                                   ContentType.APPLICATION_XML);
+            EntityTemplate entity = new EntityTemplate(workflow);
+            entity.setContentType(WORKFLOW_CONTENT_TYPE.toString());
             method.setEntity(entity);
 
             HttpResponse execute = httpClient.execute(method);
@@ -281,18 +406,14 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
             throw new ServiceException("Failed to read response: " + e.getMessage());
         } finally {
             method.releaseConnection();
-            if (file != null) {
-                file.delete();
-            }
         }
     }
 
-    private boolean isJarFile(File file) {
-        try (JarFile ignored = new JarFile(file)) {
-            return true;
-        } catch (IOException e1) {
-            return false;
-        }
+    /**
+     * @return catalog buckets and workflows shared between the sessions
+     */
+    public CatalogCache getCatalogCache() {
+        return catalogCache;
     }
 
     /**
@@ -324,37 +445,50 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     }
 
     /**
-     * Getter of the result of a task.
+     * Sends the request for the result of a task.
+     * <p>
+     * The result is requested without content encoding so that the scheduler can announce its length,
+     * which allows partial downloads. The caller must close the returned response.
      *
-     * @param sessionId the session id of the user which is logged in
-     * @param jobId     the id of the job the task belongs to
-     * @param taskId    the id of the task
-     * @return the result
+     * @param sessionId  the session id of the user which is logged in
+     * @param jobId      the id of the job the task belongs to
+     * @param taskId     the id of the task
+     * @param serialized true for the serialized result, false for its string representation
+     * @param range      Range header forwarded to the scheduler, or null for the whole result
+     * @return the response of the scheduler: 206 if it served the range, 416 if the range is outside
+     * of the result, 200 with the whole result otherwise
      */
-    public InputStream getTaskResult(String sessionId, String jobId, String taskId) throws RestServerException {
-        try {
-            return getRestClientProxy().taskresult(sessionId, jobId, taskId);
-        } catch (WebApplicationException e) {
-            rethrowRestServerException(e);
-            return null;
+    public CloseableHttpResponse getTaskResultResponse(String sessionId, String jobId, String taskId,
+            boolean serialized, String range) throws RestServerException, ServiceException {
+        HttpGet method = new HttpGet(SchedulerConfig.get().getRestUrl() + "/scheduler/jobs/" +
+                                     UriComponent.encode(jobId, UriComponent.Type.PATH_SEGMENT) + "/tasks/" +
+                                     UriComponent.encode(taskId, UriComponent.Type.PATH_SEGMENT) + "/result/" +
+                                     (serialized ? "serializedvalue" : "value"));
+        method.setHeader("sessionid", sessionId);
+        method.setHeader(HttpHeaders.ACCEPT_ENCODING, "identity");
+        if (range != null) {
+            method.setHeader(HttpHeaders.RANGE, range);
         }
-    }
 
-    /**
-     * Getter of the serialized result of a task.
-     *
-     * @param sessionId the session id of the user which is looged in
-     * @param jobId     the id of the job the task belongs to
-     * @param taskId    the id of the task
-     * @return the serialized result
-     */
-    public InputStream getTaskSerializedResult(String sessionId, String jobId, String taskId)
-            throws RestServerException {
+        CloseableHttpResponse response = null;
         try {
-            return getRestClientProxy().taskSerializedResult(sessionId, jobId, taskId);
-        } catch (WebApplicationException e) {
-            rethrowRestServerException(e);
-            return null;
+            response = httpClient.execute(method);
+            int status = response.getStatusLine().getStatusCode();
+            boolean rangeAnswered = range != null && (status == Status.PARTIAL_CONTENT.getStatusCode() ||
+                                                      status == Status.REQUESTED_RANGE_NOT_SATISFIABLE.getStatusCode());
+            if (status != Status.OK.getStatusCode() && !rangeAnswered) {
+                String responseAsString = response.getEntity() == null ? ""
+                                                                        : convertToString(response.getEntity()
+                                                                                                  .getContent());
+                handleResponseStatus(response, responseAsString);
+            }
+            return response;
+        } catch (IOException e) {
+            IOUtils.closeQuietly(response);
+            throw new ServiceException(e.getMessage());
+        } catch (RestServerException e) {
+            IOUtils.closeQuietly(response);
+            throw e;
         }
     }
 
@@ -385,64 +519,62 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * .String, java.util.List)
      */
     @Override
-    public int removeJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException {
-        for (List<Integer> chunk : Lists.partition(jobIdList, LIMIT_QUERY_PARAMS_NUMBER)) {
-            executeFunction(restClient -> restClient.removeJobs(sessionId,
-                                                                chunk.stream()
-                                                                     .map(Object::toString)
-                                                                     .collect(Collectors.toList()),
-                                                                0));
+    public Map<Integer, String> removeJobs(final String sessionId, List<Integer> jobIdList)
+            throws RestServerException, ServiceException {
+        Map<Integer, String> failures = executeBulkFunction((restClient, chunk) -> restClient.removeJobs(sessionId,
+                                                                                                         toStrings(chunk),
+                                                                                                         0),
+                                                            jobIdList,
+                                                            LIMIT_QUERY_PARAMS_NUMBER,
+                                                            false);
+        List<String> removed = new ArrayList<>(failures.size());
+        for (Map.Entry<Integer, String> failure : failures.entrySet()) {
+            if (failure.getValue() == null) {
+                removed.add(failure.getKey().toString());
+            }
         }
-
-        return jobIdList.size();
+        permissionCache.invalidateJobs(removed);
+        return failures;
     }
 
     @Override
-    public int pauseJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException {
+    public Map<Integer, String> pauseJobs(final String sessionId, List<Integer> jobIdList)
+            throws RestServerException, ServiceException {
         return executeFunction((restClientProxy, jobId) -> restClientProxy.pauseJob(sessionId, Integer.toString(jobId)),
-                               jobIdList,
-                               "job paused");
+                               jobIdList);
     }
 
     @Override
-    public int restartAllInErrorTasks(final String sessionId, List<Integer> jobIdList)
+    public Map<Integer, String> restartAllInErrorTasks(final String sessionId, List<Integer> jobIdList)
             throws RestServerException, ServiceException {
         return executeFunction((restClientProxy, jobId) -> restClientProxy.restartAllTasksInError(sessionId,
                                                                                                   Integer.toString(jobId)),
-                               jobIdList,
-                               "restart all in error tasks in a job");
+                               jobIdList);
     }
 
     @Override
-    public int resumeJobs(final String sessionId, List<Integer> jobIdList)
+    public Map<Integer, String> resumeJobs(final String sessionId, List<Integer> jobIdList)
             throws RestServerException, ServiceException {
-        return executeFunction((restClientProxy,
-                jobId) -> restClientProxy.resumeJob(sessionId, Integer.toString(jobId)), jobIdList, "job resumed");
+        return executeFunction((restClientProxy, jobId) -> restClientProxy.resumeJob(sessionId, Integer.toString(jobId)),
+                               jobIdList);
     }
 
     @Override
-    public int resubmitAllJobs(final String sessionId, List<Integer> jobIdList)
+    public Map<Integer, String> resubmitAllJobs(final String sessionId, List<Integer> jobIdList)
             throws RestServerException, ServiceException {
-        for (List<Integer> chunk : Lists.partition(jobIdList, LIMIT_QUERY_PARAMS_NUMBER)) {
-            executeFunction(restClient -> restClient.reSubmitAll(sessionId,
-                                                                 chunk.stream()
-                                                                      .map(Object::toString)
-                                                                      .collect(Collectors.toList())));
-        }
-
-        return jobIdList.size();
+        return executeBulkFunction((restClient, chunk) -> restClient.reSubmitAll(sessionId, toStrings(chunk)),
+                                   jobIdList,
+                                   LIMIT_QUERY_PARAMS_NUMBER,
+                                   false);
     }
 
     @Override
-    public int killJobs(final String sessionId, List<Integer> jobIdList) throws RestServerException, ServiceException {
-        for (List<Integer> chunk : Lists.partition(jobIdList, LIMIT_QUERY_PARAMS_NUMBER)) {
-            executeFunction(restClient -> restClient.killJobs(sessionId,
-                                                              chunk.stream()
-                                                                   .map(Object::toString)
-                                                                   .collect(Collectors.toList())));
-        }
-
-        return jobIdList.size();
+    public Map<Integer, String> killJobs(final String sessionId, List<Integer> jobIdList)
+            throws RestServerException, ServiceException {
+        return executeBulkFunction((restClient, chunk) -> restClient.killJobs(sessionId, toStrings(chunk)),
+                                   jobIdList,
+                                   LIMIT_QUERY_PARAMS_NUMBER,
+                                   false);
     }
 
     /*
@@ -453,12 +585,12 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * .lang.String, java.util.List, java.lang.String)
      */
     @Override
-    public void setPriorityByName(final String sessionId, List<Integer> jobIdList, final String priorityName)
-            throws RestServerException {
-        executeVoidFunction((restClientProxy, jobId) -> {
+    public Map<Integer, String> setPriorityByName(final String sessionId, List<Integer> jobIdList,
+            final String priorityName) throws RestServerException, ServiceException {
+        return executeFunction((restClientProxy, jobId) -> {
             restClientProxy.schedulerChangeJobPriorityByName(sessionId, Integer.toString(jobId), priorityName);
             return null;
-        }, jobIdList, "job set to priority " + priorityName);
+        }, jobIdList);
     }
 
     /**
@@ -580,6 +712,9 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     @Override
     public void logout(String sessionId) {
+        sessionLogins.forget(sessionId);
+        permissionCache.forgetSession(sessionId);
+        liveLogTails.forgetSession(sessionId);
         getRestClientProxy().disconnect(sessionId);
     }
 
@@ -853,6 +988,49 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
         }
     }
 
+    /**
+     * Gets the output of several tasks of a job. The outputs are fetched from the scheduler
+     * concurrently, with at most {@link SchedulerConfig#getBulkActionParallelism()} calls in flight.
+     *
+     * @param sessionId current session id
+     * @param jobId     id of the job
+     * @param taskNames names of the tasks
+     * @param logMode   one of {@link SchedulerServiceAsync#LOG_ALL}, {@link
+     *                  SchedulerServiceAsync#LOG_STDERR}, {@link
+     *                  SchedulerServiceAsync#LOG_STDOUT}
+     * @return the logs of each task, or the reason why they could not be fetched
+     */
+    @Override
+    public TasksOutput getTasksOutput(final String sessionId, final String jobId, final List<String> taskNames,
+            final OutputMode logMode) throws RestServerException, ServiceException {
+        String[] outputs = new String[taskNames.size()];
+        String[] failures = new String[taskNames.size()];
+        AtomicInteger nextTask = new AtomicInteger();
+
+        Callable<Void> worker = () -> {
+            int index;
+            while ((index = nextTask.getAndIncrement()) < taskNames.size()) {
+                try {
+                    outputs[index] = getTaskOutput(sessionId, jobId, taskNames.get(index), logMode);
+                } catch (RestServerException | ProcessingException e) {
+                    failures[index] = e.getMessage() != null ? e.getMessage() : String.valueOf(e);
+                }
+            }
+            return null;
+        };
+        runInParallel(worker, taskNames.size(), "fetching the output of " + taskNames.size() + " tasks");
+
+        TasksOutput tasksOutput = new TasksOutput();
+        for (int index = 0; index < taskNames.size(); index++) {
+            if (failures[index] != null) {
+                tasksOutput.putFailure(taskNames.get(index), failures[index]);
+            } else {
+                tasksOutput.putOutput(taskNames.get(index), outputs[index]);
+            }
+        }
+        return tasksOutput;
+    }
+
     /**
      * Gets the output of a job even for tasks that have not terminated yet
      *
@@ -871,6 +1049,30 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
         }
     }
 
+    /**
+     * Gets the output of a job received since a cursor, even for tasks that have not terminated yet
+     *
+     * @param sessionId current session id
+     * @param jobId     id of the job for which logs should be fetched
+     * @param cursor    cursor returned with the previous chunk, or null
+     * @return console output for the job following the cursor
+     */
+    @Override
+    public LiveLogChunk getLiveLogJob(final String sessionId, final String jobId, final String cursor)
+            throws RestServerException, ServiceException {
+        return liveLogTails.read(sessionId, jobId, cursor, new LiveLogTails.Upstream() {
+            @Override
+            public void checkAccess(String sessionId, String jobId) throws RestServerException {
+                getLiveLogJobAvailable(sessionId, jobId);
+            }
+
+            @Override
+            public String read(String sessionId, String jobId) throws RestServerException {
+                return getLiveLogJob(sessionId, jobId);
+            }
+        });
+    }
+
     /**
      * Gets the number of bytes available in the job output stream for the given
      * job id, might be used to determine if fetch is necessary
@@ -918,7 +1120,11 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * lang.String)
      */
     @Override
-    public String getStatistics(String sessionId) throws RestServerException {
+    public String getStatistics(String sessionId) throws RestServerException, ServiceException {
+        return snapshotCache.getStatistics(sessionId, () -> fetchStatistics(sessionId));
+    }
+
+    private String fetchStatistics(String sessionId) throws RestServerException {
         RestClient restClientProxy = getRestClientProxy();
 
         try {
@@ -935,8 +1141,11 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      * getStatisticsOnMyAccount (java.lang.String)
      */
     @Override
-    public String getStatisticsOnMyAccount(String sessionId) throws RestServerException {
+    public String getStatisticsOnMyAccount(String sessionId) throws RestServerException, ServiceException {
+        return snapshotCache.getStatisticsOnMyAccount(sessionId, () -> fetchStatisticsOnMyAccount(sessionId));
+    }
 
+    private String fetchStatisticsOnMyAccount(String sessionId) throws RestServerException {
         RestClient restClientProxy = getRestClientProxy();
 
         try {
@@ -962,7 +1171,10 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
         try {
             revision = restClientProxy.schedulerStateRevision(sessionId);
 
-            return Long.parseLong(revision);
+            long parsedRevision = Long.parseLong(revision);
+            latestRevision = parsedRevision;
+            latestRevisionTime = System.currentTimeMillis();
+            return parsedRevision;
         } catch (NumberFormatException e) {
             throw new RestServerException("Revision is not a number: " + revision);
         } catch (WebApplicationException e) {
@@ -971,6 +1183,17 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
         }
     }
 
+    /**
+     * @return the last revision fetched by any session, -1 if it is older than the revision validity time
+     */
+    private long getRecentRevision() {
+        // the time is read before the revision it was written after
+        if (System.currentTimeMillis() - latestRevisionTime >= SchedulerConfig.get().getRevisionValidityTime()) {
+            return -1;
+        }
+        return latestRevision;
+    }
+
     /**
      * Get information for all users currently connected to the scheduler
      *
@@ -979,6 +1202,10 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
      */
     @Override
     public String getSchedulerUsers(final String sessionId) throws RestServerException, ServiceException {
+        return snapshotCache.getSchedulerUsers(sessionId, () -> fetchSchedulerUsers(sessionId));
+    }
+
+    private String fetchSchedulerUsers(String sessionId) throws RestServerException, ServiceException {
         return executeFunctionReturnStreamAsString(restClient -> restClient.getSchedulerUsers(sessionId));
     }
 
@@ -1003,7 +1230,7 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     @Override
     public String revisionAndjobsinfo(final String sessionId, final String startCursor, final String endCursor,
             int pageSize, boolean first, final String user, final boolean pending, final boolean running,
-            final boolean finished, FilterModel filterModel) {
+            final boolean finished, FilterModel filterModel, JobsProjection projection) {
         Query query = GraphQLQueries.get().getRevisionAndjobsInfoQuery(user,
                                                                        pending,
                                                                        running,
@@ -1012,8 +1239,62 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
                                                                        endCursor,
                                                                        pageSize,
                                                                        first,
-                                                                       filterModel);
-        return executeGraphQLQuery(sessionId, query);
+                                                                       filterModel,
+                                                                       projection);
+        if (sessionId == null || query == null) {
+            return null;
+        }
+
+        Map<String, Object> result = graphQLClient.execute(sessionId, query);
+        prefetchJobPermissions(sessionId, result);
+        JobsQueryProjection.projectResult(result, projection);
+        return writeGraphQLResult(result);
+    }
+
+    /**
+     * Fetches in the background the permissions of the jobs of a jobs page, so that the
+     * permission check sent by the portal once the page is displayed is answered from the cache.
+     */
+    private void prefetchJobPermissions(final String sessionId, Map<String, Object> result) {
+        Map<String, String> jobOwners = getJobOwners(result);
+        if (jobOwners.isEmpty()) {
+            return;
+        }
+        threadPool.execute(() -> {
+            try {
+                permissionCache.prefetch(sessionId, jobOwners, (ids, methods) -> fetchJobsPermissionMethods(sessionId,
+                                                                                                             ids,
+                                                                                                             methods));
+            } catch (RestServerException | ServiceException | RuntimeException e) {
+                LOGGER.log(Level.FINE, "Failed to prefetch job permissions", e);
+            }
+        });
+    }
+
+    /**
+     * @param result result of a jobs GraphQL query
+     * @return the owner of each job of the result, by job id
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, String> getJobOwners(Map<String, Object> result) {
+        Map<String, String> jobOwners = new HashMap<>();
+        Object data = result == null ? null : result.get("data");
+        Object jobs = data instanceof Map ? ((Map<String, Object>) data).get("jobs") : null;
+        Object edges = jobs instanceof Map ? ((Map<String, Object>) jobs).get("edges") : null;
+        if (!(edges instanceof List)) {
+            return jobOwners;
+        }
+        for (Object edge : (List<Object>) edges) {
+            Object node = edge instanceof Map ? ((Map<String, Object>) edge).get("node") : null;
+            if (node instanceof Map) {
+                Object id = ((Map<String, Object>) node).get("id");
+                Object owner = ((Map<String, Object>) node).get("owner");
+                if (id != null) {
+                    jobOwners.put(String.valueOf(id), owner == null ? null : String.valueOf(owner));
+                }
+            }
+        }
+        return jobOwners;
     }
 
     /*
@@ -1107,41 +1388,43 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     @Override
     public List<JobUsage> getUsage(String sessionId, String user, Date startDate, Date endDate)
             throws RestServerException, ServiceException {
+        InputStream inputStream = getUsageStream(sessionId, user, startDate, endDate);
+        try {
+            return UsageJsonReader.readJobUsages(inputStream);
+        } catch (IOException e) {
+            throw new ServiceException(e.getMessage());
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    /**
+     * Opens the usage data of a user as returned by the REST server, without buffering it.
+     *
+     * @param user the user whose usage is requested, "All Users" for every user, null for the current user
+     * @return a JSON array of job usages, to be closed by the caller
+     */
+    public InputStream getUsageStream(String sessionId, String user, Date startDate, Date endDate)
+            throws RestServerException {
         RestClient restClientProxy = getRestClientProxy();
 
-        InputStream inputStream = null;
+        DateFormat df = new SimpleDateFormat(ISO_8601_FORMAT);
+        String startDateAsString = df.format(startDate);
+        String endDateAsString = df.format(endDate);
 
         try {
-            DateFormat df = new SimpleDateFormat(ISO_8601_FORMAT);
-            String startDateAsString = df.format(startDate);
-            String endDateAsString = df.format(endDate);
-
             if (user != null) {
                 if (user.equals("All Users")) {
-                    inputStream = restClientProxy.getUsageOnAccount(sessionId,
-                                                                    null,
-                                                                    startDateAsString,
-                                                                    endDateAsString);
+                    return restClientProxy.getUsageOnAccount(sessionId, null, startDateAsString, endDateAsString);
                 } else {
-                    inputStream = restClientProxy.getUsageOnAccount(sessionId,
-                                                                    user,
-                                                                    startDateAsString,
-                                                                    endDateAsString);
+                    return restClientProxy.getUsageOnAccount(sessionId, user, startDateAsString, endDateAsString);
                 }
             } else {
-                inputStream = restClientProxy.getUsageOnMyAccount(sessionId, startDateAsString, endDateAsString);
+                return restClientProxy.getUsageOnMyAccount(sessionId, startDateAsString, endDateAsString);
             }
-
-            String responseAsString = convertToString(inputStream);
-
-            return UsageJsonReader.readJobUsages(responseAsString);
-        } catch (IOException | JSONException e) {
-            throw new ServiceException(e.getMessage());
         } catch (WebApplicationException e) {
             rethrowRestServerException(e);
             return null;
-        } finally {
-            IOUtils.closeQuietly(inputStream);
         }
     }
 
@@ -1227,7 +1510,10 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
             return null;
         }
 
-        Map<String, Object> result = graphQLClient.execute(sessionId, query);
+        return writeGraphQLResult(graphQLClient.execute(sessionId, query));
+    }
+
+    private String writeGraphQLResult(Map<String, Object> result) {
         try {
             return JSON_MAPPER.writeValueAsString(result);
         } catch (JsonProcessingException e) {
@@ -1253,65 +1539,136 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
         }
     }
 
-    private int executeFunction(BiFunction<RestClient, Integer, InputStream> action, List<Integer> jobIdList,
-            String actionName) throws ServiceException, RestServerException {
+    /**
+     * Applies an action to each job of the list, see {@link #executeBulkFunction}.
+     * A job succeeds if the action returns no response, or a response equal to true.
+     */
+    private Map<Integer, String> executeFunction(BiFunction<RestClient, Integer, InputStream> action,
+            List<Integer> jobIdList) throws RestServerException, ServiceException {
+        return executeBulkFunction((restClient, chunk) -> action.apply(restClient, chunk.get(0)), jobIdList, 1, true);
+    }
+
+    /**
+     * Applies an action to a list of jobs, split in chunks of at most chunkSize jobs. Chunks are sent
+     * to the scheduler concurrently, with at most {@link SchedulerConfig#getBulkActionParallelism()}
+     * calls in flight, so that a large selection does not wait for each job in turn.
+     *
+     * @param action call to the scheduler for one chunk of jobs
+     * @param jobIdList ids of the jobs
+     * @param chunkSize maximum number of jobs per call, 1 for endpoints operating on a single job
+     * @param checkResponse whether a response different from true means the action failed
+     * @return for each job id, in the order of the list, null if the action succeeded on this job,
+     * the reason of the failure otherwise
+     * @throws RestServerException if the session is not authorized anymore, no further chunk is sent
+     * @throws ServiceException if the scheduler cannot be reached, no further chunk is sent
+     */
+    private Map<Integer, String> executeBulkFunction(BiFunction<RestClient, List<Integer>, InputStream> action,
+            List<Integer> jobIdList, int chunkSize, boolean checkResponse)
+            throws RestServerException, ServiceException {
 
         RestClient restClientProxy = getRestClientProxy();
 
-        int failures = 0;
-        int success = 0;
+        List<List<Integer>> chunks = Lists.partition(jobIdList, chunkSize);
+        String[] failures = new String[chunks.size()];
+        AtomicInteger nextChunk = new AtomicInteger();
+
+        Callable<Void> worker = () -> {
+            int index;
+            while ((index = nextChunk.getAndIncrement()) < chunks.size()) {
+                try {
+                    failures[index] = applyBulkFunction(action, restClientProxy, chunks.get(index), checkResponse);
+                } catch (RestServerException | RuntimeException e) {
+                    // the other chunks would fail the same way
+                    nextChunk.set(chunks.size());
+                    throw e;
+                }
+            }
+            return null;
+        };
 
-        for (Integer jobId : jobIdList) {
-            InputStream inputStream = null;
+        runInParallel(worker, chunks.size(), "applying the action to " + jobIdList.size() + " jobs");
 
-            try {
-                inputStream = action.apply(restClientProxy, jobId);
+        Map<Integer, String> results = new LinkedHashMap<>(jobIdList.size());
+        for (int index = 0; index < chunks.size(); index++) {
+            for (Integer jobId : chunks.get(index)) {
+                results.put(jobId, failures[index]);
+            }
+        }
+        return results;
+    }
 
-                if (Boolean.parseBoolean(convertToString(inputStream))) {
-                    success++;
-                } else {
-                    failures++;
+    /**
+     * Runs copies of a worker concurrently, at most {@link SchedulerConfig#getBulkActionParallelism()},
+     * and never more than the number of items they share.
+     *
+     * @param worker processes items until none is left
+     * @param items number of items processed by the workers
+     * @param description what the workers do, for error messages
+     * @throws RestServerException as thrown by a worker
+     * @throws ServiceException if a worker failed with any other exception
+     */
+    private void runInParallel(Callable<Void> worker, int items, String description)
+            throws RestServerException, ServiceException {
+        int parallelism = Math.min(SchedulerConfig.get().getBulkActionParallelism(), items);
+        try {
+            if (parallelism <= 1) {
+                worker.call();
+            } else {
+                for (Future<Void> future : threadPool.invokeAll(Collections.nCopies(parallelism, worker))) {
+                    future.get();
                 }
-            } catch (WebApplicationException e) {
-                failures++;
-            } catch (IOException e) {
-                throw new ServiceException("Error while reading InputStream response: " + e.getMessage());
-            } finally {
-                IOUtils.closeQuietly(inputStream);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while " + description, e);
+        } catch (ExecutionException e) {
+            rethrowWorkerFailure(e.getCause(), description);
+        } catch (Exception e) {
+            rethrowWorkerFailure(e, description);
         }
+    }
 
-        if (failures > 0) {
-            throw new RestServerException("Requested " + jobIdList.size() + " " + actionName + ": " + success +
-                                          " succeeded, " + failures + " failed.");
+    private static void rethrowWorkerFailure(Throwable failure, String description)
+            throws RestServerException, ServiceException {
+        if (failure instanceof RestServerException) {
+            throw (RestServerException) failure;
         }
-
-        return success;
+        if (failure instanceof ServiceException) {
+            throw (ServiceException) failure;
+        }
+        throw new ServiceException("Error while " + description + ": " + failure.getMessage(), failure);
     }
 
-    private int executeVoidFunction(BiFunction<RestClient, Integer, Void> action, List<Integer> jobIdList,
-            String actionName) throws RestServerException {
-
-        RestClient restClientProxy = getRestClientProxy();
-
-        int failures = 0;
-        int success = 0;
-
-        for (Integer jobId : jobIdList) {
-            try {
-                action.apply(restClientProxy, jobId);
-                success++;
-            } catch (WebApplicationException e) {
-                failures++;
+    /**
+     * A rejection of the jobs of the chunk is returned, a failure of the session or of the connection to the
+     * scheduler concerns every job and is thrown: a {@link ProcessingException} is not caught.
+     *
+     * @return null if the action succeeded, the reason of the failure otherwise
+     * @throws RestServerException if the session is not authorized by the scheduler
+     */
+    private String applyBulkFunction(BiFunction<RestClient, List<Integer>, InputStream> action,
+            RestClient restClientProxy, List<Integer> chunk, boolean checkResponse) throws RestServerException {
+        InputStream inputStream = null;
+        try {
+            inputStream = action.apply(restClientProxy, chunk);
+            if (checkResponse && inputStream != null && !Boolean.parseBoolean(convertToString(inputStream))) {
+                return "Rejected by the scheduler";
             }
+            return null;
+        } catch (WebApplicationException e) {
+            if (e.getResponse().getStatus() == Status.UNAUTHORIZED.getStatusCode()) {
+                return rethrowRestServerException(e);
+            }
+            return e.getMessage() != null ? e.getMessage() : String.valueOf(e);
+        } catch (IOException e) {
+            return "Error while reading InputStream response: " + e.getMessage();
+        } finally {
+            IOUtils.closeQuietly(inputStream);
         }
+    }
 
-        if (failures > 0) {
-            throw new RestServerException("Requested " + jobIdList.size() + " " + actionName + ": " + success +
-                                          " succeeded, " + failures + " failed.");
-        }
-
-        return success;
+    private static List<String> toStrings(List<Integer> jobIds) {
+        return jobIds.stream().map(Object::toString).collect(Collectors.toList());
     }
 
     private String executeFunctionReturnStreamAsString(Function<RestClient, InputStream> function)
@@ -1432,30 +1789,12 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
         }
     }
 
-    private RestClient getRestClientProxy() {
-        ResteasyClientBuilder builder = new ResteasyClientBuilder();
-        builder.register(AcceptEncodingGZIPFilter.class);
-        builder.register(GZIPDecodingInterceptor.class);
-        builder.register(GZIPEncodingInterceptor.class);
-        ResteasyClient client = builder.asyncExecutor(threadPool)
-                                       .httpEngine(new ApacheHttpClient4Engine(httpClient))
-                                       .build();
-        ResteasyWebTarget target = client.target(SchedulerConfig.get().getRestUrl());
-
-        return target.proxy(RestClient.class);
+    RestClient getRestClientProxy() {
+        return restClientProxyFactory.getProxy(RestClient.class);
     }
 
     private CommonRestClient getCommonRestClient() {
-        ResteasyClientBuilder builder = new ResteasyClientBuilder();
-        builder.register(AcceptEncodingGZIPFilter.class);
-        builder.register(GZIPDecodingInterceptor.class);
-        builder.register(GZIPEncodingInterceptor.class);
-        ResteasyClient client = builder.asyncExecutor(threadPool)
-                                       .httpEngine(new ApacheHttpClient4Engine(httpClient))
-                                       .build();
-        ResteasyWebTarget target = client.target(SchedulerConfig.get().getRestUrl());
-
-        return target.proxy(CommonRestClient.class);
+        return restClientProxyFactory.getProxy(CommonRestClient.class);
     }
 
     private String rethrowRestServerException(WebApplicationException e) throws RestServerException {
@@ -1574,6 +1913,16 @@ public class SchedulerServiceImpl extends Service implements SchedulerService {
     @Override
     public Map<String, Map<String, Boolean>> checkJobsPermissionMethods(final String sessionId, List<String> jobIds,
             List<String> methods) throws RestServerException, ServiceException {
+        return permissionCache.getPermissions(sessionId,
+                                              jobIds,
+                                              methods,
+                                              (ids, checkedMethods) -> fetchJobsPermissionMethods(sessionId,
+                                                                                                  ids,
+                                                                                                  checkedMethods));
+    }
+
+    private Map<String, Map<String, Boolean>> fetchJobsPermissionMethods(final String sessionId, List<String> jobIds,
+            List<String> methods) throws RestServerException, ServiceException {
         HttpPost method = new HttpPost(SchedulerConfig.get().getRestUrl() + "/scheduler/jobs/permission/methods");
 
         try {
@@ -0,0 +1,249 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.ow2.proactive_grid_cloud_portal.common.server.SessionLogins.IDLE_EXPIRATION_MINUTES;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.ow2.proactive_grid_cloud_portal.common.server.SessionLogins;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+
+/**
+ * Shares the scheduler statistics and the connected users between all the portal sessions.
+ * <p>
+ * Every portal tab periodically asks for the scheduler statistics, the statistics of its user
+ * account and the connected users. The global answers are the same for every session: they are
+ * fetched at most once per time to live, and concurrent requests for a stale value wait for the
+ * one request sent to the scheduler instead of sending their own. Once their time to live is
+ * over, the statistics are kept for another time to live if the scheduler state revision did not
+ * change since they were fetched. Account statistics are kept per user login.
+ * <p>
+ * A global value is only served to the sessions of a user which already fetched it once from the
+ * scheduler, so that a user who is not allowed to read it still gets the scheduler error.
+ */
+public class SchedulerSnapshotCache implements SchedulerSnapshotCacheMBean {
+
+    private static final String STATISTICS = "statistics";
+
+    private static final String USERS = "users";
+
+    private static final String ACCOUNT_STATISTICS = "account:";
+
+    private final SessionLogins sessionLogins;
+
+    private final LongSupplier revision;
+
+    private final long timeToLiveMillis;
+
+    private final Cache<String, Boolean> admittedLogins = CacheBuilder.newBuilder()
+                                                                      .expireAfterAccess(IDLE_EXPIRATION_MINUTES,
+                                                                                         TimeUnit.MINUTES)
+                                                                      .build();
+
+    private final Cache<String, Snapshot> snapshots;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong revisionHits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param sessionLogins logins of the users owning the sessions
+     * @param revision returns the latest known scheduler state revision, -1 if unknown or outdated
+     * @param timeToLiveMillis time during which a value is served without querying the scheduler,
+     *                         0 disables the cache
+     */
+    public SchedulerSnapshotCache(SessionLogins sessionLogins, LongSupplier revision, long timeToLiveMillis) {
+        this.sessionLogins = sessionLogins;
+        this.revision = revision;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.snapshots = CacheBuilder.newBuilder()
+                                     .expireAfterAccess(IDLE_EXPIRATION_MINUTES, TimeUnit.MINUTES)
+                                     .build();
+    }
+
+    /**
+     * @param sessionId session of the caller
+     * @param loader fetches the statistics from the scheduler with the session of the caller
+     * @return the scheduler statistics
+     */
+    public String getStatistics(String sessionId, Loader loader) throws RestServerException, ServiceException {
+        return getShared(STATISTICS, sessionId, true, loader);
+    }
+
+    /**
+     * @param sessionId session of the caller
+     * @param loader fetches the connected users from the scheduler with the session of the caller
+     * @return the users connected to the scheduler
+     */
+    public String getSchedulerUsers(String sessionId, Loader loader) throws RestServerException, ServiceException {
+        return getShared(USERS, sessionId, false, loader);
+    }
+
+    /**
+     * @param sessionId session of the caller
+     * @param loader fetches the statistics of the caller account from the scheduler
+     * @return the statistics of the account owning the session
+     */
+    public String getStatisticsOnMyAccount(String sessionId, Loader loader)
+            throws RestServerException, ServiceException {
+        if (timeToLiveMillis <= 0) {
+            misses.incrementAndGet();
+            return loader.load();
+        }
+        return get(ACCOUNT_STATISTICS + sessionLogins.getLogin(sessionId), true, loader);
+    }
+
+    @Override
+    public long getHits() {
+        return hits.get();
+    }
+
+    @Override
+    public long getRevisionHits() {
+        return revisionHits.get();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private String getShared(String key, String sessionId, boolean revisionDependent, Loader loader)
+            throws RestServerException, ServiceException {
+        if (timeToLiveMillis <= 0) {
+            misses.incrementAndGet();
+            return loader.load();
+        }
+
+        String admission = key + ":" + sessionLogins.getLogin(sessionId);
+        if (admittedLogins.getIfPresent(admission) == null) {
+            // first request of this user: the scheduler checks its rights
+            misses.incrementAndGet();
+            String value = loader.load();
+            snapshots.put(key, new Snapshot(value, revision.getAsLong(), System.currentTimeMillis()));
+            admittedLogins.put(admission, Boolean.TRUE);
+            return value;
+        }
+        return get(key, revisionDependent, loader);
+    }
+
+    private String get(String key, boolean revisionDependent, Loader loader)
+            throws RestServerException, ServiceException {
+        while (true) {
+            boolean[] loaded = new boolean[1];
+            Snapshot snapshot;
+            try {
+                snapshot = snapshots.get(key, () -> {
+                    loaded[0] = true;
+                    // read before loading: a revision change during the load makes the value stale
+                    long loadedRevision = revision.getAsLong();
+                    return new Snapshot(loader.load(), loadedRevision, System.currentTimeMillis());
+                });
+            } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+                throw rethrowCause(e);
+            }
+
+            if (loaded[0]) {
+                misses.incrementAndGet();
+                return snapshot.value;
+            }
+            long now = System.currentTimeMillis();
+            if (now - snapshot.fetchedAt < timeToLiveMillis) {
+                hits.incrementAndGet();
+                return snapshot.value;
+            }
+            if (revisionDependent && snapshot.revision >= 0 && snapshot.revision == revision.getAsLong()) {
+                // the scheduler state did not change since the value was fetched
+                snapshots.asMap().replace(key, snapshot, new Snapshot(snapshot.value, snapshot.revision, now));
+                hits.incrementAndGet();
+                revisionHits.incrementAndGet();
+                return snapshot.value;
+            }
+            snapshots.asMap().remove(key, snapshot);
+        }
+    }
+
+    private static ServiceException rethrowCause(Throwable e) throws RestServerException, ServiceException {
+        Throwable cause = e.getCause();
+        if (cause instanceof RestServerException) {
+            throw (RestServerException) cause;
+        }
+        if (cause instanceof ServiceException) {
+            throw (ServiceException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new ServiceException("Failed to fetch scheduler data: " + cause, cause);
+    }
+
+    /**
+     * A value fetched from the scheduler, and the scheduler state revision known when it was fetched.
+     */
+    private static final class Snapshot {
+
+        private final String value;
+
+        private final long revision;
+
+        /**
+         * Time from which the time to live of the value is counted
+         */
+        private final long fetchedAt;
+
+        private Snapshot(String value, long revision, long fetchedAt) {
+            this.value = value;
+            this.revision = revision;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    /**
+     * Fetches a value from the scheduler.
+     */
+    public interface Loader {
+
+        String load() throws RestServerException, ServiceException;
+
+    }
+
+}
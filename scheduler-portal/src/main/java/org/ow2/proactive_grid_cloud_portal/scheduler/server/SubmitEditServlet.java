@@ -25,37 +25,24 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.URISyntaxException;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLStreamException;
 
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
+import org.apache.http.entity.ContentProducer;
 import org.ow2.proactive_grid_cloud_portal.common.server.Service;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 
 /**
@@ -99,8 +86,6 @@ public class SubmitEditServlet extends HttpServlet {
         boolean validate = false;
         boolean plan = false;
         HashMap<String, String> varMap = new HashMap<String, String>();
-        File editedJob = null;
-        File jobDesc = null;
 
         @SuppressWarnings("rawtypes")
         Enumeration e = request.getParameterNames();
@@ -128,7 +113,7 @@ public class SubmitEditServlet extends HttpServlet {
         LOGGER.info("sessionId=" + sessionId);
         LOGGER.info("startAt=" + startAt);
         LOGGER.info("varMap=" + varMap);
-        LOGGER.info("job=" + job);
+        LOGGER.debug("job={}", job);
 
         try {
             if (job == null) {
@@ -140,103 +125,30 @@ public class SubmitEditServlet extends HttpServlet {
                 return;
             }
 
-            try {
-                jobDesc = File.createTempFile("portal_job_edit", "xml");
-                jobDesc.deleteOnExit();
-                IOUtils.write(job, new FileOutputStream(jobDesc));
-
-                DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-                DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-                Document doc = docBuilder.parse(jobDesc);
-
-                NodeList variablesNodeList = doc.getElementsByTagName("variable");
-
-                /* edit the job variables using XML DOM */
-                if (variablesNodeList != null) {
-                    for (int i = 0; i < variablesNodeList.getLength(); i++) {
-                        Node variableNode = variablesNodeList.item(i);
-                        if (variableNode != null && !isTaskVariableElement(variableNode)) {
-                            if (variableNode.getAttributes() != null) {
-
-                                String name = null;
-                                Node nodeVal = null;
-                                for (int j = 0; j < variableNode.getAttributes().getLength(); j++) {
-                                    Node attr = variableNode.getAttributes().item(j);
-
-                                    if (attr.getNodeName().equals("name")) {
-                                        name = attr.getNodeValue();
-                                    }
-                                    if (attr.getNodeName().equals("value")) {
-                                        nodeVal = attr;
-                                    }
-                                }
-                                String match = varMap.get(name);
-
-                                if (match != null && nodeVal != null) {
-                                    nodeVal.setNodeValue(match);
-                                }
-                            }
-                        }
-                    }
-                }
-
-                if (startAt != null && !startAt.isEmpty()) {
-                    NodeList gis = doc.getElementsByTagName("genericInformation");
-                    Node gi = null;
-
-                    if (gis.getLength() > 0) {
-                        // get the existing GI
-                        gi = gis.item(0);
-                    } else {
-                        // create the new GI element to insert
-                        gi = doc.createElement("genericInformation");
-                    }
-
-                    Element startAtEl = doc.createElement("info");
-                    startAtEl.setAttribute("name", "START_AT");
-                    startAtEl.setAttribute("value", startAt);
-                    gi.appendChild(startAtEl);
-
-                    // it will be inserted right before taskFlow
-                    Node nextNode = doc.getElementsByTagName("taskFlow").item(0);
-                    // consequence of not having a insertAfter() method
-                    nextNode.getParentNode().insertBefore(gi, nextNode);
-
-                }
-
-                // write the document to a string
+            // the job is rewritten while it is sent to the scheduler, a malformed job is
+            // only noticed then and its parse error replaces the failed request message
+            JobDescriptorRewriter rewriter = new JobDescriptorRewriter(varMap, startAt);
+            String jobDescriptor = job;
+            AtomicReference<XMLStreamException> parseError = new AtomicReference<>();
+            ContentProducer editedJob = output -> {
                 try {
-                    Transformer transformer = TransformerFactory.newInstance().newTransformer();
-                    transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-                    editedJob = File.createTempFile("portal_edit_res", "xml");
-                    editedJob.deleteOnExit();
-                    StreamResult result = new StreamResult(editedJob);
-                    DOMSource source = new DOMSource(doc);
-                    transformer.transform(source, result);
-                } catch (Exception e1) {
-                    response.getWriter()
-                            .write(ERROR + "Error while writing the job descriptor's DOM: " + e1.getMessage());
+                    rewriter.rewrite(new StringReader(jobDescriptor), output);
+                } catch (XMLStreamException e1) {
+                    parseError.set(e1);
+                    throw new IOException("Error parsing job descriptor: " + e1.getMessage(), e1);
                 }
-
-            } catch (ParserConfigurationException e1) {
-                response.getWriter().write(ERROR + "Error initializing DOM parser " + e1.getMessage());
-            } catch (SAXException e1) {
-                response.getWriter().write(ERROR + "Error parsing job descriptor: " + e1.getMessage());
-            }
+            };
 
             // submission at last....
             try {
-                LOGGER.info("editedJob that will be sent:");
-                LOGGER.info(FileUtils.readFileToString(editedJob));
-
                 String responseFromService = null;
 
                 if (validate) {
-                    responseFromService = ((SchedulerServiceImpl) Service.get()).validateXMLFile(sessionId, editedJob);
+                    responseFromService = ((SchedulerServiceImpl) Service.get()).validateXML(sessionId, editedJob);
                 } else if (plan) {
-                    responseFromService = ((SchedulerServiceImpl) Service.get()).planXMLFile(sessionId, editedJob);
+                    responseFromService = ((SchedulerServiceImpl) Service.get()).planXML(sessionId, editedJob);
                 } else {
-                    responseFromService = ((SchedulerServiceImpl) Service.get()).submitXMLFile(sessionId, editedJob);
+                    responseFromService = ((SchedulerServiceImpl) Service.get()).submitXML(sessionId, editedJob);
                 }
                 if (responseFromService == null || responseFromService.length() == 0) {
                     response.getWriter().write(ERROR + "Job submission returned without a value!");
@@ -244,10 +156,10 @@ public class SubmitEditServlet extends HttpServlet {
                     response.getWriter().write(responseFromService);
                 }
             } catch (RestServerException e1) {
-                String msg = e1.getMessage().replace("<", "&lt;").replace(">", "&gt;");
+                String msg = errorMessage(e1, parseError.get()).replace("<", "&lt;").replace(">", "&gt;");
                 response.getWriter().print(ERROR + msg);
             } catch (ServiceException e2) {
-                String msg = e2.getMessage().replace("<", "&lt;").replace(">", "&gt;");
+                String msg = errorMessage(e2, parseError.get()).replace("<", "&lt;").replace(">", "&gt;");
                 response.getWriter().print(ERROR + msg);
             } catch (URISyntaxException ex) {
                 response.getWriter().print(ERROR + ex.getMessage());
@@ -255,22 +167,18 @@ public class SubmitEditServlet extends HttpServlet {
 
         } catch (IOException e1) {
             LOGGER.warn("Failed to write back to client", e1);
-        } finally {
-            if (jobDesc != null)
-                jobDesc.delete();
-            if (editedJob != null)
-                editedJob.delete();
         }
     }
 
-    private boolean isTaskVariableElement(Node node) {
-        if (node.getParentNode() != null && node.getParentNode().getParentNode() != null) {
-            Node grandparentNode = node.getParentNode().getParentNode();
-            if (grandparentNode.getNodeName().equals("task")) {
-                return true;
-            }
+    /**
+     * @return the parse error of the job descriptor if the request failed because of it,
+     *         the message of the failure otherwise
+     */
+    private static String errorMessage(Exception failure, XMLStreamException parseError) {
+        if (parseError != null) {
+            return "Error parsing job descriptor: " + parseError.getMessage();
         }
-        return false;
+        return failure.getMessage();
     }
 
 }
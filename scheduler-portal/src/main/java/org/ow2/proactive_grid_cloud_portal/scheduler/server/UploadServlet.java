@@ -25,41 +25,33 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 
-import static com.google.common.net.UrlEscapers.urlPathSegmentEscaper;
-
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.jar.JarFile;
+import java.util.jar.JarInputStream;
 
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.SAXParserFactory;
 
 import org.apache.commons.fileupload.FileItem;
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.http.HttpEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.ssl.SSLContextBuilder;
 import org.ow2.proactive_grid_cloud_portal.common.server.Service;
 import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
 import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.helpers.DefaultHandler;
 
 import com.google.gwt.user.server.Base64Utils;
 
@@ -89,6 +81,16 @@ public class UploadServlet extends HttpServlet {
 
     private static final String PARAMS_WORKFLOW_NAME = "workflowName";
 
+    /** a multiple of 3 so that the base64 of each chunk has no padding */
+    private static final int BASE64_CHUNK_SIZE = 3 * 4096;
+
+    /**
+     * Opens the job content, once per pass over it.
+     */
+    interface JobContent {
+        InputStream open() throws IOException;
+    }
+
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) {
         if (isResubmitUpload(request)) {
@@ -110,11 +112,12 @@ public class UploadServlet extends HttpServlet {
     private void upload(HttpServletRequest request, HttpServletResponse response) {
 
         response.setContentType("text/html");
-        File job = null;
+        FileItem job = null;
 
         try {
+            // workflows below the threshold are never written to disk
             DiskFileItemFactory factory = new DiskFileItemFactory();
-            factory.setSizeThreshold(4096);
+            factory.setSizeThreshold(SchedulerConfig.get().getUploadSpillThreshold());
             factory.setRepository(new File(System.getProperty("java.io.tmpdir")));
 
             ServletFileUpload upload = new ServletFileUpload(factory);
@@ -137,21 +140,20 @@ public class UploadServlet extends HttpServlet {
                     } else if (fi.getFieldName().equals(PARAMS_WORKFLOW_NAME)) {
                         workflowName = fi.getString();
                     }
+                    fi.delete();
                 } else {
-                    job = File.createTempFile("job_upload", ".xml");
-                    fi.write(job);
+                    if (job != null) {
+                        job.delete();
+                    }
+                    job = fi;
                 }
-                fi.delete();
             }
 
             if (bucketName != null && workflowName != null) {
-                fetchFromCatalogAndWriteResponse(new CatalogUrlSchedulerServerBuilder().getCatalogUrl(),
-                                                 bucketName,
-                                                 workflowName,
-                                                 sessionId,
-                                                 response);
-            } else {
-                writeResponse(job, response);
+                fetchFromCatalogAndWriteResponse(bucketName, workflowName, sessionId, response);
+            } else if (job != null) {
+                // a spilled workflow is read back from its file, never loaded as a whole
+                writeResponse(job::getInputStream, response);
             }
 
         } catch (Exception e) {
@@ -163,29 +165,16 @@ public class UploadServlet extends HttpServlet {
         }
     }
 
-    private void fetchFromCatalogAndWriteResponse(String catalogUrl, String bucketName, String workflowName,
-            String sessionId, HttpServletResponse response) {
-        String encodedWorkflowName = urlPathSegmentEscaper().escape(workflowName);
-        String url = catalogUrl + "/buckets/" + bucketName + "/resources/" + encodedWorkflowName + "/raw";
-        LOGGER.info("Sending request to catalog: {}", url);
-
-        HttpGet httpGet = new HttpGet(url);
-        httpGet.addHeader(PARAMS_SESSION_ID, sessionId);
-
-        try (CloseableHttpClient httpClient = HttpClients.custom()
-                                                         .setSSLContext(new SSLContextBuilder().loadTrustMaterial(null,
-                                                                                                                  (certificate,
-                                                                                                                          authType) -> true)
-                                                                                               .build())
-                                                         .setSSLHostnameVerifier(new NoopHostnameVerifier())
-                                                         .setConnectionManagerShared(true)
-                                                         .build();
-                CloseableHttpResponse httpResponse = httpClient.execute(httpGet)) {
-            HttpEntity responseBody = httpResponse.getEntity();
-            File job = File.createTempFile("job_upload", ".xml");
-            FileUtils.copyInputStreamToFile(responseBody.getContent(), job);
-            LOGGER.info("job file={}", job);
-            writeResponse(job, response);
+    private void fetchFromCatalogAndWriteResponse(String bucketName, String workflowName, String sessionId,
+            HttpServletResponse response) {
+        LOGGER.info("Importing workflow {} of bucket {} from catalog", workflowName, bucketName);
+
+        try {
+            byte[] job = ((SchedulerServiceImpl) Service.get()).getCatalogCache().getWorkflow(sessionId,
+                                                                                              bucketName,
+                                                                                              workflowName);
+            LOGGER.info("job size={}", job.length);
+            writeResponse(() -> new ByteArrayInputStream(job), response);
         } catch (Exception e) {
             LOGGER.error("Error when sending the request to catalog", e);
         }
@@ -195,56 +184,61 @@ public class UploadServlet extends HttpServlet {
         String jobId = request.getHeader(HEADER_JOB_ID);
         String sessionId = request.getHeader(PARAMS_SESSION_ID);
 
-        try (InputStream is = new ByteArrayInputStream(((SchedulerServiceImpl) Service.get()).getJobXML(sessionId,
-                                                                                                        jobId)
-                                                                                             .getBytes(StandardCharsets.UTF_8))) {
+        try {
             LOGGER.info("Fetching Job XML for job {}", jobId);
-            File job = File.createTempFile("job_resubmit", ".xml");
-            FileUtils.copyInputStreamToFile(is, job);
-            writeResponse(job, response);
+            String job = ((SchedulerServiceImpl) Service.get()).getJobXML(sessionId, jobId);
+            byte[] content = job.getBytes(StandardCharsets.UTF_8);
+            writeResponse(() -> new ByteArrayInputStream(content), response);
 
         } catch (RestServerException e) {
             LOGGER.warn("Failed to download workflow xml for job {} . Got response from Scheduler REST API with HTTP Status Code {}. {}" +
                         jobId, e.getStatus(), e);
-        } catch (IOException | ServiceException t) {
+        } catch (ServiceException t) {
             LOGGER.warn("Failed to download workflow xml for job " + jobId, t);
         }
     }
 
-    // Ignore Sonar's try-with-resources issue
-    // Lifecycle-management cannot be handled with try-with-resources.
-    @SuppressWarnings("squid:S2093")
-    private void writeResponse(File job, HttpServletResponse response) {
+    private void writeResponse(JobContent job, HttpServletResponse response) {
         try {
             if (!isJarFile(job)) {
                 checkXmlFile(job, response);
             }
-            String ret = IOUtils.toString(new FileInputStream(job), StandardCharsets.UTF_8);
-            response.getWriter().write("{ \"jobEdit\" : \"" + Base64Utils.toBase64(ret.getBytes()) + "\" }");
+            try (InputStream in = job.open()) {
+                writeJobEdit(in, response.getWriter());
+            }
         } catch (IOException e) {
             LOGGER.error("Error when reading the job content", e);
             String msg = e.getMessage().replace("<", "&lt;").replace(">", "&gt;");
             writeSilently(response, msg);
-        } finally {
-            if (job != null)
-                job.delete();
         }
     }
 
-    private boolean isJarFile(File file) {
-        try (JarFile ignored = new JarFile(file)) {
-            return true;
+    /**
+     * Writes { "jobEdit" : "<DESC_64>" } while reading the job, so that only one chunk
+     * of it is in memory at a time.
+     */
+    static void writeJobEdit(InputStream job, Writer out) throws IOException {
+        out.write("{ \"jobEdit\" : \"");
+        byte[] chunk = new byte[BASE64_CHUNK_SIZE];
+        int read;
+        while ((read = IOUtils.read(job, chunk)) > 0) {
+            out.write(Base64Utils.toBase64(read == chunk.length ? chunk : Arrays.copyOf(chunk, read)));
+        }
+        out.write("\" }");
+    }
+
+    private boolean isJarFile(JobContent job) {
+        try (JarInputStream jar = new JarInputStream(job.open())) {
+            return jar.getNextEntry() != null;
         } catch (IOException e1) {
             return false;
         }
     }
 
-    private void checkXmlFile(File job, HttpServletResponse response) {
+    private void checkXmlFile(JobContent job, HttpServletResponse response) {
         // this _loosely_ checks that the file we got is an XML file
-        try {
-            DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-            docBuilder.parse(job);
+        try (InputStream in = job.open()) {
+            SAXParserFactory.newInstance().newSAXParser().parse(in, new DefaultHandler());
         } catch (Exception e) {
             writeSilently(response, "Job descriptor must be valid XML<br>" + e.getMessage());
         }
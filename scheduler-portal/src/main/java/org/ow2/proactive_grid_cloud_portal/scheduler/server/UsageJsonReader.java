@@ -25,44 +25,68 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.codehaus.jettison.json.JSONArray;
-import org.codehaus.jettison.json.JSONException;
-import org.codehaus.jettison.json.JSONObject;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobUsage;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.TaskUsage;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 
 public class UsageJsonReader {
 
-    public static List<JobUsage> readJobUsages(String jsonString) throws JSONException {
-        JSONArray jsonArray = new JSONArray(jsonString);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Receives the job usages one at a time while the usage array is being read.
+     */
+    public interface JobUsageHandler {
+        void handle(JobUsage jobUsage) throws IOException;
+    }
+
+    public static List<JobUsage> readJobUsages(InputStream input) throws IOException {
         List<JobUsage> jobUsages = new ArrayList<>();
-        for (int i = 0; i < jsonArray.length(); i++) {
-            JSONObject jobUsageAsJson = jsonArray.getJSONObject(i);
-            JobUsage jobUsage = read(jobUsageAsJson);
-            jobUsages.add(jobUsage);
-        }
+        readJobUsages(input, jobUsages::add);
         return jobUsages;
     }
 
-    private static JobUsage read(JSONObject json) throws JSONException {
-        String owner = json.getString("owner");
-        String tenant = "";
-        if (!json.isNull("tenant")) {
-            tenant = json.getString("tenant");
+    /**
+     * Reads the usage array incrementally, only the job usage being handled is kept in memory.
+     *
+     * @param input JSON array of job usages, closed once read
+     * @param handler called for each job usage, in the order of the array
+     */
+    public static void readJobUsages(InputStream input, JobUsageHandler handler) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Usage data should be a JSON array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode jobUsageAsJson = MAPPER.readTree(parser);
+                handler.handle(read(jobUsageAsJson));
+            }
         }
-        String project = json.getString("project");
-        String jobId = json.getString("jobId");
-        String jobName = json.getString("jobName");
-        long jobDuration = json.getLong("jobDuration");
-        String status = json.getString("status");
-        long submittedTime = json.getLong("submittedTime");
+    }
+
+    private static JobUsage read(JsonNode json) {
+        String owner = getString(json, "owner");
+        String tenant = nullToEmpty(json, "tenant");
+        String project = getString(json, "project");
+        String jobId = getString(json, "jobId");
+        String jobName = getString(json, "jobName");
+        long jobDuration = json.path("jobDuration").asLong();
+        String status = getString(json, "status");
+        long submittedTime = json.path("submittedTime").asLong();
         Long parentId = null;
-        if (!json.isNull("parentId")) {
-            parentId = json.getLong("parentId");
+        if (!isNull(json, "parentId")) {
+            parentId = json.get("parentId").asLong();
         }
 
         JobUsage jobUsage = new JobUsage(owner,
@@ -75,37 +99,40 @@ public class UsageJsonReader {
                                          submittedTime,
                                          parentId);
 
-        JSONArray tasks = json.getJSONArray("taskUsages");
-        for (int i = 0; i < tasks.length(); i++) {
-            JSONObject task = tasks.getJSONObject(i);
+        for (JsonNode task : json.path("taskUsages")) {
             jobUsage.add(parseJsonTask(task));
         }
         return jobUsage;
     }
 
-    private static String nullToEmpty(JSONObject json, String propertyName) throws JSONException {
-        if (json.isNull(propertyName)) {
-            return "";
-        } else {
-            return json.getString(propertyName);
-        }
+    private static boolean isNull(JsonNode json, String propertyName) {
+        JsonNode value = json.get(propertyName);
+        return value == null || value.isNull();
+    }
+
+    private static String getString(JsonNode json, String propertyName) {
+        return isNull(json, propertyName) ? null : json.get(propertyName).asText();
+    }
+
+    private static String nullToEmpty(JsonNode json, String propertyName) {
+        return isNull(json, propertyName) ? "" : json.get(propertyName).asText();
     }
 
-    private static TaskUsage parseJsonTask(JSONObject json) throws JSONException {
-        String taskId = json.getString("taskId");
-        String taskName = json.getString("taskName");
-        long taskStartTime = json.getLong("taskStartTime");
-        long taskFinishedTime = json.getLong("taskFinishedTime");
-        long taskExecutionDuration = json.getLong("taskExecutionDuration");
-        long taskNodeNumber = json.getInt("taskNodeNumber");
-        String taskStatus = json.getString("taskStatus");
+    private static TaskUsage parseJsonTask(JsonNode json) {
+        String taskId = getString(json, "taskId");
+        String taskName = getString(json, "taskName");
+        long taskStartTime = json.path("taskStartTime").asLong();
+        long taskFinishedTime = json.path("taskFinishedTime").asLong();
+        long taskExecutionDuration = json.path("taskExecutionDuration").asLong();
+        long taskNodeNumber = json.path("taskNodeNumber").asInt();
+        String taskStatus = getString(json, "taskStatus");
         String taskTag = nullToEmpty(json, "taskTag");
-        String taskDescription = json.getString("taskDescription");
-        String executionHostName = json.getString("executionHostName");
-        int numberOfExecutionLeft = json.getInt("numberOfExecutionLeft");
-        int numberOfExecutionOnFailureLeft = json.getInt("numberOfExecutionOnFailureLeft");
-        int maxNumberOfExecution = json.getInt("maxNumberOfExecution");
-        int maxNumberOfExecutionOnFailure = json.getInt("maxNumberOfExecutionOnFailure");
+        String taskDescription = getString(json, "taskDescription");
+        String executionHostName = getString(json, "executionHostName");
+        int numberOfExecutionLeft = json.path("numberOfExecutionLeft").asInt();
+        int numberOfExecutionOnFailureLeft = json.path("numberOfExecutionOnFailureLeft").asInt();
+        int maxNumberOfExecution = json.path("maxNumberOfExecution").asInt();
+        int maxNumberOfExecutionOnFailure = json.path("maxNumberOfExecutionOnFailure").asInt();
 
         return new TaskUsage(taskId,
                              taskName,
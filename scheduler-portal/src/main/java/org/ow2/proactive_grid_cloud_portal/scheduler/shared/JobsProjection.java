@@ -0,0 +1,83 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.shared;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import com.google.gwt.user.client.rpc.IsSerializable;
+
+
+/**
+ * Variables and generic information displayed in the columns of the jobs grid.
+ * <p>
+ * The job list only carries these entries, the complete maps of a job are fetched
+ * with its details.
+ */
+public class JobsProjection implements IsSerializable {
+
+    private ArrayList<String> variables = new ArrayList<>();
+
+    private ArrayList<String> genericInformation = new ArrayList<>();
+
+    public JobsProjection() {
+    }
+
+    /**
+     * @param variables names of the displayed variables
+     * @param genericInformation names of the displayed generic information
+     */
+    public JobsProjection(Collection<String> variables, Collection<String> genericInformation) {
+        this.variables.addAll(variables);
+        this.genericInformation.addAll(genericInformation);
+    }
+
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    public List<String> getGenericInformation() {
+        return genericInformation;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        JobsProjection that = (JobsProjection) o;
+        return variables.equals(that.variables) && genericInformation.equals(that.genericInformation);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(variables, genericInformation);
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.shared;
+
+import com.google.gwt.user.client.rpc.IsSerializable;
+
+
+/**
+ * Part of the live output of a job, following the part known by the client.
+ */
+public class LiveLogChunk implements IsSerializable {
+
+    private String text;
+
+    private String cursor;
+
+    private boolean reset;
+
+    public LiveLogChunk() {
+    }
+
+    public LiveLogChunk(String text, String cursor, boolean reset) {
+        this.text = text;
+        this.cursor = cursor;
+        this.reset = reset;
+    }
+
+    /**
+     * @return the output following the cursor sent by the client, possibly empty
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return the cursor to send to get the output following this chunk
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @return true if the output received before cannot be continued, and should be replaced by this chunk
+     */
+    public boolean isReset() {
+        return reset;
+    }
+}
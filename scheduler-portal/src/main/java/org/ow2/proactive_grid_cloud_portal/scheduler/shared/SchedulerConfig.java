@@ -66,6 +66,69 @@ public class SchedulerConfig extends Config {
 
     private static final String DEFAULT_LIVELOGS_REFRESH_TIME = "1000";
 
+    /** maximum number of live output lines kept per job, the oldest are dropped first */
+    public static final String OUTPUT_MAX_LINES = "sched.client.output.max.lines";
+
+    private static final String DEFAULT_OUTPUT_MAX_LINES = "100000";
+
+    /** maximum number of jobs whose output and visualization are kept in the browser */
+    public static final String JOB_CACHE_SIZE = "sched.client.job.cache.size";
+
+    private static final String DEFAULT_JOB_CACHE_SIZE = "20";
+
+    /** maximum number of output lines kept in the browser for all the jobs */
+    public static final String OUTPUT_CACHE_MAX_LINES = "sched.client.output.cache.max.lines";
+
+    private static final String DEFAULT_OUTPUT_CACHE_MAX_LINES = "200000";
+
+    /** maximum number of characters of job visualization html kept in the browser for all the jobs */
+    public static final String VISU_CACHE_MAX_CHARS = "sched.client.visu.cache.max.chars";
+
+    private static final String DEFAULT_VISU_CACHE_MAX_CHARS = "5000000";
+
+    /**
+     * time in millis during which the scheduler state revision known by the server is considered current,
+     * which bounds the delay before a job list refresh sees a change of the scheduler state
+     */
+    public static final String REVISION_VALIDITY_TIME = "sched.revision.validity.time";
+
+    private static final String DEFAULT_REVISION_VALIDITY_TIME = "1000";
+
+    /** maximum number of scheduler calls run in parallel for one action on several jobs */
+    public static final String BULK_ACTION_PARALLELISM = "sched.bulk.action.parallelism";
+
+    private static final String DEFAULT_BULK_ACTION_PARALLELISM = "10";
+
+    /** size in bytes of the buffer used to send task results to the browser */
+    public static final String DOWNLOAD_BUFFER_SIZE = "sched.download.buffer.size";
+
+    private static final String DEFAULT_DOWNLOAD_BUFFER_SIZE = "65536";
+
+    /** time in millis during which the scheduler statistics and users are shared between sessions, 0 to disable */
+    public static final String STATS_CACHE_TTL = "sched.stats.cache.ttl";
+
+    private static final String DEFAULT_STATS_CACHE_TTL = "3000";
+
+    /** time in millis during which the job permissions of a session are cached, 0 to disable */
+    public static final String PERMISSION_CACHE_TTL = "sched.permission.cache.ttl";
+
+    private static final String DEFAULT_PERMISSION_CACHE_TTL = "60000";
+
+    /** size in bytes above which an uploaded workflow is buffered on disk instead of in memory */
+    public static final String UPLOAD_SPILL_THRESHOLD = "sched.upload.spill.threshold";
+
+    private static final String DEFAULT_UPLOAD_SPILL_THRESHOLD = "524288";
+
+    /** maximum total size in bytes of the catalog responses shared between sessions, 0 to disable */
+    public static final String CATALOG_CACHE_MAX_BYTES = "sched.catalog.cache.max.bytes";
+
+    private static final String DEFAULT_CATALOG_CACHE_MAX_BYTES = "16777216";
+
+    /** time in millis during which a cached catalog response is served to a user without revalidation */
+    public static final String CATALOG_CACHE_FRESH_MILLIS = "sched.catalog.cache.fresh.millis";
+
+    private static final String DEFAULT_CATALOG_CACHE_FRESH_MILLIS = "10000";
+
     /** job page size */
     public static final String JOBS_PAGE_SIZE = "sched.jobs.page.size";
 
@@ -114,8 +177,6 @@ public class SchedulerConfig extends Config {
     /** Workflow Catalog URL **/
     public static final String CATALOG_URL = "sched.catalog.url";
 
-    public static final String CATALOG_PUBLIC_URL = "sched.catalog.public.url";
-
     private static SchedulerConfig instance = null;
 
     /**
@@ -132,6 +193,18 @@ public class SchedulerConfig extends Config {
     private void setDefaults() {
         properties.put(CLIENT_REFRESH_TIME, DEFAULT_CLIENT_REFRESH_TIME);
         properties.put(LIVELOGS_REFRESH_TIME, DEFAULT_LIVELOGS_REFRESH_TIME);
+        properties.put(OUTPUT_MAX_LINES, DEFAULT_OUTPUT_MAX_LINES);
+        properties.put(JOB_CACHE_SIZE, DEFAULT_JOB_CACHE_SIZE);
+        properties.put(OUTPUT_CACHE_MAX_LINES, DEFAULT_OUTPUT_CACHE_MAX_LINES);
+        properties.put(VISU_CACHE_MAX_CHARS, DEFAULT_VISU_CACHE_MAX_CHARS);
+        properties.put(REVISION_VALIDITY_TIME, DEFAULT_REVISION_VALIDITY_TIME);
+        properties.put(BULK_ACTION_PARALLELISM, DEFAULT_BULK_ACTION_PARALLELISM);
+        properties.put(DOWNLOAD_BUFFER_SIZE, DEFAULT_DOWNLOAD_BUFFER_SIZE);
+        properties.put(STATS_CACHE_TTL, DEFAULT_STATS_CACHE_TTL);
+        properties.put(PERMISSION_CACHE_TTL, DEFAULT_PERMISSION_CACHE_TTL);
+        properties.put(UPLOAD_SPILL_THRESHOLD, DEFAULT_UPLOAD_SPILL_THRESHOLD);
+        properties.put(CATALOG_CACHE_MAX_BYTES, DEFAULT_CATALOG_CACHE_MAX_BYTES);
+        properties.put(CATALOG_CACHE_FRESH_MILLIS, DEFAULT_CATALOG_CACHE_FRESH_MILLIS);
         properties.put(JOBS_PAGE_SIZE, DEFAULT_JOBS_PAGE_SIZE);
         properties.put(TASKS_PAGE_SIZE, DEFAULT_TASKS_PAGE_SIZE);
         properties.put(VERSION, DEFAULT_VERSION);
@@ -258,6 +331,62 @@ public class SchedulerConfig extends Config {
         return Integer.parseInt(properties.get(CLIENT_REFRESH_TIME));
     }
 
+    /**
+     * @return time in millis during which the scheduler state revision known by the server is considered current
+     */
+    public int getRevisionValidityTime() {
+        return Integer.parseInt(properties.get(REVISION_VALIDITY_TIME));
+    }
+
+    /**
+     * @return maximum number of scheduler calls run in parallel for one action on several jobs
+     */
+    public int getBulkActionParallelism() {
+        return Integer.parseInt(properties.get(BULK_ACTION_PARALLELISM));
+    }
+
+    /**
+     * @return size in bytes of the buffer used to send task results to the browser
+     */
+    public int getDownloadBufferSize() {
+        return Integer.parseInt(properties.get(DOWNLOAD_BUFFER_SIZE));
+    }
+
+    /**
+     * @return time in millis during which the scheduler statistics and users are shared between sessions
+     */
+    public int getStatsCacheTtl() {
+        return Integer.parseInt(properties.get(STATS_CACHE_TTL));
+    }
+
+    /**
+     * @return time in millis during which the job permissions of a session are cached
+     */
+    public int getPermissionCacheTtl() {
+        return Integer.parseInt(properties.get(PERMISSION_CACHE_TTL));
+    }
+
+    /**
+     * @return size in bytes up to which an uploaded workflow is kept in memory
+     */
+    public int getUploadSpillThreshold() {
+        return Integer.parseInt(properties.get(UPLOAD_SPILL_THRESHOLD));
+    }
+
+    /**
+     * @return maximum total size in bytes of the catalog buckets and workflows cached for all the sessions
+     */
+    public long getCatalogCacheMaxBytes() {
+        return Long.parseLong(properties.get(CATALOG_CACHE_MAX_BYTES));
+    }
+
+    /**
+     * @return time in millis during which a cached catalog response is served to a user without revalidation
+     */
+    public long getCatalogCacheFreshMillis() {
+        return Long.parseLong(properties.get(CATALOG_CACHE_FRESH_MILLIS));
+    }
+
     /**
      * @return number of jobs per page
      */
@@ -293,17 +422,38 @@ public class SchedulerConfig extends Config {
     }
 
     /**
-     * @return the catalog url or null if none has been defined
+     * @return maximum number of live output lines kept per job
      */
-    public String getCatalogUrl() {
-        return properties.get(CATALOG_URL);
+    public int getOutputMaxLines() {
+        return Integer.parseInt(properties.get(OUTPUT_MAX_LINES));
+    }
+
+    /**
+     * @return maximum number of jobs whose output and visualization are kept in the browser
+     */
+    public int getJobCacheSize() {
+        return Integer.parseInt(properties.get(JOB_CACHE_SIZE));
     }
 
     /**
-     * @return the catalog public url or null if none has been defined
+     * @return maximum number of output lines kept in the browser for all the jobs
      */
-    public String getCatalogPublicUrl() {
-        return properties.get(CATALOG_PUBLIC_URL);
+    public long getOutputCacheMaxLines() {
+        return Long.parseLong(properties.get(OUTPUT_CACHE_MAX_LINES));
+    }
+
+    /**
+     * @return maximum number of characters of job visualization html kept in the browser
+     */
+    public long getVisuCacheMaxChars() {
+        return Long.parseLong(properties.get(VISU_CACHE_MAX_CHARS));
+    }
+
+    /**
+     * @return the catalog url or null if none has been defined
+     */
+    public String getCatalogUrl() {
+        return properties.get(CATALOG_URL);
     }
 
     /**
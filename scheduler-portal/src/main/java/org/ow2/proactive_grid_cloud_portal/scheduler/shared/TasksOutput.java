@@ -0,0 +1,67 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.shared;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gwt.user.client.rpc.IsSerializable;
+
+
+/**
+ * Outputs of several tasks of a job, fetched in a single call.
+ */
+public class TasksOutput implements IsSerializable {
+
+    private LinkedHashMap<String, String> outputs = new LinkedHashMap<>();
+
+    private LinkedHashMap<String, String> failures = new LinkedHashMap<>();
+
+    public TasksOutput() {
+    }
+
+    public void putOutput(String taskName, String output) {
+        this.outputs.put(taskName, output);
+    }
+
+    public void putFailure(String taskName, String message) {
+        this.failures.put(taskName, message);
+    }
+
+    /**
+     * @return the output of each task which could be fetched, by task name
+     */
+    public Map<String, String> getOutputs() {
+        return outputs;
+    }
+
+    /**
+     * @return the reason of the failure for each task whose output could not be fetched, by task name
+     */
+    public Map<String, String> getFailures() {
+        return failures;
+    }
+}
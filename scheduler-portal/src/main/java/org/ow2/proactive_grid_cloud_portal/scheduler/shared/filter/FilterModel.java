@@ -27,6 +27,7 @@ package org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import com.google.gwt.user.client.rpc.IsSerializable;
 
@@ -68,4 +69,21 @@ public class FilterModel implements IsSerializable {
         this.matchAny = matchAny;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FilterModel that = (FilterModel) o;
+        return matchAny == that.matchAny && getConstraints().equals(that.getConstraints());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(matchAny, getConstraints());
+    }
+
 }
@@ -83,6 +83,39 @@ public class JobOutputTest {
         assertEquals(1, jobOutput.getLines().size());
     }
 
+    @Test
+    public void live_line_split_between_chunks_is_displayed_once() throws Exception {
+        JobOutput jobOutput = new JobOutput("1");
+        jobOutput.setLive(true);
+
+        jobOutput.updateLive("first line\nsec");
+        jobOutput.updateLive("ond line\nthi");
+
+        List<String> lines = jobOutput.getLines().iterator().next();
+        assertEquals(3, lines.size());
+        assertEquals("<nobr>second line</nobr><br>", lines.get(1));
+        assertEquals("<nobr>thi</nobr><br>", lines.get(2));
+
+        jobOutput.resetLive();
+        jobOutput.updateLive("other\n");
+        assertEquals(1, jobOutput.getLines().iterator().next().size());
+    }
+
+    @Test
+    public void oldest_live_lines_are_dropped_beyond_the_capacity() throws Exception {
+        JobOutput jobOutput = new JobOutput("1");
+        jobOutput.setLive(true);
+        jobOutput.setMaxLiveLines(10);
+
+        for (int i = 0; i < 12; i++) {
+            jobOutput.updateLive("line " + i + "\n");
+        }
+
+        List<String> lines = jobOutput.getLines().iterator().next();
+        assertEquals(10, lines.size());
+        assertEquals("<nobr>line 2</nobr><br>", lines.get(0));
+    }
+
     private Task createTask(int id, int finishedTime) {
         Task firstTask = new Task();
         firstTask.setId(id);
@@ -25,6 +25,9 @@
  */
 package org.ow2.proactive_grid_cloud_portal.scheduler.client;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collection;
@@ -34,16 +37,18 @@ import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.BoundedCache;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.ExecutionsModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.JobsModel;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.OutputModel;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
 
 
 public class SchedulerModelImplTest {
 
     private static final String STYLE_FOR_TASK_NAME = "<span style='color:gray;'>";
 
-    private OutputModel outputModel;
+    private InspectableOutputModel outputModel;
 
     protected SchedulerModelImpl schedulerModel;
 
@@ -58,7 +63,7 @@ public class SchedulerModelImplTest {
         this.executionsModel = new ExecutionsModel(schedulerModel);
         this.schedulerModel.setExecutionsModel(executionsModel);
 
-        outputModel = new OutputModel(this.schedulerModel);
+        outputModel = new InspectableOutputModel(this.schedulerModel);
         this.schedulerModel.setOutputModel(outputModel);
 
         this.jobsModel = new JobsModel(executionsModel);
@@ -165,9 +170,90 @@ public class SchedulerModelImplTest {
         assertTrue(output.get(1).contains("second"));
     }
 
+    @Test
+    public void testRemovedJobOutputIsDropped() {
+        outputModel.setTaskOutput("42", new Task(), "output");
+
+        schedulerModel.forgetJobs(Collections.singletonList("42"));
+
+        assertNull(outputModel.getJobOutput("42", false));
+    }
+
+    @Test
+    public void testJobOutputCacheKeepsTheLastJobs() {
+        String output = output(50, 20);
+        int cacheSize = SchedulerConfig.get().getJobCacheSize();
+
+        int lastJobId = 2 * cacheSize + 1000;
+        for (int jobId = 0; jobId < lastJobId; jobId++) {
+            outputModel.setTaskOutput(String.valueOf(jobId), new Task(), output);
+        }
+
+        assertEquals(cacheSize, outputModel.cache().size());
+        assertEquals(cacheSize * 50, outputModel.cache().getTotalWeight());
+        assertEquals(50, outputModel.getJobOutput(String.valueOf(lastJobId - 1), false).getLineCount());
+        assertNull(outputModel.getJobOutput(String.valueOf(lastJobId - cacheSize - 1), false));
+    }
+
+    @Test
+    public void testJobOutputCacheStaysUnderTheLineBound() {
+        long maxLines = SchedulerConfig.get().getOutputCacheMaxLines();
+        int linesPerJob = (int) (maxLines / 4) + 1;
+        String output = output(linesPerJob, 10);
+
+        for (int jobId = 0; jobId < 10; jobId++) {
+            outputModel.setTaskOutput(String.valueOf(jobId), new Task(), output);
+        }
+
+        assertEquals(3, outputModel.cache().size());
+        assertTrue(outputModel.cache().getTotalWeight() <= maxLines);
+        assertEquals(linesPerJob, outputModel.getJobOutput("9", false).getLineCount());
+    }
+
+    @Test
+    public void testDisplayedJobOutputOverTheLineBoundIsKept() {
+        long maxLines = SchedulerConfig.get().getOutputCacheMaxLines();
+        int cacheSize = SchedulerConfig.get().getJobCacheSize();
+        JobOutput displayed = outputModel.getJobOutput("displayed", true);
+        outputModel.setCurrentOutput(displayed);
+        outputModel.setTaskOutput("displayed", new Task(), output((int) maxLines + 1, 10));
+
+        for (int jobId = 0; jobId < 2 * cacheSize; jobId++) {
+            outputModel.setTaskOutput(String.valueOf(jobId), new Task(), output(10, 10));
+        }
+
+        assertSame(displayed, outputModel.getJobOutput("displayed", false));
+        assertEquals(maxLines + 1, displayed.getLineCount());
+        assertEquals(10, outputModel.getJobOutput(String.valueOf(2 * cacheSize - 1), false).getLineCount());
+    }
+
     private void addJob(int jobId) {
         Job job = new JobBuilder().id(jobId).build();
         job.setStatus(JobStatus.RUNNING);
         this.jobsModel.setJobs(new LinkedHashMap<Integer, Job>(Collections.singletonMap(jobId, job)));
     }
+
+    private static String output(int lines, int lineLength) {
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            output.append("[Compute1@host;16:07:40] ");
+            for (int j = 0; j < lineLength; j++) {
+                output.append((char) ('a' + (i + j) % 26));
+            }
+            output.append('\n');
+        }
+        return output.toString();
+    }
+
+    /** exposes the output cache to check its bounds */
+    private static class InspectableOutputModel extends OutputModel {
+
+        InspectableOutputModel(SchedulerModelImpl parentModel) {
+            super(parentModel);
+        }
+
+        BoundedCache<String, JobOutput> cache() {
+            return outputs;
+        }
+    }
 }
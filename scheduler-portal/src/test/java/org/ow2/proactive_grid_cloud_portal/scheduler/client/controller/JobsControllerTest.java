@@ -0,0 +1,134 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.Scheduler;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerController;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerServiceAsync;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.ExecutionsModel;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.JobsModel;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.model.JobsPaginationModel;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.google.gwtmockito.GwtMockitoTestRunner;
+
+
+@RunWith(GwtMockitoTestRunner.class)
+public class JobsControllerTest {
+
+    @Test
+    public void testUnchangedRevisionSkipsTheJobsRefresh() {
+        RecordingJobsController controller = newController(42);
+
+        controller.jobsStateRevision(false);
+        controller.jobsStateRevision(false);
+
+        assertEquals(Collections.singletonList(42L), controller.fetchedRevisions);
+    }
+
+    @Test
+    public void testChangedRevisionRefreshesTheJobs() {
+        RecordingJobsController controller = newController(42);
+
+        controller.jobsStateRevision(false);
+        answerRevision(43);
+        controller.jobsStateRevision(false);
+
+        assertEquals(Arrays.asList(42L, 43L), controller.fetchedRevisions);
+    }
+
+    @Test
+    public void testInvalidatedRevisionRefreshesTheJobs() {
+        RecordingJobsController controller = newController(42);
+
+        controller.jobsStateRevision(false);
+        controller.invalidateJobsRevision();
+        controller.jobsStateRevision(false);
+
+        assertEquals(Arrays.asList(42L, 42L), controller.fetchedRevisions);
+    }
+
+    @After
+    public void tearDown() {
+        Scheduler.setSchedulerService(null);
+    }
+
+    private RecordingJobsController newController(long revision) {
+        ExecutionsController executionsController = mock(ExecutionsController.class);
+        when(executionsController.getModel()).thenReturn(mock(ExecutionsModel.class));
+        when(executionsController.getParentController()).thenReturn(mock(SchedulerController.class));
+        JobsPaginationController paginationController = mock(JobsPaginationController.class);
+        when(paginationController.getModel()).thenReturn(mock(JobsPaginationModel.class));
+
+        RecordingJobsController controller = new RecordingJobsController(executionsController);
+        controller.setModel(mock(JobsModel.class));
+        controller.setPaginationController(paginationController);
+        answerRevision(revision);
+        return controller;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void answerRevision(long revision) {
+        SchedulerServiceAsync scheduler = mock(SchedulerServiceAsync.class);
+        doAnswer(invocation -> {
+            ((AsyncCallback<Long>) invocation.getArguments()[1]).onSuccess(revision);
+            return null;
+        }).when(scheduler).schedulerStateRevision(any(String.class), any(AsyncCallback.class));
+        Scheduler.setSchedulerService(scheduler);
+    }
+
+    /**
+     * Answers the jobs fetches with an empty page instead of querying the server.
+     */
+    private static class RecordingJobsController extends JobsController {
+
+        private final List<Long> fetchedRevisions = new ArrayList<>();
+
+        RecordingJobsController(ExecutionsController parentController) {
+            super(parentController);
+        }
+
+        @Override
+        void fetchJobs(boolean showUpdating, long revision) {
+            fetchedRevisions.add(revision);
+            jobsFetched(getCurrentJobsQuery(), revision, Collections.emptyMap());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.json;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.EntryPoint;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.dom.client.Document;
+import com.google.gwt.dom.client.PreElement;
+import com.google.gwt.json.client.JSONArray;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONParser;
+import com.google.gwt.json.client.JSONValue;
+
+
+/**
+ * Compares the decoding of a jobs page with {@link JobsResultOverlay} and of a tasks page with
+ * {@link TasksResultOverlay} to the former decoding, which wrapped each value with {@link JSONParser},
+ * on generated pages of 50 to 1000 items.
+ * <p>
+ * Not run with the tests: it needs a browser. The runGwtDecodeBenchmark task compiles the
+ * SchedulerDecodeBenchmark module and prints the page with the time taken by each decoding once run by
+ * headless Chrome. The compiled decodebenchmark/decode-benchmark.html can also be opened in any
+ * browser, the times are also logged in the browser console.
+ */
+public class DecodeBenchmark implements EntryPoint {
+
+    private static final int[] SIZES = { 50, 200, 1000 };
+
+    private static final int ITERATIONS = 20;
+
+    private PreElement output;
+
+    @Override
+    public void onModuleLoad() {
+        output = Document.get().createPreElement();
+        Document.get().getBody().appendChild(output);
+
+        for (int size : SIZES) {
+            String jobs = generateJobs(size);
+            String tasks = generateTasks(size);
+            // warm up
+            decodeJobs(jobs);
+            wrapAll(jobs);
+            decodeTasks(tasks);
+            wrapAll(tasks);
+
+            print(size + " jobs (" + jobs.length() / 1024 + " KB): overlay " + measure(() -> decodeJobs(jobs)) +
+                  ", JSONParser " + measure(() -> wrapAll(jobs)));
+            print(size + " tasks (" + tasks.length() / 1024 + " KB): overlay " + measure(() -> decodeTasks(tasks)) +
+                  ", JSONParser " + measure(() -> wrapAll(tasks)));
+        }
+    }
+
+    private static String measure(Runnable decoding) {
+        Duration duration = new Duration();
+        for (int i = 0; i < ITERATIONS; i++) {
+            decoding.run();
+        }
+        return (duration.elapsedMillis() / ITERATIONS) + " ms";
+    }
+
+    private static void decodeJobs(String json) {
+        try {
+            JsArray<JobsResultOverlay.JobNode> nodes = JobsResultOverlay.parse(json).getJobs().getNodes();
+            for (int i = 0; i < nodes.length(); i++) {
+                nodes.get(i).toJob();
+            }
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void decodeTasks(String json) {
+        try {
+            TasksResultOverlay.parse(json);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The part of the former decoding common to jobs and tasks: every value is parsed and wrapped,
+     * the POJOs are not even built.
+     */
+    private static void wrapAll(String json) {
+        visit(JSONParser.parseStrict(json));
+    }
+
+    private static int visit(JSONValue value) {
+        int count = 1;
+        JSONObject object = value.isObject();
+        if (object != null) {
+            for (String key : object.keySet()) {
+                count += visit(object.get(key));
+            }
+        }
+        JSONArray array = value.isArray();
+        if (array != null) {
+            for (int i = 0; i < array.size(); i++) {
+                count += visit(array.get(i));
+            }
+        }
+        return count;
+    }
+
+    private void print(String line) {
+        output.setInnerText(output.getInnerText() + line + "\n");
+        log(line);
+    }
+
+    private static native void log(String line) /*-{
+        $wnd.console.log(line);
+    }-*/;
+
+    private static String generateJobs(int size) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"data\":{\"jobs\":{\"totalCount\":")
+            .append(size)
+            .append(",\"pageInfo\":{\"hasNextPage\":false,\"hasPreviousPage\":false},\"edges\":[");
+        for (int i = 0; i < size; i++) {
+            json.append(i == 0 ? "" : ",")
+                .append("{\"node\":{\"id\":\"")
+                .append(i)
+                .append("\",\"name\":\"job ")
+                .append(i)
+                .append("\",\"owner\":\"admin\",\"tenant\":\"\",\"projectName\":\"project\",\"bucketName\":\"basic-examples\"")
+                .append(",\"status\":\"FINISHED\",\"priority\":\"NORMAL\",\"description\":\"generated job\"")
+                .append(",\"submissionMode\":\"scheduler-portal\",\"label\":null")
+                .append(",\"numberOfPendingTasks\":0,\"numberOfRunningTasks\":0,\"numberOfFinishedTasks\":10")
+                .append(",\"totalNumberOfTasks\":10,\"numberOfFailedTasks\":0,\"numberOfFaultyTasks\":0")
+                .append(",\"numberOfInErrorTasks\":0,\"submittedTime\":1700000000000,\"startTime\":1700000001000")
+                .append(",\"startAt\":null,\"inErrorTime\":-1,\"finishedTime\":1700000002000,\"cumulatedCoreTime\":1000")
+                .append(",\"parentId\":null,\"childrenCount\":0,\"numberOfNodes\":1,\"numberOfNodesInParallel\":1")
+                .append(",\"genericInformation\":[{\"key\":\"PRIORITY\",\"value\":\"high\"}]")
+                .append(",\"variables\":[{\"key\":\"host\",\"value\":\"localhost\"},{\"key\":\"port\",\"value\":\"8080\"}]")
+                .append(",\"resultMap\":[]}}");
+        }
+        return json.append("]}}}").toString();
+    }
+
+    private static String generateTasks(int size) {
+        StringBuilder json = new StringBuilder("{\"list\":[");
+        for (int i = 0; i < size; i++) {
+            json.append(i == 0 ? "" : ",")
+                .append("{\"name\":\"task ")
+                .append(i)
+                .append("\",\"description\":\"generated task\",\"tag\":null,\"maxNumberOfExecution\":2")
+                .append(",\"maxNumberOfExecutionOnFailure\":2,\"parallelEnvironment\":null")
+                .append(",\"taskInfo\":{\"taskId\":{\"id\":")
+                .append(i)
+                .append(",\"readableName\":\"task ")
+                .append(i)
+                .append("\"},\"jobId\":{\"id\":1,\"readableName\":\"job 1\"},\"taskStatus\":\"FINISHED\"")
+                .append(",\"executionHostName\":\"localhost\",\"startTime\":1700000001000,\"inErrorTime\":-1")
+                .append(",\"finishedTime\":1700000002000,\"executionDuration\":1000,\"scheduledTime\":-1")
+                .append(",\"numberOfExecutionLeft\":2,\"numberOfExecutionOnFailureLeft\":2")
+                .append(",\"visualizationActivated\":false,\"visualizationConnectionString\":null}}");
+        }
+        return json.append("],\"size\":").append(size).append("}").toString();
+    }
+}
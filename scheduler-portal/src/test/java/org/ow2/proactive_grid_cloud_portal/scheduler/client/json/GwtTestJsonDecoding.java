@@ -0,0 +1,194 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.json;
+
+import java.util.List;
+
+import org.ow2.proactive_grid_cloud_portal.common.client.json.JSONException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.Job;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.Task;
+
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.json.client.JSONArray;
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONParser;
+import com.google.gwt.junit.client.GWTTestCase;
+
+
+/**
+ * Checks that {@link JobsResultOverlay} and {@link TasksResultOverlay} decode the same values as the
+ * former decoding with {@link JSONParser}, kept in {@link LegacyJsonParsing}.
+ * <p>
+ * Runs the SchedulerJsonDecoding module in HtmlUnit: the overlays need a JavaScript engine.
+ */
+public class GwtTestJsonDecoding extends GWTTestCase {
+
+    private static final String JOBS = json("{'data':{'jobs':{'totalCount':2,'pageInfo':{'startCursor':'c1',",
+                                            "'endCursor':'c2','hasNextPage':true,'hasPreviousPage':false},",
+                                            "'edges':[{'node':{'id':'42','name':'replicate','owner':'admin',",
+                                            "'tenant':'team','projectName':'project','bucketName':'basic-examples',",
+                                            "'status':'RUNNING','priority':'HIGH','description':'a job',",
+                                            "'submissionMode':'scheduler-portal','label':'nightly',",
+                                            "'numberOfPendingTasks':1,'numberOfRunningTasks':2,",
+                                            "'numberOfFinishedTasks':3,'totalNumberOfTasks':7,",
+                                            "'numberOfFailedTasks':1,'numberOfFaultyTasks':0,",
+                                            "'numberOfInErrorTasks':0,'submittedTime':1700000000000,",
+                                            "'startTime':1700000001000,'startAt':1700000000500,'inErrorTime':-1,",
+                                            "'finishedTime':-1,'cumulatedCoreTime':123456,'parentId':41,",
+                                            "'childrenCount':2,'numberOfNodes':3,'numberOfNodesInParallel':2,",
+                                            "'genericInformation':[{'key':'PRIORITY','value':'high'},{'key':'icon',",
+                                            "'value':'a.png'}],'variables':[{'key':'host','value':'localhost'},",
+                                            "{'key':'password','value':'ENC(xyz)'}],'resultMap':[{'key':'out',",
+                                            "'value':'1'}]}},{'node':{'id':'43','name':'empty','owner':'user',",
+                                            "'tenant':null,'projectName':null,'bucketName':null,'status':'PENDING',",
+                                            "'priority':'NORMAL','description':null,'submissionMode':null,",
+                                            "'label':null,'numberOfPendingTasks':1,'numberOfRunningTasks':0,",
+                                            "'numberOfFinishedTasks':0,'totalNumberOfTasks':1,",
+                                            "'numberOfFailedTasks':0,'numberOfFaultyTasks':0,",
+                                            "'numberOfInErrorTasks':0,'submittedTime':1700000000000,'startTime':-1,",
+                                            "'startAt':null,'inErrorTime':-1,'finishedTime':-1,'parentId':null,",
+                                            "'genericInformation':[],'variables':null,'resultMap':[]}}]}}}");
+
+    private static final String TASKS = json("{'list':[{'name':'split','description':'a task','tag':'LOOP-1',",
+                                             "'maxNumberOfExecution':3,'maxNumberOfExecutionOnFailure':2,",
+                                             "'parallelEnvironment':{'nodesNumber':4},",
+                                             "'taskInfo':{'taskId':{'id':420001,'readableName':'split'},",
+                                             "'jobId':{'id':42,'readableName':'replicate'},'taskStatus':'RUNNING',",
+                                             "'executionHostName':'node-1','startTime':1700000001000,",
+                                             "'inErrorTime':-1,'finishedTime':-1,'executionDuration':-1,",
+                                             "'scheduledTime':1700000000900,'numberOfExecutionLeft':2,",
+                                             "'numberOfExecutionOnFailureLeft':1,'visualizationActivated':true,",
+                                             "'visualizationConnectionString':'vnc://node-1'}},{'name':'merge',",
+                                             "'tag':null,'maxNumberOfExecution':1,'maxNumberOfExecutionOnFailure':1,",
+                                             "'parallelEnvironment':null,'taskInfo':{'taskId':{'id':420002,",
+                                             "'readableName':'merge'},'jobId':{'id':42,'readableName':'replicate'},",
+                                             "'taskStatus':'PENDING','executionHostName':null,'startTime':-1,",
+                                             "'inErrorTime':-1,'finishedTime':-1,'executionDuration':-1,",
+                                             "'scheduledTime':-1,'numberOfExecutionLeft':1,",
+                                             "'numberOfExecutionOnFailureLeft':1,'visualizationActivated':null,",
+                                             "'visualizationConnectionString':null}}],'size':12}");
+
+    @Override
+    public String getModuleName() {
+        return "org.ow2.proactive_grid_cloud_portal.SchedulerJsonDecoding";
+    }
+
+    public void testJobsAreDecodedAsWithJSONParser() throws JSONException {
+        JsArray<JobsResultOverlay.JobNode> nodes = JobsResultOverlay.parse(JOBS).getJobs().getNodes();
+        JSONArray edges = JSONParser.parseStrict(JOBS)
+                                    .isObject()
+                                    .get("data")
+                                    .isObject()
+                                    .get("jobs")
+                                    .isObject()
+                                    .get("edges")
+                                    .isArray();
+
+        assertEquals(edges.size(), nodes.length());
+        for (int i = 0; i < nodes.length(); i++) {
+            JSONObject legacyNode = edges.get(i).isObject().get("node").isObject();
+            assertJobEquals(LegacyJsonParsing.parseJob(legacyNode), nodes.get(i).toJob());
+        }
+    }
+
+    public void testTasksAreDecodedAsWithJSONParser() throws JSONException {
+        JSONPaginatedTasks page = TasksResultOverlay.parse(TASKS);
+        JSONObject legacyPage = JSONParser.parseStrict(TASKS).isObject();
+        JSONArray legacyTasks = legacyPage.get("list").isArray();
+
+        assertEquals((long) legacyPage.get("size").isNumber().doubleValue(), page.getTotalTasks());
+        List<Task> tasks = page.getTasks();
+        assertEquals(legacyTasks.size(), tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertTaskEquals(LegacyJsonParsing.parseTask(legacyTasks.get(i).isObject()), tasks.get(i));
+        }
+    }
+
+    /**
+     * @return the parts joined, with single quotes replaced by double quotes
+     */
+    private static String json(String... parts) {
+        return String.join("", parts).replace('\'', '"');
+    }
+
+    private static void assertJobEquals(Job expected, Job actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getProjectName(), actual.getProjectName());
+        assertEquals(expected.getBucketName(), actual.getBucketName());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getPriority(), actual.getPriority());
+        assertEquals(expected.getUser(), actual.getUser());
+        assertEquals(expected.getTenant(), actual.getTenant());
+        assertEquals(expected.getGenericInformation(), actual.getGenericInformation());
+        assertEquals(expected.getVariables(), actual.getVariables());
+        assertEquals(expected.getResultMap(), actual.getResultMap());
+        assertEquals(expected.getPendingTasks(), actual.getPendingTasks());
+        assertEquals(expected.getRunningTasks(), actual.getRunningTasks());
+        assertEquals(expected.getFinishedTasks(), actual.getFinishedTasks());
+        assertEquals(expected.getTotalTasks(), actual.getTotalTasks());
+        assertEquals(expected.getFailedTasks(), actual.getFailedTasks());
+        assertEquals(expected.getFaultyTasks(), actual.getFaultyTasks());
+        assertEquals(expected.getInErrorTasks(), actual.getInErrorTasks());
+        assertEquals(expected.getSubmitTime(), actual.getSubmitTime());
+        assertEquals(expected.getStartAtTime(), actual.getStartAtTime());
+        assertEquals(expected.getStartTime(), actual.getStartTime());
+        assertEquals(expected.getInErrorTime(), actual.getInErrorTime());
+        assertEquals(expected.getFinishTime(), actual.getFinishTime());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getCumulatedCoreTime(), actual.getCumulatedCoreTime());
+        assertEquals(expected.getParentId(), actual.getParentId());
+        assertEquals(expected.getChildrenCount(), actual.getChildrenCount());
+        assertEquals(expected.getNumberOfNodes(), actual.getNumberOfNodes());
+        assertEquals(expected.getNumberOfNodesInParallel(), actual.getNumberOfNodesInParallel());
+        assertEquals(expected.getSubmissionMode(), actual.getSubmissionMode());
+        assertEquals(expected.getLabel(), actual.getLabel());
+    }
+
+    private static void assertTaskEquals(Task expected, Task actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getHostName(), actual.getHostName());
+        assertEquals(expected.getStartTime(), actual.getStartTime());
+        assertEquals(expected.getInErrorTime(), actual.getInErrorTime());
+        assertEquals(expected.getFinishTime(), actual.getFinishTime());
+        assertEquals(expected.getScheduledTime(), actual.getScheduledTime());
+        assertEquals(expected.getStartAtTime(), actual.getStartAtTime());
+        assertEquals(expected.getExecutionTime(), actual.getExecutionTime());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getNodeCount(), actual.getNodeCount());
+        assertEquals(expected.getMaxNumberOfExec(), actual.getMaxNumberOfExec());
+        assertEquals(expected.getNumberOfExecLeft(), actual.getNumberOfExecLeft());
+        assertEquals(expected.getMaxNumberOfExecOnFailure(), actual.getMaxNumberOfExecOnFailure());
+        assertEquals(expected.getNumberOfExecOnFailureLeft(), actual.getNumberOfExecOnFailureLeft());
+        assertEquals(expected.isVisualizationActivated(), actual.isVisualizationActivated());
+        assertEquals(expected.getVisualizationConnectionString(), actual.getVisualizationConnectionString());
+        assertEquals(expected.getTag(), actual.getTag());
+        assertEquals(expected.getJobId(), actual.getJobId());
+        assertEquals(expected.getJobName(), actual.getJobName());
+    }
+}
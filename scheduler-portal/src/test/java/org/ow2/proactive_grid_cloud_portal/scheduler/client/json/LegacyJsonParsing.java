@@ -0,0 +1,231 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.json;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.Job;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobBuilder;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobPriority;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobStatus;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.Task;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.TaskStatus;
+
+import com.google.gwt.json.client.JSONObject;
+import com.google.gwt.json.client.JSONString;
+import com.google.gwt.json.client.JSONValue;
+
+
+/**
+ * The decoding of the jobs and tasks with {@link com.google.gwt.json.client.JSONParser} replaced by
+ * {@link JobsResultOverlay} and {@link TasksResultOverlay}, kept to check that both decode the same values.
+ */
+class LegacyJsonParsing {
+
+    private LegacyJsonParsing() {
+    }
+
+    /**
+     * @param jsonJobInfo the JSON representation of a job
+     * @return a POJO equivalent
+     */
+    static Job parseJob(JSONObject jsonJobInfo) {
+        String user = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("owner"));
+        String tenant = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("tenant"));
+        String priority = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("priority"));
+        String status = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("status"));
+        int pending = (int) jsonJobInfo.get("numberOfPendingTasks").isNumber().doubleValue();
+        int running = (int) jsonJobInfo.get("numberOfRunningTasks").isNumber().doubleValue();
+        int finished = (int) jsonJobInfo.get("numberOfFinishedTasks").isNumber().doubleValue();
+        int total = (int) jsonJobInfo.get("totalNumberOfTasks").isNumber().doubleValue();
+        int failed = (int) jsonJobInfo.get("numberOfFailedTasks").isNumber().doubleValue();
+        int faulty = (int) jsonJobInfo.get("numberOfFaultyTasks").isNumber().doubleValue();
+        int inError = (int) jsonJobInfo.get("numberOfInErrorTasks").isNumber().doubleValue();
+        long submittedTime = (long) jsonJobInfo.get("submittedTime").isNumber().doubleValue();
+        long startTime = (long) jsonJobInfo.get("startTime").isNumber().doubleValue();
+        Long startAtTime = null;
+        if (jsonJobInfo.get("startAt").isNumber() != null) {
+            startAtTime = (long) jsonJobInfo.get("startAt").isNumber().doubleValue();
+        }
+        long inErrorTime = (long) jsonJobInfo.get("inErrorTime").isNumber().doubleValue();
+        long finishedTime = (long) jsonJobInfo.get("finishedTime").isNumber().doubleValue();
+        long cumulatedCoreTime = jsonJobInfo.get("cumulatedCoreTime") == null ? 0
+                                                                              : (long) jsonJobInfo.get("cumulatedCoreTime")
+                                                                                                  .isNumber()
+                                                                                                  .doubleValue();
+        JSONValue parentIdValue = jsonJobInfo.get("parentId");
+        long parentId = parentIdValue == null ? 0
+                                              : parentIdValue.isNumber() == null ? 0
+                                                                                 : (long) parentIdValue.isNumber()
+                                                                                                       .doubleValue();
+        int childrenCount = (int) (jsonJobInfo.get("childrenCount") == null ? 0 : jsonJobInfo.get("childrenCount")
+                                                                                             .isNumber()
+                                                                                             .doubleValue());
+        int numberOfNodes = (int) (jsonJobInfo.get("numberOfNodes") == null ? 0 : jsonJobInfo.get("numberOfNodes")
+                                                                                             .isNumber()
+                                                                                             .doubleValue());
+        int numberOfNodesInParallel = (int) (jsonJobInfo.get("numberOfNodesInParallel") == null ? 0
+                                                                                                : jsonJobInfo.get("numberOfNodesInParallel")
+                                                                                                             .isNumber()
+                                                                                                             .doubleValue());
+        String description = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("description"));
+
+        Map<String, String> genericInformation = SchedulerJSONUtils.extractMap(jsonJobInfo.get("genericInformation"));
+        Map<String, String> variables = SchedulerJSONUtils.extractMap(jsonJobInfo.get("variables"));
+        Map<String, String> resultMap = SchedulerJSONUtils.extractMap(jsonJobInfo.get("resultMap"));
+
+        String name = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("name"));
+        String projectName = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("projectName"));
+        String bucketName = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("bucketName"));
+        String submissionMode = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("submissionMode"));
+        String label = SchedulerJSONUtils.getStringOrDefault(jsonJobInfo.get("label"));
+        int id = Integer.valueOf(jsonJobInfo.get("id").isString().stringValue());
+
+        return new JobBuilder().id(id)
+                               .name(name)
+                               .projectName(projectName)
+                               .bucketName(bucketName)
+                               .status(JobStatus.valueOf(status))
+                               .priority(JobPriority.findPriority(priority))
+                               .user(user)
+                               .tenant(tenant)
+                               .genericInformation(genericInformation)
+                               .variables(variables)
+                               .detailedVariables(new HashMap<>())
+                               .resultMap(resultMap)
+                               .pendingTasks(pending)
+                               .runningTasks(running)
+                               .finishedTasks(finished)
+                               .totalTasks(total)
+                               .failedTasks(failed)
+                               .faultyTasks(faulty)
+                               .inErrorTasks(inError)
+                               .submitTime(submittedTime)
+                               .startAtTime(startAtTime)
+                               .startTime(startTime)
+                               .inErrorTime(inErrorTime)
+                               .finishTime(finishedTime)
+                               .description(description)
+                               .cumulatedCoreTime(cumulatedCoreTime)
+                               .parentId(parentId)
+                               .childrenCount(childrenCount)
+                               .numberOfNodes(numberOfNodes)
+                               .numberOfNodesInParallel(numberOfNodesInParallel)
+                               .submissionMode(submissionMode)
+                               .label(label)
+                               .build();
+    }
+
+    /**
+     * @param jsonTask the JSON representation of a Task
+     * @return the POJO equivalent
+     */
+    static Task parseTask(JSONObject jsonTask) {
+        String name = SchedulerJSONUtils.getStringOrDefault(jsonTask.get("name"));
+        JSONObject taskInfo = jsonTask.get("taskInfo").isObject();
+        String hostName = "";
+        if (taskInfo.containsKey("executionHostName")) {
+            JSONString host = taskInfo.get("executionHostName").isString();
+            if (host != null) {
+                hostName = host.stringValue();
+            }
+        }
+        long id = (long) taskInfo.get("taskId").isObject().get("id").isNumber().doubleValue();
+        String status = taskInfo.get("taskStatus").isString().stringValue();
+        TaskStatus taskStatus = TaskStatus.valueOf(status);
+        long startTime = (long) taskInfo.get("startTime").isNumber().doubleValue();
+        long inErrorTime = (long) taskInfo.get("inErrorTime").isNumber().doubleValue();
+        long finishedTime = (long) taskInfo.get("finishedTime").isNumber().doubleValue();
+        long executionDuration = (long) taskInfo.get("executionDuration").isNumber().doubleValue();
+
+        JSONObject jobIdInfo = taskInfo.get("jobId").isObject();
+
+        long jobId = (long) jobIdInfo.get("id").isNumber().doubleValue();
+        String jobName = SchedulerJSONUtils.getStringOrDefault(jobIdInfo.get("readableName"));
+
+        String description = "";
+        if (jsonTask.containsKey("description")) {
+            JSONString desc = jsonTask.get("description").isString();
+            if (desc != null)
+                description = desc.stringValue();
+        }
+        String tag = "";
+        JSONValue tagValue = jsonTask.get("tag");
+        if (tagValue != null && tagValue instanceof JSONString) {
+            tag = ((JSONString) tagValue).stringValue();
+        }
+        int maxExec = (int) jsonTask.get("maxNumberOfExecution").isNumber().doubleValue();
+        int execLeft = (int) taskInfo.get("numberOfExecutionLeft").isNumber().doubleValue();
+        int execOnFailureLeft = (int) taskInfo.get("numberOfExecutionOnFailureLeft").isNumber().doubleValue();
+        int maxExecOnFailure = (int) jsonTask.get("maxNumberOfExecutionOnFailure").isNumber().doubleValue();
+        boolean visualizationActivated = false;
+        String visualizationConnectionString = "";
+        if (taskInfo.containsKey("visualizationActivated") &&
+            taskInfo.get("visualizationActivated").isBoolean() != null) {
+            visualizationActivated = (boolean) taskInfo.get("visualizationActivated").isBoolean().booleanValue();
+        }
+        if (taskInfo.containsKey("visualizationConnectionString") &&
+            taskInfo.get("visualizationConnectionString").isString() != null) {
+            visualizationConnectionString = (String) taskInfo.get("visualizationConnectionString")
+                                                             .isString()
+                                                             .stringValue();
+        }
+
+        int nodes = 1;
+        if (jsonTask.containsKey("parallelEnvironment")) {
+            JSONObject parEnv = jsonTask.get("parallelEnvironment").isObject();
+            if (parEnv != null && parEnv.containsKey("nodesNumber")) {
+                nodes = (int) parEnv.get("nodesNumber").isNumber().doubleValue();
+            }
+        }
+        long scheduledTime = (long) taskInfo.get("scheduledTime").isNumber().doubleValue();
+
+        Task result = new Task(id,
+                               name,
+                               taskStatus,
+                               hostName,
+                               startTime,
+                               inErrorTime,
+                               finishedTime,
+                               scheduledTime,
+                               executionDuration,
+                               description,
+                               nodes,
+                               maxExec,
+                               execLeft,
+                               maxExecOnFailure,
+                               execOnFailureLeft,
+                               visualizationActivated,
+                               visualizationConnectionString);
+        result.setTag(tag);
+        result.setJobId(jobId);
+        result.setJobName(jobName);
+
+        result.setStartAtTime(scheduledTime);
+        return result;
+    }
+}
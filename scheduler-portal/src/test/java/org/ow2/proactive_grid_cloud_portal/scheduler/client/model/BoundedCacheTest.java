@@ -0,0 +1,124 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+
+public class BoundedCacheTest {
+
+    @Test
+    public void testLeastRecentlyUsedEvictedBeyondMaxEntries() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, Long.MAX_VALUE, String::length);
+        cache.put("1", "a");
+        cache.put("2", "b");
+        cache.get("1");
+        cache.put("3", "c");
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("1"));
+        assertNull(cache.get("2"));
+        assertNotNull(cache.get("3"));
+    }
+
+    @Test
+    public void testEvictedBeyondMaxWeight() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 5, String::length);
+        cache.put("1", "aa");
+        cache.put("2", "bb");
+        cache.put("3", "cc");
+
+        assertEquals(2, cache.size());
+        assertEquals(4, cache.getTotalWeight());
+        assertNull(cache.get("1"));
+    }
+
+    @Test
+    public void testMostRecentlyUsedKeptWhenHeavierThanMaxWeight() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 5, String::length);
+        cache.put("1", "aa");
+        cache.put("2", "too heavy");
+
+        assertEquals(1, cache.size());
+        assertEquals("too heavy", cache.get("2"));
+    }
+
+    @Test
+    public void testUpdatedValueIsWeighedAgain() {
+        StringBuilder growing = new StringBuilder("a");
+        BoundedCache<String, StringBuilder> cache = new BoundedCache<>(10, 5, StringBuilder::length);
+        cache.put("1", new StringBuilder("aa"));
+        cache.put("2", growing);
+
+        growing.append("aaaa");
+        cache.updated("2");
+
+        assertEquals(1, cache.size());
+        assertEquals(5, cache.getTotalWeight());
+        assertNull(cache.get("1"));
+    }
+
+    @Test
+    public void testRemovedKeysAreDropped() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Long.MAX_VALUE, String::length);
+        cache.put("1", "aa");
+        cache.put("2", "bb");
+        cache.put("3", "cc");
+
+        cache.removeAll(Arrays.asList("1", "3", "4"));
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getTotalWeight());
+        assertNotNull(cache.get("2"));
+    }
+
+    @Test
+    public void testPinnedKeyIsNeverEvicted() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, 5, String::length);
+        cache.put("1", "aaaaaaaa");
+        cache.pin("1");
+
+        cache.put("2", "bb");
+        cache.put("3", "cc");
+        cache.put("4", "dd");
+
+        assertEquals(2, cache.size());
+        assertEquals(10, cache.getTotalWeight());
+        assertNotNull(cache.get("1"));
+        assertNotNull(cache.get("4"));
+
+        cache.pin(null);
+
+        assertEquals(1, cache.size());
+        assertNull(cache.get("1"));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.model;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.Job;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobBuilder;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobPriority;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobStatus;
+
+
+public class JobsDiffTest {
+
+    @Test
+    public void testAllJobsAddedWithoutPreviousList() {
+        JobsDiff diff = JobsDiff.compute(null, jobs(job(1, 0), job(2, 0)));
+
+        assertEquals(2, diff.getAdded().size());
+        assertTrue(diff.getRemoved().isEmpty());
+        assertTrue(diff.getChanged().isEmpty());
+    }
+
+    @Test
+    public void testUnchangedJobsGiveEmptyDiff() {
+        JobsDiff diff = JobsDiff.compute(jobs(job(1, 3), job(2, 0)), jobs(job(1, 3), job(2, 0)));
+
+        assertTrue(diff.isEmpty());
+    }
+
+    @Test
+    public void testAddedRemovedAndChangedJobs() {
+        JobsDiff diff = JobsDiff.compute(jobs(job(1, 3), job(2, 0), job(3, 0)), jobs(job(1, 4), job(3, 0), job(4, 0)));
+
+        assertEquals(Collections.singletonList(4), diff.getAdded().stream().map(Job::getId).collect(toList()));
+        assertEquals(Collections.singletonList(2), diff.getRemoved());
+        assertEquals(Collections.singletonList(1), diff.getChanged().stream().map(Job::getId).collect(toList()));
+    }
+
+    @Test
+    public void testFieldsIgnoredByIsEqualAreCompared() {
+        Job before = job(1, 3);
+        Job after = new JobBuilder().id(1)
+                                    .name("job")
+                                    .status(JobStatus.RUNNING)
+                                    .priority(JobPriority.NORMAL)
+                                    .finishedTasks(3)
+                                    .totalTasks(10)
+                                    .startTime(2000)
+                                    .build();
+
+        assertFalse(JobsDiff.sameFields(before, after));
+    }
+
+    private static Map<Integer, Job> jobs(Job... jobs) {
+        Map<Integer, Job> result = new LinkedHashMap<>();
+        for (Job job : jobs) {
+            result.put(job.getId(), job);
+        }
+        return result;
+    }
+
+    private static Job job(int id, int finishedTasks) {
+        return new JobBuilder().id(id)
+                               .name("job")
+                               .status(JobStatus.RUNNING)
+                               .priority(JobPriority.NORMAL)
+                               .finishedTasks(finishedTasks)
+                               .totalTasks(10)
+                               .startTime(1000)
+                               .build();
+    }
+}
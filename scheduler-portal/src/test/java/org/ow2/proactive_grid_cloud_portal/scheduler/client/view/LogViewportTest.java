@@ -0,0 +1,135 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.client.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+
+public class LogViewportTest {
+
+    private final List<String> first = new ArrayList<>(Arrays.asList("<nobr>a &amp; b</nobr><br>", "<nobr>c</nobr><br>"));
+
+    private final List<String> second = new ArrayList<>(Arrays.asList("<nobr>d</nobr><br>"));
+
+    private final LogViewport viewport = new LogViewport();
+
+    @Test
+    public void lines_are_indexed_across_blocks() {
+        viewport.setBlocks(Arrays.asList(first, Collections.<String> emptyList(), second));
+
+        assertEquals(3, viewport.getLineCount());
+        assertEquals("<nobr>c</nobr><br>", viewport.getLine(1));
+        assertEquals("<nobr>d</nobr><br>", viewport.getLine(2));
+        assertEquals(2, viewport.getBlockStart(second));
+        assertEquals(-1, viewport.getBlockStart(new ArrayList<>(second)));
+    }
+
+    @Test
+    public void only_the_requested_range_is_rendered() {
+        viewport.setBlocks(Arrays.asList(first, second));
+
+        String html = viewport.render(1, 10, 16, 2);
+
+        assertFalse(html.contains("a &amp; b"));
+        assertTrue(html.contains(">c<"));
+        assertTrue(html.contains("background-color"));
+        assertEquals(2, html.split("<div").length - 1);
+    }
+
+    @Test
+    public void appended_lines_are_seen_after_indexing_again() {
+        viewport.setBlocks(Collections.singletonList(first));
+        first.add("<nobr>e</nobr><br>");
+
+        assertEquals(2, viewport.getLineCount());
+        viewport.setBlocks(Collections.singletonList(first));
+        assertEquals(3, viewport.getLineCount());
+    }
+
+    @Test
+    public void search_ignores_tags_and_case_and_wraps_around() {
+        viewport.setBlocks(Arrays.asList(first, second));
+
+        assertEquals(0, viewport.find("A & B", 0));
+        assertEquals(2, viewport.find("D", 1));
+        assertEquals(0, viewport.find("a", 1));
+        assertEquals(-1, viewport.find("nobr", 0));
+        assertEquals(-1, viewport.find("", 0));
+    }
+
+    @Test
+    public void long_lines_are_rendered_whole_without_wrapping() {
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            longText.append("word").append(i).append(' ');
+        }
+        viewport.setBlocks(Collections.singletonList(Collections.singletonList("<nobr>" + longText + "</nobr><br>")));
+
+        String html = viewport.render(0, 1, 16, -1);
+
+        assertTrue(html.contains(longText.toString()));
+        assertTrue(html.contains("white-space:nowrap"));
+        assertFalse(html.contains("overflow:hidden"));
+        assertEquals(1, viewport.getRowCount());
+    }
+
+    @Test
+    public void multi_line_entries_take_one_row_per_line() {
+        List<String> failure = Collections.singletonList("<span>Exception<br>at a<br>at b</span>");
+        viewport.setBlocks(Arrays.asList(first, failure, second));
+
+        assertEquals(4, viewport.getLineCount());
+        assertEquals(6, viewport.getRowCount());
+        assertEquals(2, viewport.getRowOf(2));
+        assertEquals(5, viewport.getRowOf(3));
+        assertEquals(6, viewport.getRowOf(4));
+        assertEquals(2, viewport.getLineAt(3));
+        assertEquals(2, viewport.getLineAt(4));
+        assertEquals(3, viewport.getLineAt(5));
+        assertEquals(4, viewport.getLineAt(6));
+        assertTrue(viewport.render(2, 3, 16, -1).contains("height:48px;"));
+    }
+
+    @Test
+    public void replaced_lines_are_measured_again() {
+        viewport.setBlocks(Collections.singletonList(first));
+        first.set(1, "a<br>b");
+
+        viewport.setBlocks(Collections.singletonList(first));
+
+        assertEquals(3, viewport.getRowCount());
+        assertEquals(1, LogViewport.rowsOf("<nobr>c</nobr><br>"));
+    }
+}
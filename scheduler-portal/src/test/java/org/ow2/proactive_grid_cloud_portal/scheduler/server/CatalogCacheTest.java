@@ -0,0 +1,210 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.common.server.SessionLogins;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.server.CatalogCache.CatalogResponse;
+
+
+public class CatalogCacheTest {
+
+    private static final String CATALOG_URL = "http://localhost:8080/catalog";
+
+    private static final String BUCKETS_URL = CATALOG_URL + "/buckets?" + CatalogCache.WORKFLOW_KIND;
+
+    private final Map<String, String> catalogTags = new HashMap<>();
+
+    private final Map<String, byte[]> catalogContents = new HashMap<>();
+
+    private final List<String> sentTags = new ArrayList<>();
+
+    // responses are revalidated on each use, unless stated otherwise
+    private CatalogCache cache = newCache(0);
+
+    @Test
+    public void unchanged_response_is_served_from_the_cache() throws Exception {
+        publish(BUCKETS_URL, "\"1\"", "[{\"name\":\"basic-examples\"}]");
+
+        byte[] first = cache.getBuckets("alice-1");
+        byte[] second = cache.getBuckets("alice-2");
+
+        assertArrayEquals(first, second);
+        assertNull(sentTags.get(0));
+        assertEquals("\"1\"", sentTags.get(1));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void listings_are_not_shared_between_users() throws Exception {
+        publish(BUCKETS_URL, "\"1\"", "[{\"name\":\"basic-examples\"}]");
+
+        cache.getBuckets("alice-1");
+        cache.getBuckets("bob-1");
+
+        // the catalog may give the same entity tag to listings filtered for different users
+        assertNull(sentTags.get(1));
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void workflows_are_shared_between_users() throws Exception {
+        String url = CATALOG_URL + "/buckets/basic-examples/resources/Hello%20World/raw";
+        publish(url, "\"1\"", "<job/>");
+
+        cache.getWorkflow("alice-1", "basic-examples", "Hello World");
+        cache.getWorkflow("bob-1", "basic-examples", "Hello World");
+
+        assertEquals("\"1\"", sentTags.get(1));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void changed_response_is_transferred_again() throws Exception {
+        publish(BUCKETS_URL, "\"1\"", "[]");
+        cache.getBuckets("alice-1");
+        publish(BUCKETS_URL, "\"2\"", "[{\"name\":\"basic-examples\"}]");
+
+        assertEquals("[{\"name\":\"basic-examples\"}]", new String(cache.getBuckets("alice-1"), StandardCharsets.UTF_8));
+        assertEquals(2, cache.getMisses());
+
+        cache.getBuckets("alice-1");
+        assertEquals("\"2\"", sentTags.get(2));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void workflows_are_keyed_by_bucket_and_name() throws Exception {
+        String url = CATALOG_URL + "/buckets/basic-examples/resources/Hello%20World/raw";
+        publish(url, "\"1\"", "<job/>");
+
+        cache.getWorkflow("alice-1", "basic-examples", "Hello World");
+        cache.getWorkflow("alice-1", "basic-examples", "Hello World");
+
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void responses_without_entity_tag_are_not_cached() throws Exception {
+        publish(BUCKETS_URL, null, "[]");
+
+        cache.getBuckets("alice-1");
+        cache.getBuckets("alice-1");
+
+        assertNull(sentTags.get(1));
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void responses_larger_than_the_limit_are_not_kept() throws Exception {
+        String url = CATALOG_URL + "/buckets/big/resources/big/raw";
+        publish(url, "\"1\"", new String(new char[2000]));
+
+        cache.getWorkflow("alice-1", "big", "big");
+        cache.getWorkflow("alice-1", "big", "big");
+
+        assertNull(sentTags.get(1));
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void fresh_response_is_served_without_the_catalog() throws Exception {
+        cache = newCache(60_000);
+        publish(BUCKETS_URL, "\"1\"", "[]");
+
+        cache.getBuckets("alice-1");
+        publish(BUCKETS_URL, "\"2\"", "[{\"name\":\"basic-examples\"}]");
+
+        assertEquals("[]", new String(cache.getBuckets("alice-2"), StandardCharsets.UTF_8));
+        assertEquals(1, sentTags.size());
+        assertEquals(1, cache.getFreshHits());
+    }
+
+    @Test
+    public void fresh_workflow_is_revalidated_for_another_user() throws Exception {
+        cache = newCache(60_000);
+        String url = CATALOG_URL + "/buckets/basic-examples/resources/Hello%20World/raw";
+        publish(url, "\"1\"", "<job/>");
+
+        cache.getWorkflow("alice-1", "basic-examples", "Hello World");
+        cache.getWorkflow("bob-1", "basic-examples", "Hello World");
+        cache.getWorkflow("bob-2", "basic-examples", "Hello World");
+
+        // the catalog checks that bob may read the workflow before it is served to him
+        assertEquals(2, sentTags.size());
+        assertEquals("\"1\"", sentTags.get(1));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getFreshHits());
+    }
+
+    @Test
+    public void catalog_errors_are_reported() throws Exception {
+        try {
+            cache.getWorkflows("alice-1", "unknown");
+            fail();
+        } catch (RestServerException e) {
+            assertEquals(404, e.getStatus());
+        }
+    }
+
+    private CatalogCache newCache(long freshMillis) {
+        return new CatalogCache(CATALOG_URL, 1000, freshMillis, new SessionLogins(this::login), this::fetch);
+    }
+
+    private void publish(String url, String entityTag, String content) {
+        catalogTags.put(url, entityTag);
+        catalogContents.put(url, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String login(String sessionId) {
+        return sessionId.substring(0, sessionId.indexOf('-'));
+    }
+
+    private CatalogResponse fetch(String url, String sessionId, String entityTag) {
+        sentTags.add(entityTag);
+        if (!catalogContents.containsKey(url)) {
+            return new CatalogResponse(404, null, "not found".getBytes(StandardCharsets.UTF_8));
+        }
+        String currentTag = catalogTags.get(url);
+        if (entityTag != null && entityTag.equals(currentTag)) {
+            return new CatalogResponse(304, currentTag, new byte[0]);
+        }
+        return new CatalogResponse(200, currentTag, catalogContents.get(url));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+
+/**
+ * Compares the task result download of {@link DownloadTaskResultServlet}, copied through a buffer and
+ * resumed by forwarding the Range header to the scheduler, to the former download, copied one byte at a
+ * time and always sent in full, on results of 10 MB to 500 MB served by a local http server.
+ * <p>
+ * Not run with the tests, launch the main method and compare the time taken by each download. The
+ * resumed download asks for the second half of the result.
+ */
+public class DownloadTaskResultBenchmark {
+
+    private static final int[] SIZES_MB = { 10, 100, 500 };
+
+    private static final int ITERATIONS = 3;
+
+    /** the default sched.download.buffer.size */
+    private static final int BUFFER_SIZE = 65536;
+
+    /** the response buffer of the servlet container, which the former download wrote each byte to */
+    private static final int RESPONSE_BUFFER_SIZE = 8192;
+
+    public static void main(String[] args) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/result", DownloadTaskResultBenchmark::serveResult);
+        server.start();
+        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+            String url = "http://localhost:" + server.getAddress().getPort() + "/result?size=";
+            for (int sizeMb : SIZES_MB) {
+                String result = url + sizeMb * 1024L * 1024L;
+                String secondHalf = "bytes=" + sizeMb * 1024L * 512L + "-";
+                // warm up
+                downloadBuffered(httpClient, result, null);
+                downloadByteByByte(httpClient, result);
+
+                System.out.println(String.format("%d MB: buffered %s, byte by byte %s, " +
+                                                 "resumed buffered %s, resumed byte by byte %s",
+                                                 sizeMb,
+                                                 measure(() -> downloadBuffered(httpClient, result, null)),
+                                                 measure(() -> downloadByteByByte(httpClient, result)),
+                                                 measure(() -> downloadBuffered(httpClient, result, secondHalf)),
+                                                 measure(() -> downloadByteByByte(httpClient, result))));
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static String measure(Download download) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            download.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000 / ITERATIONS + " ms";
+    }
+
+    /**
+     * The download of {@link DownloadTaskResultServlet}.
+     */
+    private static void downloadBuffered(CloseableHttpClient httpClient, String url, String range) throws IOException {
+        HttpGet method = new HttpGet(url);
+        method.setHeader(HttpHeaders.ACCEPT_ENCODING, "identity");
+        if (range != null) {
+            method.setHeader(HttpHeaders.RANGE, range);
+        }
+        try (CloseableHttpResponse response = httpClient.execute(method);
+                InputStream is = response.getEntity().getContent()) {
+            IOUtils.copyLarge(is, NullOutputStream.INSTANCE, new byte[BUFFER_SIZE]);
+        }
+    }
+
+    /**
+     * The former download of {@link DownloadTaskResultServlet}: each byte was copied on its own, and a
+     * resumed download received the whole result again.
+     */
+    private static void downloadByteByByte(CloseableHttpClient httpClient, String url) throws IOException {
+        try (CloseableHttpResponse response = httpClient.execute(new HttpGet(url));
+                InputStream is = response.getEntity().getContent();
+                OutputStream out = new BufferedOutputStream(NullOutputStream.INSTANCE, RESPONSE_BUFFER_SIZE)) {
+            int buf;
+            while ((buf = is.read()) != -1) {
+                out.write(buf);
+            }
+        }
+    }
+
+    /**
+     * Serves a generated result of the requested size, or the range starting at the position of a
+     * "bytes=first-" Range header.
+     */
+    private static void serveResult(HttpExchange exchange) throws IOException {
+        long length = Long.parseLong(exchange.getRequestURI().getQuery().substring("size=".length()));
+        String range = exchange.getRequestHeaders().getFirst(HttpHeaders.RANGE);
+        long first = 0;
+        if (range != null) {
+            first = Long.parseLong(range.substring("bytes=".length(), range.length() - 1));
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + first + "-" + (length - 1) + "/" + length);
+            exchange.sendResponseHeaders(206, length - first);
+        } else {
+            exchange.sendResponseHeaders(200, length);
+        }
+        byte[] chunk = new byte[BUFFER_SIZE];
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (long remaining = length - first; remaining > 0; remaining -= chunk.length) {
+                out.write(chunk, 0, (int) Math.min(chunk.length, remaining));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Download {
+        void run() throws Exception;
+    }
+}
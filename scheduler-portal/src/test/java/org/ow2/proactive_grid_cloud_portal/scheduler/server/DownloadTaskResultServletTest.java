@@ -0,0 +1,112 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.scheduler.server.DownloadTaskResultServlet.ByteRange;
+import org.ow2.proactive_grid_cloud_portal.scheduler.server.DownloadTaskResultServlet.ContentRange;
+
+
+public class DownloadTaskResultServletTest {
+
+    @Test
+    public void testBoundedRange() {
+        ByteRange range = ByteRange.parse("bytes=10-19", 100);
+
+        assertEquals(10, range.first);
+        assertEquals(19, range.last);
+        assertEquals(10, range.length());
+    }
+
+    @Test
+    public void testOpenRangeGoesToTheEnd() {
+        ByteRange range = ByteRange.parse("bytes=90-", 100);
+
+        assertEquals(90, range.first);
+        assertEquals(99, range.last);
+    }
+
+    @Test
+    public void testSuffixRange() {
+        ByteRange range = ByteRange.parse("bytes=-30", 100);
+
+        assertEquals(70, range.first);
+        assertEquals(99, range.last);
+        assertEquals(0, ByteRange.parse("bytes=-300", 100).first);
+    }
+
+    @Test
+    public void testRangeIsBoundedByTheLength() {
+        assertEquals(99, ByteRange.parse("bytes=50-500", 100).last);
+    }
+
+    @Test
+    public void testRangeAfterTheEndIsUnsatisfiable() {
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=100-", 100));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", 100));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-10", 0));
+    }
+
+    @Test
+    public void testWholeContentIsSentForUnsupportedRanges() {
+        assertNull(ByteRange.parse(null, 100));
+        assertNull(ByteRange.parse("items=0-10", 100));
+        assertNull(ByteRange.parse("bytes=0-10,20-30", 100));
+        assertNull(ByteRange.parse("bytes=20-10", 100));
+        assertNull(ByteRange.parse("bytes=a-b", 100));
+        assertNull(ByteRange.parse("bytes=-", 100));
+    }
+
+    @Test
+    public void testOnlySingleByteRangesAreForwarded() {
+        assertEquals("bytes=10-", DownloadTaskResultServlet.forwardableRange("bytes=10-"));
+        assertNull(DownloadTaskResultServlet.forwardableRange(null));
+        assertNull(DownloadTaskResultServlet.forwardableRange("items=0-10"));
+        assertNull(DownloadTaskResultServlet.forwardableRange("bytes=0-10,20-30"));
+    }
+
+    @Test
+    public void testContentRangeOfTheScheduler() {
+        ContentRange served = ContentRange.parse("bytes 10-19/100");
+
+        assertEquals(10, served.range.first);
+        assertEquals(19, served.range.last);
+        assertEquals(100, served.length);
+    }
+
+    @Test
+    public void testContentRangeWithoutLengthIsNotUsed() {
+        assertNull(ContentRange.parse((String) null));
+        assertNull(ContentRange.parse("bytes 10-19/*"));
+        assertNull(ContentRange.parse("bytes */100"));
+        assertNull(ContentRange.parse("bytes 10-100/100"));
+        assertNull(ContentRange.parse("items 10-19/100"));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.JobsProjection;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.Action;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.Field;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.FilterModel;
+
+
+/**
+ * Compares the jobs queries of {@link GraphQLQueries}, compiled once per filter and then completed with
+ * the cursors of each page, to building each query from scratch, on the filters set in the jobs grid.
+ * <p>
+ * Not run with the tests, launch the main method and compare the time taken per query.
+ */
+public class GraphQLQueriesBenchmark {
+
+    private static final int QUERIES = 20000;
+
+    private static final JobsProjection PROJECTION = new JobsProjection(Arrays.asList("host", "dataset"),
+                                                                        Arrays.asList("PRIORITY"));
+
+    public static void main(String[] args) {
+        for (Map.Entry<String, FilterModel> filter : filters().entrySet()) {
+            // warm up
+            run(filter.getValue(), true);
+            run(filter.getValue(), false);
+
+            System.out.println(String.format("%s: compiled %s, built %s",
+                                             filter.getKey(),
+                                             measure(filter.getValue(), true),
+                                             measure(filter.getValue(), false)));
+        }
+    }
+
+    private static String measure(FilterModel filterModel, boolean compiled) {
+        long start = System.nanoTime();
+        run(filterModel, compiled);
+        return (System.nanoTime() - start) / QUERIES / 1000 + " us/query";
+    }
+
+    /**
+     * Queries pages of the jobs list, like tabs browsing it with the given filter.
+     */
+    private static void run(FilterModel filterModel, boolean compiled) {
+        GraphQLQueries queries = GraphQLQueries.get();
+        for (int i = 0; i < QUERIES; i++) {
+            String cursor = i % 10 == 0 ? null : cursor(i * 50);
+            if (compiled) {
+                queries.getJobsQueryString("admin", true, true, true, cursor, null, 50, true, filterModel, PROJECTION);
+            } else {
+                queries.buildJobsQueryString("admin",
+                                             true,
+                                             true,
+                                             true,
+                                             cursor,
+                                             null,
+                                             50,
+                                             true,
+                                             filterModel,
+                                             PROJECTION);
+            }
+        }
+    }
+
+    /**
+     * A cursor like the ones of the scheduling API
+     */
+    private static String cursor(int jobId) {
+        return Base64.getEncoder().encodeToString(("graphql-cursor" + jobId).getBytes());
+    }
+
+    private static Map<String, FilterModel> filters() {
+        Map<String, FilterModel> filters = new LinkedHashMap<>();
+        filters.put("no filter", new FilterModel());
+
+        FilterModel myJobs = new FilterModel();
+        myJobs.addConstraint(Field.USER, Action.EQUALS, "admin");
+        filters.put("own jobs", myJobs);
+
+        FilterModel nightly = new FilterModel();
+        nightly.addConstraint(Field.NAME, Action.CONTAINS, "nightly");
+        nightly.addConstraint(Field.PROJECT_NAME, Action.EQUALS, "builds");
+        nightly.addConstraint(Field.SUBMITTED_TIME, Action.GREATER_THAN_OR_EQUAL_TO, "1760000000000");
+        nightly.addConstraint(Field.NUMBER_OF_FAILED_TASKS, Action.GREATER_THAN_OR_EQUAL_TO, "1");
+        filters.put("4 constraints", nightly);
+
+        FilterModel anyOf = new FilterModel();
+        anyOf.setMatchAny(true);
+        anyOf.addConstraint(Field.STATE, Action.EQUALS, "In-Error");
+        anyOf.addConstraint(Field.PRIORITY, Action.EQUALS, "HIGH");
+        anyOf.addConstraint(Field.BUCKET_NAME, Action.STARTS_WITH, "data");
+        anyOf.addConstraint(Field.LABEL, Action.NOT_EQUAL, "test");
+        filters.put("match any of 4 constraints", anyOf);
+        return filters;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.JobsProjection;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.Action;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.Field;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.filter.FilterModel;
+
+
+public class GraphQLQueriesTest {
+
+    @Test
+    public void query_without_filter_model_is_not_built() {
+        assertNull(GraphQLQueries.get()
+                                 .getRevisionAndjobsInfoQuery("admin", true, true, true, null, "1", 50, true, null, null));
+    }
+
+    @Test
+    public void query_with_filter_model_is_built() {
+        assertNotNull(GraphQLQueries.get().getRevisionAndjobsInfoQuery("admin",
+                                                                       true,
+                                                                       true,
+                                                                       true,
+                                                                       null,
+                                                                       "1",
+                                                                       50,
+                                                                       true,
+                                                                       new FilterModel(),
+                                                                       null));
+    }
+
+    @Test
+    public void compiled_query_without_cursors_equals_the_built_query() {
+        assertCompiledQueryIsBuiltQuery(filter(false), null, null, null);
+    }
+
+    @Test
+    public void compiled_query_with_cursors_equals_the_built_query() {
+        FilterModel filterModel = filter(true);
+        JobsProjection projection = new JobsProjection(Collections.singletonList("host"), Collections.emptyList());
+
+        // the first call compiles the query, the next ones substitute other cursors in the same template
+        assertCompiledQueryIsBuiltQuery(filterModel, projection, "Z3JhcGhxbC1jdXJzb3IxMA==", null);
+        assertCompiledQueryIsBuiltQuery(filterModel, projection, "Z3JhcGhxbC1jdXJzb3IyMA==", null);
+        assertCompiledQueryIsBuiltQuery(filterModel, projection, null, "Z3JhcGhxbC1jdXJzb3IzMA==");
+        assertCompiledQueryIsBuiltQuery(filterModel,
+                                        projection,
+                                        "Z3JhcGhxbC1jdXJzb3I0MA==",
+                                        "Z3JhcGhxbC1jdXJzb3I1MA==");
+    }
+
+    @Test
+    public void unsafe_cursor_is_not_substituted() {
+        assertCompiledQueryIsBuiltQuery(filter(false), null, "a\"b", null);
+    }
+
+    private static void assertCompiledQueryIsBuiltQuery(FilterModel filterModel, JobsProjection projection,
+            String startCursor, String endCursor) {
+        GraphQLQueries queries = GraphQLQueries.get();
+        String built = queries.buildJobsQueryString("admin",
+                                                    true,
+                                                    true,
+                                                    false,
+                                                    startCursor,
+                                                    endCursor,
+                                                    50,
+                                                    true,
+                                                    filterModel,
+                                                    projection);
+        assertNotNull(built);
+        for (int i = 0; i < 2; i++) {
+            assertEquals(built,
+                         queries.getJobsQueryString("admin",
+                                                    true,
+                                                    true,
+                                                    false,
+                                                    startCursor,
+                                                    endCursor,
+                                                    50,
+                                                    true,
+                                                    filterModel,
+                                                    projection));
+        }
+    }
+
+    private static FilterModel filter(boolean matchAny) {
+        FilterModel filterModel = new FilterModel();
+        filterModel.setMatchAny(matchAny);
+        filterModel.addConstraint(Field.NAME, Action.CONTAINS, "nightly");
+        filterModel.addConstraint(Field.USER, Action.EQUALS, "bob");
+        return filterModel;
+    }
+}
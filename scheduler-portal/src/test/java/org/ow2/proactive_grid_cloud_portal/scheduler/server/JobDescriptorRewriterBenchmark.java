@@ -0,0 +1,156 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+
+/**
+ * Compares the job descriptor edition of {@link SubmitEditServlet}, with {@link JobDescriptorRewriter},
+ * to the former DOM based edition, on generated workflows of 1 MB to 50 MB.
+ * <p>
+ * Not run with the tests, launch the main method, with for instance -Xmx2g, and compare the
+ * time and the memory allocated by each edition.
+ */
+public class JobDescriptorRewriterBenchmark {
+
+    private static final int[] SIZES_MB = { 1, 10, 50 };
+
+    private static final int ITERATIONS = 5;
+
+    private static final Map<String, String> VARIABLES = Collections.singletonMap("host", "remote");
+
+    private static final String START_AT = "2026-10-17T10:00:00+02:00";
+
+    public static void main(String[] args) throws Exception {
+        for (int sizeMb : SIZES_MB) {
+            String job = generateJob(sizeMb * 1024 * 1024);
+            // warm up
+            rewriteWithStax(job);
+            rewriteWithDom(job);
+
+            System.out.println(String.format("%d MB: stax %s, dom %s",
+                                             sizeMb,
+                                             measure(() -> rewriteWithStax(job)),
+                                             measure(() -> rewriteWithDom(job))));
+        }
+    }
+
+    private static String measure(Edition edition) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            edition.run();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000 / ITERATIONS;
+        long allocatedMb = (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / ITERATIONS / 1024 / 1024;
+        return millis + " ms " + allocatedMb + " MB allocated";
+    }
+
+    /**
+     * The edition done by {@link SubmitEditServlet}: the descriptor is rewritten in a single pass.
+     */
+    private static void rewriteWithStax(String job) throws Exception {
+        new JobDescriptorRewriter(VARIABLES, START_AT).rewrite(new StringReader(job), NullOutputStream.INSTANCE);
+    }
+
+    /**
+     * The edition of the job descriptor before {@link JobDescriptorRewriter}, without its temporary files.
+     */
+    private static void rewriteWithDom(String job) throws Exception {
+        Document doc = DocumentBuilderFactory.newInstance()
+                                             .newDocumentBuilder()
+                                             .parse(new InputSource(new StringReader(job)));
+        NodeList variables = doc.getElementsByTagName("variable");
+        for (int i = 0; i < variables.getLength(); i++) {
+            Element variable = (Element) variables.item(i);
+            if (!"task".equals(variable.getParentNode().getParentNode().getNodeName()) &&
+                VARIABLES.containsKey(variable.getAttribute("name"))) {
+                variable.setAttribute("value", VARIABLES.get(variable.getAttribute("name")));
+            }
+        }
+        Element startAt = doc.createElement("info");
+        startAt.setAttribute("name", "START_AT");
+        startAt.setAttribute("value", START_AT);
+        Element genericInformation = doc.createElement("genericInformation");
+        genericInformation.appendChild(startAt);
+        Element taskFlow = (Element) doc.getElementsByTagName("taskFlow").item(0);
+        taskFlow.getParentNode().insertBefore(genericInformation, taskFlow);
+
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        try (OutputStream output = NullOutputStream.INSTANCE) {
+            transformer.transform(new DOMSource(doc), new StreamResult(output));
+        }
+    }
+
+    private static String generateJob(int size) {
+        StringBuilder job = new StringBuilder(size + 1024);
+        job.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+           .append("<job xmlns=\"urn:proactive:jobdescriptor:3.13\" name=\"benchmark\">\n")
+           .append("  <variables>\n")
+           .append("    <variable name=\"host\" value=\"localhost\"/>\n")
+           .append("  </variables>\n")
+           .append("  <taskFlow>\n");
+        for (int task = 0; job.length() < size; task++) {
+            job.append("    <task name=\"task")
+               .append(task)
+               .append("\">\n")
+               .append("      <variables>\n")
+               .append("        <variable name=\"host\" value=\"inherited\" inherited=\"true\"/>\n")
+               .append("      </variables>\n")
+               .append("      <scriptExecutable>\n")
+               .append("        <script><code language=\"groovy\"><![CDATA[ println variables.get(\"host\") ]]></code></script>\n")
+               .append("      </scriptExecutable>\n")
+               .append("    </task>\n");
+        }
+        return job.append("  </taskFlow>\n</job>\n").toString();
+    }
+
+    @FunctionalInterface
+    private interface Edition {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+
+public class JobDescriptorRewriterTest {
+
+    private static final String JOB = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                                      "<job xmlns=\"urn:proactive:jobdescriptor:3.13\" name=\"test\">\n" +
+                                      "  <variables>\n" +
+                                      "    <variable name=\"host\" value=\"localhost\"/>\n" +
+                                      "    <variable name=\"port\" value=\"8080\"/>\n" +
+                                      "  </variables>\n" + "  %s\n" + "  <taskFlow>\n" +
+                                      "    <task name=\"t1\">\n" + "      <genericInformation>\n" +
+                                      "        <info name=\"NODE\" value=\"a\"/>\n" +
+                                      "      </genericInformation>\n" + "      <variables>\n" +
+                                      "        <variable name=\"host\" value=\"inherited\"/>\n" +
+                                      "      </variables>\n" +
+                                      "      <scriptExecutable><script><code language=\"groovy\"><![CDATA[ println 1 < 2 ]]></code></script></scriptExecutable>\n" +
+                                      "    </task>\n" + "  </taskFlow>\n" + "</job>\n";
+
+    private static final String JOB_GENERIC_INFORMATION = "<genericInformation><info name=\"PRIORITY\" value=\"high\"/></genericInformation>";
+
+    @Test
+    public void job_variables_are_replaced() throws Exception {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("host", "remote & co");
+        variables.put("unknown", "x");
+
+        Document job = rewrite(String.format(JOB, ""), variables, null);
+
+        assertEquals("remote & co", evaluate(job, "/job/variables/variable[@name='host']/@value"));
+        assertEquals("8080", evaluate(job, "/job/variables/variable[@name='port']/@value"));
+        assertEquals("inherited", evaluate(job, "//task/variables/variable[@name='host']/@value"));
+        assertEquals(" println 1 < 2 ", evaluate(job, "//code"));
+    }
+
+    @Test
+    public void start_at_is_added_to_the_job_generic_information() throws Exception {
+        Document job = rewrite(String.format(JOB, JOB_GENERIC_INFORMATION),
+                               Collections.emptyMap(),
+                               "2026-10-17T10:00:00+02:00");
+
+        assertEquals("1", evaluate(job, "count(/job/genericInformation)"));
+        assertEquals("high", evaluate(job, "/job/genericInformation/info[@name='PRIORITY']/@value"));
+        assertEquals("2026-10-17T10:00:00+02:00", evaluate(job, "/job/genericInformation/info[@name='START_AT']/@value"));
+        assertEquals("0", evaluate(job, "count(//task/genericInformation/info[@name='START_AT'])"));
+    }
+
+    @Test
+    public void generic_information_is_created_before_the_task_flow() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new JobDescriptorRewriter(Collections.emptyMap(),
+                                  "2026-10-17T10:00:00+02:00").rewrite(new StringReader(String.format(JOB, "")), output);
+        Document job = parse(output.toByteArray());
+
+        assertEquals("2026-10-17T10:00:00+02:00", evaluate(job, "/job/genericInformation/info[@name='START_AT']/@value"));
+        assertEquals("taskFlow", evaluate(job, "local-name(/job/genericInformation/following-sibling::*[1])"));
+        // the new elements stay in the namespace of the job
+        assertFalse(output.toString("UTF-8").contains("xmlns=\"\""));
+    }
+
+    @Test
+    public void output_is_encoded_in_utf8() throws Exception {
+        String latin1Job = String.format(JOB, "").replace("encoding=\"UTF-8\"", "encoding=\"ISO-8859-1\"");
+        Map<String, String> variables = Collections.singletonMap("host", "h\u00f4te");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new JobDescriptorRewriter(variables, null).rewrite(new StringReader(latin1Job), output);
+
+        assertTrue(output.toString("UTF-8").contains("encoding=\"UTF-8\""));
+        assertEquals("h\u00f4te", evaluate(parse(output.toByteArray()), "/job/variables/variable[@name='host']/@value"));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void invalid_descriptor_is_rejected() throws Exception {
+        new JobDescriptorRewriter(Collections.emptyMap(), null).rewrite(new StringReader("<job><taskFlow></job>"),
+                                                                        new ByteArrayOutputStream());
+    }
+
+    private Document rewrite(String job, Map<String, String> variables, String startAt) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new JobDescriptorRewriter(variables, startAt).rewrite(new StringReader(job), output);
+        return parse(output.toByteArray());
+    }
+
+    private Document parse(byte[] job) throws Exception {
+        // not namespace aware so that the paths do not need prefixes
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(job));
+    }
+
+    private String evaluate(Document job, String path) throws Exception {
+        return (String) XPathFactory.newInstance().newXPath().evaluate(path, job, XPathConstants.STRING);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+
+public class JobPermissionCacheTest {
+
+    private static final List<String> METHODS = Arrays.asList("killJob", "pauseJob");
+
+    private final List<List<String>> fetchedJobIds = new ArrayList<>();
+
+    private final JobPermissionCache cache = new JobPermissionCache(60_000);
+
+    @Test
+    public void permissions_are_fetched_once_per_job() throws Exception {
+        cache.getPermissions("tab1", Arrays.asList("1", "2"), METHODS, this::fetch);
+        Map<String, Map<String, Boolean>> permissions = cache.getPermissions("tab1",
+                                                                              Arrays.asList("1", "2", "3"),
+                                                                              METHODS,
+                                                                              this::fetch);
+
+        assertEquals(3, permissions.size());
+        assertEquals(Boolean.TRUE, permissions.get("3").get("killJob"));
+        assertEquals(Arrays.asList(Arrays.asList("1", "2"), Collections.singletonList("3")), fetchedJobIds);
+        assertEquals(2, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void sessions_do_not_share_permissions() throws Exception {
+        cache.getPermissions("tab1", Collections.singletonList("1"), METHODS, this::fetch);
+        cache.getPermissions("tab2", Collections.singletonList("1"), METHODS, this::fetch);
+
+        assertEquals(2, fetchedJobIds.size());
+    }
+
+    @Test
+    public void new_methods_are_fetched() throws Exception {
+        cache.getPermissions("tab1", Collections.singletonList("1"), METHODS, this::fetch);
+        Map<String, Map<String, Boolean>> permissions = cache.getPermissions("tab1",
+                                                                              Collections.singletonList("1"),
+                                                                              Arrays.asList("killJob", "removeJob"),
+                                                                              this::fetch);
+
+        assertEquals(2, fetchedJobIds.size());
+        assertEquals(3, permissions.get("1").size());
+    }
+
+    @Test
+    public void prefetch_fetches_the_page_in_one_request() throws Exception {
+        // methods are not known before the first check
+        cache.prefetch("tab1", owners("1", "alice", "2", "alice"), this::fetch);
+        assertTrue(fetchedJobIds.isEmpty());
+
+        cache.getPermissions("tab1", Collections.singletonList("1"), METHODS, this::fetch);
+        cache.prefetch("tab1", owners("1", "alice", "2", "alice", "3", "bob"), this::fetch);
+        cache.getPermissions("tab1", Arrays.asList("1", "2", "3"), METHODS, this::fetch);
+
+        assertEquals(2, fetchedJobIds.size());
+        assertEquals(Arrays.asList("2", "3"), sorted(fetchedJobIds.get(1)));
+    }
+
+    @Test
+    public void permissions_are_fetched_again_when_the_owner_changes() throws Exception {
+        cache.getPermissions("tab1", Collections.singletonList("1"), METHODS, this::fetch);
+        cache.prefetch("tab1", owners("1", "alice"), this::fetch);
+        cache.prefetch("tab1", owners("1", "alice"), this::fetch);
+        assertEquals(1, fetchedJobIds.size());
+
+        cache.prefetch("tab1", owners("1", "bob"), this::fetch);
+        assertEquals(2, fetchedJobIds.size());
+    }
+
+    @Test
+    public void invalidated_and_forgotten_permissions_are_fetched_again() throws Exception {
+        cache.getPermissions("tab1", Collections.singletonList("1"), METHODS, this::fetch);
+        cache.invalidateJobs(Collections.singletonList("1"));
+        cache.getPermissions("tab1", Collections.singletonList("1"), METHODS, this::fetch);
+        cache.forgetSession("tab1");
+        cache.getPermissions("tab1", Collections.singletonList("1"), METHODS, this::fetch);
+
+        assertEquals(3, fetchedJobIds.size());
+    }
+
+    @Test
+    public void zero_time_to_live_disables_the_cache() throws Exception {
+        JobPermissionCache disabled = new JobPermissionCache(0);
+        disabled.getPermissions("tab1", Collections.singletonList("1"), METHODS, this::fetch);
+        disabled.prefetch("tab1", owners("1", "alice"), this::fetch);
+        disabled.getPermissions("tab1", Collections.singletonList("1"), METHODS, this::fetch);
+
+        assertEquals(2, fetchedJobIds.size());
+    }
+
+    private Map<String, Map<String, Boolean>> fetch(List<String> jobIds, List<String> methods) {
+        fetchedJobIds.add(new ArrayList<>(jobIds));
+        Map<String, Map<String, Boolean>> result = new HashMap<>();
+        for (String jobId : jobIds) {
+            Map<String, Boolean> permissions = new HashMap<>();
+            for (String method : methods) {
+                permissions.put(method, Boolean.TRUE);
+            }
+            result.put(jobId, permissions);
+        }
+        return result;
+    }
+
+    private static Map<String, String> owners(String... jobIdsAndOwners) {
+        Map<String, String> owners = new HashMap<>();
+        for (int i = 0; i < jobIdsAndOwners.length; i += 2) {
+            owners.put(jobIdsAndOwners[i], jobIdsAndOwners[i + 1]);
+        }
+        return owners;
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> copy = new ArrayList<>(values);
+        Collections.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.JobsProjection;
+
+
+public class JobsQueryProjectionTest {
+
+    private static final String QUERY = "{ jobs(input: [{jobName: \"variables { x }\"}]) { edges { node { id " +
+                                        "genericInformation { key value } variables { key value } " +
+                                        "detailedVariables { name } resultMap { key value } } } } }";
+
+    @Test
+    public void maps_without_displayed_entries_are_not_queried() {
+        String query = JobsQueryProjection.projectQuery(QUERY,
+                                                        new JobsProjection(Collections.emptyList(),
+                                                                           Collections.emptyList()));
+
+        assertEquals("{ jobs(input: [{jobName: \"variables { x }\"}]) { edges { node { id   " +
+                     "detailedVariables { name } resultMap { key value } } } } }", query);
+    }
+
+    @Test
+    public void maps_with_displayed_entries_are_queried() {
+        JobsProjection projection = new JobsProjection(Collections.singletonList("v"), Collections.emptyList());
+
+        String query = JobsQueryProjection.projectQuery(QUERY, projection);
+
+        assertEquals("{ jobs(input: [{jobName: \"variables { x }\"}]) { edges { node { id  " +
+                     "variables { key value } detailedVariables { name } resultMap { key value } } } } }", query);
+        assertEquals(QUERY, JobsQueryProjection.projectQuery(QUERY, null));
+    }
+
+    @Test
+    public void only_displayed_entries_are_returned() {
+        Map<String, Object> node = new HashMap<>();
+        node.put("variables", new ArrayList<>(Arrays.asList(entry("a", "1"), entry("b", "2"))));
+        node.put("genericInformation", Collections.singletonList(entry("doc", "url")));
+        node.put("resultMap", Collections.singletonList(entry("r", "3")));
+        Map<String, Object> result = result(node);
+
+        JobsQueryProjection.projectResult(result,
+                                          new JobsProjection(Collections.singletonList("b"),
+                                                             Collections.singletonList("doc")));
+
+        assertEquals(Collections.singletonList(entry("b", "2")), node.get("variables"));
+        assertEquals(Collections.singletonList(entry("doc", "url")), node.get("genericInformation"));
+        assertEquals(Collections.singletonList(entry("r", "3")), node.get("resultMap"));
+    }
+
+    private static Map<String, Object> entry(String key, String value) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("key", key);
+        entry.put("value", value);
+        return entry;
+    }
+
+    private static Map<String, Object> result(Map<String, Object> node) {
+        List<Object> edges = Collections.singletonList(Collections.singletonMap("node", node));
+        Map<String, Object> jobs = Collections.singletonMap("edges", edges);
+        return Collections.singletonMap("data", Collections.singletonMap("jobs", jobs));
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.LiveLogChunk;
+
+
+public class LiveLogTailsTest {
+
+    private long now = 1_000;
+
+    private final LiveLogTails tails = new LiveLogTails(500, () -> now);
+
+    private final FakeUpstream upstream = new FakeUpstream();
+
+    @Test
+    public void viewer_only_receives_new_output() throws Exception {
+        upstream.output.add("first\n");
+        upstream.output.add("second\n");
+
+        LiveLogChunk first = tails.read("tab1", "7", null, upstream);
+        now += 500;
+        LiveLogChunk second = tails.read("tab1", "7", first.getCursor(), upstream);
+
+        assertEquals("first\n", first.getText());
+        assertTrue(first.isReset());
+        assertEquals("second\n", second.getText());
+        assertFalse(second.isReset());
+    }
+
+    @Test
+    public void viewers_share_the_reads() throws Exception {
+        upstream.output.add("first\n");
+
+        LiveLogChunk tab1 = tails.read("tab1", "7", null, upstream);
+        LiveLogChunk tab2 = tails.read("tab2", "7", null, upstream);
+        tails.read("tab1", "7", tab1.getCursor(), upstream);
+
+        assertEquals("first\n", tab2.getText());
+        assertEquals(1, tails.getUpstreamReads());
+        assertEquals(1, upstream.readSessions.size());
+    }
+
+    @Test
+    public void output_is_not_read_while_a_viewer_is_behind() throws Exception {
+        upstream.output.add("first\n");
+        upstream.output.add("second\n");
+
+        LiveLogChunk tab1 = tails.read("tab1", "7", null, upstream);
+        now += 500;
+        tails.read("tab1", "7", tab1.getCursor(), upstream);
+        LiveLogChunk tab2 = tails.read("tab2", "7", tab1.getCursor(), upstream);
+
+        assertEquals("second\n", tab2.getText());
+        assertEquals(2, tails.getUpstreamReads());
+    }
+
+    @Test
+    public void access_is_checked_once_per_session() throws Exception {
+        tails.read("tab1", "7", null, upstream);
+        tails.read("tab1", "7", null, upstream);
+        tails.read("tab2", "7", null, upstream);
+
+        assertEquals(2, upstream.checks);
+    }
+
+    @Test
+    public void denied_session_does_not_read_the_shared_output() throws Exception {
+        upstream.output.add("secret\n");
+        tails.read("tab1", "7", null, upstream);
+        upstream.denied = "intruder";
+
+        try {
+            tails.read("intruder", "7", null, upstream);
+            fail();
+        } catch (RestServerException expected) {
+        }
+    }
+
+    @Test
+    public void output_is_read_with_another_session_after_logout() throws Exception {
+        upstream.output.add("first\n");
+        LiveLogChunk tab1 = tails.read("tab1", "7", null, upstream);
+        tails.read("tab2", "7", null, upstream);
+        tails.forgetSession("tab1");
+
+        now += 500;
+        upstream.output.add("again\n");
+        LiveLogChunk tab2 = tails.read("tab2", "7", tab1.getCursor(), upstream);
+
+        assertTrue(tab2.isReset());
+        assertEquals("again\n", tab2.getText());
+        assertEquals("tab2", upstream.readSessions.get(1));
+    }
+
+    @Test
+    public void unknown_cursor_resets_the_viewer() throws Exception {
+        upstream.output.add("first\n");
+
+        LiveLogChunk chunk = tails.read("tab1", "7", "garbage", upstream);
+
+        assertTrue(chunk.isReset());
+        assertEquals("first\n", chunk.getText());
+    }
+
+    private static class FakeUpstream implements LiveLogTails.Upstream {
+
+        private final Deque<String> output = new ArrayDeque<>();
+
+        private final List<String> readSessions = new ArrayList<>();
+
+        private int checks;
+
+        private String denied;
+
+        @Override
+        public void checkAccess(String sessionId, String jobId) throws RestServerException {
+            checks++;
+            if (sessionId.equals(denied)) {
+                throw new RestServerException(403, "Forbidden");
+            }
+        }
+
+        @Override
+        public String read(String sessionId, String jobId) {
+            readSessions.add(sessionId);
+            return output.isEmpty() ? "" : output.poll();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
+import org.jboss.resteasy.plugins.interceptors.encoding.AcceptEncodingGZIPFilter;
+import org.jboss.resteasy.plugins.interceptors.encoding.GZIPDecodingInterceptor;
+import org.jboss.resteasy.plugins.interceptors.encoding.GZIPEncodingInterceptor;
+import org.ow2.proactive.http.HttpClientBuilder;
+import org.ow2.proactive_grid_cloud_portal.common.server.CommonRestClient;
+import org.ow2.proactive_grid_cloud_portal.common.server.RestClientProxyFactory;
+
+
+/**
+ * Compares getting the {@link RestClient} and {@link CommonRestClient} proxies from the shared
+ * {@link RestClientProxyFactory} to building a new RestEasy client and proxy for each call, as
+ * {@link SchedulerServiceImpl} did before, with 1 to 16 request threads.
+ * <p>
+ * Not run with the tests, launch the main method and compare the number of proxies obtained per
+ * second. No request is sent: the proxies point to an unused url.
+ */
+public class RestClientProxyBenchmark {
+
+    private static final int[] THREADS = { 1, 4, 16 };
+
+    private static final int PROXIES_PER_THREAD = 2000;
+
+    private static final String REST_URL = "http://localhost:8080/rest";
+
+    public static void main(String[] args) throws Exception {
+        ExecutorService asyncExecutor = Executors.newFixedThreadPool(8);
+        try (CloseableHttpClient httpClient = new HttpClientBuilder().maxConnections(50)
+                                                                     .useSystemProperties()
+                                                                     .build()) {
+            RestClientProxyFactory factory = new RestClientProxyFactory(httpClient, asyncExecutor, () -> REST_URL);
+            Lookup cached = () -> {
+                factory.getProxy(RestClient.class);
+                factory.getProxy(CommonRestClient.class);
+            };
+            Lookup uncached = () -> {
+                newProxy(httpClient, asyncExecutor, RestClient.class);
+                newProxy(httpClient, asyncExecutor, CommonRestClient.class);
+            };
+
+            for (int threads : THREADS) {
+                // warm up
+                measure(1, cached);
+                measure(1, uncached);
+
+                System.out.println(String.format("%d threads: cached %d proxies/s, uncached %d proxies/s",
+                                                 threads,
+                                                 measure(threads, cached),
+                                                 measure(threads, uncached)));
+            }
+        } finally {
+            asyncExecutor.shutdownNow();
+        }
+    }
+
+    private static long measure(int threads, Lookup lookup) throws Exception {
+        ExecutorService requests = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>(threads);
+            long start = System.nanoTime();
+            for (int i = 0; i < threads; i++) {
+                results.add(requests.submit(() -> {
+                    for (int j = 0; j < PROXIES_PER_THREAD; j++) {
+                        lookup.run();
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            long nanos = System.nanoTime() - start;
+            // each lookup gets two proxies
+            return 2L * threads * PROXIES_PER_THREAD * 1_000_000_000L / nanos;
+        } finally {
+            requests.shutdownNow();
+        }
+    }
+
+    /**
+     * The proxy creation of {@link SchedulerServiceImpl} before {@link RestClientProxyFactory}.
+     */
+    private static <T> T newProxy(CloseableHttpClient httpClient, ExecutorService asyncExecutor, Class<T> proxyType) {
+        ResteasyClientBuilder builder = new ResteasyClientBuilder();
+        builder.register(AcceptEncodingGZIPFilter.class);
+        builder.register(GZIPDecodingInterceptor.class);
+        builder.register(GZIPEncodingInterceptor.class);
+        ResteasyClient client = builder.asyncExecutor(asyncExecutor)
+                                       .httpEngine(new ApacheHttpClient4Engine(httpClient))
+                                       .build();
+        return client.target(REST_URL).proxy(proxyType);
+    }
+
+    @FunctionalInterface
+    private interface Lookup {
+        void run();
+    }
+}
@@ -26,27 +26,61 @@
 package org.ow2.proactive_grid_cloud_portal.scheduler.server;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response.Status;
 
 import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+import org.ow2.proactive_grid_cloud_portal.common.shared.ServiceException;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.OutputMode;
 import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.TasksOutput;
 
 
 public class SchedulerServiceImplTest {
 
+    private static final String SESSION_ID = "session";
+
     private SchedulerServiceImpl service;
 
+    private RestClient restClient = mock(RestClient.class);
+
     public void setUp() throws ServletException {
-        service = new SchedulerServiceImpl();
+        service = new SchedulerServiceImpl() {
+            @Override
+            RestClient getRestClientProxy() {
+                return restClient;
+            }
+        };
 
         // mock servlet context
         ServletContext servletContext = mock(ServletContext.class);
@@ -66,6 +100,133 @@ public class SchedulerServiceImplTest {
         assertEquals("x.x.x", SchedulerConfig.get().getVersion());
     }
 
+    @Test
+    public void testBulkActionReportsEachRejectedJob() throws Exception {
+        setUp();
+        when(restClient.pauseJob(SESSION_ID, "1")).thenReturn(response("true"));
+        when(restClient.pauseJob(SESSION_ID, "2")).thenThrow(new WebApplicationException("Job 2 is finished",
+                                                                                          Status.FORBIDDEN));
+        when(restClient.pauseJob(SESSION_ID, "3")).thenReturn(response("false"));
+
+        Map<Integer, String> failures = service.pauseJobs(SESSION_ID, Arrays.asList(1, 2, 3));
+
+        assertEquals(Arrays.asList(1, 2, 3), new ArrayList<>(failures.keySet()));
+        assertNull(failures.get(1));
+        assertEquals("Job 2 is finished", failures.get(2));
+        assertEquals("Rejected by the scheduler", failures.get(3));
+    }
+
+    @Test
+    public void testBulkActionSendsJobsInChunks() throws Exception {
+        setUp();
+        int limit = SchedulerServiceImpl.LIMIT_QUERY_PARAMS_NUMBER;
+        List<Integer> jobIds = IntStream.rangeClosed(1, 2 * limit + 1).boxed().collect(Collectors.toList());
+        Queue<List<String>> chunks = new ConcurrentLinkedQueue<>();
+        when(restClient.killJobs(eq(SESSION_ID), anyListOf(String.class))).thenAnswer(invocation -> {
+            List<String> chunk = new ArrayList<>((List<String>) invocation.getArguments()[1]);
+            chunks.add(chunk);
+            if (chunk.contains("1")) {
+                throw new WebApplicationException("Not allowed", Status.FORBIDDEN);
+            }
+            return null;
+        });
+
+        Map<Integer, String> failures = service.killJobs(SESSION_ID, jobIds);
+
+        List<Integer> chunkSizes = chunks.stream().map(List::size).sorted().collect(Collectors.toList());
+        assertEquals(Arrays.asList(1, limit, limit), chunkSizes);
+        assertEquals(jobIds, new ArrayList<>(failures.keySet()));
+        for (Integer jobId : jobIds) {
+            assertEquals(jobId <= limit ? "Not allowed" : null, failures.get(jobId));
+        }
+    }
+
+    @Test
+    public void testBulkActionThrowsWhenSessionIsNotAuthorized() throws Exception {
+        setUp();
+        when(restClient.pauseJob(eq(SESSION_ID),
+                                 anyString())).thenThrow(new WebApplicationException(Status.UNAUTHORIZED));
+
+        try {
+            service.pauseJobs(SESSION_ID, Arrays.asList(1, 2, 3));
+            fail("the action should fail as a whole");
+        } catch (RestServerException e) {
+            assertEquals(Status.UNAUTHORIZED.getStatusCode(), e.getStatus());
+        }
+    }
+
+    @Test(expected = ServiceException.class)
+    public void testBulkActionThrowsWhenSchedulerIsUnreachable() throws Exception {
+        setUp();
+        when(restClient.killJobs(eq(SESSION_ID),
+                                 anyListOf(String.class))).thenThrow(new ProcessingException("Connection refused"));
+
+        service.killJobs(SESSION_ID, Collections.singletonList(1));
+    }
+
+    @Test
+    public void testTasksOutputReturnsTheOutputOfEachTaskOfABatch() throws Exception {
+        setUp();
+        // the portal asks for the output of 50 tasks per call
+        List<String> taskNames = taskNames(50);
+        when(restClient.tasklog(eq(SESSION_ID),
+                                eq("1"),
+                                anyString())).thenAnswer(invocation -> "output of " + invocation.getArguments()[2]);
+
+        TasksOutput tasksOutput = service.getTasksOutput(SESSION_ID, "1", taskNames, OutputMode.LOG_OUT_ERR);
+
+        assertEquals(taskNames, new ArrayList<>(tasksOutput.getOutputs().keySet()));
+        for (String taskName : taskNames) {
+            assertEquals("output of " + taskName, tasksOutput.getOutputs().get(taskName));
+        }
+        assertTrue(tasksOutput.getFailures().isEmpty());
+    }
+
+    @Test
+    public void testTasksOutputReportsEachTaskWhoseOutputFailed() throws Exception {
+        setUp();
+        List<String> taskNames = taskNames(50);
+        when(restClient.tasklog(eq(SESSION_ID),
+                                eq("1"),
+                                anyString())).thenAnswer(invocation -> "output of " + invocation.getArguments()[2]);
+        when(restClient.tasklog(SESSION_ID, "1", "task7")).thenThrow(new WebApplicationException("Task task7 not found",
+                                                                                                 Status.NOT_FOUND));
+        when(restClient.tasklog(SESSION_ID, "1", "task13")).thenThrow(new ProcessingException("Connection reset"));
+
+        TasksOutput tasksOutput = service.getTasksOutput(SESSION_ID, "1", taskNames, OutputMode.LOG_OUT_ERR);
+
+        assertEquals(Arrays.asList("task7", "task13"), new ArrayList<>(tasksOutput.getFailures().keySet()));
+        assertEquals("Task task7 not found", tasksOutput.getFailures().get("task7"));
+        assertEquals("Connection reset", tasksOutput.getFailures().get("task13"));
+        assertEquals(48, tasksOutput.getOutputs().size());
+        assertEquals("output of task8", tasksOutput.getOutputs().get("task8"));
+    }
+
+    @Test
+    public void testTasksOutputOfAFailedBatchReportsEveryTask() throws Exception {
+        setUp();
+        List<String> taskNames = taskNames(50);
+        when(restClient.tasklog(eq(SESSION_ID),
+                                eq("1"),
+                                anyString())).thenThrow(new ProcessingException("Connection refused"));
+
+        TasksOutput tasksOutput = service.getTasksOutput(SESSION_ID, "1", taskNames, OutputMode.LOG_OUT_ERR);
+
+        assertTrue(tasksOutput.getOutputs().isEmpty());
+        assertEquals(taskNames, new ArrayList<>(tasksOutput.getFailures().keySet()));
+        for (String taskName : taskNames) {
+            assertEquals("Connection refused", tasksOutput.getFailures().get(taskName));
+        }
+    }
+
+    private static List<String> taskNames(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "task" + i).collect(Collectors.toList());
+    }
+
+    private static InputStream response(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
     private String resourceAsFilePath(String resourcePath) {
         URL resource = getClass().getResource(resourcePath);
         try {
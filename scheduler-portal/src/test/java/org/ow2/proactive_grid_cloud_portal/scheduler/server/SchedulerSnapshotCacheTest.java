@@ -0,0 +1,212 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.common.server.SessionLogins;
+import org.ow2.proactive_grid_cloud_portal.common.shared.RestServerException;
+
+
+public class SchedulerSnapshotCacheTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private volatile long revision = 1;
+
+    private SchedulerSnapshotCache cache = newCache(60_000);
+
+    @Test
+    public void statistics_are_shared_between_sessions_of_admitted_users() throws Exception {
+        assertEquals("stats-1", cache.getStatistics("alice-tab1", this::load));
+        assertEquals("stats-1", cache.getStatistics("alice-tab2", this::load));
+        // bob's rights are checked by the scheduler once
+        assertEquals("stats-2", cache.getStatistics("bob-tab1", this::load));
+        assertEquals("stats-2", cache.getStatistics("bob-tab1", this::load));
+        assertEquals("stats-2", cache.getStatistics("alice-tab1", this::load));
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(3, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void statistics_are_kept_during_their_time_to_live_when_the_revision_changes() throws Exception {
+        cache.getStatistics("alice-tab1", this::load);
+        revision = 2;
+
+        assertEquals("stats-1", cache.getStatistics("alice-tab2", this::load));
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    public void statistics_are_kept_after_their_time_to_live_while_the_revision_is_unchanged() throws Exception {
+        cache = newCache(1);
+        cache.getStatistics("alice-tab1", this::load);
+        Thread.sleep(10);
+
+        assertEquals("stats-1", cache.getStatistics("alice-tab2", this::load));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, cache.getRevisionHits());
+    }
+
+    @Test
+    public void statistics_are_refreshed_after_their_time_to_live_when_the_revision_changed() throws Exception {
+        cache = newCache(1);
+        cache.getStatistics("alice-tab1", this::load);
+        revision = 2;
+        Thread.sleep(10);
+
+        assertEquals("stats-2", cache.getStatistics("alice-tab1", this::load));
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(0, cache.getRevisionHits());
+    }
+
+    @Test
+    public void statistics_are_refreshed_after_their_time_to_live_when_the_revision_is_unknown() throws Exception {
+        cache = newCache(1);
+        revision = -1;
+        cache.getStatistics("alice-tab1", this::load);
+        Thread.sleep(10);
+
+        assertEquals("stats-2", cache.getStatistics("alice-tab1", this::load));
+    }
+
+    @Test
+    public void users_do_not_depend_on_the_revision() throws Exception {
+        cache.getSchedulerUsers("alice-tab1", this::load);
+        revision = 2;
+
+        assertEquals("stats-1", cache.getSchedulerUsers("alice-tab1", this::load));
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    public void account_statistics_are_kept_per_user() throws Exception {
+        assertEquals("stats-1", cache.getStatisticsOnMyAccount("alice-tab1", this::load));
+        assertEquals("stats-2", cache.getStatisticsOnMyAccount("bob-tab1", this::load));
+        assertEquals("stats-1", cache.getStatisticsOnMyAccount("alice-tab2", this::load));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    public void users_expire_after_their_time_to_live() throws Exception {
+        cache = newCache(1);
+        cache.getSchedulerUsers("alice-tab1", this::load);
+        Thread.sleep(10);
+
+        assertEquals("stats-2", cache.getSchedulerUsers("alice-tab1", this::load));
+    }
+
+    @Test
+    public void disabled_cache_always_queries_the_scheduler() throws Exception {
+        cache = newCache(0);
+        cache.getStatistics("alice-tab1", this::load);
+        cache.getStatistics("alice-tab1", this::load);
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void failures_are_not_cached() throws Exception {
+        cache = newCache(1);
+        cache.getStatisticsOnMyAccount("alice-tab1", this::load);
+        revision = 2;
+        Thread.sleep(10);
+        try {
+            cache.getStatisticsOnMyAccount("alice-tab1", () -> {
+                throw new RestServerException(500, "down");
+            });
+            fail();
+        } catch (RestServerException e) {
+            assertEquals(500, e.getStatus());
+        }
+
+        assertEquals("stats-2", cache.getStatisticsOnMyAccount("alice-tab1", this::load));
+    }
+
+    @Test
+    public void concurrent_requests_share_one_scheduler_call() throws Exception {
+        cache = newCache(1);
+        cache.getStatistics("alice-tab1", this::load);
+        revision = 2;
+        Thread.sleep(10);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.getStatistics("alice-tab1", () -> {
+                loading.countDown();
+                awaitQuietly(release);
+                return load();
+            })));
+            loading.await();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.getStatistics("alice-tab2", this::load)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("stats-2", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private SchedulerSnapshotCache newCache(long timeToLiveMillis) {
+        return new SchedulerSnapshotCache(new SessionLogins(sessionId -> sessionId.split("-")[0]),
+                                          () -> revision,
+                                          timeToLiveMillis);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String load() {
+        return "stats-" + upstreamCalls.incrementAndGet();
+    }
+}
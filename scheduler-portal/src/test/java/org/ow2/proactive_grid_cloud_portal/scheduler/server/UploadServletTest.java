@@ -0,0 +1,87 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.Random;
+
+import org.apache.commons.fileupload.FileItem;
+import org.apache.commons.fileupload.disk.DiskFileItemFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ow2.proactive_grid_cloud_portal.scheduler.shared.SchedulerConfig;
+
+import com.google.gwt.user.server.Base64Utils;
+
+
+public class UploadServletTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSpilledUploadIsStreamedToTheResponse() throws Exception {
+        int threshold = SchedulerConfig.get().getUploadSpillThreshold();
+        // not a multiple of the chunk size nor of 3, so that the last chunk is padded
+        byte[] content = new byte[threshold + 12345];
+        new Random(42).nextBytes(content);
+
+        FileItem item = upload(threshold, content);
+        assertFalse(item.isInMemory());
+
+        StringWriter response = new StringWriter();
+        UploadServlet.writeJobEdit(item.getInputStream(), response);
+
+        assertEquals("{ \"jobEdit\" : \"" + Base64Utils.toBase64(content) + "\" }", response.toString());
+        item.delete();
+    }
+
+    @Test
+    public void testEmptyUpload() throws Exception {
+        StringWriter response = new StringWriter();
+        UploadServlet.writeJobEdit(upload(1, new byte[0]).getInputStream(), response);
+
+        assertEquals("{ \"jobEdit\" : \"\" }", response.toString());
+    }
+
+    private FileItem upload(int threshold, byte[] content) throws Exception {
+        File repository = folder.newFolder();
+        FileItem item = new DiskFileItemFactory(threshold, repository).createItem("job",
+                                                                                  "application/xml",
+                                                                                  false,
+                                                                                  "job.xml");
+        try (OutputStream out = item.getOutputStream()) {
+            out.write(content);
+        }
+        return item;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive_grid_cloud_portal.scheduler.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.JobUsage;
+import org.ow2.proactive_grid_cloud_portal.scheduler.client.TaskUsage;
+
+
+public class UsageJsonReaderTest {
+
+    private static final String TASK = "{\"taskId\":\"t1\",\"taskName\":\"task\",\"taskStartTime\":10," +
+                                       "\"taskFinishedTime\":20,\"taskExecutionDuration\":10,\"taskNodeNumber\":1," +
+                                       "\"taskStatus\":\"FINISHED\",\"taskTag\":null,\"taskDescription\":\"desc\"," +
+                                       "\"executionHostName\":\"host\",\"numberOfExecutionLeft\":1," +
+                                       "\"numberOfExecutionOnFailureLeft\":2,\"maxNumberOfExecution\":2," +
+                                       "\"maxNumberOfExecutionOnFailure\":2}";
+
+    @Test
+    public void job_and_task_usages_are_read() throws Exception {
+        List<JobUsage> jobUsages = UsageJsonReader.readJobUsages(json("[" + job("1", "null", TASK) + "," +
+                                                                      job("2", "1", "") + "]"));
+
+        assertEquals(2, jobUsages.size());
+        JobUsage first = jobUsages.get(0);
+        assertEquals("admin", first.getOwner());
+        assertEquals("", first.getTenant());
+        assertEquals("1", first.getJobId());
+        assertEquals(42, first.getJobDuration());
+        assertNull(first.getParentId());
+        assertEquals(1, first.getTaskUsages().size());
+        TaskUsage task = first.getTaskUsages().get(0);
+        assertEquals("t1", task.getTaskId());
+        assertEquals("", task.getTaskTag());
+        assertEquals("host", task.getExecutionHostName());
+        assertEquals(1, task.getNumberOfExecutionLeft());
+        assertEquals(2, task.getMaxNumberOfExecutionOnFailure());
+
+        assertEquals(Long.valueOf(1), jobUsages.get(1).getParentId());
+        assertEquals(0, jobUsages.get(1).getTaskUsages().size());
+    }
+
+    @Test
+    public void job_usages_are_handled_before_the_array_is_fully_read() throws Exception {
+        List<String> handled = new ArrayList<>();
+        // the array is not terminated, jobs before the malformed end are still handed over
+        InputStream input = json("[" + job("1", "null", TASK) + "," + job("2", "null", TASK) + ",");
+        try {
+            UsageJsonReader.readJobUsages(input, jobUsage -> handled.add(jobUsage.getJobId()));
+            fail("truncated usage data should be reported");
+        } catch (IOException e) {
+            // expected
+        }
+        assertEquals(2, handled.size());
+        assertEquals("1", handled.get(0));
+        assertEquals("2", handled.get(1));
+    }
+
+    @Test(expected = IOException.class)
+    public void usage_data_must_be_an_array() throws Exception {
+        UsageJsonReader.readJobUsages(json("{\"error\":\"unauthorized\"}"));
+    }
+
+    private static String job(String jobId, String parentId, String tasks) {
+        return "{\"owner\":\"admin\",\"tenant\":null,\"project\":\"\",\"jobId\":\"" + jobId +
+               "\",\"jobName\":\"job\",\"jobDuration\":42,\"status\":\"FINISHED\",\"submittedTime\":5," +
+               "\"parentId\":" + parentId + ",\"taskUsages\":[" + tasks + "]}";
+    }
+
+    private static InputStream json(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}